@@ -1,8 +1,10 @@
 package controller;
 
+import dao.DaoRegistry;
 import dao.AttorneyDao;
 import model.Attorney;
 import model.Case;
+import model.SearchResult;
 
 import java.util.List;
 
@@ -11,12 +13,15 @@ import java.util.List;
  */
 public class AttorneyController {
     private AttorneyDao attorneyDao;
+    private SearchIndex searchIndex;
     
     /**
      * Constructor
      */
     public AttorneyController() {
-        this.attorneyDao = new AttorneyDao();
+        DaoRegistry daos = DaoRegistry.getDefault();
+        this.attorneyDao = daos.getAttorneyDao();
+        this.searchIndex = SearchIndex.getDefault();
     }
     
     /**
@@ -86,6 +91,9 @@ public class AttorneyController {
      */
     public boolean createAttorney(Attorney attorney) {
         int result = attorneyDao.createAttorney(attorney);
+        if (result > 0) {
+            searchIndex.put(attorney);
+        }
         return result > 0;
     }
     
@@ -97,6 +105,9 @@ public class AttorneyController {
      */
     public boolean updateAttorney(Attorney attorney) {
         int result = attorneyDao.updateAttorney(attorney);
+        if (result > 0) {
+            searchIndex.put(attorney);
+        }
         return result > 0;
     }
     
@@ -113,6 +124,9 @@ public class AttorneyController {
         }
         
         int result = attorneyDao.deleteAttorney(attorney.getId());
+        if (result > 0) {
+            searchIndex.remove(SearchResult.Type.ATTORNEY, attorney.getId());
+        }
         return result > 0;
     }
     
@@ -0,0 +1,216 @@
+package controller;
+
+import dao.DaoRegistry;
+import dao.InvoiceDao;
+import dao.TimeEntryDao;
+import model.BillingRunResult;
+import model.Invoice;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Controller for month-end billing runs. A run finds every case with
+ * unbilled time entries up to a cutoff date and creates one invoice per
+ * case, with batches of cases billed in parallel by a few worker threads.
+ * <p>
+ * Each invoice is created in its own transaction together with the billing
+ * of its time entries, so a run that fails part way or is cancelled leaves
+ * every case either fully invoiced or untouched. Running again with the
+ * same dates resumes it: invoiced cases have no unbilled entries left and
+ * are not picked up a second time.
+ */
+public class BillingRunController {
+    /** Cases a worker bills before taking the next batch */
+    public static final int BATCH_SIZE = 25;
+
+    /**
+     * Worker threads per run. Each holds at most one connection, plus one
+     * shared while reserving invoice numbers, so together with the UI's
+     * query threads a run stays within the default pool of ten connections.
+     */
+    public static final int WORKER_THREADS = 4;
+
+    /**
+     * Receives a run's progress
+     */
+    public interface ProgressListener {
+
+        /**
+         * Called from a worker thread after each case
+         *
+         * @param casesDone Number of cases processed so far
+         * @param casesTotal Number of cases in the run
+         */
+        void progressChanged(int casesDone, int casesTotal);
+    }
+
+    private InvoiceDao invoiceDao;
+    private TimeEntryDao timeEntryDao;
+    private SearchIndex searchIndex;
+
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor
+     */
+    public BillingRunController() {
+        DaoRegistry daos = DaoRegistry.getDefault();
+        this.invoiceDao = daos.getInvoiceDao();
+        this.timeEntryDao = daos.getTimeEntryDao();
+        this.searchIndex = SearchIndex.getDefault();
+    }
+
+    /**
+     * Invoice every case with unbilled time entries up to a cutoff date.
+     * Blocks until the run ends, so call it off the Event Dispatch Thread.
+     *
+     * @param cutoff Latest time entry date to bill
+     * @param dueDate Due date of the created invoices
+     * @param listener Receives progress, may be null
+     * @return The outcome of the run
+     */
+    public BillingRunResult runBilling(LocalDate cutoff, LocalDate dueDate, ProgressListener listener) {
+        cancelled = false;
+        long started = System.currentTimeMillis();
+
+        List<Integer> caseIds = timeEntryDao.findCaseIdsWithUnbilledTimeEntries(cutoff);
+        Tally tally = new Tally(caseIds.size(), listener);
+
+        if (!caseIds.isEmpty()) {
+            int batches = (caseIds.size() + BATCH_SIZE - 1) / BATCH_SIZE;
+            ExecutorService workers = Executors.newFixedThreadPool(Math.min(WORKER_THREADS, batches),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "billing-run-" + tally.threads.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+            for (int from = 0; from < caseIds.size(); from += BATCH_SIZE) {
+                List<Integer> batch = caseIds.subList(from, Math.min(from + BATCH_SIZE, caseIds.size()));
+                workers.submit(() -> billBatch(batch, cutoff, dueDate, tally));
+            }
+            workers.shutdown();
+
+            try {
+                workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                // Let the workers finish their current case, then stop
+                cancel();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        return tally.toResult(cutoff, dueDate, cancelled, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Run an earlier billing run again for the cases it did not bill,
+     * whether they failed or were not reached before it was cancelled
+     *
+     * @param previous The earlier run
+     * @param listener Receives progress, may be null
+     * @return The outcome of the new run
+     */
+    public BillingRunResult resume(BillingRunResult previous, ProgressListener listener) {
+        return runBilling(previous.getCutoff(), previous.getDueDate(), listener);
+    }
+
+    /**
+     * Stop the running billing run once its workers finish their current case
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private void billBatch(List<Integer> caseIds, LocalDate cutoff, LocalDate dueDate, Tally tally) {
+        for (int caseId : caseIds) {
+            if (cancelled) {
+                return;
+            }
+
+            try {
+                Invoice invoice = invoiceDao.billUnbilledTimeEntries(caseId, cutoff, dueDate);
+                if (invoice != null) {
+                    searchIndex.put(invoice);
+                    tally.invoiced(invoice);
+                } else {
+                    // Billed by someone else since the run started
+                    tally.skipped();
+                }
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                tally.failed(caseId);
+            }
+        }
+    }
+
+    /**
+     * Running totals of a billing run, updated by all its workers
+     */
+    private static final class Tally {
+        private final int casesTotal;
+        private final ProgressListener listener;
+        private final AtomicInteger threads = new AtomicInteger();
+
+        // Guarded by this
+        private int casesDone;
+        private int invoicesCreated;
+        private int casesSkipped;
+        private int entriesBilled;
+        private BigDecimal amountBilled = BigDecimal.ZERO;
+        private final List<Integer> failedCaseIds = new ArrayList<>();
+
+        Tally(int casesTotal, ProgressListener listener) {
+            this.casesTotal = casesTotal;
+            this.listener = listener;
+        }
+
+        void invoiced(Invoice invoice) {
+            int done;
+            synchronized (this) {
+                invoicesCreated++;
+                entriesBilled += invoice.getTimeEntries().size();
+                amountBilled = amountBilled.add(invoice.getAmount());
+                done = ++casesDone;
+            }
+            report(done);
+        }
+
+        void skipped() {
+            int done;
+            synchronized (this) {
+                casesSkipped++;
+                done = ++casesDone;
+            }
+            report(done);
+        }
+
+        void failed(int caseId) {
+            int done;
+            synchronized (this) {
+                failedCaseIds.add(caseId);
+                done = ++casesDone;
+            }
+            report(done);
+        }
+
+        private void report(int done) {
+            if (listener != null) {
+                listener.progressChanged(done, casesTotal);
+            }
+        }
+
+        synchronized BillingRunResult toResult(LocalDate cutoff, LocalDate dueDate, boolean cancelled,
+                                               long elapsedMillis) {
+            return new BillingRunResult(cutoff, dueDate, casesTotal, invoicesCreated, casesSkipped,
+                    entriesBilled, amountBilled, failedCaseIds, cancelled, elapsedMillis);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package controller;
 
+import dao.DaoRegistry;
+import dao.Page;
+import dao.PageRequest;
 import dao.CaseDao;
+import dao.CaseFetchPlan;
 import dao.ClientDao;
 import dao.AttorneyDao;
 import dao.DocumentDao;
@@ -12,6 +16,7 @@ import model.Attorney;
 import model.Document;
 import model.Event;
 import model.TimeEntry;
+import model.SearchResult;
 
 import java.util.List;
 import java.time.LocalDate;
@@ -26,17 +31,20 @@ public class CaseController {
     private DocumentDao documentDao;
     private EventDao eventDao;
     private TimeEntryDao timeEntryDao;
+    private SearchIndex searchIndex;
     
     /**
      * Constructor
      */
     public CaseController() {
-        this.caseDao = new CaseDao();
-        this.clientDao = new ClientDao();
-        this.attorneyDao = new AttorneyDao();
-        this.documentDao = new DocumentDao();
-        this.eventDao = new EventDao();
-        this.timeEntryDao = new TimeEntryDao();
+        DaoRegistry daos = DaoRegistry.getDefault();
+        this.caseDao = daos.getCaseDao();
+        this.clientDao = daos.getClientDao();
+        this.attorneyDao = daos.getAttorneyDao();
+        this.documentDao = daos.getDocumentDao();
+        this.eventDao = daos.getEventDao();
+        this.timeEntryDao = daos.getTimeEntryDao();
+        this.searchIndex = SearchIndex.getDefault();
     }
     
     /**
@@ -48,6 +56,16 @@ public class CaseController {
         return caseDao.findAllCases();
     }
     
+    /**
+     * Get one page of cases
+     * 
+     * @param request The page request
+     * @return The page of cases
+     */
+    public Page<Case> getCasesPage(PageRequest request) {
+        return caseDao.findCasesPage(request);
+    }
+    
     /**
      * Get a case by ID
      * 
@@ -78,6 +96,17 @@ public class CaseController {
         return caseDao.getCaseWithDetails(id);
     }
     
+    /**
+     * Get a case with the associations named in a fetch plan
+     * 
+     * @param id The case ID
+     * @param plan The associations to load
+     * @return The case with the requested associations loaded
+     */
+    public Case getCase(int id, CaseFetchPlan plan) {
+        return caseDao.findCase(id, plan);
+    }
+    
     /**
      * Find cases by client
      * 
@@ -146,15 +175,32 @@ public class CaseController {
      * @return true if successful
      */
     public boolean createCase(Case legalCase) {
+        // Generate case number if not set
+        if (legalCase.getCaseNumber() == null || legalCase.getCaseNumber().isEmpty()) {
+            legalCase.setCaseNumber(caseDao.generateNextCaseNumber());
+        }
+        
         // Set file date if not set
         if (legalCase.getFileDate() == null) {
             legalCase.setFileDate(LocalDate.now());
         }
         
         int result = caseDao.createCase(legalCase);
+        if (result > 0) {
+            searchIndex.put(legalCase);
+        }
         return result > 0;
     }
     
+    /**
+     * Generate the next case number
+     * 
+     * @return The case number
+     */
+    public String generateNextCaseNumber() {
+        return caseDao.generateNextCaseNumber();
+    }
+    
     /**
      * Update an existing case
      * 
@@ -163,6 +209,9 @@ public class CaseController {
      */
     public boolean updateCase(Case legalCase) {
         int result = caseDao.updateCase(legalCase);
+        if (result > 0) {
+            searchIndex.put(legalCase);
+        }
         return result > 0;
     }
     
@@ -175,6 +224,9 @@ public class CaseController {
      */
     public boolean updateCaseStatus(int caseId, String status) {
         int result = caseDao.updateCaseStatus(caseId, status);
+        if (result > 0) {
+            searchIndex.put(caseDao.findCaseById(caseId));
+        }
         return result > 0;
     }
     
@@ -186,6 +238,9 @@ public class CaseController {
      */
     public boolean deleteCase(int caseId) {
         int result = caseDao.deleteCase(caseId);
+        if (result > 0) {
+            searchIndex.remove(SearchResult.Type.CASE, caseId);
+        }
         return result > 0;
     }
     
@@ -1,9 +1,13 @@
 package controller;
 
+import dao.DaoRegistry;
+import dao.Page;
+import dao.PageRequest;
 import dao.ClientDao;
 import dao.CaseDao;
 import model.Client;
 import model.Case;
+import model.SearchResult;
 
 import java.util.List;
 import java.time.LocalDate;
@@ -14,13 +18,16 @@ import java.time.LocalDate;
 public class ClientController {
     private ClientDao clientDao;
     private CaseDao caseDao;
+    private SearchIndex searchIndex;
     
     /**
      * Constructor
      */
     public ClientController() {
-        this.clientDao = new ClientDao();
-        this.caseDao = new CaseDao();
+        DaoRegistry daos = DaoRegistry.getDefault();
+        this.clientDao = daos.getClientDao();
+        this.caseDao = daos.getCaseDao();
+        this.searchIndex = SearchIndex.getDefault();
     }
     
     /**
@@ -32,6 +39,16 @@ public class ClientController {
         return clientDao.findAllClients();
     }
     
+    /**
+     * Get one page of clients
+     * 
+     * @param request The page request
+     * @return The page of clients
+     */
+    public Page<Client> getClientsPage(PageRequest request) {
+        return clientDao.findClientsPage(request);
+    }
+    
     /**
      * Get a client by ID
      * 
@@ -89,15 +106,32 @@ public class ClientController {
      * @return true if successful
      */
     public boolean createClient(Client client) {
+        // Generate client ID if not set
+        if (client.getClientId() == null || client.getClientId().isEmpty()) {
+            client.setClientId(clientDao.generateNextClientId());
+        }
+        
         // Set registration date if not set
         if (client.getRegistrationDate() == null) {
             client.setRegistrationDate(LocalDate.now());
         }
         
         int result = clientDao.createClient(client);
+        if (result > 0) {
+            searchIndex.put(client);
+        }
         return result > 0;
     }
     
+    /**
+     * Generate the next client ID
+     * 
+     * @return The client ID
+     */
+    public String generateNextClientId() {
+        return clientDao.generateNextClientId();
+    }
+    
     /**
      * Update an existing client
      * 
@@ -106,6 +140,9 @@ public class ClientController {
      */
     public boolean updateClient(Client client) {
         int result = clientDao.updateClient(client);
+        if (result > 0) {
+            searchIndex.put(client);
+        }
         return result > 0;
     }
     
@@ -128,6 +165,9 @@ public class ClientController {
         }
         
         int result = clientDao.deleteClient(client.getId());
+        if (result > 0) {
+            searchIndex.remove(SearchResult.Type.CLIENT, client.getId());
+        }
         return result > 0;
     }
     
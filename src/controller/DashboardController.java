@@ -0,0 +1,63 @@
+package controller;
+
+import dao.DaoRegistry;
+import dao.DashboardDao;
+import model.DashboardStatistics;
+
+/**
+ * Controller for the dashboard statistics.
+ * Statistics are cached for a short time so switching back to the
+ * dashboard does not query the database every time.
+ */
+public class DashboardController {
+    /** How long loaded statistics are reused, in milliseconds */
+    public static final long STATISTICS_TTL_MILLIS = 30_000;
+    
+    private DashboardDao dashboardDao;
+    
+    private DashboardStatistics cachedStatistics;
+    private long cachedAt;
+    
+    /**
+     * Constructor
+     */
+    public DashboardController() {
+        this.dashboardDao = DaoRegistry.getDefault().getDashboardDao();
+    }
+    
+    /**
+     * Get the dashboard statistics, reusing recently loaded figures
+     * 
+     * @return The statistics, or null if they could not be loaded
+     */
+    public synchronized DashboardStatistics getStatistics() {
+        if (cachedStatistics != null
+                && System.currentTimeMillis() - cachedAt < STATISTICS_TTL_MILLIS) {
+            return cachedStatistics;
+        }
+        return refreshStatistics();
+    }
+    
+    /**
+     * Load the dashboard statistics from the database, bypassing the cache
+     * 
+     * @return The statistics, or null if they could not be loaded
+     */
+    public synchronized DashboardStatistics refreshStatistics() {
+        DashboardStatistics statistics = dashboardDao.loadStatistics();
+        
+        // Failed loads are not cached so the next request retries
+        if (statistics != null) {
+            cachedStatistics = statistics;
+            cachedAt = System.currentTimeMillis();
+        }
+        return statistics;
+    }
+    
+    /**
+     * Discard cached statistics so the next request reloads them
+     */
+    public synchronized void invalidateStatistics() {
+        cachedStatistics = null;
+    }
+}
@@ -1,39 +1,79 @@
 package controller;
 
+import dao.DaoRegistry;
+import dao.Page;
+import dao.PageRequest;
 import dao.DocumentDao;
+import dao.DocumentTextDao;
 import dao.CaseDao;
+import model.CompressionStatistics;
 import model.Document;
 import model.Case;
+import model.SearchResult;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.time.LocalDate;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 
 /**
  * Controller for document-related operations.
  */
 public class DocumentController {
+    /** Bytes copied between progress reports and cancellation checks */
+    public static final long TRANSFER_CHUNK_SIZE = 8L * 1024 * 1024;
+    
+    /** Largest width or height of a thumbnail, in pixels */
+    public static final int THUMBNAIL_SIZE = 160;
+    
+    /**
+     * Receives the progress of a file upload or download
+     */
+    public interface TransferListener {
+        
+        /**
+         * Called from the transferring thread after each chunk
+         * 
+         * @param bytesDone Number of bytes copied so far
+         * @param bytesTotal Size of the file
+         * @return false to cancel the transfer
+         */
+        boolean bytesTransferred(long bytesDone, long bytesTotal);
+    }
+    
     private DocumentDao documentDao;
+    private DocumentTextDao documentTextDao;
     private CaseDao caseDao;
-    private final String UPLOAD_DIRECTORY = "uploads/documents/";
+    private SearchIndex searchIndex;
+    private DocumentIndexer documentIndexer;
+    private final DocumentStore documentStore = new DocumentStore();
+    private final ThumbnailCache thumbnailCache = ThumbnailCache.getDefault();
     
     /**
      * Constructor
      */
     public DocumentController() {
-        this.documentDao = new DocumentDao();
-        this.caseDao = new CaseDao();
-        
-        // Ensure upload directory exists
-        File directory = new File(UPLOAD_DIRECTORY);
-        if (!directory.exists()) {
-            directory.mkdirs();
-        }
+        DaoRegistry daos = DaoRegistry.getDefault();
+        this.documentDao = daos.getDocumentDao();
+        this.documentTextDao = daos.getDocumentTextDao();
+        this.caseDao = daos.getCaseDao();
+        this.searchIndex = SearchIndex.getDefault();
+        this.documentIndexer = DocumentIndexer.getDefault();
     }
     
     /**
@@ -45,6 +85,16 @@ public class DocumentController {
         return documentDao.findAllDocuments();
     }
     
+    /**
+     * Get one page of documents
+     * 
+     * @param request The page request
+     * @return The page of documents
+     */
+    public Page<Document> getDocumentsPage(PageRequest request) {
+        return documentDao.findDocumentsPage(request);
+    }
+    
     /**
      * Get a document by ID
      * 
@@ -85,6 +135,17 @@ public class DocumentController {
         return documentDao.findDocumentsByText(searchText);
     }
     
+    /**
+     * Find documents by the text of their files. Only documents whose
+     * text has been extracted by the background indexer are found.
+     * 
+     * @param searchText Text to search for; every word must match
+     * @return List of matching documents, best match first
+     */
+    public List<Document> findDocumentsByContent(String searchText) {
+        return documentDao.findDocumentsByIds(documentTextDao.findDocumentIdsByContent(searchText));
+    }
+    
     /**
      * Find documents by type
      * 
@@ -124,18 +185,36 @@ public class DocumentController {
      * @return true if successful
      */
     public boolean createDocument(Document document, File file) {
+        return createDocument(document, file, null);
+    }
+    
+    /**
+     * Create a new document record and stream the file into the document
+     * store, which keeps a single copy of files uploaded more than once.
+     * Blocks until the file is copied, so call it off the Event Dispatch
+     * Thread for large files.
+     * 
+     * @param document The document to create
+     * @param file The uploaded file
+     * @param listener Receives progress and may cancel the upload, may be null
+     * @return true if successful, false if it failed or was cancelled
+     */
+    public boolean createDocument(Document document, File file, TransferListener listener) {
         try {
-            // Generate file path
-            String fileName = System.currentTimeMillis() + "_" + file.getName();
-            String filePath = UPLOAD_DIRECTORY + fileName;
-            
-            // Copy file to upload directory
-            Path targetPath = Paths.get(filePath);
-            Files.copy(file.toPath(), targetPath, StandardCopyOption.REPLACE_EXISTING);
+            // Store the file, or find the copy already stored
+            String filePath = documentStore.store(file.toPath(), file.getName(), listener);
+            if (filePath == null) {
+                return false;
+            }
             
             // Set file path in document
             document.setFilePath(filePath);
             
+            // Generate document ID if not set
+            if (document.getDocumentId() == null || document.getDocumentId().isEmpty()) {
+                document.setDocumentId(documentDao.generateNextDocumentId());
+            }
+            
             // Set date added if not set
             if (document.getDateAdded() == null) {
                 document.setDateAdded(LocalDate.now());
@@ -143,6 +222,15 @@ public class DocumentController {
             
             // Save document record
             int result = documentDao.createDocument(document);
+            if (result > 0) {
+                // Deleting the last other document may have removed the stored file meanwhile
+                documentStore.ensureStored(filePath, file.toPath());
+                searchIndex.put(document);
+                documentIndexer.enqueue(document.getId());
+            } else {
+                // Don't leave an unreferenced copy behind
+                releaseFile(filePath);
+            }
             return result > 0;
             
         } catch (IOException e) {
@@ -151,6 +239,15 @@ public class DocumentController {
         }
     }
     
+    /**
+     * Generate the next document ID
+     * 
+     * @return The document ID
+     */
+    public String generateNextDocumentId() {
+        return documentDao.generateNextDocumentId();
+    }
+    
     /**
      * Update an existing document
      * 
@@ -159,6 +256,9 @@ public class DocumentController {
      */
     public boolean updateDocument(Document document) {
         int result = documentDao.updateDocument(document);
+        if (result > 0) {
+            searchIndex.put(document);
+        }
         return result > 0;
     }
     
@@ -171,6 +271,9 @@ public class DocumentController {
      */
     public boolean updateDocumentStatus(int documentId, String status) {
         int result = documentDao.updateDocumentStatus(documentId, status);
+        if (result > 0) {
+            searchIndex.put(documentDao.findDocumentById(documentId));
+        }
         return result > 0;
     }
     
@@ -188,15 +291,18 @@ public class DocumentController {
                 return false;
             }
             
-            // Delete file if exists
-            String filePath = document.getFilePath();
-            if (filePath != null && !filePath.isEmpty()) {
-                Path path = Paths.get(filePath);
-                Files.deleteIfExists(path);
-            }
-            
             // Delete database record
             int result = documentDao.deleteDocument(documentId);
+            if (result > 0) {
+                searchIndex.remove(SearchResult.Type.DOCUMENT, documentId);
+                documentTextDao.deleteText(documentId);
+                
+                // Delete the file once no other document refers to it
+                String filePath = document.getFilePath();
+                if (filePath != null && !filePath.isEmpty()) {
+                    releaseFile(filePath);
+                }
+            }
             return result > 0;
             
         } catch (IOException e) {
@@ -206,7 +312,25 @@ public class DocumentController {
     }
     
     /**
-     * Get the file content of a document
+     * Delete a document's file unless other documents still refer to it
+     * 
+     * @param filePath The file path of a document that no longer exists
+     * @throws IOException If the file could not be deleted
+     */
+    private void releaseFile(String filePath) throws IOException {
+        if (documentStore.isBlob(filePath)) {
+            int references = documentDao.countDocumentsByFilePathPrefix(documentStore.referencePrefix(filePath));
+            if (references == 0) {
+                documentStore.delete(filePath);
+            }
+        } else {
+            documentStore.delete(filePath);
+        }
+    }
+    
+    /**
+     * Get the file content of a document. Reads the whole file into memory;
+     * use {@link #downloadDocument} for files of any size.
      * 
      * @param documentId The document ID
      * @return The file content as byte array, or null if error
@@ -218,8 +342,15 @@ public class DocumentController {
                 return null;
             }
             
-            Path path = Paths.get(document.getFilePath());
-            return Files.readAllBytes(path);
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            try (InputStream in = documentStore.open(document.getFilePath())) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    content.write(buffer, 0, read);
+                }
+            }
+            return content.toByteArray();
             
         } catch (IOException e) {
             e.printStackTrace();
@@ -227,6 +358,188 @@ public class DocumentController {
         }
     }
     
+    /**
+     * Stream the file of a document to a target file. Blocks until the
+     * file is copied, so call it off the Event Dispatch Thread.
+     * 
+     * @param documentId The document ID
+     * @param targetFile The file to save to; replaced only once the copy is complete
+     * @param listener Receives progress and may cancel the download, may be null
+     * @return true if successful, false if it failed or was cancelled
+     */
+    public boolean downloadDocument(int documentId, File targetFile, TransferListener listener) {
+        try {
+            Document document = documentDao.findDocumentById(documentId);
+            if (document == null || document.getFilePath() == null) {
+                return false;
+            }
+            
+            return documentStore.retrieve(document.getFilePath(), targetFile.toPath(), listener);
+            
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Open a document's file for previewing. Compressed files are first
+     * decompressed to a temporary file, which the preview deletes when
+     * closed; others are mapped where they are stored. Call it off the
+     * Event Dispatch Thread, and close the preview when done with it.
+     * 
+     * @param document The document
+     * @return The preview, or null if the file could not be opened
+     */
+    public DocumentPreview openPreview(Document document) {
+        String filePath = document.getFilePath();
+        if (filePath == null || filePath.isEmpty()) {
+            return null;
+        }
+        
+        Path temp = null;
+        try {
+            Path stored = documentStore.locate(filePath);
+            if (stored == null) {
+                return null;
+            }
+            
+            String fileName = new File(filePath).getName();
+            if (!documentStore.isCompressed(stored)) {
+                return new DocumentPreview(fileName, stored, null);
+            }
+            
+            temp = Files.createTempFile("preview", ".tmp");
+            try (InputStream in = documentStore.open(filePath)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            DocumentPreview preview = new DocumentPreview(fileName, temp, temp);
+            temp = null;
+            return preview;
+            
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Get the thumbnail of an image document, at most {@link #THUMBNAIL_SIZE}
+     * pixels wide and high. Thumbnails are cached in memory and on disk;
+     * generating one decodes the image subsampled, never at full size.
+     * Call it off the Event Dispatch Thread.
+     * 
+     * @param document The document
+     * @return The thumbnail, or null if the document is not an image or
+     *         its file could not be read
+     */
+    public BufferedImage getThumbnail(Document document) {
+        String filePath = document.getFilePath();
+        if (filePath == null || DocumentPreview.kindOf(new File(filePath).getName()) != DocumentPreview.Kind.IMAGE) {
+            return null;
+        }
+        
+        try {
+            Path stored = documentStore.locate(filePath);
+            if (stored == null) {
+                return null;
+            }
+            
+            return thumbnailCache.get(stored, () -> {
+                try (DocumentPreview preview = openPreview(document)) {
+                    return preview == null ? null : createThumbnail(preview);
+                }
+            });
+            
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Decode an image at the smallest subsampling still at least twice the
+     * thumbnail size, then scale it down smoothly
+     */
+    private static BufferedImage createThumbnail(DocumentPreview preview) throws IOException {
+        Dimension size = preview.getImageSize();
+        int longest = Math.max(size.width, size.height);
+        int subsampling = Math.max(1, longest / (THUMBNAIL_SIZE * 2));
+        BufferedImage decoded = preview.readImage(new Rectangle(size), subsampling);
+        
+        double scale = Math.min(1.0, (double) THUMBNAIL_SIZE / Math.max(decoded.getWidth(), decoded.getHeight()));
+        int width = Math.max(1, (int) Math.round(decoded.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(decoded.getHeight() * scale));
+        
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(decoded, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return thumbnail;
+    }
+    
+    /**
+     * Get how much disk space the stored document files take, by file
+     * type. Reads the size of every stored file, so call it off the Event
+     * Dispatch Thread. A file shared by several documents counts once.
+     * 
+     * @return Statistics per file name extension, in alphabetical order
+     */
+    public List<CompressionStatistics> getCompressionStatistics() {
+        // Files, compressed files, original bytes, stored bytes
+        Map<String, long[]> totals = new TreeMap<>();
+        Set<Path> counted = new HashSet<>();
+        
+        for (Document document : documentDao.findAllDocuments()) {
+            String filePath = document.getFilePath();
+            if (filePath == null || filePath.isEmpty()) {
+                continue;
+            }
+            
+            Path stored = documentStore.locate(filePath);
+            if (stored == null || !counted.add(stored)) {
+                continue;
+            }
+            
+            String fileName = new File(filePath).getName();
+            int dot = fileName.lastIndexOf('.');
+            String fileType = dot > 0 ? fileName.substring(dot + 1).toLowerCase() : "(none)";
+            
+            try {
+                long[] total = totals.computeIfAbsent(fileType, type -> new long[4]);
+                total[0]++;
+                if (documentStore.isCompressed(stored)) {
+                    total[1]++;
+                }
+                total[2] += documentStore.originalSize(stored);
+                total[3] += Files.size(stored);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        
+        List<CompressionStatistics> statistics = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+            long[] total = entry.getValue();
+            statistics.add(new CompressionStatistics(entry.getKey(), (int) total[0], (int) total[1],
+                    total[2], total[3]));
+        }
+        return statistics;
+    }
+    
     /**
      * Get available document types
      * 
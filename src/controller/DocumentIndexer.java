@@ -0,0 +1,129 @@
+package controller;
+
+import dao.DaoRegistry;
+import model.Document;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Application-wide background pipeline filling the content index. One
+ * low-priority thread takes document IDs from a work queue, extracts the
+ * text of each document's file and stores it in the document_texts table,
+ * whose full-text index is searched by {@link DocumentController#findDocumentsByContent}.
+ * On start the queue is seeded with every document not indexed yet, by
+ * any workstation; afterwards the document controller queues each upload.
+ * The index lives in the database, so it survives restarts and texts are
+ * extracted once for all workstations.
+ */
+final class DocumentIndexer {
+
+    private static final DocumentIndexer DEFAULT = new DocumentIndexer();
+
+    private final BlockingQueue<Integer> queue = new LinkedBlockingQueue<>();
+
+    // Documents queued or being extracted, so a document is never queued twice
+    private final Set<Integer> queued = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final DocumentStore documentStore = new DocumentStore();
+
+    private DocumentIndexer() {
+    }
+
+    /**
+     * Get the shared indexer
+     *
+     * @return The indexer
+     */
+    static DocumentIndexer getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Start the indexing thread unless already started. It first queues
+     * the documents whose text has not been extracted yet.
+     */
+    void start() {
+        if (started.compareAndSet(false, true)) {
+            Thread worker = new Thread(this::run, "document-indexer");
+            worker.setDaemon(true);
+            worker.setPriority(Thread.MIN_PRIORITY);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queue a document for text extraction. Documents queued before the
+     * indexer starts are extracted once it does.
+     *
+     * @param documentId The document's database ID
+     */
+    void enqueue(int documentId) {
+        if (queued.add(documentId)) {
+            queue.add(documentId);
+        }
+    }
+
+    private void run() {
+        for (int documentId : DaoRegistry.getDefault().getDocumentTextDao().findDocumentIdsWithoutText()) {
+            enqueue(documentId);
+        }
+
+        while (true) {
+            int documentId;
+            try {
+                documentId = queue.take();
+            } catch (InterruptedException ex) {
+                return;
+            }
+
+            try {
+                index(documentId);
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            } finally {
+                queued.remove(documentId);
+            }
+        }
+    }
+
+    /**
+     * Extract and store the text of one document
+     *
+     * @param documentId The document's database ID
+     */
+    private void index(int documentId) throws Exception {
+        // Looked up on every document so a reconnect to another database is followed
+        DaoRegistry daos = DaoRegistry.getDefault();
+
+        Document document = daos.getDocumentDao().findDocumentById(documentId);
+        if (document == null) {
+            // Deleted while queued
+            return;
+        }
+
+        String text = "";
+        String filePath = document.getFilePath();
+        String fileName = filePath == null ? null : new File(filePath).getName();
+        if (fileName != null && DocumentTextExtractor.isSupported(fileName)
+                && documentStore.locate(filePath) != null) {
+            try (InputStream in = documentStore.open(filePath)) {
+                text = DocumentTextExtractor.extract(in, fileName);
+            }
+        }
+
+        // Files without text get an empty row, so they are not extracted again
+        daos.getDocumentTextDao().saveText(documentId, text);
+
+        // The document may have been deleted during the extraction
+        if (daos.getDocumentDao().findDocumentById(documentId) == null) {
+            daos.getDocumentTextDao().deleteText(documentId);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package controller;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStreamImpl;
+
+/**
+ * Read-only view of a document's file for previewing it. The file is
+ * memory-mapped rather than read, so only the parts actually shown are
+ * paged in by the operating system and the heap holds no more than the
+ * page or image region on screen.
+ * <p>
+ * Text files are shown a page at a time, a page being a fixed-size slice
+ * of the file cut at character boundaries. Images are decoded a region at
+ * a time, optionally subsampled, so a large scan never has to be decoded
+ * at full size. Previews of other file types have no content.
+ * <p>
+ * A preview holds the file open until closed. Methods may be called from
+ * any thread, one at a time.
+ */
+public final class DocumentPreview implements AutoCloseable {
+
+    /**
+     * What a preview can show
+     */
+    public enum Kind {
+        TEXT, IMAGE, NONE
+    }
+
+    /** Bytes of text per page */
+    public static final int PAGE_SIZE = 64 * 1024;
+
+    // Text files are mapped in segments of this size, a multiple of the
+    // page size, so files over 2 GB can be mapped too
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    private static final Set<String> TEXT_TYPES = new HashSet<>(Arrays.asList(
+            "txt", "text", "csv", "tsv", "md", "log", "eml", "json", "xml", "html", "htm"));
+    private static final Set<String> IMAGE_TYPES = new HashSet<>(Arrays.asList(
+            "png", "jpg", "jpeg", "gif", "bmp"));
+
+    private final String fileName;
+    private final Kind kind;
+    private final FileChannel channel;
+    private final long size;
+
+    // Deleted on close: the decompressed copy of a compressed blob
+    private final Path temporaryFile;
+
+    // Mapped on first use; guarded by this
+    private final MappedByteBuffer[] segments;
+    private ImageReader imageReader;
+    private boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param fileName The document's file name, whose extension tells the kind
+     * @param file The uncompressed file to map
+     * @param temporaryFile The file to delete on close, or null
+     * @throws IOException If the file could not be opened
+     */
+    DocumentPreview(String fileName, Path file, Path temporaryFile) throws IOException {
+        this.fileName = fileName;
+        this.kind = kindOf(fileName);
+        this.temporaryFile = temporaryFile;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+    }
+
+    /**
+     * Get the kind of preview for a file name
+     *
+     * @param fileName The file name
+     * @return TEXT or IMAGE for files that can be previewed, NONE otherwise
+     */
+    static Kind kindOf(String fileName) {
+        int dot = fileName == null ? -1 : fileName.lastIndexOf('.');
+        String type = dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        if (TEXT_TYPES.contains(type)) {
+            return Kind.TEXT;
+        } else if (IMAGE_TYPES.contains(type)) {
+            return Kind.IMAGE;
+        }
+        return Kind.NONE;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the size of the file
+     *
+     * @return Size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Get the number of text pages
+     *
+     * @return Number of pages, at least 1 for text files, 0 otherwise
+     */
+    public int getPageCount() {
+        if (kind != Kind.TEXT) {
+            return 0;
+        }
+        return (int) Math.max(1, (size + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    /**
+     * Read one page of a text file, decoded as UTF-8. A character spanning
+     * a page boundary belongs to the page it starts on.
+     *
+     * @param page Page index, starting at 0
+     * @return The page's text
+     * @throws IOException If the file could not be mapped
+     */
+    public synchronized String readPage(int page) throws IOException {
+        if (kind != Kind.TEXT || page < 0 || page >= getPageCount()) {
+            throw new IllegalArgumentException("No page " + page + " in " + fileName);
+        }
+
+        long start = characterStart((long) page * PAGE_SIZE);
+        long end = characterStart(Math.min(size, (long) (page + 1) * PAGE_SIZE));
+
+        byte[] bytes = new byte[(int) (end - start)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = byteAt(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the dimensions of an image
+     *
+     * @return The size in pixels
+     * @throws IOException If the image could not be read
+     */
+    public synchronized Dimension getImageSize() throws IOException {
+        ImageReader reader = imageReader();
+        return new Dimension(reader.getWidth(0), reader.getHeight(0));
+    }
+
+    /**
+     * Decode a region of an image
+     *
+     * @param region The region in image pixels; clipped to the image
+     * @param subsampling Keep every nth pixel in each direction, 1 for full resolution
+     * @return The decoded region, 1/subsampling of the region's size
+     * @throws IOException If the image could not be read
+     */
+    public synchronized BufferedImage readImage(Rectangle region, int subsampling) throws IOException {
+        ImageReader reader = imageReader();
+        Rectangle clipped = region.intersection(new Rectangle(reader.getWidth(0), reader.getHeight(0)));
+        if (clipped.isEmpty()) {
+            throw new IllegalArgumentException("Region " + region + " is outside the image");
+        }
+
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceRegion(clipped);
+        param.setSourceSubsampling(Math.max(1, subsampling), Math.max(1, subsampling), 0, 0);
+        return reader.read(0, param);
+    }
+
+    /**
+     * Release the file. The mapping itself is released once the preview
+     * is garbage collected.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        if (imageReader != null) {
+            imageReader.dispose();
+            imageReader = null;
+        }
+        Arrays.fill(segments, null);
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        if (temporaryFile != null) {
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException e) {
+                // Windows keeps mapped files until the mapping is collected
+                temporaryFile.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    private ImageReader imageReader() throws IOException {
+        if (kind != Kind.IMAGE) {
+            throw new IllegalStateException(fileName + " is not an image");
+        }
+        if (imageReader == null) {
+            if (size == 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("Cannot preview image " + fileName + " of " + size + " bytes");
+            }
+            MappedImageInputStream input = new MappedImageInputStream(segment(0));
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + fileName);
+            }
+            imageReader = readers.next();
+            imageReader.setInput(input, false, true);
+        }
+        return imageReader;
+    }
+
+    private MappedByteBuffer segment(int index) throws IOException {
+        if (closed) {
+            throw new IOException("Preview of " + fileName + " is closed");
+        }
+        if (segments[index] == null) {
+            long offset = index * SEGMENT_SIZE;
+            segments[index] = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                    Math.min(SEGMENT_SIZE, size - offset));
+        }
+        return segments[index];
+    }
+
+    private byte byteAt(long position) throws IOException {
+        return segment((int) (position / SEGMENT_SIZE)).get((int) (position % SEGMENT_SIZE));
+    }
+
+    /**
+     * Move a position forward to the start of a UTF-8 character
+     */
+    private long characterStart(long position) throws IOException {
+        long limit = Math.min(size, position + 3);
+        while (position < limit && (byteAt(position) & 0xc0) == 0x80) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Image input over a mapped file, so image readers seek and read
+     * without buffering the file on the heap
+     */
+    private static final class MappedImageInputStream extends ImageInputStreamImpl {
+        private final ByteBuffer buffer;
+
+        MappedImageInputStream(MappedByteBuffer mapped) {
+            this.buffer = mapped.duplicate();
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkClosed();
+            bitOffset = 0;
+            if (streamPos >= buffer.limit()) {
+                return -1;
+            }
+            return buffer.get((int) streamPos++) & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkClosed();
+            bitOffset = 0;
+            if (streamPos >= buffer.limit()) {
+                return -1;
+            }
+            int count = (int) Math.min(len, buffer.limit() - streamPos);
+            buffer.position((int) streamPos);
+            buffer.get(b, off, count);
+            streamPos += count;
+            return count;
+        }
+
+        @Override
+        public long length() {
+            return buffer.limit();
+        }
+    }
+}
@@ -0,0 +1,528 @@
+package controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed store for uploaded document files. Each file is kept
+ * once under the SHA-256 of its content, sharded by the first two bytes
+ * of the hash, e.g. uploads/blobs/3f/a2/3fa2...e1, however many documents
+ * refer to it.
+ * <p>
+ * Files that compress well, such as text, HTML and uncompressed office
+ * formats, are stored gzipped with a .gz suffix on the blob and
+ * decompressed while streaming them back out. Whether a file compresses
+ * is decided from its first block: known compressed formats are skipped
+ * by their signature and anything else is trial compressed. The hash is
+ * taken over the original content, so deduplication does not depend on
+ * how a blob is stored.
+ * <p>
+ * A document's file path is the blob path followed by the original file
+ * name, e.g. uploads/blobs/3f/a2/3fa2...e1/Exhibit A.pdf, so the name
+ * shown to users survives deduplication. File paths of documents uploaded
+ * before the store existed point at the file itself and keep working.
+ */
+final class DocumentStore {
+
+    /** Root directory of the blobs */
+    static final String BLOB_DIRECTORY = "uploads/blobs/";
+
+    /** Suffix of blobs stored gzipped */
+    static final String COMPRESSED_SUFFIX = ".gz";
+
+    // Bytes read at a time while hashing an upload; the first block is also
+    // the sample that decides whether to compress
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    // Files smaller than this are stored as they are
+    private static final int MIN_COMPRESS_SIZE = 1024;
+
+    // Files this large or larger are stored as they are, since the gzip
+    // trailer records the original size modulo 4 GB
+    private static final long MAX_COMPRESS_SIZE = 1L << 32;
+
+    // Bytes of the sample trial compressed, and the largest compressed
+    // share of them at which compressing the file is still worthwhile
+    private static final int TRIAL_SIZE = 64 * 1024;
+    private static final double MAX_TRIAL_RATIO = 0.9;
+
+    // Leading bytes of formats that are compressed already
+    private static final byte[][] COMPRESSED_SIGNATURES = {
+        {'P', 'K', 3, 4},                                   // ZIP, DOCX, XLSX, ODT
+        {0x1f, (byte) 0x8b},                                // GZIP
+        {(byte) 0xff, (byte) 0xd8, (byte) 0xff},            // JPEG
+        {(byte) 0x89, 'P', 'N', 'G'},                       // PNG
+        {'G', 'I', 'F', '8'},                               // GIF
+        {'7', 'z', (byte) 0xbc, (byte) 0xaf},               // 7-Zip
+        {'R', 'a', 'r', '!'},                               // RAR
+        {'B', 'Z', 'h'},                                    // BZIP2
+        {(byte) 0xfd, '7', 'z', 'X', 'Z'},                  // XZ
+        {'I', 'D', '3'},                                    // MP3
+    };
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path root;
+    private final Path tempDirectory;
+
+    /**
+     * Constructor
+     */
+    DocumentStore() {
+        this.root = Paths.get(BLOB_DIRECTORY);
+        this.tempDirectory = root.resolve("tmp");
+    }
+
+    /**
+     * Stream a file into the store, hashing and, if worthwhile, compressing
+     * it on the way. The file is written to a temporary file first and only
+     * moved into place if no blob with the same content exists yet.
+     *
+     * @param source The file to store
+     * @param fileName The name to record with the blob
+     * @param listener Receives progress and may cancel the upload, may be null
+     * @return The file path to record for the document, or null if cancelled
+     * @throws IOException If the file could not be stored
+     */
+    String store(Path source, String fileName, DocumentController.TransferListener listener) throws IOException {
+        Files.createDirectories(tempDirectory);
+        Path temp = Files.createTempFile(tempDirectory, "upload", ".part");
+
+        try {
+            StoredContent content = copyAndHash(source, temp, listener);
+            if (content == null) {
+                return null;
+            }
+
+            if (locateBlob(content.hash) == null) {
+                Path blob = blobPath(content.hash);
+                Files.createDirectories(blob.getParent());
+                moveIntoPlace(temp, content.compressed ? compressedPath(blob) : blob);
+            }
+            return BLOB_DIRECTORY + relativeBlobPath(content.hash) + "/" + safeFileName(fileName);
+
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Put a blob back if it was deleted while a document referring to it
+     * was being saved, so a new reference never points at a missing file
+     *
+     * @param filePath The document's file path
+     * @param source The file the blob was stored from
+     * @throws IOException If the blob could not be restored
+     */
+    void ensureStored(String filePath, Path source) throws IOException {
+        if (isBlob(filePath) && locate(filePath) == null) {
+            store(source, null, null);
+        }
+    }
+
+    /**
+     * Get the file holding a document's content as stored, which may be compressed
+     *
+     * @param filePath The document's file path
+     * @return The stored file, or null if it does not exist
+     */
+    Path locate(String filePath) {
+        if (isBlob(filePath)) {
+            Path blob = Paths.get(filePath).getParent();
+            if (Files.exists(blob)) {
+                return blob;
+            }
+            Path compressed = compressedPath(blob);
+            return Files.exists(compressed) ? compressed : null;
+        }
+        Path path = Paths.get(filePath);
+        return Files.exists(path) ? path : null;
+    }
+
+    /**
+     * Check whether a stored file is compressed
+     *
+     * @param stored A stored file as returned by {@link #locate}
+     * @return true if the file is stored gzipped
+     */
+    boolean isCompressed(Path stored) {
+        return stored.getFileName().toString().endsWith(COMPRESSED_SUFFIX) && stored.startsWith(root);
+    }
+
+    /**
+     * Get the size of a stored file's original content. Compressed blobs
+     * record it modulo 4 GB in their gzip trailer, which is exact because
+     * only files under 4 GB are compressed.
+     *
+     * @param stored A stored file as returned by {@link #locate}
+     * @return The original size in bytes
+     * @throws IOException If the file could not be read
+     */
+    long originalSize(Path stored) throws IOException {
+        if (!isCompressed(stored)) {
+            return Files.size(stored);
+        }
+        try (FileChannel channel = FileChannel.open(stored, StandardOpenOption.READ)) {
+            ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(trailer, channel.size() - 4);
+            trailer.flip();
+            return trailer.getInt() & 0xffffffffL;
+        }
+    }
+
+    /**
+     * Open a document's content for reading, decompressing it if needed
+     *
+     * @param filePath The document's file path
+     * @return The content stream
+     * @throws IOException If the file does not exist or could not be opened
+     */
+    InputStream open(String filePath) throws IOException {
+        Path stored = locate(filePath);
+        if (stored == null) {
+            throw new IOException("Document file not found: " + filePath);
+        }
+        InputStream in = Files.newInputStream(stored);
+        return isCompressed(stored) ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+    }
+
+    /**
+     * Copy a document's content to a file. Uncompressed files are copied
+     * channel to channel in fixed-size chunks, which the operating system
+     * can move without passing the data through the heap; compressed ones
+     * are decompressed through one buffer. Either way the copy goes to a
+     * temporary file next to the target, renamed over the target once
+     * complete, so a cancelled or failed copy never leaves a truncated
+     * file behind.
+     *
+     * @param filePath The document's file path
+     * @param target The file to create or replace
+     * @param listener Receives progress and may cancel the copy, may be null
+     * @return true if the file was copied, false if the copy was cancelled
+     * @throws IOException If the file does not exist or the copy fails
+     */
+    boolean retrieve(String filePath, Path target, DocumentController.TransferListener listener)
+            throws IOException {
+        Path stored = locate(filePath);
+        if (stored == null) {
+            throw new IOException("Document file not found: " + filePath);
+        }
+
+        Path absoluteTarget = target.toAbsolutePath();
+        Path partial = absoluteTarget.resolveSibling(absoluteTarget.getFileName() + ".part");
+        boolean complete = false;
+
+        try {
+            try (FileChannel in = FileChannel.open(stored, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(partial, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                boolean copied = isCompressed(stored)
+                        ? decompress(in, out, listener)
+                        : transfer(in, out, listener);
+                if (!copied) {
+                    return false;
+                }
+            }
+
+            try {
+                Files.move(partial, absoluteTarget, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(partial, absoluteTarget, StandardCopyOption.REPLACE_EXISTING);
+            }
+            complete = true;
+            return true;
+
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(partial);
+            }
+        }
+    }
+
+    /**
+     * Check whether a file path refers to a blob in the store
+     *
+     * @param filePath The document's file path
+     * @return true for blobs, false for files uploaded before the store existed
+     */
+    boolean isBlob(String filePath) {
+        return filePath.startsWith(BLOB_DIRECTORY);
+    }
+
+    /**
+     * Get the prefix shared by the file paths of all documents referring
+     * to the same blob, used to count its references
+     *
+     * @param filePath A blob file path
+     * @return The blob path followed by a slash
+     */
+    String referencePrefix(String filePath) {
+        return filePath.substring(0, filePath.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Delete the file of a document nothing refers to anymore
+     *
+     * @param filePath The document's file path
+     * @throws IOException If the file could not be deleted
+     */
+    void delete(String filePath) throws IOException {
+        if (isBlob(filePath)) {
+            Path blob = Paths.get(filePath).getParent();
+            Files.deleteIfExists(blob);
+            Files.deleteIfExists(compressedPath(blob));
+        } else {
+            Files.deleteIfExists(Paths.get(filePath));
+        }
+    }
+
+    /**
+     * Copies a file while computing the SHA-256 of its content, reading
+     * through one fixed-size buffer so memory use does not depend on the
+     * file size. The copy is gzipped if the first block shows it is worth it.
+     *
+     * @return The hash and how the copy was written, or null if cancelled
+     */
+    private StoredContent copyAndHash(Path source, Path target, DocumentController.TransferListener listener)
+            throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        boolean compressed = false;
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            long reported = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            OutputStream out = Channels.newOutputStream(channel);
+
+            try {
+                int read;
+                while ((read = readFully(in, buffer)) > 0) {
+                    if (position == 0 && size < MAX_COMPRESS_SIZE && isCompressible(buffer.array(), read)) {
+                        out = new GZIPOutputStream(out, BUFFER_SIZE);
+                        compressed = true;
+                    }
+
+                    digest.update(buffer.array(), 0, read);
+                    out.write(buffer.array(), 0, read);
+                    position += read;
+                    buffer.clear();
+
+                    if (listener != null && (position - reported >= DocumentController.TRANSFER_CHUNK_SIZE
+                            || position >= size)) {
+                        reported = position;
+                        if (!listener.bytesTransferred(position, size)) {
+                            return null;
+                        }
+                    }
+                }
+            } finally {
+                // Writes the gzip trailer and releases the deflater
+                out.close();
+            }
+        }
+
+        byte[] hash = digest.digest();
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[i * 2] = HEX[(hash[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX[hash[i] & 0xf];
+        }
+        return new StoredContent(new String(hex), compressed);
+    }
+
+    /**
+     * Fills the buffer unless the end of the file comes first, so the first
+     * block is a full sample
+     *
+     * @return Number of bytes read, 0 at the end of the file
+     */
+    private static int readFully(FileChannel in, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && in.read(buffer) != -1) {
+            // Keep reading
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Decides from the start of a file whether compressing it is worthwhile
+     *
+     * @param sample The first bytes of the file
+     * @param length Number of bytes in the sample
+     * @return true if the file should be stored compressed
+     */
+    private static boolean isCompressible(byte[] sample, int length) {
+        if (length < MIN_COMPRESS_SIZE) {
+            return false;
+        }
+
+        for (byte[] signature : COMPRESSED_SIGNATURES) {
+            if (startsWith(sample, signature)) {
+                return false;
+            }
+        }
+
+        // MP4, MOV and other ISO media files carry their signature at offset 4
+        if (sample[4] == 'f' && sample[5] == 't' && sample[6] == 'y' && sample[7] == 'p') {
+            return false;
+        }
+
+        // Anything else, PDF included, is judged by how well its start compresses
+        int trialLength = Math.min(length, TRIAL_SIZE);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(sample, 0, trialLength);
+            deflater.finish();
+            byte[] output = new byte[trialLength];
+            int compressedLength = 0;
+            while (!deflater.finished() && compressedLength < output.length) {
+                compressedLength += deflater.deflate(output, compressedLength, output.length - compressedLength);
+            }
+            return deflater.finished() && compressedLength <= trialLength * MAX_TRIAL_RATIO;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean transfer(FileChannel in, FileChannel out, DocumentController.TransferListener listener)
+            throws IOException {
+        long size = in.size();
+        long position = 0;
+
+        while (position < size) {
+            long copied = in.transferTo(position, Math.min(DocumentController.TRANSFER_CHUNK_SIZE, size - position), out);
+            if (copied <= 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            position += copied;
+            if (listener != null && !listener.bytesTransferred(position, size)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decompresses a gzipped blob, reporting progress in compressed bytes
+     * read since the original size is not known up front
+     */
+    private boolean decompress(FileChannel in, FileChannel out, DocumentController.TransferListener listener)
+            throws IOException {
+        long size = in.size();
+        long reported = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        try (InputStream gzip = new GZIPInputStream(Channels.newInputStream(in), BUFFER_SIZE)) {
+            OutputStream target = Channels.newOutputStream(out);
+            int read;
+            while ((read = gzip.read(buffer)) != -1) {
+                target.write(buffer, 0, read);
+
+                long position = in.position();
+                if (listener != null && position - reported >= DocumentController.TRANSFER_CHUNK_SIZE) {
+                    reported = position;
+                    if (!listener.bytesTransferred(position, size)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return listener == null || listener.bytesTransferred(size, size);
+    }
+
+    private void moveIntoPlace(Path temp, Path blob) throws IOException {
+        try {
+            Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(temp, blob);
+            } catch (FileAlreadyExistsException alreadyStored) {
+                // Stored by a concurrent upload of the same content
+            }
+        } catch (FileAlreadyExistsException alreadyStored) {
+            // Stored by a concurrent upload of the same content
+        }
+    }
+
+    /**
+     * Finds the blob for a hash, compressed or not
+     *
+     * @return The stored file, or null if there is none
+     */
+    private Path locateBlob(String hash) {
+        Path blob = blobPath(hash);
+        if (Files.exists(blob)) {
+            return blob;
+        }
+        Path compressed = compressedPath(blob);
+        return Files.exists(compressed) ? compressed : null;
+    }
+
+    private Path blobPath(String hash) {
+        return root.resolve(relativeBlobPath(hash));
+    }
+
+    private static Path compressedPath(Path blob) {
+        return blob.resolveSibling(blob.getFileName() + COMPRESSED_SUFFIX);
+    }
+
+    private static String relativeBlobPath(String hash) {
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+
+    private static String safeFileName(String fileName) {
+        // The name is the last path segment, so it must be there and hold no separators
+        if (fileName == null || fileName.isEmpty()) {
+            return "document";
+        }
+        return fileName.replace('/', '_').replace('\\', '_');
+    }
+
+    /**
+     * Hash of an upload's content and whether its copy was compressed
+     */
+    private static final class StoredContent {
+        final String hash;
+        final boolean compressed;
+
+        StoredContent(String hash, boolean compressed) {
+            this.hash = hash;
+            this.compressed = compressed;
+        }
+    }
+}
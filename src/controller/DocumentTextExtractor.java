@@ -0,0 +1,744 @@
+package controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Pulls the plain text out of document files for the content index. Plain
+ * text, HTML and XML, RTF, the zipped XML office formats (Word, Excel and
+ * PowerPoint 2007 and later, OpenDocument) and PDFs with simply encoded
+ * fonts are understood; other files have no extractable text. Parsing is
+ * deliberately forgiving: formatting is dropped, and whatever text can be
+ * recovered from a damaged or unusual file is returned rather than an error.
+ */
+final class DocumentTextExtractor {
+
+    /** Characters kept per document; the rest of a longer text is not indexed */
+    static final int MAX_TEXT_LENGTH = 1_000_000;
+
+    // Bytes read from a PDF or from one entry of an office file, so a
+    // huge or maliciously compressed file cannot exhaust the heap
+    private static final int MAX_INPUT_BYTES = 64 * 1024 * 1024;
+
+    private static final Set<String> PLAIN_TEXT_TYPES = new HashSet<>(Arrays.asList(
+            "txt", "text", "csv", "tsv", "md", "log", "eml", "json"));
+    private static final Set<String> MARKUP_TYPES = new HashSet<>(Arrays.asList(
+            "html", "htm", "xhtml", "xml"));
+    private static final Set<String> OFFICE_TYPES = new HashSet<>(Arrays.asList(
+            "docx", "docm", "dotx", "xlsx", "xlsm", "pptx", "pptm", "odt", "ods", "odp"));
+
+    // Zip entries holding the text of the office formats
+    private static final Pattern OFFICE_TEXT_ENTRY = Pattern.compile(
+            "word/(document|header\\d*|footer\\d*|footnotes|endnotes)\\.xml" +
+            "|xl/sharedStrings\\.xml|ppt/slides/slide\\d+\\.xml|ppt/notesSlides/notesSlide\\d+\\.xml" +
+            "|content\\.xml");
+
+    // Elements ending a line: paragraphs, table cells and rows, list items,
+    // spreadsheet strings and line breaks of HTML and the office formats
+    private static final Set<String> LINE_BREAK_ELEMENTS = new HashSet<>(Arrays.asList(
+            "p", "div", "br", "li", "tr", "td", "th", "h1", "h2", "h3", "h4", "h5", "h6",
+            "title", "pre", "blockquote", "table", "ul", "ol",
+            "w:p", "w:br", "w:cr", "w:tab", "w:tc", "a:p", "a:br", "si",
+            "text:p", "text:h", "text:line-break", "text:tab", "table:table-cell"));
+
+    // HTML elements whose content is not text
+    private static final Set<String> SKIPPED_ELEMENTS = new HashSet<>(Arrays.asList(
+            "script", "style"));
+
+    // RTF groups holding fonts, styles, metadata and pictures rather than text
+    private static final Set<String> RTF_SKIPPED_DESTINATIONS = new HashSet<>(Arrays.asList(
+            "fonttbl", "colortbl", "stylesheet", "info", "pict", "listtable",
+            "listoverridetable", "rsidtbl", "generator", "xmlnstbl"));
+
+    // Characters of the single-byte codes used by RTF and simple PDF fonts
+    private static final char[] WINDOWS_1252 = windows1252();
+
+    private DocumentTextExtractor() {
+    }
+
+    /**
+     * Check whether text can be extracted from files of a type
+     *
+     * @param fileName The file name
+     * @return true if the file name extension is a supported format
+     */
+    static boolean isSupported(String fileName) {
+        String type = fileType(fileName);
+        return PLAIN_TEXT_TYPES.contains(type) || MARKUP_TYPES.contains(type)
+                || OFFICE_TYPES.contains(type) || "rtf".equals(type) || "pdf".equals(type);
+    }
+
+    /**
+     * Extract the text of a file
+     *
+     * @param in The file content; not closed
+     * @param fileName The file name, whose extension tells the format
+     * @return The text, at most {@link #MAX_TEXT_LENGTH} characters, or
+     *         an empty string if the format is not supported
+     * @throws IOException If the content could not be read
+     */
+    static String extract(InputStream in, String fileName) throws IOException {
+        String type = fileType(fileName);
+        TextBuilder text = new TextBuilder();
+
+        if (PLAIN_TEXT_TYPES.contains(type)) {
+            readText(new InputStreamReader(in, StandardCharsets.UTF_8), text);
+        } else if (MARKUP_TYPES.contains(type)) {
+            StringBuilder markup = new StringBuilder();
+            readText(new InputStreamReader(in, StandardCharsets.UTF_8), markup, MAX_INPUT_BYTES);
+            extractMarkup(markup, text);
+        } else if (OFFICE_TYPES.contains(type)) {
+            extractOffice(in, text);
+        } else if ("rtf".equals(type)) {
+            StringBuilder rtf = new StringBuilder();
+            readText(new InputStreamReader(in, StandardCharsets.ISO_8859_1), rtf, MAX_INPUT_BYTES);
+            extractRtf(rtf, text);
+        } else if ("pdf".equals(type)) {
+            extractPdf(readBytes(in, MAX_INPUT_BYTES), text);
+        }
+
+        return text.toString();
+    }
+
+    private static String fileType(String fileName) {
+        int dot = fileName == null ? -1 : fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    // ---- Plain text ----
+
+    private static void readText(Reader reader, TextBuilder text) throws IOException {
+        char[] buffer = new char[8192];
+        int read;
+        while (!text.isFull() && (read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                text.append(buffer[i]);
+            }
+        }
+    }
+
+    private static void readText(Reader reader, StringBuilder text, int limit) throws IOException {
+        char[] buffer = new char[8192];
+        int read;
+        while (text.length() < limit && (read = reader.read(buffer)) != -1) {
+            text.append(buffer, 0, read);
+        }
+    }
+
+    // ---- HTML and XML ----
+
+    /**
+     * Strips the tags from HTML or XML, decoding character references.
+     * Elements that end a line in the document become line breaks; other
+     * tags are dropped without a space, as the office formats split words
+     * across elements.
+     */
+    private static void extractMarkup(CharSequence markup, TextBuilder text) {
+        int length = markup.length();
+        int i = 0;
+        String skipUntil = null;
+
+        while (i < length && !text.isFull()) {
+            char c = markup.charAt(i);
+
+            if (c == '<') {
+                if (startsWith(markup, i, "<!--")) {
+                    i = skipPast(markup, i + 4, "-->");
+                    continue;
+                }
+                if (startsWith(markup, i, "<![CDATA[")) {
+                    int end = indexOf(markup, i + 9, "]]>");
+                    for (int j = i + 9; j < end && skipUntil == null; j++) {
+                        text.append(markup.charAt(j));
+                    }
+                    i = Math.min(length, end + 3);
+                    continue;
+                }
+
+                int end = indexOf(markup, i + 1, ">");
+                String tag = tagName(markup, i + 1, end);
+                boolean closing = i + 1 < length && markup.charAt(i + 1) == '/';
+                i = Math.min(length, end + 1);
+
+                if (skipUntil != null) {
+                    if (closing && tag.equals(skipUntil)) {
+                        skipUntil = null;
+                    }
+                } else if (!closing && SKIPPED_ELEMENTS.contains(tag)
+                        && markup.charAt(Math.max(0, i - 2)) != '/') {
+                    skipUntil = tag;
+                } else if (LINE_BREAK_ELEMENTS.contains(tag)) {
+                    text.append(tag.endsWith("tab") ? ' ' : '\n');
+                }
+
+            } else if (skipUntil != null) {
+                i++;
+            } else if (c == '&') {
+                i = decodeReference(markup, i, text);
+            } else {
+                text.append(c);
+                i++;
+            }
+        }
+    }
+
+    private static String tagName(CharSequence markup, int start, int end) {
+        int i = start;
+        if (i < end && (markup.charAt(i) == '/' || markup.charAt(i) == '?' || markup.charAt(i) == '!')) {
+            i++;
+        }
+        int nameStart = i;
+        while (i < end && !Character.isWhitespace(markup.charAt(i)) && markup.charAt(i) != '/') {
+            i++;
+        }
+        return markup.subSequence(nameStart, i).toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Decodes the character reference starting at an ampersand
+     *
+     * @return The index following the reference
+     */
+    private static int decodeReference(CharSequence markup, int start, TextBuilder text) {
+        int end = start + 1;
+        while (end < markup.length() && end - start <= 10 && markup.charAt(end) != ';') {
+            end++;
+        }
+        if (end >= markup.length() || markup.charAt(end) != ';') {
+            text.append('&');
+            return start + 1;
+        }
+
+        String name = markup.subSequence(start + 1, end).toString();
+        int codePoint = -1;
+        if (name.startsWith("#x") || name.startsWith("#X")) {
+            codePoint = parseCodePoint(name.substring(2), 16);
+        } else if (name.startsWith("#")) {
+            codePoint = parseCodePoint(name.substring(1), 10);
+        } else {
+            switch (name) {
+                case "amp": codePoint = '&'; break;
+                case "lt": codePoint = '<'; break;
+                case "gt": codePoint = '>'; break;
+                case "quot": codePoint = '"'; break;
+                case "apos": codePoint = '\''; break;
+                case "nbsp": codePoint = ' '; break;
+                case "sect": codePoint = '\u00a7'; break;
+                case "para": codePoint = '\u00b6'; break;
+                case "ndash": codePoint = '\u2013'; break;
+                case "mdash": codePoint = '\u2014'; break;
+                case "lsquo": codePoint = '\u2018'; break;
+                case "rsquo": codePoint = '\u2019'; break;
+                case "ldquo": codePoint = '\u201c'; break;
+                case "rdquo": codePoint = '\u201d'; break;
+                default: codePoint = ' '; break;
+            }
+        }
+
+        if (codePoint >= 0) {
+            for (char c : Character.toChars(codePoint)) {
+                text.append(c);
+            }
+        }
+        return end + 1;
+    }
+
+    private static int parseCodePoint(String digits, int radix) {
+        try {
+            int codePoint = Integer.parseInt(digits, radix);
+            return Character.isValidCodePoint(codePoint) ? codePoint : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // ---- Office formats ----
+
+    /**
+     * Reads the text entries of a zipped office document. Word documents,
+     * slides and OpenDocument files keep their text in XML entries; Excel
+     * keeps each distinct cell text once in the shared strings.
+     */
+    private static void extractOffice(InputStream in, TextBuilder text) throws IOException {
+        ZipInputStream zip = new ZipInputStream(in);
+        ZipEntry entry;
+        while (!text.isFull() && (entry = zip.getNextEntry()) != null) {
+            if (!entry.isDirectory() && OFFICE_TEXT_ENTRY.matcher(entry.getName()).matches()) {
+                StringBuilder xml = new StringBuilder();
+                readText(new InputStreamReader(zip, StandardCharsets.UTF_8), xml, MAX_INPUT_BYTES);
+                extractMarkup(xml, text);
+                text.append('\n');
+            }
+        }
+    }
+
+    // ---- RTF ----
+
+    /**
+     * Strips the control words from RTF. Groups holding fonts, styles,
+     * pictures and other non-text destinations are skipped; escaped
+     * characters are decoded from Windows-1252 or Unicode.
+     */
+    private static void extractRtf(CharSequence rtf, TextBuilder text) {
+        int length = rtf.length();
+        int depth = 0;
+        int skipDepth = Integer.MAX_VALUE;
+        int unicodeSkip = 1;
+        int pendingSkip = 0;
+        int i = 0;
+
+        while (i < length && !text.isFull()) {
+            char c = rtf.charAt(i);
+
+            if (c == '{') {
+                depth++;
+                if (startsWith(rtf, i + 1, "\\*") && depth < skipDepth) {
+                    skipDepth = depth;
+                }
+                i++;
+            } else if (c == '}') {
+                if (depth == skipDepth) {
+                    skipDepth = Integer.MAX_VALUE;
+                }
+                depth--;
+                i++;
+            } else if (c == '\\' && i + 1 < length) {
+                char next = rtf.charAt(i + 1);
+                if (Character.isLetter(next)) {
+                    int wordStart = i + 1;
+                    int j = wordStart;
+                    while (j < length && Character.isLetter(rtf.charAt(j))) {
+                        j++;
+                    }
+                    String word = rtf.subSequence(wordStart, j).toString();
+                    int paramStart = j;
+                    if (j < length && rtf.charAt(j) == '-') {
+                        j++;
+                    }
+                    while (j < length && Character.isDigit(rtf.charAt(j))) {
+                        j++;
+                    }
+                    int param = j > paramStart ? parseInt(rtf.subSequence(paramStart, j).toString()) : 0;
+                    if (j < length && rtf.charAt(j) == ' ') {
+                        j++;
+                    }
+                    i = j;
+
+                    if (depth >= skipDepth) {
+                        continue;
+                    }
+                    if (RTF_SKIPPED_DESTINATIONS.contains(word)) {
+                        skipDepth = depth;
+                    } else if ("par".equals(word) || "line".equals(word) || "row".equals(word)
+                            || "sect".equals(word) || "page".equals(word)) {
+                        text.append('\n');
+                    } else if ("tab".equals(word) || "cell".equals(word)) {
+                        text.append(' ');
+                    } else if ("uc".equals(word)) {
+                        unicodeSkip = param;
+                    } else if ("u".equals(word)) {
+                        text.append((char) (param < 0 ? param + 65536 : param));
+                        pendingSkip = unicodeSkip;
+                    }
+                } else if (next == '\'' && i + 3 < length) {
+                    int value = parseCodePoint(rtf.subSequence(i + 2, i + 4).toString(), 16);
+                    i += 4;
+                    if (depth >= skipDepth || value < 0) {
+                        continue;
+                    }
+                    if (pendingSkip > 0) {
+                        pendingSkip--;
+                    } else {
+                        text.append(WINDOWS_1252[value & 0xff]);
+                    }
+                } else {
+                    // Escaped brace or backslash, or a control symbol
+                    if (depth < skipDepth && (next == '\\' || next == '{' || next == '}')) {
+                        text.append(next);
+                    } else if (depth < skipDepth && next == '~') {
+                        text.append(' ');
+                    }
+                    i += 2;
+                }
+            } else {
+                if (depth < skipDepth && c != '\r' && c != '\n') {
+                    if (pendingSkip > 0) {
+                        pendingSkip--;
+                    } else {
+                        text.append(c);
+                    }
+                }
+                i++;
+            }
+        }
+    }
+
+    private static int parseInt(String digits) {
+        try {
+            return Integer.parseInt(digits);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // ---- PDF ----
+
+    /**
+     * Reads the text shown by the content streams of a PDF. Streams are
+     * inflated when Flate compressed, which nearly all are; fonts, images
+     * and streams with other filters are skipped. Only text drawn with
+     * single-byte or Unicode string encodings comes out readable, which
+     * covers most PDFs produced by word processors.
+     */
+    private static void extractPdf(byte[] pdf, TextBuilder text) {
+        int i = 0;
+        while (!text.isFull()) {
+            int keyword = indexOf(pdf, i, "stream");
+            if (keyword < 0) {
+                break;
+            }
+            int start = keyword + 6;
+            if (start < pdf.length && pdf[start] == '\r') {
+                start++;
+            }
+            if (start < pdf.length && pdf[start] == '\n') {
+                start++;
+            }
+            int end = indexOf(pdf, start, "endstream");
+            if (end < 0) {
+                break;
+            }
+            i = end + 9;
+
+            // The stream dictionary precedes the keyword
+            int dictionaryStart = lastIndexOf(pdf, keyword, "obj", 4096);
+            String dictionary = dictionaryStart < 0 ? ""
+                    : new String(pdf, dictionaryStart, keyword - dictionaryStart, StandardCharsets.ISO_8859_1);
+            if (dictionary.contains("/Image") || dictionary.contains("/FontFile")
+                    || dictionary.contains("/Length1") || dictionary.contains("/Type/XRef")
+                    || dictionary.contains("/Type /XRef") || dictionary.contains("/Type/ObjStm")
+                    || dictionary.contains("/Type /ObjStm") || dictionary.contains("/Subtype/Type1C")) {
+                continue;
+            }
+
+            byte[] content;
+            if (dictionary.contains("/FlateDecode")) {
+                content = inflate(pdf, start, end - start);
+            } else if (dictionary.contains("/Filter")) {
+                continue;
+            } else {
+                content = Arrays.copyOfRange(pdf, start, end);
+            }
+            if (content != null) {
+                extractPdfContent(content, text);
+            }
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int offset, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished() && out.size() < MAX_INPUT_BYTES) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Interprets the text operators of one content stream. Strings are
+     * collected until the operator using them: the text showing operators
+     * emit them, positioning operators separate them, and any other
+     * operator discards them.
+     */
+    private static void extractPdfContent(byte[] content, TextBuilder text) {
+        StringBuilder pending = new StringBuilder();
+        int i = 0;
+
+        while (i < content.length && !text.isFull()) {
+            int c = content[i] & 0xff;
+
+            if (c == '(') {
+                i = readLiteralString(content, i + 1, pending);
+            } else if (c == '<' && i + 1 < content.length && content[i + 1] == '<') {
+                i += 2;
+            } else if (c == '<') {
+                i = readHexString(content, i + 1, pending);
+            } else if (c == '%') {
+                while (i < content.length && content[i] != '\n' && content[i] != '\r') {
+                    i++;
+                }
+            } else if (c == '-' || c == '.' || (c >= '0' && c <= '9')) {
+                int start = i;
+                i++;
+                while (i < content.length && (content[i] == '.' || (content[i] >= '0' && content[i] <= '9'))) {
+                    i++;
+                }
+                // A large negative adjustment within TJ, in thousandths of
+                // the font size, is a word gap rather than kerning
+                if (c == '-' && pending.length() > 0
+                        && parseNumber(new String(content, start, i - start, StandardCharsets.ISO_8859_1)) < -200) {
+                    pending.append(' ');
+                }
+            } else if (Character.isLetter(c) || c == '\'' || c == '"' || c == '*') {
+                int start = i;
+                while (i < content.length && (Character.isLetter(content[i] & 0xff)
+                        || content[i] == '\'' || content[i] == '"' || content[i] == '*')) {
+                    i++;
+                }
+                String operator = new String(content, start, i - start, StandardCharsets.ISO_8859_1);
+                switch (operator) {
+                    case "Tj":
+                    case "TJ":
+                        text.append(pending);
+                        break;
+                    case "'":
+                    case "\"":
+                    case "T*":
+                        text.append('\n');
+                        text.append(pending);
+                        break;
+                    case "Td":
+                    case "TD":
+                    case "Tm":
+                        text.append(' ');
+                        break;
+                    case "ET":
+                        text.append('\n');
+                        break;
+                    default:
+                        break;
+                }
+                pending.setLength(0);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private static double parseNumber(String number) {
+        try {
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int readLiteralString(byte[] content, int start, StringBuilder pending) {
+        int depth = 1;
+        int i = start;
+        while (i < content.length) {
+            int c = content[i++] & 0xff;
+            if (c == '\\' && i < content.length) {
+                int escaped = content[i++] & 0xff;
+                switch (escaped) {
+                    case 'n': pending.append('\n'); break;
+                    case 'r': pending.append('\r'); break;
+                    case 't': pending.append('\t'); break;
+                    case 'b':
+                    case 'f':
+                        break;
+                    case '\r':
+                    case '\n':
+                        break;
+                    default:
+                        if (escaped >= '0' && escaped <= '7') {
+                            int value = escaped - '0';
+                            for (int n = 0; n < 2 && i < content.length
+                                    && content[i] >= '0' && content[i] <= '7'; n++) {
+                                value = value * 8 + (content[i++] - '0');
+                            }
+                            pending.append(WINDOWS_1252[value & 0xff]);
+                        } else {
+                            pending.append((char) escaped);
+                        }
+                }
+            } else if (c == '(') {
+                depth++;
+                pending.append('(');
+            } else if (c == ')') {
+                if (--depth == 0) {
+                    break;
+                }
+                pending.append(')');
+            } else {
+                pending.append(WINDOWS_1252[c]);
+            }
+        }
+        return i;
+    }
+
+    private static int readHexString(byte[] content, int start, StringBuilder pending) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int i = start;
+        int high = -1;
+        while (i < content.length && content[i] != '>') {
+            int digit = Character.digit(content[i++] & 0xff, 16);
+            if (digit < 0) {
+                continue;
+            }
+            if (high < 0) {
+                high = digit;
+            } else {
+                bytes.write(high * 16 + digit);
+                high = -1;
+            }
+        }
+        if (high >= 0) {
+            bytes.write(high * 16);
+        }
+
+        byte[] decoded = bytes.toByteArray();
+        if (decoded.length >= 2 && (decoded[0] & 0xff) == 0xfe && (decoded[1] & 0xff) == 0xff) {
+            pending.append(new String(decoded, 2, decoded.length - 2, StandardCharsets.UTF_16BE));
+        } else {
+            for (byte b : decoded) {
+                pending.append(WINDOWS_1252[b & 0xff]);
+            }
+        }
+        return i + 1;
+    }
+
+    // ---- Helpers ----
+
+    private static char[] windows1252() {
+        byte[] codes = new byte[256];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = (byte) i;
+        }
+        return new String(codes, Charset.forName("windows-1252")).toCharArray();
+    }
+
+    private static byte[] readBytes(InputStream in, int limit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while (out.size() < limit && (read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean startsWith(CharSequence text, int offset, String prefix) {
+        if (offset + prefix.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(offset + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence text, int from, String target) {
+        for (int i = from; i <= text.length() - target.length(); i++) {
+            if (startsWith(text, i, target)) {
+                return i;
+            }
+        }
+        return text.length();
+    }
+
+    private static int skipPast(CharSequence text, int from, String target) {
+        return Math.min(text.length(), indexOf(text, from, target) + target.length());
+    }
+
+    private static int indexOf(byte[] data, int from, String target) {
+        outer:
+        for (int i = Math.max(0, from); i <= data.length - target.length(); i++) {
+            for (int j = 0; j < target.length(); j++) {
+                if (data[i + j] != target.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] data, int before, String target, int maxDistance) {
+        outer:
+        for (int i = before - target.length(); i >= Math.max(0, before - maxDistance); i--) {
+            for (int j = 0; j < target.length(); j++) {
+                if (data[i + j] != target.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Collects extracted text up to {@link #MAX_TEXT_LENGTH} characters,
+     * collapsing runs of white space and dropping control characters
+     */
+    private static final class TextBuilder {
+        private final StringBuilder text = new StringBuilder();
+        private int newlines;
+        private boolean space;
+
+        boolean isFull() {
+            return text.length() >= MAX_TEXT_LENGTH;
+        }
+
+        void append(CharSequence chars) {
+            for (int i = 0; i < chars.length(); i++) {
+                append(chars.charAt(i));
+            }
+        }
+
+        void append(char c) {
+            if (isFull()) {
+                return;
+            }
+            if (c == '\n') {
+                newlines++;
+            } else if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                space = true;
+            } else if (!Character.isISOControl(c) && c != '\ufffd') {
+                if (text.length() > 0) {
+                    if (newlines > 0) {
+                        text.append(newlines > 1 ? "\n\n" : "\n");
+                    } else if (space) {
+                        text.append(' ');
+                    }
+                }
+                newlines = 0;
+                space = false;
+                text.append(c);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text.toString();
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package controller;
 
+import dao.DaoRegistry;
+import dao.Page;
+import dao.PageRequest;
 import dao.EventDao;
 import dao.CaseDao;
 import model.Event;
 import model.Case;
+import model.SearchResult;
 
 import java.util.List;
 import java.time.LocalDate;
@@ -14,13 +18,16 @@ import java.time.LocalDate;
 public class EventController {
     private EventDao eventDao;
     private CaseDao caseDao;
+    private SearchIndex searchIndex;
     
     /**
      * Constructor
      */
     public EventController() {
-        this.eventDao = new EventDao();
-        this.caseDao = new CaseDao();
+        DaoRegistry daos = DaoRegistry.getDefault();
+        this.eventDao = daos.getEventDao();
+        this.caseDao = daos.getCaseDao();
+        this.searchIndex = SearchIndex.getDefault();
     }
     
     /**
@@ -32,6 +39,16 @@ public class EventController {
         return eventDao.findAllEvents();
     }
     
+    /**
+     * Get one page of events
+     * 
+     * @param request The page request
+     * @return The page of events
+     */
+    public Page<Event> getEventsPage(PageRequest request) {
+        return eventDao.findEventsPage(request);
+    }
+    
     /**
      * Get an event by ID
      * 
@@ -119,10 +136,27 @@ public class EventController {
      * @return true if successful
      */
     public boolean createEvent(Event event) {
+        // Generate event ID if not set
+        if (event.getEventId() == null || event.getEventId().isEmpty()) {
+            event.setEventId(eventDao.generateNextEventId());
+        }
+        
         int result = eventDao.createEvent(event);
+        if (result > 0) {
+            searchIndex.put(event);
+        }
         return result > 0;
     }
     
+    /**
+     * Generate the next event ID
+     * 
+     * @return The event ID
+     */
+    public String generateNextEventId() {
+        return eventDao.generateNextEventId();
+    }
+    
     /**
      * Update an existing event
      * 
@@ -131,6 +165,9 @@ public class EventController {
      */
     public boolean updateEvent(Event event) {
         int result = eventDao.updateEvent(event);
+        if (result > 0) {
+            searchIndex.put(event);
+        }
         return result > 0;
     }
     
@@ -143,6 +180,9 @@ public class EventController {
      */
     public boolean updateEventStatus(int eventId, String status) {
         int result = eventDao.updateEventStatus(eventId, status);
+        if (result > 0) {
+            searchIndex.put(eventDao.findEventById(eventId));
+        }
         return result > 0;
     }
     
@@ -154,6 +194,9 @@ public class EventController {
      */
     public boolean deleteEvent(int eventId) {
         int result = eventDao.deleteEvent(eventId);
+        if (result > 0) {
+            searchIndex.remove(SearchResult.Type.EVENT, eventId);
+        }
         return result > 0;
     }
     
@@ -0,0 +1,314 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index from lower-case words to the keys of the
+ * records containing them. Words are kept sorted, so all words starting
+ * with a search term are one contiguous range of the index.
+ * <p>
+ * Not thread-safe; {@link SearchIndex} guards it with a lock.
+ *
+ * @param <K> The record key type
+ */
+final class InvertedIndex<K> {
+
+    /** Score factor for a search term equal to an indexed word */
+    static final int EXACT_MATCH = 3;
+
+    /** Score factor for a search term that starts an indexed word */
+    static final int PREFIX_MATCH = 2;
+
+    /** Score factor for a search term one or two typos away from an indexed word */
+    static final int FUZZY_MATCH = 1;
+
+    // Keeps one-letter terms from touching a large part of the index
+    private static final int MAX_PREFIX_EXPANSION = 256;
+
+    // Shorter terms would match too many unrelated words with a typo allowed
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    // Terms at least this long may contain two typos
+    private static final int TWO_TYPO_LENGTH = 8;
+
+    /**
+     * The weighted words of one record, built from its text fields
+     */
+    static final class Fields {
+        private final Map<String, Integer> words = new HashMap<>();
+
+        /**
+         * Add the words of a text field
+         *
+         * @param text The field value, may be null
+         * @param weight Weight of the field; higher ranks matches first
+         * @return This object
+         */
+        Fields add(String text, int weight) {
+            for (String word : tokenize(text)) {
+                words.merge(word, weight, Math::max);
+            }
+            return this;
+        }
+    }
+
+    private final TreeMap<String, Map<K, Integer>> postings = new TreeMap<>();
+    private final Map<K, Map<String, Integer>> wordsByKey = new HashMap<>();
+
+    /**
+     * Splits text into distinct lower-case words
+     *
+     * @param text The text, may be null
+     * @return The words in order of first appearance
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * Adds a record, replacing any earlier version with an equal key
+     *
+     * @param key The record key
+     * @param fields The record's words
+     */
+    void put(K key, Fields fields) {
+        remove(key);
+
+        Map<String, Integer> words = new HashMap<>(fields.words);
+        for (Map.Entry<String, Integer> word : words.entrySet()) {
+            postings.computeIfAbsent(word.getKey(), w -> new HashMap<>()).put(key, word.getValue());
+        }
+        wordsByKey.put(key, words);
+    }
+
+    /**
+     * Removes a record
+     *
+     * @param key The record key
+     */
+    void remove(K key) {
+        Map<String, Integer> words = wordsByKey.remove(key);
+        if (words == null) {
+            return;
+        }
+
+        for (String word : words.keySet()) {
+            Map<K, Integer> keys = postings.get(word);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    postings.remove(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of records in the index
+     *
+     * @return The record count
+     */
+    int size() {
+        return wordsByKey.size();
+    }
+
+    /**
+     * Finds the records matching every term. A term matches a word equal
+     * to it or starting with it; a term that matches neither way falls
+     * back to words within one typo (two for long terms) that share its
+     * first letter.
+     *
+     * @param terms Lower-case search terms
+     * @return Matching keys mapped to their scores, higher is better
+     */
+    Map<K, Integer> search(List<String> terms) {
+        if (terms.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // Collect the matches of the most selective term, then only check
+        // those records against the other terms
+        List<String> ordered = new ArrayList<>(terms);
+        ordered.sort(Comparator.comparingInt(term -> countKeys(wordsStartingWith(term))));
+
+        Map<K, Integer> result = match(ordered.get(0));
+        for (int i = 1; i < ordered.size() && !result.isEmpty(); i++) {
+            String term = ordered.get(i);
+            List<Map.Entry<String, Map<K, Integer>>> words = wordsStartingWith(term);
+
+            // Probe the term's postings for each remaining record, unless
+            // collecting all of the term's matches once is cheaper
+            Map<K, Integer> termScores = null;
+            if (!words.isEmpty() && (long) words.size() * result.size() > countKeys(words)) {
+                termScores = match(term);
+            }
+
+            Iterator<Map.Entry<K, Integer>> hits = result.entrySet().iterator();
+            while (hits.hasNext()) {
+                Map.Entry<K, Integer> hit = hits.next();
+                int score;
+                if (words.isEmpty()) {
+                    score = matchTypos(term, wordsByKey.get(hit.getKey()));
+                } else if (termScores != null) {
+                    score = termScores.getOrDefault(hit.getKey(), 0);
+                } else {
+                    score = lookup(term, words, hit.getKey());
+                }
+
+                if (score == 0) {
+                    hits.remove();
+                } else {
+                    hit.setValue(hit.getValue() + score);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds the indexed words a term is equal to or a prefix of, the
+     * exact word first
+     */
+    private List<Map.Entry<String, Map<K, Integer>>> wordsStartingWith(String term) {
+        List<Map.Entry<String, Map<K, Integer>>> words = new ArrayList<>();
+        for (Map.Entry<String, Map<K, Integer>> entry : postings.tailMap(term, true).entrySet()) {
+            if (!entry.getKey().startsWith(term) || words.size() == MAX_PREFIX_EXPANSION) {
+                break;
+            }
+            words.add(entry);
+        }
+        return words;
+    }
+
+    private static <K> int countKeys(List<Map.Entry<String, Map<K, Integer>>> words) {
+        int count = 0;
+        for (Map.Entry<String, Map<K, Integer>> word : words) {
+            count += word.getValue().size();
+        }
+        return count;
+    }
+
+    /**
+     * Finds all records matching one term
+     */
+    private Map<K, Integer> match(String term) {
+        Map<K, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<K, Integer>> entry : wordsStartingWith(term)) {
+            addScores(scores, entry.getValue(), matchFactor(term, entry.getKey()));
+        }
+
+        if (scores.isEmpty() && term.length() >= MIN_FUZZY_LENGTH) {
+            String first = term.substring(0, 1);
+            for (Map.Entry<String, Map<K, Integer>> entry
+                    : postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                if (isTypoOf(term, entry.getKey())) {
+                    addScores(scores, entry.getValue(), FUZZY_MATCH);
+                }
+            }
+        }
+
+        return scores;
+    }
+
+    /**
+     * Scores one record against the words a term is a prefix of
+     */
+    private int lookup(String term, List<Map.Entry<String, Map<K, Integer>>> words, K key) {
+        int best = 0;
+        for (Map.Entry<String, Map<K, Integer>> word : words) {
+            Integer weight = word.getValue().get(key);
+            if (weight != null) {
+                best = Math.max(best, weight * matchFactor(term, word.getKey()));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Scores one record's words against a term no indexed word starts with
+     */
+    private int matchTypos(String term, Map<String, Integer> words) {
+        int best = 0;
+        if (term.length() >= MIN_FUZZY_LENGTH) {
+            for (Map.Entry<String, Integer> word : words.entrySet()) {
+                if (word.getKey().charAt(0) == term.charAt(0) && isTypoOf(term, word.getKey())) {
+                    best = Math.max(best, word.getValue() * FUZZY_MATCH);
+                }
+            }
+        }
+        return best;
+    }
+
+    private static int matchFactor(String term, String word) {
+        return word.length() == term.length() ? EXACT_MATCH : PREFIX_MATCH;
+    }
+
+    private static <K> void addScores(Map<K, Integer> scores, Map<K, Integer> weights, int factor) {
+        for (Map.Entry<K, Integer> entry : weights.entrySet()) {
+            scores.merge(entry.getKey(), entry.getValue() * factor, Math::max);
+        }
+    }
+
+    /**
+     * Checks whether a word is within the allowed number of typos of a
+     * term, counting a swap of adjacent letters as one typo
+     */
+    private static boolean isTypoOf(String term, String word) {
+        int maxTypos = term.length() >= TWO_TYPO_LENGTH ? 2 : 1;
+        if (Math.abs(word.length() - term.length()) > maxTypos) {
+            return false;
+        }
+
+        int[] beforePrevious = new int[word.length() + 1];
+        int[] previous = new int[word.length() + 1];
+        int[] current = new int[word.length() + 1];
+        for (int j = 0; j <= word.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= term.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= word.length(); j++) {
+                int cost = term.charAt(i - 1) == word.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && term.charAt(i - 1) == word.charAt(j - 2)
+                        && term.charAt(i - 2) == word.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxTypos) {
+                return false;
+            }
+
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+
+        return previous[word.length()] <= maxTypos;
+    }
+}
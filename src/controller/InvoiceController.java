@@ -1,11 +1,15 @@
 package controller;
 
+import dao.DaoRegistry;
+import dao.Page;
+import dao.PageRequest;
 import dao.InvoiceDao;
 import dao.PaymentDao;
 import dao.TimeEntryDao;
 import model.Invoice;
 import model.Payment;
 import model.TimeEntry;
+import model.SearchResult;
 
 import java.util.List;
 import java.time.LocalDate;
@@ -18,14 +22,17 @@ public class InvoiceController {
     private InvoiceDao invoiceDao;
     private PaymentDao paymentDao;
     private TimeEntryDao timeEntryDao;
+    private SearchIndex searchIndex;
     
     /**
      * Constructor
      */
     public InvoiceController() {
-        this.invoiceDao = new InvoiceDao();
-        this.paymentDao = new PaymentDao();
-        this.timeEntryDao = new TimeEntryDao();
+        DaoRegistry daos = DaoRegistry.getDefault();
+        this.invoiceDao = daos.getInvoiceDao();
+        this.paymentDao = daos.getPaymentDao();
+        this.timeEntryDao = daos.getTimeEntryDao();
+        this.searchIndex = SearchIndex.getDefault();
     }
     
     /**
@@ -37,6 +44,42 @@ public class InvoiceController {
         return invoiceDao.findAllInvoices();
     }
     
+    /**
+     * Get one page of invoices
+     * 
+     * @param request The page request
+     * @return The page of invoices
+     */
+    public Page<Invoice> getInvoicesPage(PageRequest request) {
+        return invoiceDao.findInvoicesPage(request);
+    }
+    
+    /**
+     * Get invoices for list display with client names and case numbers filled in
+     * 
+     * @param status Status to filter by, or null for any status
+     * @param startDate Start of the issue date range, or null
+     * @param endDate End of the issue date range, or null
+     * @return List of invoices
+     */
+    public List<Invoice> getInvoiceListRows(String status, LocalDate startDate, LocalDate endDate) {
+        return invoiceDao.findInvoiceListRows(status, startDate, endDate);
+    }
+    
+    /**
+     * Get one page of invoice list rows with client names and case numbers filled in
+     * 
+     * @param status Status to filter by, or null for any status
+     * @param startDate Start of the issue date range, or null
+     * @param endDate End of the issue date range, or null
+     * @param request The page request
+     * @return The page of invoices
+     */
+    public Page<Invoice> getInvoiceListRowsPage(String status, LocalDate startDate, LocalDate endDate,
+                                                PageRequest request) {
+        return invoiceDao.findInvoiceListRowsPage(status, startDate, endDate, request);
+    }
+    
     /**
      * Get an invoice by ID
      * 
@@ -124,6 +167,11 @@ public class InvoiceController {
      * @return true if successful
      */
     public boolean createInvoice(Invoice invoice) {
+        // Generate invoice number if not set
+        if (invoice.getInvoiceNumber() == null || invoice.getInvoiceNumber().isEmpty()) {
+            invoice.setInvoiceNumber(invoiceDao.generateNextInvoiceNumber());
+        }
+        
         // Set issue date and due date if not set
         if (invoice.getIssueDate() == null) {
             invoice.setIssueDate(LocalDate.now());
@@ -134,6 +182,9 @@ public class InvoiceController {
         }
         
         int result = invoiceDao.createInvoice(invoice);
+        if (result > 0) {
+            searchIndex.put(invoice);
+        }
         return result > 0;
     }
     
@@ -148,7 +199,9 @@ public class InvoiceController {
         // Generate invoice number
         String invoiceNumber = invoiceDao.generateNextInvoiceNumber();
         
-        return invoiceDao.createInvoiceFromUnbilledTimeEntries(caseId, invoiceNumber, dueDate);
+        Invoice invoice = invoiceDao.createInvoiceFromUnbilledTimeEntries(caseId, invoiceNumber, dueDate);
+        searchIndex.put(invoice);
+        return invoice;
     }
     
     /**
@@ -159,6 +212,9 @@ public class InvoiceController {
      */
     public boolean updateInvoice(Invoice invoice) {
         int result = invoiceDao.updateInvoice(invoice);
+        if (result > 0) {
+            searchIndex.put(invoice);
+        }
         return result > 0;
     }
     
@@ -171,6 +227,9 @@ public class InvoiceController {
      */
     public boolean updateInvoiceStatus(int invoiceId, String status) {
         int result = invoiceDao.updateInvoiceStatus(invoiceId, status);
+        if (result > 0) {
+            searchIndex.put(invoiceDao.findInvoiceById(invoiceId));
+        }
         return result > 0;
     }
     
@@ -182,6 +241,9 @@ public class InvoiceController {
      */
     public boolean deleteInvoice(int invoiceId) {
         int result = invoiceDao.deleteInvoice(invoiceId);
+        if (result > 0) {
+            searchIndex.remove(SearchResult.Type.INVOICE, invoiceId);
+        }
         return result > 0;
     }
     
@@ -193,6 +255,9 @@ public class InvoiceController {
      */
     public boolean updateInvoicePaidAmount(int invoiceId) {
         int result = invoiceDao.updateInvoicePaidAmount(invoiceId);
+        if (result > 0) {
+            searchIndex.put(invoiceDao.findInvoiceById(invoiceId));
+        }
         return result > 0;
     }
     
@@ -216,6 +281,16 @@ public class InvoiceController {
         return paymentDao.findPaymentsByInvoice(invoiceId);
     }
     
+    /**
+     * Get one page of payments across all invoices
+     * 
+     * @param request The page request
+     * @return The page of payments
+     */
+    public Page<Payment> getPaymentsPage(PageRequest request) {
+        return paymentDao.findPaymentsPage(request);
+    }
+    
     /**
      * Record a payment for an invoice
      * 
@@ -236,8 +311,8 @@ public class InvoiceController {
         int result = paymentDao.createPayment(payment);
         
         if (result > 0) {
-            // Update invoice paid amount
-            updateInvoicePaidAmount(payment.getInvoiceId());
+            // The payment DAO already updated the invoice's paid amount and status
+            searchIndex.put(invoiceDao.findInvoiceById(payment.getInvoiceId()));
             return true;
         }
         
@@ -266,7 +341,21 @@ public class InvoiceController {
         };
     }
 
+    /**
+     * Generate the next invoice number
+     * 
+     * @return The invoice number
+     */
     public String generateNextInvoiceNumber() {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+        return invoiceDao.generateNextInvoiceNumber();
+    }
+    
+    /**
+     * Generate the next payment ID
+     * 
+     * @return The payment ID
+     */
+    public String generateNextPaymentId() {
+        return paymentDao.generateNextPaymentId();
     }
 }
\ No newline at end of file
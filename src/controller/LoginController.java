@@ -7,7 +7,8 @@ public class LoginController {
      * Constructor
      */
     public LoginController() {
-        this.loginDao = new dao.LoginDao();
+        dao.DaoRegistry daos = dao.DaoRegistry.getDefault();
+        this.loginDao = daos.getLoginDao();
     }
     
     /**
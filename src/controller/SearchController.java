@@ -0,0 +1,100 @@
+package controller;
+
+import model.Case;
+import model.Client;
+import model.Document;
+import model.SearchResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Controller for the global search. Searches run against an in-memory
+ * index shared by the whole application, so they are fast enough to run
+ * on every keystroke. The records returned are the index's own copies
+ * and must not be modified.
+ */
+public class SearchController {
+    /** Maximum number of records returned by the per-type searches */
+    public static final int MAX_RESULTS = 500;
+
+    private SearchIndex searchIndex;
+    private DocumentIndexer documentIndexer;
+
+    /**
+     * Constructor
+     */
+    public SearchController() {
+        this.searchIndex = SearchIndex.getDefault();
+        this.documentIndexer = DocumentIndexer.getDefault();
+    }
+
+    /**
+     * Start building the search index in the background if not done yet,
+     * and start extracting the text of documents not in the content index
+     */
+    public void warmUp() {
+        searchIndex.warmUp();
+        documentIndexer.start();
+    }
+
+    /**
+     * Check whether the search index has been built
+     *
+     * @return true if searches cover all records
+     */
+    public boolean isReady() {
+        return searchIndex.isReady();
+    }
+
+    /**
+     * Search all record types
+     *
+     * @param text The search text; every word must match the start of a
+     *             word in the record, allowing a typo in longer words
+     * @param limit Maximum number of results
+     * @return Matching records, best match first
+     */
+    public List<SearchResult> search(String text, int limit) {
+        return searchIndex.search(text, null, limit);
+    }
+
+    /**
+     * Search cases
+     *
+     * @param text The search text
+     * @return Matching cases, best match first
+     */
+    public List<Case> findCases(String text) {
+        return find(SearchResult.Type.CASE, Case.class, text);
+    }
+
+    /**
+     * Search clients
+     *
+     * @param text The search text
+     * @return Matching clients, best match first
+     */
+    public List<Client> findClients(String text) {
+        return find(SearchResult.Type.CLIENT, Client.class, text);
+    }
+
+    /**
+     * Search documents
+     *
+     * @param text The search text
+     * @return Matching documents, best match first
+     */
+    public List<Document> findDocuments(String text) {
+        return find(SearchResult.Type.DOCUMENT, Document.class, text);
+    }
+
+    private <T> List<T> find(SearchResult.Type type, Class<T> entityClass, String text) {
+        List<SearchResult> results = searchIndex.search(text, type, MAX_RESULTS);
+        List<T> entities = new ArrayList<>(results.size());
+        for (SearchResult result : results) {
+            entities.add(entityClass.cast(result.getEntity()));
+        }
+        return entities;
+    }
+}
@@ -0,0 +1,322 @@
+package controller;
+
+import dao.DaoRegistry;
+import model.Attorney;
+import model.Case;
+import model.Client;
+import model.Document;
+import model.Event;
+import model.Invoice;
+import model.SearchResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Application-wide in-memory search index over cases, clients, attorneys,
+ * documents, events and invoices. The index is built once in the
+ * background from the database and then kept current by the controllers,
+ * which report every record they create, update or delete. Searches never
+ * touch the database.
+ */
+final class SearchIndex {
+
+    // Field weights: names and numbers rank above types, and types above free text
+    private static final int PRIMARY = 3;
+    private static final int SECONDARY = 2;
+    private static final int TEXT = 1;
+
+    private static final SearchIndex DEFAULT = new SearchIndex();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean buildStarted = new AtomicBoolean();
+
+    // Guarded by lock
+    private InvertedIndex<SearchResult> index = new InvertedIndex<>();
+
+    // Changes made while a build is running, replayed onto the new index; guarded by lock
+    private List<Consumer<InvertedIndex<SearchResult>>> pendingChanges;
+
+    private volatile boolean ready;
+
+    private SearchIndex() {
+    }
+
+    /**
+     * Get the shared index
+     *
+     * @return The index
+     */
+    static SearchIndex getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Start building the index in the background unless already started
+     */
+    void warmUp() {
+        if (buildStarted.compareAndSet(false, true)) {
+            Thread builder = new Thread(this::rebuild, "search-index-build");
+            builder.setDaemon(true);
+            builder.start();
+        }
+    }
+
+    /**
+     * Check whether the initial build has finished
+     *
+     * @return true once searches cover the whole database
+     */
+    boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rebuild the index from the database. Changes reported while the
+     * build runs are applied to the new index before it replaces the old.
+     */
+    void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        InvertedIndex<SearchResult> fresh = new InvertedIndex<>();
+        try {
+            DaoRegistry daos = DaoRegistry.getDefault();
+            for (Case legalCase : daos.getCaseDao().findAllCases()) {
+                add(fresh, legalCase);
+            }
+            for (Client client : daos.getClientDao().findAllClients()) {
+                add(fresh, client);
+            }
+            for (Attorney attorney : daos.getAttorneyDao().findAllAttorneys()) {
+                add(fresh, attorney);
+            }
+            for (Document document : daos.getDocumentDao().findAllDocuments()) {
+                add(fresh, document);
+            }
+            for (Event event : daos.getEventDao().findAllEvents()) {
+                add(fresh, event);
+            }
+            for (Invoice invoice : daos.getInvoiceDao().findAllInvoices()) {
+                add(fresh, invoice);
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                for (Consumer<InvertedIndex<SearchResult>> change : pendingChanges) {
+                    change.accept(fresh);
+                }
+                pendingChanges = null;
+                index = fresh;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Search all record types
+     *
+     * @param text The search text; every word must match
+     * @param type Record type to return, or null for all types
+     * @param limit Maximum number of results
+     * @return Matching records, best match first
+     */
+    List<SearchResult> search(String text, SearchResult.Type type, int limit) {
+        List<String> terms = InvertedIndex.tokenize(text);
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Map<SearchResult, Integer> scores;
+        lock.readLock().lock();
+        try {
+            scores = index.search(terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Keep only the best hits, worst of them at the head of the queue
+        Comparator<Map.Entry<SearchResult, Integer>> ranking = (a, b) -> {
+            int byScore = Integer.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : a.getKey().getTitle().compareToIgnoreCase(b.getKey().getTitle());
+        };
+        PriorityQueue<Map.Entry<SearchResult, Integer>> best = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<SearchResult, Integer> hit : scores.entrySet()) {
+            if (type != null && hit.getKey().getType() != type) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (ranking.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+
+        List<Map.Entry<SearchResult, Integer>> hits = new ArrayList<>(best);
+        hits.sort(ranking);
+        List<SearchResult> results = new ArrayList<>(hits.size());
+        for (Map.Entry<SearchResult, Integer> hit : hits) {
+            results.add(hit.getKey());
+        }
+        return results;
+    }
+
+    void put(Case legalCase) {
+        if (legalCase != null) {
+            change(target -> add(target, legalCase));
+        }
+    }
+
+    void put(Client client) {
+        if (client != null) {
+            change(target -> add(target, client));
+        }
+    }
+
+    void put(Attorney attorney) {
+        if (attorney != null) {
+            change(target -> add(target, attorney));
+        }
+    }
+
+    void put(Document document) {
+        if (document != null) {
+            change(target -> add(target, document));
+        }
+    }
+
+    void put(Event event) {
+        if (event != null) {
+            change(target -> add(target, event));
+        }
+    }
+
+    void put(Invoice invoice) {
+        if (invoice != null) {
+            change(target -> add(target, invoice));
+        }
+    }
+
+    /**
+     * Remove a deleted record
+     *
+     * @param type The record type
+     * @param id The record's database ID
+     */
+    void remove(SearchResult.Type type, int id) {
+        SearchResult key = new SearchResult(type, id, null, null, null);
+        change(target -> target.remove(key));
+    }
+
+    private void change(Consumer<InvertedIndex<SearchResult>> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void add(InvertedIndex<SearchResult> index, Case legalCase) {
+        SearchResult result = new SearchResult(SearchResult.Type.CASE, legalCase.getId(),
+                join(": ", legalCase.getCaseNumber(), legalCase.getTitle()),
+                join(" - ", legalCase.getCaseType(), legalCase.getStatus()), legalCase);
+        index.put(result, new InvertedIndex.Fields()
+                .add(legalCase.getCaseNumber(), PRIMARY)
+                .add(legalCase.getTitle(), PRIMARY)
+                .add(legalCase.getCaseType(), SECONDARY)
+                .add(legalCase.getOpposingParty(), SECONDARY)
+                .add(legalCase.getDescription(), TEXT)
+                .add(legalCase.getCourt(), TEXT)
+                .add(legalCase.getJudge(), TEXT)
+                .add(legalCase.getOpposingCounsel(), TEXT));
+    }
+
+    private static void add(InvertedIndex<SearchResult> index, Client client) {
+        SearchResult result = new SearchResult(SearchResult.Type.CLIENT, client.getId(),
+                client.getName(), join(" - ", client.getClientType(), client.getEmail()), client);
+        index.put(result, new InvertedIndex.Fields()
+                .add(client.getName(), PRIMARY)
+                .add(client.getClientId(), PRIMARY)
+                .add(client.getContactPerson(), SECONDARY)
+                .add(client.getClientType(), SECONDARY)
+                .add(client.getEmail(), TEXT)
+                .add(client.getPhone(), TEXT)
+                .add(client.getAddress(), TEXT));
+    }
+
+    private static void add(InvertedIndex<SearchResult> index, Attorney attorney) {
+        SearchResult result = new SearchResult(SearchResult.Type.ATTORNEY, attorney.getId(),
+                attorney.getFullName(), attorney.getSpecialization(), attorney);
+        index.put(result, new InvertedIndex.Fields()
+                .add(attorney.getFirstName(), PRIMARY)
+                .add(attorney.getLastName(), PRIMARY)
+                .add(attorney.getAttorneyId(), PRIMARY)
+                .add(attorney.getSpecialization(), SECONDARY)
+                .add(attorney.getBarNumber(), SECONDARY)
+                .add(attorney.getEmail(), TEXT)
+                .add(attorney.getPhone(), TEXT));
+    }
+
+    private static void add(InvertedIndex<SearchResult> index, Document document) {
+        SearchResult result = new SearchResult(SearchResult.Type.DOCUMENT, document.getId(),
+                document.getTitle(), join(" - ", document.getDocumentType(), document.getStatus()), document);
+        index.put(result, new InvertedIndex.Fields()
+                .add(document.getTitle(), PRIMARY)
+                .add(document.getDocumentId(), PRIMARY)
+                .add(document.getDocumentType(), SECONDARY)
+                .add(document.getDescription(), TEXT));
+    }
+
+    private static void add(InvertedIndex<SearchResult> index, Event event) {
+        SearchResult result = new SearchResult(SearchResult.Type.EVENT, event.getId(),
+                event.getTitle(), join(" - ", event.getEventType(),
+                        event.getEventDate() != null ? event.getEventDate().toString() : null), event);
+        index.put(result, new InvertedIndex.Fields()
+                .add(event.getTitle(), PRIMARY)
+                .add(event.getEventId(), PRIMARY)
+                .add(event.getEventType(), SECONDARY)
+                .add(event.getLocation(), SECONDARY)
+                .add(event.getDescription(), TEXT));
+    }
+
+    private static void add(InvertedIndex<SearchResult> index, Invoice invoice) {
+        SearchResult result = new SearchResult(SearchResult.Type.INVOICE, invoice.getId(),
+                invoice.getInvoiceNumber(), join(" - ", invoice.getStatus(),
+                        invoice.getDueDate() != null ? "due " + invoice.getDueDate() : null), invoice);
+        index.put(result, new InvertedIndex.Fields()
+                .add(invoice.getInvoiceNumber(), PRIMARY)
+                .add(invoice.getNotes(), TEXT));
+    }
+
+    private static String join(String separator, String... parts) {
+        StringBuilder text = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isEmpty()) {
+                if (text.length() > 0) {
+                    text.append(separator);
+                }
+                text.append(part);
+            }
+        }
+        return text.toString();
+    }
+}
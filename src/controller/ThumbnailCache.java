@@ -0,0 +1,217 @@
+package controller;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import javax.imageio.ImageIO;
+
+/**
+ * Application-wide cache of document thumbnails, in memory and on disk.
+ * Thumbnails are keyed by the stored file's path, size and modification
+ * time, so a replaced file never shows a stale thumbnail. Both levels are
+ * bounded: the least recently used thumbnails are dropped from memory
+ * beyond {@link #MAX_MEMORY_BYTES} of pixels and deleted from disk beyond
+ * {@link #MAX_DISK_BYTES} of PNG files. The disk level survives restarts,
+ * so a document's thumbnail is generated once per workstation.
+ */
+final class ThumbnailCache {
+
+    /** Directory of the cached thumbnails */
+    static final String THUMBNAIL_DIRECTORY = "uploads/thumbnails/";
+
+    /** Pixels of thumbnails kept in memory, at four bytes each */
+    static final long MAX_MEMORY_BYTES = 16L * 1024 * 1024;
+
+    /** Bytes of thumbnail files kept on disk */
+    static final long MAX_DISK_BYTES = 64L * 1024 * 1024;
+
+    private static final ThumbnailCache DEFAULT = new ThumbnailCache();
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path directory = Paths.get(THUMBNAIL_DIRECTORY);
+
+    // Least recently used first; guarded by this, as is memoryBytes
+    private final LinkedHashMap<String, BufferedImage> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+
+    // Bytes of thumbnail files on disk, or -1 until first counted; guarded
+    // by diskLock, so pruning the files never holds up memory hits
+    private final Object diskLock = new Object();
+    private long diskBytes = -1;
+
+    private ThumbnailCache() {
+    }
+
+    /**
+     * Get the shared cache
+     *
+     * @return The cache
+     */
+    static ThumbnailCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Get the thumbnail of a stored file, generating it if it is cached
+     * neither in memory nor on disk
+     *
+     * @param stored The stored file the thumbnail shows
+     * @param generator Generates the thumbnail on a cache miss; may return null
+     * @return The thumbnail, or null if none could be generated
+     * @throws Exception If the generator fails
+     */
+    BufferedImage get(Path stored, Callable<BufferedImage> generator) throws Exception {
+        String key = key(stored);
+
+        synchronized (this) {
+            BufferedImage thumbnail = memory.get(key);
+            if (thumbnail != null) {
+                return thumbnail;
+            }
+        }
+
+        Path file = directory.resolve(key.substring(0, 2)).resolve(key + ".png");
+        BufferedImage thumbnail = readFile(file);
+        if (thumbnail == null) {
+            thumbnail = generator.call();
+            if (thumbnail == null) {
+                return null;
+            }
+            writeFile(file, thumbnail);
+        }
+
+        remember(key, thumbnail);
+        return thumbnail;
+    }
+
+    private synchronized void remember(String key, BufferedImage thumbnail) {
+        BufferedImage previous = memory.put(key, thumbnail);
+        if (previous != null) {
+            memoryBytes -= pixelBytes(previous);
+        }
+        memoryBytes += pixelBytes(thumbnail);
+
+        Iterator<BufferedImage> eldest = memory.values().iterator();
+        while (memoryBytes > MAX_MEMORY_BYTES && memory.size() > 1) {
+            memoryBytes -= pixelBytes(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    private static long pixelBytes(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    private BufferedImage readFile(Path file) {
+        try {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            BufferedImage thumbnail = ImageIO.read(file.toFile());
+
+            // Modification time orders the files for pruning
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return thumbnail;
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private void writeFile(Path file, BufferedImage thumbnail) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "thumbnail", ".tmp");
+            try {
+                ImageIO.write(thumbnail, "png", temp.toFile());
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+            long written = Files.size(file);
+            synchronized (diskLock) {
+                if (diskBytes >= 0) {
+                    diskBytes += written;
+                }
+                if (diskBytes < 0 || diskBytes > MAX_DISK_BYTES) {
+                    prune();
+                }
+            }
+
+        } catch (IOException e) {
+            // The thumbnail is still cached in memory
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Count the thumbnail files and delete the least recently used ones
+     * until they fit the disk budget. Called holding diskLock.
+     */
+    private void prune() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(directory)) {
+            for (Path shard : shards) {
+                if (Files.isDirectory(shard)) {
+                    try (DirectoryStream<Path> thumbnails = Files.newDirectoryStream(shard, "*.png")) {
+                        for (Path thumbnail : thumbnails) {
+                            files.add(thumbnail);
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<Path, long[]> attributes = new LinkedHashMap<>();
+        long total = 0;
+        for (Path file : files) {
+            long size = Files.size(file);
+            attributes.put(file, new long[] {Files.getLastModifiedTime(file).toMillis(), size});
+            total += size;
+        }
+
+        files.sort(Comparator.comparingLong(file -> attributes.get(file)[0]));
+        for (Path file : files) {
+            if (total <= MAX_DISK_BYTES) {
+                break;
+            }
+            Files.deleteIfExists(file);
+            total -= attributes.get(file)[1];
+        }
+        diskBytes = total;
+    }
+
+    private static String key(Path stored) throws IOException {
+        String identity = stored.toAbsolutePath().normalize() + "|" + Files.size(stored)
+                + "|" + Files.getLastModifiedTime(stored).toMillis();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(identity.getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hex[i * 2] = HEX[(hash[i] >> 4) & 0xf];
+                hex[i * 2 + 1] = HEX[hash[i] & 0xf];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package controller;
 
+import dao.DaoRegistry;
+import dao.Page;
+import dao.PageRequest;
 import dao.TimeEntryDao;
 import dao.AttorneyDao;
 import dao.CaseDao;
@@ -17,13 +20,16 @@ import model.Case;
 public class TimeEntryController {
     private TimeEntryDao timeEntryDao;
     private AttorneyDao attorneyDao;
+    private CaseDao caseDao;
     
     /**
      * Constructor
      */
     public TimeEntryController() {
-        this.timeEntryDao = new TimeEntryDao();
-        this.attorneyDao = new AttorneyDao();
+        DaoRegistry daos = DaoRegistry.getDefault();
+        this.timeEntryDao = daos.getTimeEntryDao();
+        this.attorneyDao = daos.getAttorneyDao();
+        this.caseDao = daos.getCaseDao();
     }
     
     /**
@@ -35,6 +41,25 @@ public class TimeEntryController {
         return timeEntryDao.findAllTimeEntries();
     }
     
+    /**
+     * Get one page of time entries
+     * 
+     * @param request The page request
+     * @return The page of time entries
+     */
+    public Page<TimeEntry> getTimeEntriesPage(PageRequest request) {
+        return timeEntryDao.findTimeEntriesPage(request);
+    }
+    
+    /**
+     * Get the number of time entries
+     * 
+     * @return The time entry count
+     */
+    public int getTimeEntryCount() {
+        return timeEntryDao.countTimeEntries();
+    }
+    
     /**
      * Get a time entry by ID
      * 
@@ -123,6 +148,11 @@ public class TimeEntryController {
      * @return true if successful
      */
     public boolean createTimeEntry(TimeEntry timeEntry) {
+        // Generate entry ID if not set
+        if (timeEntry.getEntryId() == null || timeEntry.getEntryId().isEmpty()) {
+            timeEntry.setEntryId(timeEntryDao.generateNextEntryId());
+        }
+        
         // Set entry date if not set
         if (timeEntry.getEntryDate() == null) {
             timeEntry.setEntryDate(LocalDate.now());
@@ -163,6 +193,18 @@ public class TimeEntryController {
         return result > 0;
     }
     
+    /**
+     * Mark several time entries as billed at once
+     * 
+     * @param timeEntryIds The time entry IDs
+     * @param invoiceId The invoice ID
+     * @return true if successful
+     */
+    public boolean markTimeEntriesAsBilled(List<Integer> timeEntryIds, int invoiceId) {
+        int result = timeEntryDao.markTimeEntriesAsBilled(timeEntryIds, invoiceId);
+        return result > 0;
+    }
+    
     /**
      * Mark all time entries for a case as billed
      * 
@@ -237,7 +279,6 @@ public List<TimeEntry> getCaseTimeEntries(int caseId) {
     if (caseId <= 0) {
         throw new IllegalArgumentException("Invalid case ID: " + caseId);
     }
-    CaseDao caseDao = new CaseDao();
     // Validate that the case exists
     Case legalCase = caseDao.findCaseById(caseId);
     if (legalCase == null) {
@@ -258,8 +299,6 @@ public List<TimeEntry> getUnbilledTimeEntries(int caseId) {
     if (caseId <= 0) {
         throw new IllegalArgumentException("Invalid case ID: " + caseId);
     }
-    CaseDao caseDao = new CaseDao();
-    
     // Validate that the case exists
     Case legalCase = caseDao.findCaseById(caseId);
     if (legalCase == null) {
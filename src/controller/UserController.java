@@ -1,5 +1,6 @@
 package controller;
 
+import dao.DaoRegistry;
 import dao.LoginDao;
 import model.User;
 
@@ -15,7 +16,8 @@ public class UserController {
      * Constructor
      */
     public UserController() {
-        this.loginDao = new LoginDao();
+        DaoRegistry daos = DaoRegistry.getDefault();
+        this.loginDao = daos.getLoginDao();
     }
     
     /**
@@ -1,25 +1,48 @@
 package dao;
 
+import db.Database;
 import model.Attorney;
 import model.Case;
 
 import java.sql.Connection;
 import java.sql.Date;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import javax.sql.DataSource;
 
 /**
  * Data Access Object for Attorney operations.
  */
 public class AttorneyDao {
-    private String db_url = "jdbc:mysql://localhost:3306/legalcasemgmtdb";
-    private String db_username = "root";
-    private String db_passwd = "Ornella12345!";
+    private final DataSource dataSource;
+    
+    // Ranked search over the full-text index
+    private final TextSearchQuery<Attorney> attorneySearch =
+            new TextSearchQuery<>(FullTextIndex.ATTORNEYS, this::extractAttorneyFromResultSet);
+    
+    // Attorneys by ID, looked up for every time entry shown
+    private final EntityCache<Attorney> attorneyCache =
+            new EntityCache<>("attorneys", 500, EntityCache.DEFAULT_TTL_MILLIS, AttorneyDao::copyAttorney);
+    
+    /**
+     * Constructor using the shared application data source
+     */
+    public AttorneyDao() {
+        this(Database.getDataSource());
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param dataSource The data source to obtain connections from
+     */
+    public AttorneyDao(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
     
     /**
      * Creates a new attorney in the database
@@ -28,16 +51,12 @@ public class AttorneyDao {
      * @return Number of rows affected
      */
     public int createAttorney(Attorney attorney) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "INSERT INTO attorneys (attorney_id, first_name, last_name, email, phone, " +
-                        "specialization, bar_number, hourly_rate) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
+        // Prepare statement
+        String sql = "INSERT INTO attorneys (attorney_id, first_name, last_name, email, phone, " +
+                    "specialization, bar_number, hourly_rate) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pst.setString(1, attorney.getAttorneyId());
             pst.setString(2, attorney.getFirstName());
             pst.setString(3, attorney.getLastName());
@@ -52,15 +71,13 @@ public class AttorneyDao {
             
             // Get generated ID
             if (rowsAffected > 0) {
-                ResultSet rs = pst.getGeneratedKeys();
-                if (rs.next()) {
-                    attorney.setId(rs.getInt(1));
+                try (ResultSet rs = pst.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        attorney.setId(rs.getInt(1));
+                    }
                 }
-                rs.close();
             }
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -76,16 +93,12 @@ public class AttorneyDao {
      * @return Number of rows affected
      */
     public int updateAttorney(Attorney attorney) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "UPDATE attorneys SET attorney_id = ?, first_name = ?, last_name = ?, " +
-                        "email = ?, phone = ?, specialization = ?, bar_number = ?, hourly_rate = ? " +
-                        "WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
+        // Prepare statement
+        String sql = "UPDATE attorneys SET attorney_id = ?, first_name = ?, last_name = ?, " +
+                    "email = ?, phone = ?, specialization = ?, bar_number = ?, hourly_rate = ? " +
+                    "WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, attorney.getAttorneyId());
             pst.setString(2, attorney.getFirstName());
             pst.setString(3, attorney.getLastName());
@@ -98,9 +111,8 @@ public class AttorneyDao {
             
             // Execute statement
             int rowsAffected = pst.executeUpdate();
+            attorneyCache.invalidate(attorney.getId());
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -117,20 +129,24 @@ public class AttorneyDao {
      */
     public Attorney findAttorneyById(int id) {
         try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM attorneys WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, id);
-            
-            ResultSet rs = pst.executeQuery();
-            Attorney attorney = null;
-            
-            if (rs.next()) {
-                attorney = extractAttorneyFromResultSet(rs);
-            }
-            
-            con.close();
-            return attorney;
+            return attorneyCache.get(id, key -> {
+                try (Connection con = dataSource.getConnection()) {
+                    String sql = "SELECT * FROM attorneys WHERE id = ?";
+                    try (PreparedStatement pst = con.prepareStatement(sql)) {
+                        pst.setInt(1, key);
+                        
+                        try (ResultSet rs = pst.executeQuery()) {
+                            Attorney attorney = null;
+                            
+                            if (rs.next()) {
+                                attorney = extractAttorneyFromResultSet(rs);
+                            }
+                            
+                            return attorney;
+                        }
+                    }
+                }
+            });
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -145,22 +161,20 @@ public class AttorneyDao {
      * @return The attorney if found, null otherwise
      */
     public Attorney findAttorneyByAttorneyId(String attorneyId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM attorneys WHERE attorney_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM attorneys WHERE attorney_id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, attorneyId);
             
-            ResultSet rs = pst.executeQuery();
-            Attorney attorney = null;
-            
-            if (rs.next()) {
-                attorney = extractAttorneyFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                Attorney attorney = null;
+                
+                if (rs.next()) {
+                    attorney = extractAttorneyFromResultSet(rs);
+                }
+                
+                return attorney;
             }
-            
-            con.close();
-            return attorney;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -168,38 +182,14 @@ public class AttorneyDao {
     }
     
     /**
-     * Finds attorneys by name (first name, last name, or full name)
+     * Finds attorneys whose first or last name match every word of the
+     * search text, so "jo smi" finds John Smith; best match first
      * 
      * @param name The name to search for
-     * @return List of matching attorneys
+     * @return List of matching attorneys, at most 500
      */
     public List<Attorney> findAttorneysByName(String name) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM attorneys WHERE first_name LIKE ? OR last_name LIKE ? OR " +
-                        "CONCAT(first_name, ' ', last_name) LIKE ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            String searchPattern = "%" + name + "%";
-            pst.setString(1, searchPattern);
-            pst.setString(2, searchPattern);
-            pst.setString(3, searchPattern);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Attorney> attorneyList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Attorney attorney = extractAttorneyFromResultSet(rs);
-                attorneyList.add(attorney);
-            }
-            
-            con.close();
-            return attorneyList;
-            
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            return Collections.emptyList();
-        }
+        return attorneySearch.search(dataSource, name);
     }
     
     /**
@@ -209,23 +199,21 @@ public class AttorneyDao {
      * @return List of matching attorneys
      */
     public List<Attorney> findAttorneysBySpecialization(String specialization) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM attorneys WHERE specialization = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM attorneys WHERE specialization = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, specialization);
             
-            ResultSet rs = pst.executeQuery();
-            List<Attorney> attorneyList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Attorney attorney = extractAttorneyFromResultSet(rs);
-                attorneyList.add(attorney);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Attorney> attorneyList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Attorney attorney = extractAttorneyFromResultSet(rs);
+                    attorneyList.add(attorney);
+                }
+                
+                return attorneyList;
             }
-            
-            con.close();
-            return attorneyList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -239,25 +227,23 @@ public class AttorneyDao {
      * @return List of attorneys assigned to the case
      */
     public List<Attorney> findAttorneysByCase(int caseId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT a.* FROM attorneys a " +
-                        "JOIN case_attorneys ca ON a.id = ca.attorney_id " +
-                        "WHERE ca.case_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT a.* FROM attorneys a " +
+                    "JOIN case_attorneys ca ON a.id = ca.attorney_id " +
+                    "WHERE ca.case_id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, caseId);
             
-            ResultSet rs = pst.executeQuery();
-            List<Attorney> attorneyList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Attorney attorney = extractAttorneyFromResultSet(rs);
-                attorneyList.add(attorney);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Attorney> attorneyList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Attorney attorney = extractAttorneyFromResultSet(rs);
+                    attorneyList.add(attorney);
+                }
+                
+                return attorneyList;
             }
-            
-            con.close();
-            return attorneyList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -270,28 +256,34 @@ public class AttorneyDao {
      * @return List of all attorneys
      */
     public List<Attorney> findAllAttorneys() {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM attorneys";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Attorney> attorneyList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Attorney attorney = extractAttorneyFromResultSet(rs);
-                attorneyList.add(attorney);
+        String sql = "SELECT * FROM attorneys";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Attorney> attorneyList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Attorney attorney = extractAttorneyFromResultSet(rs);
+                    attorneyList.add(attorney);
+                }
+                
+                return attorneyList;
             }
-            
-            con.close();
-            return attorneyList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
         }
     }
     
+    /**
+     * Get metrics for the attorney lookup cache
+     * 
+     * @return Cache statistics
+     */
+    public CacheStatistics getCacheStatistics() {
+        return attorneyCache.getStatistics();
+    }
+    
     /**
      * Extract attorney data from a ResultSet row
      * 
@@ -315,6 +307,15 @@ public class AttorneyDao {
         return attorney;
     }
     
+    /**
+     * Copies an attorney's own fields, leaving out their cases
+     */
+    private static Attorney copyAttorney(Attorney attorney) {
+        return new Attorney(attorney.getId(), attorney.getAttorneyId(), attorney.getFirstName(),
+                attorney.getLastName(), attorney.getEmail(), attorney.getPhone(),
+                attorney.getSpecialization(), attorney.getBarNumber(), attorney.getHourlyRate());
+    }
+    
     /**
      * Gets an attorney with all their cases
      * 
@@ -330,49 +331,50 @@ public class AttorneyDao {
             }
             
             // Then get their cases
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT c.* FROM cases c " +
-                        "JOIN case_attorneys ca ON c.id = ca.case_id " +
-                        "WHERE ca.attorney_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, attorneyId);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Case> cases = new ArrayList<>();
-            
-            while (rs.next()) {
-                Case legalCase = new Case();
-                legalCase.setId(rs.getInt("id"));
-                legalCase.setCaseNumber(rs.getString("case_number"));
-                legalCase.setTitle(rs.getString("title"));
-                legalCase.setCaseType(rs.getString("case_type"));
-                legalCase.setStatus(rs.getString("status"));
-                legalCase.setDescription(rs.getString("description"));
-                
-                // Handle dates
-                java.sql.Date fileDate = rs.getDate("file_date");
-                if (fileDate != null) {
-                    legalCase.setFileDate(fileDate.toLocalDate());
+            try (Connection con = dataSource.getConnection()) {
+                String sql = "SELECT c.* FROM cases c " +
+                            "JOIN case_attorneys ca ON c.id = ca.case_id " +
+                            "WHERE ca.attorney_id = ?";
+                try (PreparedStatement pst = con.prepareStatement(sql)) {
+                    pst.setInt(1, attorneyId);
+                    
+                    try (ResultSet rs = pst.executeQuery()) {
+                        List<Case> cases = new ArrayList<>();
+                        
+                        while (rs.next()) {
+                            Case legalCase = new Case();
+                            legalCase.setId(rs.getInt("id"));
+                            legalCase.setCaseNumber(rs.getString("case_number"));
+                            legalCase.setTitle(rs.getString("title"));
+                            legalCase.setCaseType(rs.getString("case_type"));
+                            legalCase.setStatus(rs.getString("status"));
+                            legalCase.setDescription(rs.getString("description"));
+                            
+                            // Handle dates
+                            java.sql.Date fileDate = rs.getDate("file_date");
+                            if (fileDate != null) {
+                                legalCase.setFileDate(fileDate.toLocalDate());
+                            }
+                            
+                            java.sql.Date closingDate = rs.getDate("closing_date");
+                            if (closingDate != null) {
+                                legalCase.setClosingDate(closingDate.toLocalDate());
+                            }
+                            
+                            legalCase.setCourt(rs.getString("court"));
+                            legalCase.setJudge(rs.getString("judge"));
+                            legalCase.setOpposingParty(rs.getString("opposing_party"));
+                            legalCase.setOpposingCounsel(rs.getString("opposing_counsel"));
+                            legalCase.setClientId(rs.getInt("client_id"));
+                            
+                            cases.add(legalCase);
+                        }
+                        
+                        attorney.setCases(cases);
+                        return attorney;
+                    }
                 }
-                
-                java.sql.Date closingDate = rs.getDate("closing_date");
-                if (closingDate != null) {
-                    legalCase.setClosingDate(closingDate.toLocalDate());
-                }
-                
-                legalCase.setCourt(rs.getString("court"));
-                legalCase.setJudge(rs.getString("judge"));
-                legalCase.setOpposingParty(rs.getString("opposing_party"));
-                legalCase.setOpposingCounsel(rs.getString("opposing_counsel"));
-                legalCase.setClientId(rs.getInt("client_id"));
-                
-                cases.add(legalCase);
             }
-            
-            attorney.setCases(cases);
-            con.close();
-            return attorney;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -389,27 +391,27 @@ public class AttorneyDao {
         Connection con = null;
         try {
             // Create connection
-            con = DriverManager.getConnection(db_url, db_username, db_passwd);
+            con = dataSource.getConnection();
             con.setAutoCommit(false);  // Start transaction
             
             // First delete from case_attorneys junction table
             String sql = "DELETE FROM case_attorneys WHERE attorney_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, attorneyId);
-            pst.executeUpdate();
+            try (PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setInt(1, attorneyId);
+                pst.executeUpdate();
+            }
             
             // Then delete the attorney
             sql = "DELETE FROM attorneys WHERE id = ?";
-            pst = con.prepareStatement(sql);
-            pst.setInt(1, attorneyId);
-            
-            int rowsAffected = pst.executeUpdate();
+            int rowsAffected;
+            try (PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setInt(1, attorneyId);
+                rowsAffected = pst.executeUpdate();
+            }
             
             // Commit transaction
             con.commit();
-            
-            // Close connection
-            con.close();
+            attorneyCache.invalidate(attorneyId);
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -442,25 +444,23 @@ public class AttorneyDao {
  * @return List of cases for the attorney
  */
 public List<Case> findCasesByAttorney(int attorneyId) {
-    try {
-        Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-        String sql = "SELECT c.* FROM cases c " + 
-                     "JOIN case_attorneys ca ON c.id = ca.case_id " +
-                     "WHERE ca.attorney_id = ?";
-        PreparedStatement pst = con.prepareStatement(sql);
+    String sql = "SELECT c.* FROM cases c " + 
+                 "JOIN case_attorneys ca ON c.id = ca.case_id " +
+                 "WHERE ca.attorney_id = ?";
+    try (Connection con = dataSource.getConnection();
+         PreparedStatement pst = con.prepareStatement(sql)) {
         pst.setInt(1, attorneyId);
         
-        ResultSet rs = pst.executeQuery();
-        List<Case> caseList = new ArrayList<>();
-        
-        while (rs.next()) {
-            Case legalCase = extractCaseFromResultSet(rs);
-            caseList.add(legalCase);
+        try (ResultSet rs = pst.executeQuery()) {
+            List<Case> caseList = new ArrayList<>();
+            
+            while (rs.next()) {
+                Case legalCase = extractCaseFromResultSet(rs);
+                caseList.add(legalCase);
+            }
+            
+            return caseList;
         }
-        
-        con.close();
-        return caseList;
-        
     } catch (Exception ex) {
         ex.printStackTrace();
         return Collections.emptyList();
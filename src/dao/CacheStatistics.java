@@ -0,0 +1,84 @@
+package dao;
+
+/**
+ * Point-in-time snapshot of entity cache metrics.
+ */
+public class CacheStatistics {
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+
+    /**
+     * Full constructor
+     */
+    public CacheStatistics(String name, int size, int maxSize, long hits, long misses,
+                           long evictions, long expirations, long invalidations) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Get the fraction of lookups answered from the cache
+     *
+     * @return Hit ratio between 0 and 1
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        if (lookups == 0) {
+            return 0.0;
+        }
+        return (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Cache[name=%s, size=%d, max=%d, hits=%d, misses=%d, evictions=%d, expirations=%d, " +
+            "invalidations=%d, hitRatio=%.1f%%]",
+            name, size, maxSize, hits, misses, evictions, expirations, invalidations,
+            getHitRatio() * 100.0);
+    }
+}
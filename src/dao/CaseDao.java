@@ -8,7 +8,6 @@ import model.Event;
 import model.TimeEntry;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
@@ -17,28 +16,60 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import javax.sql.DataSource;
 
 /**
  * Data Access Object for Case operations.
  */
 public class CaseDao {
-    private String db_url = "jdbc:mysql://localhost:3306/legalcasemgmtdb";
-    private String db_username = "root";
-    private String db_passwd = "Ornella12345!";
-    
-    // Other DAOs for related entities
-    private ClientDao clientDao;
-    private AttorneyDao attorneyDao;
-    private DocumentDao documentDao;
-    private EventDao eventDao;    
+    private final DataSource dataSource;
+    
+    // Registry supplying DAOs for related entities
+    private final DaoRegistry daos;
+    
+    // Case numbers CASE-2024-0001 and up, restarting every year
+    private final NumberSequence caseNumbers;
+    
+    // Keyset paging over all cases
+    private final KeysetQuery<Case> casePages = new KeysetQuery<>(
+            "SELECT * FROM cases", "id",
+            KeysetQuery.sortColumns("", "id", "case_number", "title", "status"),
+            "case_number", true, this::extractCaseFromResultSet);
+    
+    // Ranked search over the full-text index
+    private final TextSearchQuery<Case> caseSearch =
+            new TextSearchQuery<>(FullTextIndex.CASES, this::extractCaseFromResultSet);
+    
+    // Cases by ID, looked up for every event, document, invoice and time entry shown
+    private final EntityCache<Case> caseCache =
+            new EntityCache<>("cases", 2000, EntityCache.DEFAULT_TTL_MILLIS, CaseDao::copyCase);
+    
     /**
-     * Constructor
+     * Constructor using the shared application data source
      */
     public CaseDao() {
-        this.clientDao = new ClientDao();
-        this.attorneyDao = new AttorneyDao();
-        this.documentDao = new DocumentDao();
-        this.eventDao = new EventDao();
+        this(DaoRegistry.getDefault());
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param dataSource The data source to obtain connections from
+     */
+    public CaseDao(DataSource dataSource) {
+        this(new DaoRegistry(dataSource));
+    }
+    
+    /**
+     * Constructor used by the registry
+     * 
+     * @param daos Registry supplying related DAOs
+     */
+    CaseDao(DaoRegistry daos) {
+        this.dataSource = daos.getDataSource();
+        this.daos = daos;
+        this.caseNumbers = new NumberSequence(dataSource, "cases", "case_number", "CASE-", 4,
+                true, NumberSequence.DEFAULT_BLOCK_SIZE);
     }
     
     /**
@@ -48,16 +79,12 @@ public class CaseDao {
      * @return Number of rows affected
      */
     public int createCase(Case legalCase) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "INSERT INTO cases (case_number, title, case_type, status, description, " +
-                        "file_date, closing_date, court, judge, opposing_party, opposing_counsel, client_id) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
+        // Prepare statement
+        String sql = "INSERT INTO cases (case_number, title, case_type, status, description, " +
+                    "file_date, closing_date, court, judge, opposing_party, opposing_counsel, client_id) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pst.setString(1, legalCase.getCaseNumber());
             pst.setString(2, legalCase.getTitle());
             pst.setString(3, legalCase.getCaseType());
@@ -88,11 +115,11 @@ public class CaseDao {
             
             // Get generated ID
             if (rowsAffected > 0) {
-                ResultSet rs = pst.getGeneratedKeys();
-                if (rs.next()) {
-                    legalCase.setId(rs.getInt(1));
+                try (ResultSet rs = pst.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        legalCase.setId(rs.getInt(1));
+                    }
                 }
-                rs.close();
                 
                 // Insert case attorneys (many-to-many relationship)
                 if (legalCase.getAttorneys() != null && !legalCase.getAttorneys().isEmpty()) {
@@ -100,8 +127,6 @@ public class CaseDao {
                 }
             }
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -120,15 +145,15 @@ public class CaseDao {
      */
     private void insertCaseAttorneys(Connection con, int caseId, List<Attorney> attorneys) throws Exception {
         String sql = "INSERT INTO case_attorneys (case_id, attorney_id) VALUES (?, ?)";
-        PreparedStatement pst = con.prepareStatement(sql);
-        
-        for (Attorney attorney : attorneys) {
-            pst.setInt(1, caseId);
-            pst.setInt(2, attorney.getId());
-            pst.executeUpdate();
+        try (PreparedStatement pst = con.prepareStatement(sql)) {
+            for (Attorney attorney : attorneys) {
+                pst.setInt(1, caseId);
+                pst.setInt(2, attorney.getId());
+                pst.addBatch();
+            }
+            
+            pst.executeBatch();
         }
-        
-        pst.close();
     }
     
     /**
@@ -141,64 +166,61 @@ public class CaseDao {
         Connection con = null;
         try {
             // Create connection
-            con = DriverManager.getConnection(db_url, db_username, db_passwd);
+            con = dataSource.getConnection();
             con.setAutoCommit(false);  // Start transaction
             
             // Prepare statement
             String sql = "UPDATE cases SET case_number = ?, title = ?, case_type = ?, status = ?, " +
                         "description = ?, file_date = ?, closing_date = ?, court = ?, judge = ?, " +
                         "opposing_party = ?, opposing_counsel = ?, client_id = ? WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            pst.setString(1, legalCase.getCaseNumber());
-            pst.setString(2, legalCase.getTitle());
-            pst.setString(3, legalCase.getCaseType());
-            pst.setString(4, legalCase.getStatus());
-            pst.setString(5, legalCase.getDescription());
-            
-            // Handle dates
-            if (legalCase.getFileDate() != null) {
-                pst.setDate(6, Date.valueOf(legalCase.getFileDate()));
-            } else {
-                pst.setNull(6, java.sql.Types.DATE);
-            }
-            
-            if (legalCase.getClosingDate() != null) {
-                pst.setDate(7, Date.valueOf(legalCase.getClosingDate()));
-            } else {
-                pst.setNull(7, java.sql.Types.DATE);
-            }
-            
-            pst.setString(8, legalCase.getCourt());
-            pst.setString(9, legalCase.getJudge());
-            pst.setString(10, legalCase.getOpposingParty());
-            pst.setString(11, legalCase.getOpposingCounsel());
-            pst.setInt(12, legalCase.getClientId());
-            pst.setInt(13, legalCase.getId());
-            
-            // Execute statement
-            int rowsAffected = pst.executeUpdate();
-            
-            // Update case attorneys
-            if (legalCase.getAttorneys() != null) {
-                // First delete existing relationships
-                sql = "DELETE FROM case_attorneys WHERE case_id = ?";
-                PreparedStatement delPst = con.prepareStatement(sql);
-                delPst.setInt(1, legalCase.getId());
-                delPst.executeUpdate();
-                delPst.close();
+            try (PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setString(1, legalCase.getCaseNumber());
+                pst.setString(2, legalCase.getTitle());
+                pst.setString(3, legalCase.getCaseType());
+                pst.setString(4, legalCase.getStatus());
+                pst.setString(5, legalCase.getDescription());
                 
-                // Then insert new ones
-                insertCaseAttorneys(con, legalCase.getId(), legalCase.getAttorneys());
+                // Handle dates
+                if (legalCase.getFileDate() != null) {
+                    pst.setDate(6, Date.valueOf(legalCase.getFileDate()));
+                } else {
+                    pst.setNull(6, java.sql.Types.DATE);
+                }
+                
+                if (legalCase.getClosingDate() != null) {
+                    pst.setDate(7, Date.valueOf(legalCase.getClosingDate()));
+                } else {
+                    pst.setNull(7, java.sql.Types.DATE);
+                }
+                
+                pst.setString(8, legalCase.getCourt());
+                pst.setString(9, legalCase.getJudge());
+                pst.setString(10, legalCase.getOpposingParty());
+                pst.setString(11, legalCase.getOpposingCounsel());
+                pst.setInt(12, legalCase.getClientId());
+                pst.setInt(13, legalCase.getId());
+                
+                // Execute statement
+                int rowsAffected = pst.executeUpdate();
+                
+                // Update case attorneys
+                if (legalCase.getAttorneys() != null) {
+                    // First delete existing relationships
+                    sql = "DELETE FROM case_attorneys WHERE case_id = ?";
+                    try (PreparedStatement delPst = con.prepareStatement(sql)) {
+                        delPst.setInt(1, legalCase.getId());
+                        delPst.executeUpdate();
+                    }
+                    
+                    // Then insert new ones
+                    insertCaseAttorneys(con, legalCase.getId(), legalCase.getAttorneys());
+                }
+                
+                // Commit transaction
+                con.commit();
+                caseCache.invalidate(legalCase.getId());
+                return rowsAffected;
             }
-            
-            // Commit transaction
-            con.commit();
-            
-            // Close connection
-            con.close();
-            return rowsAffected;
-            
         } catch (Exception ex) {
             try {
                 // Rollback transaction on error
@@ -231,22 +253,17 @@ public class CaseDao {
      * @return Number of rows affected
      */
     public int updateCaseStatus(int caseId, String status) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "UPDATE cases SET status = ? WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
+        // Prepare statement
+        String sql = "UPDATE cases SET status = ? WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, status);
             pst.setInt(2, caseId);
             
             // Execute statement
             int rowsAffected = pst.executeUpdate();
+            caseCache.invalidate(caseId);
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -263,20 +280,13 @@ public class CaseDao {
      */
     public Case findCaseById(int id) {
         try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM cases WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, id);
-            
-            ResultSet rs = pst.executeQuery();
-            Case legalCase = null;
-            
-            if (rs.next()) {
-                legalCase = extractCaseFromResultSet(rs);
-            }
-            
-            con.close();
-            return legalCase;
+            return caseCache.get(id, key -> {
+                try (Connection con = dataSource.getConnection()) {
+                    Case legalCase = selectCaseById(con, key);
+                    
+                    return legalCase;
+                }
+            });
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -284,6 +294,38 @@ public class CaseDao {
         }
     }
     
+    /**
+     * Finds a case by ID using an existing connection
+     * 
+     * @param con Open database connection
+     * @param id The case ID to search for
+     * @return The case if found, null otherwise
+     * @throws Exception If an error occurs
+     */
+    Case findCaseById(Connection con, int id) throws Exception {
+        return caseCache.get(id, key -> selectCaseById(con, key));
+    }
+    
+    /**
+     * Reads a case row, bypassing the cache
+     */
+    private Case selectCaseById(Connection con, int id) throws Exception {
+        String sql = "SELECT * FROM cases WHERE id = ?";
+        try (PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setInt(1, id);
+            
+            try (ResultSet rs = pst.executeQuery()) {
+                Case legalCase = null;
+                
+                if (rs.next()) {
+                    legalCase = extractCaseFromResultSet(rs);
+                }
+                
+                return legalCase;
+            }
+        }
+    }
+    
     /**
      * Finds a case by case number
      * 
@@ -291,22 +333,20 @@ public class CaseDao {
      * @return The case if found, null otherwise
      */
     public Case findCaseByCaseNumber(String caseNumber) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM cases WHERE case_number = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM cases WHERE case_number = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, caseNumber);
             
-            ResultSet rs = pst.executeQuery();
-            Case legalCase = null;
-            
-            if (rs.next()) {
-                legalCase = extractCaseFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                Case legalCase = null;
+                
+                if (rs.next()) {
+                    legalCase = extractCaseFromResultSet(rs);
+                }
+                
+                return legalCase;
             }
-            
-            con.close();
-            return legalCase;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -314,36 +354,14 @@ public class CaseDao {
     }
     
     /**
-     * Finds cases by title or description
+     * Finds cases whose number, title or description match every word of
+     * the search text, best match first
      * 
      * @param searchText The text to search for
-     * @return List of matching cases
+     * @return List of matching cases, at most 500
      */
     public List<Case> findCasesByText(String searchText) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM cases WHERE title LIKE ? OR description LIKE ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            String searchPattern = "%" + searchText + "%";
-            pst.setString(1, searchPattern);
-            pst.setString(2, searchPattern);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Case> caseList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Case legalCase = extractCaseFromResultSet(rs);
-                caseList.add(legalCase);
-            }
-            
-            con.close();
-            return caseList;
-            
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            return Collections.emptyList();
-        }
+        return caseSearch.search(dataSource, searchText);
     }
     
     /**
@@ -353,23 +371,21 @@ public class CaseDao {
      * @return List of matching cases
      */
     public List<Case> findCasesByClient(int clientId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM cases WHERE client_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM cases WHERE client_id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, clientId);
             
-            ResultSet rs = pst.executeQuery();
-            List<Case> caseList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Case legalCase = extractCaseFromResultSet(rs);
-                caseList.add(legalCase);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Case> caseList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Case legalCase = extractCaseFromResultSet(rs);
+                    caseList.add(legalCase);
+                }
+                
+                return caseList;
             }
-            
-            con.close();
-            return caseList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -383,25 +399,23 @@ public class CaseDao {
      * @return List of matching cases
      */
     public List<Case> findCasesByAttorney(int attorneyId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT c.* FROM cases c " + 
-                         "JOIN case_attorneys ca ON c.id = ca.case_id " +
-                         "WHERE ca.attorney_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT c.* FROM cases c " + 
+                     "JOIN case_attorneys ca ON c.id = ca.case_id " +
+                     "WHERE ca.attorney_id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, attorneyId);
             
-            ResultSet rs = pst.executeQuery();
-            List<Case> caseList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Case legalCase = extractCaseFromResultSet(rs);
-                caseList.add(legalCase);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Case> caseList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Case legalCase = extractCaseFromResultSet(rs);
+                    caseList.add(legalCase);
+                }
+                
+                return caseList;
             }
-            
-            con.close();
-            return caseList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -415,23 +429,21 @@ public class CaseDao {
      * @return List of matching cases
      */
     public List<Case> findCasesByStatus(String status) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM cases WHERE status = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM cases WHERE status = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, status);
             
-            ResultSet rs = pst.executeQuery();
-            List<Case> caseList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Case legalCase = extractCaseFromResultSet(rs);
-                caseList.add(legalCase);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Case> caseList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Case legalCase = extractCaseFromResultSet(rs);
+                    caseList.add(legalCase);
+                }
+                
+                return caseList;
             }
-            
-            con.close();
-            return caseList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -445,23 +457,21 @@ public class CaseDao {
      * @return List of matching cases
      */
     public List<Case> findCasesByType(String caseType) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM cases WHERE case_type = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM cases WHERE case_type = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, caseType);
             
-            ResultSet rs = pst.executeQuery();
-            List<Case> caseList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Case legalCase = extractCaseFromResultSet(rs);
-                caseList.add(legalCase);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Case> caseList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Case legalCase = extractCaseFromResultSet(rs);
+                    caseList.add(legalCase);
+                }
+                
+                return caseList;
             }
-            
-            con.close();
-            return caseList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -476,24 +486,22 @@ public class CaseDao {
      * @return List of matching cases
      */
     public List<Case> findCasesByDateRange(LocalDate startDate, LocalDate endDate) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM cases WHERE file_date BETWEEN ? AND ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM cases WHERE file_date BETWEEN ? AND ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setDate(1, java.sql.Date.valueOf(startDate));
             pst.setDate(2, java.sql.Date.valueOf(endDate));
             
-            ResultSet rs = pst.executeQuery();
-            List<Case> caseList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Case legalCase = extractCaseFromResultSet(rs);
-                caseList.add(legalCase);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Case> caseList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Case legalCase = extractCaseFromResultSet(rs);
+                    caseList.add(legalCase);
+                }
+                
+                return caseList;
             }
-            
-            con.close();
-            return caseList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -506,28 +514,45 @@ public class CaseDao {
      * @return List of all cases
      */
     public List<Case> findAllCases() {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM cases";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Case> caseList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Case legalCase = extractCaseFromResultSet(rs);
-                caseList.add(legalCase);
+        String sql = "SELECT * FROM cases";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Case> caseList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Case legalCase = extractCaseFromResultSet(rs);
+                    caseList.add(legalCase);
+                }
+                
+                return caseList;
             }
-            
-            con.close();
-            return caseList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
         }
     }
     
+    /**
+     * Gets one page of cases. Without a sort key the page is ordered
+     * by case number.
+     * 
+     * @param request The page request; sortable by id, case_number, title or status
+     * @return The page of cases
+     */
+    public Page<Case> findCasesPage(PageRequest request) {
+        return casePages.fetch(dataSource, request);
+    }
+    
+    /**
+     * Get metrics for the case lookup cache
+     * 
+     * @return Cache statistics
+     */
+    public CacheStatistics getCacheStatistics() {
+        return caseCache.getStatistics();
+    }
+    
     /**
      * Extract case data from a ResultSet row
      * 
@@ -565,6 +590,17 @@ public class CaseDao {
         return legalCase;
     }
     
+    /**
+     * Copies a case's own fields, leaving out its client and associations
+     */
+    private static Case copyCase(Case legalCase) {
+        return new Case(legalCase.getId(), legalCase.getCaseNumber(), legalCase.getTitle(),
+                legalCase.getCaseType(), legalCase.getStatus(), legalCase.getDescription(),
+                legalCase.getFileDate(), legalCase.getClosingDate(), legalCase.getCourt(),
+                legalCase.getJudge(), legalCase.getOpposingParty(), legalCase.getOpposingCounsel(),
+                legalCase.getClientId());
+    }
+    
     /**
      * Gets a case with all its details including client, attorneys, documents, events, and time entries
      * 
@@ -572,76 +608,109 @@ public class CaseDao {
      * @return The case with all details loaded
      */
     public Case getCaseWithDetails(int caseId) {
+        return findCase(caseId, CaseFetchPlan.ALL);
+    }
+    
+    /**
+     * Loads a case together with the associations named in the fetch plan.
+     * All queries run on one connection and each association is loaded
+     * with a single query, whatever its size.
+     * 
+     * @param caseId The ID of the case
+     * @param plan The associations to load
+     * @return The case with the requested associations loaded, or null if not found
+     */
+    public Case findCase(int caseId, CaseFetchPlan plan) {
+        Connection con = null;
         try {
-            // First get the case
-            Case legalCase = findCaseById(caseId);
+            con = dataSource.getConnection();
+            
+            // First get the case, always fresh as this is the record being viewed
+            Case legalCase = selectCaseById(con, caseId);
             if (legalCase == null) {
                 return null;
             }
             
             // Load client
-            Client client = clientDao.findClientById(legalCase.getClientId());
-            legalCase.setClient(client);
+            if (plan.includes(CaseFetchPlan.Association.CLIENT)) {
+                Client client = daos.getClientDao().findClientById(con, legalCase.getClientId());
+                legalCase.setClient(client);
+            }
             
             // Load attorneys
-            loadCaseAttorneys(legalCase);
+            if (plan.includes(CaseFetchPlan.Association.ATTORNEYS)) {
+                loadCaseAttorneys(con, legalCase);
+            }
             
             // Load documents
-            List<Document> documents = documentDao.findDocumentsByCase(caseId);
-            legalCase.setDocuments(documents);
+            if (plan.includes(CaseFetchPlan.Association.DOCUMENTS)) {
+                List<Document> documents = daos.getDocumentDao().findDocumentsByCase(con, caseId);
+                legalCase.setDocuments(documents);
+            }
             
             // Load events
-            
-            List<Event> events = eventDao.findEventsByCase(caseId);
-            legalCase.setEvents(events);
-            TimeEntryDao timeEntryDao = new TimeEntryDao();
+            if (plan.includes(CaseFetchPlan.Association.EVENTS)) {
+                List<Event> events = daos.getEventDao().findEventsByCase(con, caseId);
+                legalCase.setEvents(events);
+            }
             
             // Load time entries
-            List<TimeEntry> timeEntries = timeEntryDao.findTimeEntriesByCase(caseId);
-            legalCase.setTimeEntries(timeEntries);
+            if (plan.includes(CaseFetchPlan.Association.TIME_ENTRIES)) {
+                List<TimeEntry> timeEntries = daos.getTimeEntryDao().findTimeEntriesByCase(con, caseId);
+                legalCase.setTimeEntries(timeEntries);
+            }
             
             return legalCase;
             
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
+        } finally {
+            try {
+                if (con != null) {
+                    con.close();
+                }
+            } catch (Exception closeEx) {
+                closeEx.printStackTrace();
+            }
         }
     }
     
     /**
      * Loads the attorneys associated with a case
      * 
+     * @param con Open database connection
      * @param legalCase The case to load attorneys for
      * @throws Exception If an error occurs
      */
-    private void loadCaseAttorneys(Case legalCase) throws Exception {
-        Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
+    private void loadCaseAttorneys(Connection con, Case legalCase) throws Exception {
         String sql = "SELECT a.* FROM attorneys a " +
                      "JOIN case_attorneys ca ON a.id = ca.attorney_id " +
                      "WHERE ca.case_id = ?";
-        PreparedStatement pst = con.prepareStatement(sql);
-        pst.setInt(1, legalCase.getId());
-        
-        ResultSet rs = pst.executeQuery();
-        List<Attorney> attorneys = new ArrayList<>();
-        
-        while (rs.next()) {
-            Attorney attorney = new Attorney();
-            attorney.setId(rs.getInt("id"));
-            attorney.setAttorneyId(rs.getString("attorney_id"));
-            attorney.setFirstName(rs.getString("first_name"));
-            attorney.setLastName(rs.getString("last_name"));
-            attorney.setEmail(rs.getString("email"));
-            attorney.setPhone(rs.getString("phone"));
-            attorney.setSpecialization(rs.getString("specialization"));
-            attorney.setBarNumber(rs.getString("bar_number"));
-            attorney.setHourlyRate(rs.getDouble("hourly_rate"));
-            
-            attorneys.add(attorney);
+        try (PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setInt(1, legalCase.getId());
+            
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Attorney> attorneys = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Attorney attorney = new Attorney();
+                    attorney.setId(rs.getInt("id"));
+                    attorney.setAttorneyId(rs.getString("attorney_id"));
+                    attorney.setFirstName(rs.getString("first_name"));
+                    attorney.setLastName(rs.getString("last_name"));
+                    attorney.setEmail(rs.getString("email"));
+                    attorney.setPhone(rs.getString("phone"));
+                    attorney.setSpecialization(rs.getString("specialization"));
+                    attorney.setBarNumber(rs.getString("bar_number"));
+                    attorney.setHourlyRate(rs.getDouble("hourly_rate"));
+                    
+                    attorneys.add(attorney);
+                }
+                
+                legalCase.setAttorneys(attorneys);
+            }
         }
-        
-        legalCase.setAttorneys(attorneys);
-        con.close();
     }
     
     /**
@@ -654,27 +723,27 @@ public class CaseDao {
         Connection con = null;
         try {
             // Create connection
-            con = DriverManager.getConnection(db_url, db_username, db_passwd);
+            con = dataSource.getConnection();
             con.setAutoCommit(false);  // Start transaction
             
             // First delete related records in junction tables
             String sql = "DELETE FROM case_attorneys WHERE case_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, caseId);
-            pst.executeUpdate();
+            try (PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setInt(1, caseId);
+                pst.executeUpdate();
+            }
             
             // Then delete the case
             sql = "DELETE FROM cases WHERE id = ?";
-            pst = con.prepareStatement(sql);
-            pst.setInt(1, caseId);
-            
-            int rowsAffected = pst.executeUpdate();
+            int rowsAffected;
+            try (PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setInt(1, caseId);
+                rowsAffected = pst.executeUpdate();
+            }
             
             // Commit transaction
             con.commit();
-            
-            // Close connection
-            con.close();
+            caseCache.invalidate(caseId);
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -700,4 +769,20 @@ public class CaseDao {
             }
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Generates the next case number from the case number sequence
+     * 
+     * @return Next available case number
+     */
+    public String generateNextCaseNumber() {
+        try {
+            return caseNumbers.next();
+            
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            // Default format if error occurs
+            return "CASE-" + System.currentTimeMillis();
+        }
+    }
+}
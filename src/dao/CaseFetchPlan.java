@@ -0,0 +1,87 @@
+package dao;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Describes which associations to load together with a case.
+ * Everything in the plan is fetched on a single connection with one
+ * query per association, so the cost of opening a case no longer grows
+ * with the number of related DAOs involved.
+ */
+public final class CaseFetchPlan {
+
+    /**
+     * Associations of a case that can be loaded eagerly
+     */
+    public enum Association {
+        CLIENT,
+        ATTORNEYS,
+        DOCUMENTS,
+        EVENTS,
+        TIME_ENTRIES
+    }
+
+    /** Load only the case row */
+    public static final CaseFetchPlan CASE_ONLY = new CaseFetchPlan(EnumSet.noneOf(Association.class));
+
+    /** Load the case with every association, as shown by the case details dialog */
+    public static final CaseFetchPlan ALL = new CaseFetchPlan(EnumSet.allOf(Association.class));
+
+    private final Set<Association> associations;
+
+    private CaseFetchPlan(EnumSet<Association> associations) {
+        this.associations = Collections.unmodifiableSet(associations);
+    }
+
+    /**
+     * Creates a plan loading the given associations
+     *
+     * @param associations Associations to load
+     * @return The fetch plan
+     */
+    public static CaseFetchPlan of(Association... associations) {
+        EnumSet<Association> set = EnumSet.noneOf(Association.class);
+        Collections.addAll(set, associations);
+        return new CaseFetchPlan(set);
+    }
+
+    /**
+     * Creates a copy of this plan that also loads the given association
+     *
+     * @param association Association to add
+     * @return The extended fetch plan
+     */
+    public CaseFetchPlan with(Association association) {
+        EnumSet<Association> set = associations.isEmpty()
+                ? EnumSet.noneOf(Association.class)
+                : EnumSet.copyOf(associations);
+        set.add(association);
+        return new CaseFetchPlan(set);
+    }
+
+    /**
+     * Checks whether the plan loads an association
+     *
+     * @param association The association to check
+     * @return true if it is part of the plan
+     */
+    public boolean includes(Association association) {
+        return associations.contains(association);
+    }
+
+    /**
+     * Get the associations in this plan
+     *
+     * @return Unmodifiable set of associations
+     */
+    public Set<Association> getAssociations() {
+        return associations;
+    }
+
+    @Override
+    public String toString() {
+        return "CaseFetchPlan" + associations;
+    }
+}
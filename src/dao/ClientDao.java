@@ -4,7 +4,6 @@ import model.Client;
 import model.Case;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
@@ -13,14 +12,61 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import javax.sql.DataSource;
 
 /**
  * Data Access Object for Client operations.
  */
 public class ClientDao {
-    private String db_url = "jdbc:mysql://localhost:3306/legalcasemgmtdb";
-    private String db_username = "root";
-    private String db_passwd = "Ornella12345!";
+    private final DataSource dataSource;
+    
+    // Registry supplying DAOs for related entities
+    private final DaoRegistry daos;
+    
+    // Client IDs CLI-2024-0001 and up, restarting every year
+    private final NumberSequence clientIds;
+    
+    // Keyset paging over all clients
+    private final KeysetQuery<Client> clientPages = new KeysetQuery<>(
+            "SELECT * FROM clients", "id",
+            KeysetQuery.sortColumns("", "id", "name", "client_id"),
+            "name", true, this::extractClientFromResultSet);
+    
+    // Ranked search over the full-text index
+    private final TextSearchQuery<Client> clientSearch =
+            new TextSearchQuery<>(FullTextIndex.CLIENTS, this::extractClientFromResultSet);
+    
+    // Clients by ID, looked up for every case, invoice and payment shown
+    private final EntityCache<Client> clientCache =
+            new EntityCache<>("clients", 1000, EntityCache.DEFAULT_TTL_MILLIS, ClientDao::copyClient);
+    
+    /**
+     * Constructor using the shared application data source
+     */
+    public ClientDao() {
+        this(DaoRegistry.getDefault());
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param dataSource The data source to obtain connections from
+     */
+    public ClientDao(DataSource dataSource) {
+        this(new DaoRegistry(dataSource));
+    }
+    
+    /**
+     * Constructor used by the registry
+     * 
+     * @param daos Registry supplying related DAOs
+     */
+    ClientDao(DaoRegistry daos) {
+        this.dataSource = daos.getDataSource();
+        this.daos = daos;
+        this.clientIds = new NumberSequence(dataSource, "clients", "client_id", "CLI-", 4,
+                true, NumberSequence.DEFAULT_BLOCK_SIZE);
+    }
     
     /**
      * Creates a new client in the database
@@ -29,15 +75,11 @@ public class ClientDao {
      * @return Number of rows affected
      */
     public int createClient(Client client) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "INSERT INTO clients (client_id, name, contact_person, email, phone, address, " +
-                         "client_type, registration_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
+        // Prepare statement
+        String sql = "INSERT INTO clients (client_id, name, contact_person, email, phone, address, " +
+                     "client_type, registration_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pst.setString(1, client.getClientId());
             pst.setString(2, client.getName());
             pst.setString(3, client.getContactPerson());
@@ -58,15 +100,13 @@ public class ClientDao {
             
             // Get generated ID
             if (rowsAffected > 0) {
-                ResultSet rs = pst.getGeneratedKeys();
-                if (rs.next()) {
-                    client.setId(rs.getInt(1));
+                try (ResultSet rs = pst.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        client.setId(rs.getInt(1));
+                    }
                 }
-                rs.close();
             }
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -82,16 +122,12 @@ public class ClientDao {
      * @return Number of rows affected
      */
     public int updateClient(Client client) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "UPDATE clients SET client_id = ?, name = ?, contact_person = ?, " +
-                         "email = ?, phone = ?, address = ?, client_type = ?, registration_date = ? " +
-                         "WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
+        // Prepare statement
+        String sql = "UPDATE clients SET client_id = ?, name = ?, contact_person = ?, " +
+                     "email = ?, phone = ?, address = ?, client_type = ?, registration_date = ? " +
+                     "WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, client.getClientId());
             pst.setString(2, client.getName());
             pst.setString(3, client.getContactPerson());
@@ -111,9 +147,8 @@ public class ClientDao {
             
             // Execute statement
             int rowsAffected = pst.executeUpdate();
+            clientCache.invalidate(client.getId());
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -130,20 +165,13 @@ public class ClientDao {
      */
     public Client findClientById(int id) {
         try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM clients WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, id);
-            
-            ResultSet rs = pst.executeQuery();
-            Client client = null;
-            
-            if (rs.next()) {
-                client = extractClientFromResultSet(rs);
-            }
-            
-            con.close();
-            return client;
+            return clientCache.get(id, key -> {
+                try (Connection con = dataSource.getConnection()) {
+                    Client client = selectClientById(con, key);
+                    
+                    return client;
+                }
+            });
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -151,6 +179,38 @@ public class ClientDao {
         }
     }
     
+    /**
+     * Finds a client by ID using an existing connection
+     * 
+     * @param con Open database connection
+     * @param id The client ID to search for
+     * @return The client if found, null otherwise
+     * @throws Exception If an error occurs
+     */
+    Client findClientById(Connection con, int id) throws Exception {
+        return clientCache.get(id, key -> selectClientById(con, key));
+    }
+    
+    /**
+     * Reads a client row, bypassing the cache
+     */
+    private Client selectClientById(Connection con, int id) throws Exception {
+        String sql = "SELECT * FROM clients WHERE id = ?";
+        try (PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setInt(1, id);
+            
+            try (ResultSet rs = pst.executeQuery()) {
+                Client client = null;
+                
+                if (rs.next()) {
+                    client = extractClientFromResultSet(rs);
+                }
+                
+                return client;
+            }
+        }
+    }
+    
     /**
      * Finds a client by client ID
      * 
@@ -158,22 +218,20 @@ public class ClientDao {
      * @return The client if found, null otherwise
      */
     public Client findClientByClientId(String clientId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM clients WHERE client_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM clients WHERE client_id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, clientId);
             
-            ResultSet rs = pst.executeQuery();
-            Client client = null;
-            
-            if (rs.next()) {
-                client = extractClientFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                Client client = null;
+                
+                if (rs.next()) {
+                    client = extractClientFromResultSet(rs);
+                }
+                
+                return client;
             }
-            
-            con.close();
-            return client;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -181,36 +239,14 @@ public class ClientDao {
     }
     
     /**
-     * Finds clients by name or contact person
+     * Finds clients whose name or contact person match every word of the
+     * search text, best match first
      * 
      * @param name The name to search for
-     * @return List of matching clients
+     * @return List of matching clients, at most 500
      */
     public List<Client> findClientsByName(String name) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM clients WHERE name LIKE ? OR contact_person LIKE ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            String searchPattern = "%" + name + "%";
-            pst.setString(1, searchPattern);
-            pst.setString(2, searchPattern);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Client> clientList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Client client = extractClientFromResultSet(rs);
-                clientList.add(client);
-            }
-            
-            con.close();
-            return clientList;
-            
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            return Collections.emptyList();
-        }
+        return clientSearch.search(dataSource, name);
     }
     
     /**
@@ -220,22 +256,20 @@ public class ClientDao {
      * @return The client if found, null otherwise
      */
     public Client findClientByEmail(String email) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM clients WHERE email = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM clients WHERE email = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, email);
             
-            ResultSet rs = pst.executeQuery();
-            Client client = null;
-            
-            if (rs.next()) {
-                client = extractClientFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                Client client = null;
+                
+                if (rs.next()) {
+                    client = extractClientFromResultSet(rs);
+                }
+                
+                return client;
             }
-            
-            con.close();
-            return client;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -249,23 +283,21 @@ public class ClientDao {
      * @return List of matching clients
      */
     public List<Client> findClientsByType(String clientType) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM clients WHERE client_type = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM clients WHERE client_type = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, clientType);
             
-            ResultSet rs = pst.executeQuery();
-            List<Client> clientList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Client client = extractClientFromResultSet(rs);
-                clientList.add(client);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Client> clientList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Client client = extractClientFromResultSet(rs);
+                    clientList.add(client);
+                }
+                
+                return clientList;
             }
-            
-            con.close();
-            return clientList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -278,28 +310,45 @@ public class ClientDao {
      * @return List of all clients
      */
     public List<Client> findAllClients() {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM clients";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Client> clientList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Client client = extractClientFromResultSet(rs);
-                clientList.add(client);
+        String sql = "SELECT * FROM clients";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Client> clientList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Client client = extractClientFromResultSet(rs);
+                    clientList.add(client);
+                }
+                
+                return clientList;
             }
-            
-            con.close();
-            return clientList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
         }
     }
     
+    /**
+     * Gets one page of clients. Without a sort key the page is ordered
+     * by name.
+     * 
+     * @param request The page request; sortable by id, name or client_id
+     * @return The page of clients
+     */
+    public Page<Client> findClientsPage(PageRequest request) {
+        return clientPages.fetch(dataSource, request);
+    }
+    
+    /**
+     * Get metrics for the client lookup cache
+     * 
+     * @return Cache statistics
+     */
+    public CacheStatistics getCacheStatistics() {
+        return clientCache.getStatistics();
+    }
+    
     /**
      * Extract client data from a ResultSet row
      * 
@@ -328,6 +377,15 @@ public class ClientDao {
         return client;
     }
     
+    /**
+     * Copies a client's own fields, leaving out its cases
+     */
+    private static Client copyClient(Client client) {
+        return new Client(client.getId(), client.getClientId(), client.getName(), client.getContactPerson(),
+                client.getEmail(), client.getPhone(), client.getAddress(), client.getClientType(),
+                client.getRegistrationDate());
+    }
+    
     /**
      * Gets a client with all their cases
      * 
@@ -343,48 +401,49 @@ public class ClientDao {
             }
             
             // Then get their cases
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM cases WHERE client_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, clientId);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Case> cases = new ArrayList<>();
-            
-            while (rs.next()) {
-                Case legalCase = new Case();
-                legalCase.setId(rs.getInt("id"));
-                legalCase.setCaseNumber(rs.getString("case_number"));
-                legalCase.setTitle(rs.getString("title"));
-                legalCase.setCaseType(rs.getString("case_type"));
-                legalCase.setStatus(rs.getString("status"));
-                legalCase.setDescription(rs.getString("description"));
-                
-                // Handle dates
-                Date fileDate = rs.getDate("file_date");
-                if (fileDate != null) {
-                    legalCase.setFileDate(fileDate.toLocalDate());
-                }
-                
-                Date closingDate = rs.getDate("closing_date");
-                if (closingDate != null) {
-                    legalCase.setClosingDate(closingDate.toLocalDate());
+            try (Connection con = dataSource.getConnection()) {
+                String sql = "SELECT * FROM cases WHERE client_id = ?";
+                try (PreparedStatement pst = con.prepareStatement(sql)) {
+                    pst.setInt(1, clientId);
+                    
+                    try (ResultSet rs = pst.executeQuery()) {
+                        List<Case> cases = new ArrayList<>();
+                        
+                        while (rs.next()) {
+                            Case legalCase = new Case();
+                            legalCase.setId(rs.getInt("id"));
+                            legalCase.setCaseNumber(rs.getString("case_number"));
+                            legalCase.setTitle(rs.getString("title"));
+                            legalCase.setCaseType(rs.getString("case_type"));
+                            legalCase.setStatus(rs.getString("status"));
+                            legalCase.setDescription(rs.getString("description"));
+                            
+                            // Handle dates
+                            Date fileDate = rs.getDate("file_date");
+                            if (fileDate != null) {
+                                legalCase.setFileDate(fileDate.toLocalDate());
+                            }
+                            
+                            Date closingDate = rs.getDate("closing_date");
+                            if (closingDate != null) {
+                                legalCase.setClosingDate(closingDate.toLocalDate());
+                            }
+                            
+                            legalCase.setCourt(rs.getString("court"));
+                            legalCase.setJudge(rs.getString("judge"));
+                            legalCase.setOpposingParty(rs.getString("opposing_party"));
+                            legalCase.setOpposingCounsel(rs.getString("opposing_counsel"));
+                            legalCase.setClientId(clientId);
+                            legalCase.setClient(client);
+                            
+                            cases.add(legalCase);
+                        }
+                        
+                        client.setCases(cases);
+                        return client;
+                    }
                 }
-                
-                legalCase.setCourt(rs.getString("court"));
-                legalCase.setJudge(rs.getString("judge"));
-                legalCase.setOpposingParty(rs.getString("opposing_party"));
-                legalCase.setOpposingCounsel(rs.getString("opposing_counsel"));
-                legalCase.setClientId(clientId);
-                legalCase.setClient(client);
-                
-                cases.add(legalCase);
             }
-            
-            client.setCases(cases);
-            con.close();
-            return client;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -398,24 +457,20 @@ public class ClientDao {
      * @return Number of rows affected
      */
     public int deleteClient(int clientId) {
-        Connection con = null;
-        try {
-            // Check if client has cases
-            CaseDao caseDao = new CaseDao();
-            List<Case> clientCases = caseDao.findCasesByClient(clientId);
-            if (clientCases != null && !clientCases.isEmpty()) {
-                // Cannot delete client with cases
-                return 0;
-            }
-            
-            // Create connection
-            con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "DELETE FROM clients WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        // Check if client has cases
+        List<Case> clientCases = daos.getCaseDao().findCasesByClient(clientId);
+        if (clientCases != null && !clientCases.isEmpty()) {
+            // Cannot delete client with cases
+            return 0;
+        }
+        
+        String sql = "DELETE FROM clients WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, clientId);
             
             int rowsAffected = pst.executeUpdate();
-            con.close();
+            clientCache.invalidate(clientId);
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -423,4 +478,20 @@ public class ClientDao {
             return 0;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Generates the next client ID from the client ID sequence
+     * 
+     * @return Next available client ID
+     */
+    public String generateNextClientId() {
+        try {
+            return clientIds.next();
+            
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            // Default format if error occurs
+            return "CLI-" + System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package dao;
+
+import db.Database;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import javax.sql.DataSource;
+
+/**
+ * Hands out one shared instance of each DAO for a data source.
+ * DAOs are created on first request and look up the DAOs they depend on
+ * through the registry when needed, so creating one DAO never builds
+ * the rest of the graph. DAOs hold no per-call state and are safe to
+ * share between threads.
+ */
+public final class DaoRegistry {
+    private static volatile DaoRegistry defaultRegistry;
+
+    private final DataSource dataSource;
+    private final Map<Class<?>, Object> daos = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param dataSource The data source shared by all DAOs of this registry
+     */
+    public DaoRegistry(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Get the registry backed by the shared application data source
+     *
+     * @return The default registry
+     */
+    public static DaoRegistry getDefault() {
+        DataSource current = Database.getDataSource();
+        DaoRegistry registry = defaultRegistry;
+        if (registry == null || registry.dataSource != current) {
+            synchronized (DaoRegistry.class) {
+                registry = defaultRegistry;
+                if (registry == null || registry.dataSource != current) {
+                    registry = new DaoRegistry(current);
+                    defaultRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Get the data source used by this registry's DAOs
+     *
+     * @return The data source
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public CaseDao getCaseDao() {
+        return get(CaseDao.class, CaseDao::new);
+    }
+
+    public ClientDao getClientDao() {
+        return get(ClientDao.class, ClientDao::new);
+    }
+
+    public AttorneyDao getAttorneyDao() {
+        return get(AttorneyDao.class, registry -> new AttorneyDao(registry.getDataSource()));
+    }
+
+    public DocumentDao getDocumentDao() {
+        return get(DocumentDao.class, DocumentDao::new);
+    }
+
+    public DocumentTextDao getDocumentTextDao() {
+        return get(DocumentTextDao.class, registry -> new DocumentTextDao(registry.getDataSource()));
+    }
+
+    public EventDao getEventDao() {
+        return get(EventDao.class, EventDao::new);
+    }
+
+    public TimeEntryDao getTimeEntryDao() {
+        return get(TimeEntryDao.class, TimeEntryDao::new);
+    }
+
+    public InvoiceDao getInvoiceDao() {
+        return get(InvoiceDao.class, InvoiceDao::new);
+    }
+
+    public PaymentDao getPaymentDao() {
+        return get(PaymentDao.class, PaymentDao::new);
+    }
+
+    public DashboardDao getDashboardDao() {
+        return get(DashboardDao.class, registry -> new DashboardDao(registry.getDataSource()));
+    }
+
+    public LoginDao getLoginDao() {
+        return get(LoginDao.class, registry -> new LoginDao(registry.getDataSource()));
+    }
+
+    /**
+     * Get metrics for the entity caches of this registry's DAOs
+     *
+     * @return Statistics for the client, case and attorney caches
+     */
+    public List<CacheStatistics> getCacheStatistics() {
+        return Arrays.asList(
+                getClientDao().getCacheStatistics(),
+                getCaseDao().getCacheStatistics(),
+                getAttorneyDao().getCacheStatistics());
+    }
+
+    private <T> T get(Class<T> type, Function<DaoRegistry, T> factory) {
+        // DAO constructors only store the registry, so this never recurses
+        return type.cast(daos.computeIfAbsent(type, key -> factory.apply(this)));
+    }
+}
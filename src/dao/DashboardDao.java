@@ -0,0 +1,87 @@
+package dao;
+
+import db.Database;
+import model.DashboardStatistics;
+import model.Invoice;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import javax.sql.DataSource;
+
+/**
+ * Data Access Object for the dashboard figures.
+ * All figures are aggregated in the database by a single statement, so
+ * loading the dashboard costs one round trip regardless of table sizes.
+ */
+public class DashboardDao {
+    private final DataSource dataSource;
+    
+    /** Case status counted as active on the dashboard */
+    public static final String ACTIVE_CASE_STATUS = "Open";
+    
+    // One row of scalar aggregates; binds the active case status and the
+    // paid and cancelled invoice statuses twice (count and balance)
+    private static final String STATISTICS_SQL =
+            "SELECT " +
+            "(SELECT COUNT(*) FROM cases WHERE status = ?) AS active_cases, " +
+            "(SELECT COUNT(*) FROM clients) AS total_clients, " +
+            "(SELECT COUNT(*) FROM events WHERE " + EventDao.UPCOMING_CONDITION + ") AS upcoming_events, " +
+            "(SELECT COUNT(*) FROM invoices WHERE " + InvoiceDao.OVERDUE_CONDITION + ") AS overdue_invoices, " +
+            "(SELECT COALESCE(SUM(amount - COALESCE(amount_paid, 0)), 0) FROM invoices WHERE " +
+            InvoiceDao.OVERDUE_CONDITION + ") AS overdue_balance";
+    
+    /**
+     * Constructor using the shared application data source
+     */
+    public DashboardDao() {
+        this(Database.getDataSource());
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param dataSource The data source to obtain connections from
+     */
+    public DashboardDao(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+    
+    /**
+     * Reads all dashboard figures in one query
+     * 
+     * @return The statistics, or null if they could not be loaded
+     */
+    public DashboardStatistics loadStatistics() {
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(STATISTICS_SQL)) {
+            pst.setString(1, ACTIVE_CASE_STATUS);
+            pst.setString(2, Invoice.STATUS_PAID);
+            pst.setString(3, Invoice.STATUS_CANCELLED);
+            pst.setString(4, Invoice.STATUS_PAID);
+            pst.setString(5, Invoice.STATUS_CANCELLED);
+            
+            try (ResultSet rs = pst.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                
+                BigDecimal overdueBalance = rs.getBigDecimal("overdue_balance");
+                return new DashboardStatistics(
+                    rs.getInt("active_cases"),
+                    rs.getInt("total_clients"),
+                    rs.getInt("upcoming_events"),
+                    rs.getInt("overdue_invoices"),
+                    overdueBalance,
+                    LocalDateTime.now()
+                );
+            }
+            
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+}
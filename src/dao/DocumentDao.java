@@ -4,7 +4,6 @@ import model.Document;
 import model.Case;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
@@ -12,15 +11,60 @@ import java.sql.Date;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
 
 /**
  * Data Access Object for Document operations.
  */
 public class DocumentDao {
-    private String db_url = "jdbc:mysql://localhost:3306/legalcasemgmtdb";
-    private String db_username = "root";
-    private String db_passwd = "Ornella12345!";
+    private final DataSource dataSource;
+    
+    // Registry supplying DAOs for related entities
+    private final DaoRegistry daos;
+    
+    // Document IDs DOC-2024-0001 and up, restarting every year
+    private final NumberSequence documentIds;
+    
+    // Keyset paging over all documents
+    private final KeysetQuery<Document> documentPages = new KeysetQuery<>(
+            "SELECT * FROM documents", "id",
+            KeysetQuery.sortColumns("", "id", "title", "date_added"),
+            "date_added", false, this::extractDocumentFromResultSet);
+    
+    // Ranked search over the full-text index
+    private final TextSearchQuery<Document> documentSearch =
+            new TextSearchQuery<>(FullTextIndex.DOCUMENTS, this::extractDocumentFromResultSet);
+    
+    /**
+     * Constructor using the shared application data source
+     */
+    public DocumentDao() {
+        this(DaoRegistry.getDefault());
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param dataSource The data source to obtain connections from
+     */
+    public DocumentDao(DataSource dataSource) {
+        this(new DaoRegistry(dataSource));
+    }
+    
+    /**
+     * Constructor used by the registry
+     * 
+     * @param daos Registry supplying related DAOs
+     */
+    DocumentDao(DaoRegistry daos) {
+        this.dataSource = daos.getDataSource();
+        this.daos = daos;
+        this.documentIds = new NumberSequence(dataSource, "documents", "document_id", "DOC-", 4,
+                true, NumberSequence.DEFAULT_BLOCK_SIZE);
+    }
     
     /**
      * Creates a new document in the database
@@ -29,16 +73,12 @@ public class DocumentDao {
      * @return Number of rows affected
      */
     public int createDocument(Document document) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "INSERT INTO documents (document_id, title, description, document_type, " +
-                        "file_path, date_added, document_date, case_id, created_by, status) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
+        // Prepare statement
+        String sql = "INSERT INTO documents (document_id, title, description, document_type, " +
+                    "file_path, date_added, document_date, case_id, created_by, status) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pst.setString(1, document.getDocumentId());
             pst.setString(2, document.getTitle());
             pst.setString(3, document.getDescription());
@@ -63,15 +103,13 @@ public class DocumentDao {
             
             // Get generated ID
             if (rowsAffected > 0) {
-                ResultSet rs = pst.getGeneratedKeys();
-                if (rs.next()) {
-                    document.setId(rs.getInt(1));
+                try (ResultSet rs = pst.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        document.setId(rs.getInt(1));
+                    }
                 }
-                rs.close();
             }
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -87,16 +125,12 @@ public class DocumentDao {
      * @return Number of rows affected
      */
     public int updateDocument(Document document) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "UPDATE documents SET document_id = ?, title = ?, description = ?, " +
-                        "document_type = ?, file_path = ?, date_added = ?, document_date = ?, " +
-                        "case_id = ?, created_by = ?, status = ? WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
+        // Prepare statement
+        String sql = "UPDATE documents SET document_id = ?, title = ?, description = ?, " +
+                    "document_type = ?, file_path = ?, date_added = ?, document_date = ?, " +
+                    "case_id = ?, created_by = ?, status = ? WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, document.getDocumentId());
             pst.setString(2, document.getTitle());
             pst.setString(3, document.getDescription());
@@ -120,8 +154,6 @@ public class DocumentDao {
             // Execute statement
             int rowsAffected = pst.executeUpdate();
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -138,22 +170,16 @@ public class DocumentDao {
      * @return Number of rows affected
      */
     public int updateDocumentStatus(int documentId, String status) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "UPDATE documents SET status = ? WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
+        // Prepare statement
+        String sql = "UPDATE documents SET status = ? WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, status);
             pst.setInt(2, documentId);
             
             // Execute statement
             int rowsAffected = pst.executeUpdate();
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -170,24 +196,22 @@ public class DocumentDao {
      * @return List of matching documents
      */
     public List<Document> findDocumentsByDateRange(LocalDate startDate, LocalDate endDate) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM documents WHERE document_date BETWEEN ? AND ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM documents WHERE document_date BETWEEN ? AND ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setDate(1, Date.valueOf(startDate));
             pst.setDate(2, Date.valueOf(endDate));
             
-            ResultSet rs = pst.executeQuery();
-            List<Document> documentList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Document document = extractDocumentFromResultSet(rs);
-                documentList.add(document);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Document> documentList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Document document = extractDocumentFromResultSet(rs);
+                    documentList.add(document);
+                }
+                
+                return documentList;
             }
-            
-            con.close();
-            return documentList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -200,28 +224,36 @@ public class DocumentDao {
      * @return List of all documents
      */
     public List<Document> findAllDocuments() {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM documents";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Document> documentList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Document document = extractDocumentFromResultSet(rs);
-                documentList.add(document);
+        String sql = "SELECT * FROM documents";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Document> documentList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Document document = extractDocumentFromResultSet(rs);
+                    documentList.add(document);
+                }
+                
+                return documentList;
             }
-            
-            con.close();
-            return documentList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
         }
     }
     
+    /**
+     * Gets one page of documents. Without a sort key the page is ordered
+     * by date added, newest first.
+     * 
+     * @param request The page request; sortable by id, title or date_added
+     * @return The page of documents
+     */
+    public Page<Document> findDocumentsPage(PageRequest request) {
+        return documentPages.fetch(dataSource, request);
+    }
+    
     /**
      * Extract document data from a ResultSet row
      * 
@@ -272,8 +304,7 @@ public class DocumentDao {
             }
             
             // Then get its case
-            CaseDao caseDao = new CaseDao();
-            Case legalCase = caseDao.findCaseById(document.getCaseId());
+            Case legalCase = daos.getCaseDao().findCaseById(document.getCaseId());
             document.setCase(legalCase);
             
             return document;
@@ -291,14 +322,12 @@ public class DocumentDao {
      * @return Number of rows affected
      */
     public int deleteDocument(int documentId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "DELETE FROM documents WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "DELETE FROM documents WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, documentId);
             
             int rowsAffected = pst.executeUpdate();
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -306,28 +335,50 @@ public class DocumentDao {
             return 0;
         }
     }
+    
+    /**
+     * Counts the documents whose file path starts with a prefix, such as
+     * the documents sharing one stored file
+     * 
+     * @param filePathPrefix The file path prefix
+     * @return Number of matching documents, or -1 if they could not be counted
+     */
+    public int countDocumentsByFilePathPrefix(String filePathPrefix) {
+        String sql = "SELECT COUNT(*) FROM documents WHERE file_path LIKE ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setString(1, filePathPrefix + "%");
+            
+            try (ResultSet rs = pst.executeQuery()) {
+                int count = rs.next() ? rs.getInt(1) : 0;
+                
+                return count;
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return -1;
+        }
+    }
 /** a document by ID
      * 
      * @param id The document ID to search for
      * @return The document if found, null otherwise
      */
     public Document findDocumentById(int id) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM documents WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM documents WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, id);
             
-            ResultSet rs = pst.executeQuery();
-            Document document = null;
-            
-            if (rs.next()) {
-                document = extractDocumentFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                Document document = null;
+                
+                if (rs.next()) {
+                    document = extractDocumentFromResultSet(rs);
+                }
+                
+                return document;
             }
-            
-            con.close();
-            return document;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -341,22 +392,20 @@ public class DocumentDao {
      * @return The document if found, null otherwise
      */
     public Document findDocumentByDocumentId(String documentId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM documents WHERE document_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM documents WHERE document_id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, documentId);
             
-            ResultSet rs = pst.executeQuery();
-            Document document = null;
-            
-            if (rs.next()) {
-                document = extractDocumentFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                Document document = null;
+                
+                if (rs.next()) {
+                    document = extractDocumentFromResultSet(rs);
+                }
+                
+                return document;
             }
-            
-            con.close();
-            return document;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -364,32 +413,56 @@ public class DocumentDao {
     }
     
     /**
-     * Finds documents by title or description
+     * Finds documents whose title or description match every word of the
+     * search text, best match first
      * 
      * @param searchText The text to search for
-     * @return List of matching documents
+     * @return List of matching documents, at most 500
      */
     public List<Document> findDocumentsByText(String searchText) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM documents WHERE title LIKE ? OR description LIKE ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            String searchPattern = "%" + searchText + "%";
-            pst.setString(1, searchPattern);
-            pst.setString(2, searchPattern);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Document> documentList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Document document = extractDocumentFromResultSet(rs);
-                documentList.add(document);
+        return documentSearch.search(dataSource, searchText);
+    }
+    
+    /**
+     * Finds documents by their database IDs in one query
+     * 
+     * @param ids The IDs, in the order the documents should be returned
+     * @return The documents found, in the order of the IDs
+     */
+    public List<Document> findDocumentsByIds(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        try (Connection con = dataSource.getConnection()) {
+            StringBuilder sql = new StringBuilder("SELECT * FROM documents WHERE id IN (");
+            for (int i = 0; i < ids.size(); i++) {
+                sql.append(i > 0 ? ", ?" : "?");
+            }
+            sql.append(")");
+            try (PreparedStatement pst = con.prepareStatement(sql.toString())) {
+                for (int i = 0; i < ids.size(); i++) {
+                    pst.setInt(i + 1, ids.get(i));
+                }
+                
+                try (ResultSet rs = pst.executeQuery()) {
+                    Map<Integer, Document> documentsById = new HashMap<>();
+                    while (rs.next()) {
+                        Document document = extractDocumentFromResultSet(rs);
+                        documentsById.put(document.getId(), document);
+                    }
+                    
+                    
+                    List<Document> documentList = new ArrayList<>();
+                    for (int id : ids) {
+                        Document document = documentsById.get(id);
+                        if (document != null) {
+                            documentList.add(document);
+                        }
+                    }
+                    return documentList;
+                }
             }
-            
-            con.close();
-            return documentList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -403,21 +476,9 @@ public class DocumentDao {
      * @return List of documents for the case
      */
     public List<Document> findDocumentsByCase(int caseId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM documents WHERE case_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, caseId);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Document> documentList = new ArrayList<>();
+        try (Connection con = dataSource.getConnection()) {
+            List<Document> documentList = findDocumentsByCase(con, caseId);
             
-            while (rs.next()) {
-                Document document = extractDocumentFromResultSet(rs);
-                documentList.add(document);
-            }
-            
-            con.close();
             return documentList;
             
         } catch (Exception ex) {
@@ -426,6 +487,32 @@ public class DocumentDao {
         }
     }
     
+    /**
+     * Finds documents by case ID using an existing connection
+     * 
+     * @param con Open database connection
+     * @param caseId The case ID to search for
+     * @return List of documents for the case
+     * @throws Exception If an error occurs
+     */
+    List<Document> findDocumentsByCase(Connection con, int caseId) throws Exception {
+        String sql = "SELECT * FROM documents WHERE case_id = ?";
+        try (PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setInt(1, caseId);
+            
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Document> documentList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Document document = extractDocumentFromResultSet(rs);
+                    documentList.add(document);
+                }
+                
+                return documentList;
+            }
+        }
+    }
+    
     /**
      * Finds documents by document type
      * 
@@ -433,26 +520,40 @@ public class DocumentDao {
      * @return List of matching documents
      */
     public List<Document> findDocumentsByType(String documentType) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM documents WHERE document_type = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM documents WHERE document_type = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, documentType);
             
-            ResultSet rs = pst.executeQuery();
-            List<Document> documentList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Document document = extractDocumentFromResultSet(rs);
-                documentList.add(document);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Document> documentList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Document document = extractDocumentFromResultSet(rs);
+                    documentList.add(document);
+                }
+                
+                return documentList;
             }
-            
-            con.close();
-            return documentList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
         }
     }
+    
+    /**
+     * Generates the next document ID from the document ID sequence
+     * 
+     * @return Next available document ID
+     */
+    public String generateNextDocumentId() {
+        try {
+            return documentIds.next();
+            
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            // Default format if error occurs
+            return "DOC-" + System.currentTimeMillis();
+        }
+    }
 }
@@ -0,0 +1,174 @@
+package dao;
+
+import db.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * Data Access Object for the text extracted from document files.
+ * Each document has at most one row in document_texts, keyed by the
+ * document's id, holding the plain text of its file; the full-text index
+ * on that table makes the contents of all documents searchable. Files
+ * without extractable text get an empty row, so they are not extracted
+ * again.
+ */
+public class DocumentTextDao {
+    private final DataSource dataSource;
+
+    /** DDL of the text table; run on first use and by db.SearchIndexMigration */
+    public static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS document_texts (" +
+            "id INT NOT NULL PRIMARY KEY, " +
+            "content MEDIUMTEXT NOT NULL, " +
+            "extracted_at TIMESTAMP NOT NULL)";
+
+    // Ranked search over the full-text index; reads only the id so the
+    // texts themselves never leave the database
+    private final TextSearchQuery<Integer> contentSearch =
+            new TextSearchQuery<>(FullTextIndex.DOCUMENT_TEXTS, "t.id", rs -> rs.getInt("id"));
+
+    private volatile boolean tableCreated;
+
+    /**
+     * Constructor using the shared application data source
+     */
+    public DocumentTextDao() {
+        this(Database.getDataSource());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param dataSource The data source to obtain connections from
+     */
+    public DocumentTextDao(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Stores the extracted text of a document, replacing any earlier text
+     *
+     * @param documentId The document's database ID
+     * @param content The extracted text, empty if the file has none
+     * @return Number of rows stored
+     */
+    public int saveText(int documentId, String content) {
+        try {
+            createTable();
+
+            try (Connection con = dataSource.getConnection()) {
+                con.setAutoCommit(false);
+                try (PreparedStatement delete = con.prepareStatement(
+                             "DELETE FROM document_texts WHERE id = ?");
+                     PreparedStatement insert = con.prepareStatement(
+                             "INSERT INTO document_texts (id, content, extracted_at) VALUES (?, ?, ?)")) {
+                    delete.setInt(1, documentId);
+                    delete.executeUpdate();
+
+                    insert.setInt(1, documentId);
+                    insert.setString(2, content);
+                    insert.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                    int rowsAffected = insert.executeUpdate();
+
+                    con.commit();
+                    return rowsAffected;
+
+                } catch (SQLException ex) {
+                    con.rollback();
+                    throw ex;
+                } finally {
+                    con.setAutoCommit(true);
+                }
+            }
+
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Deletes the extracted text of a document
+     *
+     * @param documentId The document's database ID
+     * @return Number of rows affected
+     */
+    public int deleteText(int documentId) {
+        try {
+            createTable();
+
+            try (Connection con = dataSource.getConnection();
+                 PreparedStatement pst = con.prepareStatement("DELETE FROM document_texts WHERE id = ?")) {
+                pst.setInt(1, documentId);
+                return pst.executeUpdate();
+            }
+
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Finds the documents whose text has not been extracted yet
+     *
+     * @return Database IDs of the documents, oldest first
+     */
+    public List<Integer> findDocumentIdsWithoutText() {
+        try {
+            createTable();
+
+            String sql = "SELECT d.id FROM documents d LEFT JOIN document_texts t ON t.id = d.id " +
+                         "WHERE t.id IS NULL ORDER BY d.id";
+            try (Connection con = dataSource.getConnection();
+                 PreparedStatement pst = con.prepareStatement(sql);
+                 ResultSet rs = pst.executeQuery()) {
+                List<Integer> documentIds = new ArrayList<>();
+                while (rs.next()) {
+                    documentIds.add(rs.getInt(1));
+                }
+                return documentIds;
+            }
+
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Finds the documents whose text matches every word of the search
+     * text, best match first
+     *
+     * @param searchText The text to search for
+     * @return Database IDs of the matching documents, at most 500
+     */
+    public List<Integer> findDocumentIdsByContent(String searchText) {
+        try {
+            createTable();
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return Collections.emptyList();
+        }
+        return contentSearch.search(dataSource, searchText);
+    }
+
+    private void createTable() throws SQLException {
+        if (!tableCreated) {
+            try (Connection con = dataSource.getConnection();
+                 Statement st = con.createStatement()) {
+                st.executeUpdate(CREATE_TABLE_SQL);
+            }
+            tableCreated = true;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package dao;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through cache of entities by database ID for one DAO.
+ * <p>
+ * Entries expire a fixed time after loading, so changes saved from other
+ * workstations become visible, and the least recently used entry is
+ * dropped once the cache is full. The owning DAO invalidates an entry
+ * whenever it writes the row itself. Entities are copied on the way in
+ * and out, so callers may modify what they get back. Missing rows are
+ * not cached.
+ *
+ * @param <T> The entity type
+ */
+final class EntityCache<T> {
+
+    /** Default time an entity is served from the cache, in milliseconds */
+    static final long DEFAULT_TTL_MILLIS = 60_000;
+
+    /**
+     * Loads one entity from the database on a cache miss
+     *
+     * @param <T> The entity type
+     */
+    @FunctionalInterface
+    interface Loader<T> {
+        T load(int id) throws Exception;
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final UnaryOperator<T> copier;
+
+    // Least recently used first; guarded by this, as are the fields below
+    private final LinkedHashMap<Integer, CacheEntry<T>> entries;
+
+    // Incremented by every invalidation so loads that overlap one are not cached
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    /**
+     * Constructor
+     *
+     * @param name Name reported in the statistics, e.g. the table name
+     * @param maxSize Maximum number of cached entities
+     * @param ttlMillis How long an entity is served before reloading it
+     * @param copier Makes an independent copy of an entity
+     */
+    EntityCache(String name, int maxSize, long ttlMillis, UnaryOperator<T> copier) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.copier = copier;
+        this.entries = new LinkedHashMap<Integer, CacheEntry<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CacheEntry<T>> eldest) {
+                if (size() > EntityCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get an entity, loading it if it is not cached or has expired.
+     * The loader runs without holding the cache lock.
+     *
+     * @param id The entity's database ID
+     * @param loader Loads the entity on a miss
+     * @return A copy of the entity, or null if the loader found none
+     * @throws Exception If the loader fails
+     */
+    T get(int id, Loader<T> loader) throws Exception {
+        long loadGeneration;
+        synchronized (this) {
+            CacheEntry<T> entry = entries.get(id);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits++;
+                    return copier.apply(entry.value);
+                }
+                entries.remove(id);
+                expirations++;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        T value = loader.load(id);
+        if (value != null) {
+            T cached = copier.apply(value);
+            synchronized (this) {
+                // A write during the load may have made the loaded row stale
+                if (generation == loadGeneration) {
+                    entries.put(id, new CacheEntry<>(cached, System.nanoTime()));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drop an entity after its row was changed or deleted
+     *
+     * @param id The entity's database ID
+     */
+    synchronized void invalidate(int id) {
+        entries.remove(id);
+        generation++;
+        invalidations++;
+    }
+
+    /**
+     * Get a snapshot of the cache metrics
+     *
+     * @return The statistics
+     */
+    synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(name, entries.size(), maxSize, hits, misses,
+                evictions, expirations, invalidations);
+    }
+
+    private static final class CacheEntry<T> {
+        final T value;
+        final long loadedAt;
+
+        CacheEntry(T value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -4,7 +4,6 @@ import model.Event;
 import model.Case;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
@@ -15,14 +14,58 @@ import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import javax.sql.DataSource;
 
 /**
  * Data Access Object for Event operations.
  */
 public class EventDao {
-    private String db_url = "jdbc:mysql://localhost:3306/legalcasemgmtdb";
-    private String db_username = "root";
-    private String db_passwd = "Ornella12345!";
+    private final DataSource dataSource;
+    
+    // Registry supplying DAOs for related entities
+    private final DaoRegistry daos;
+    
+    // Event IDs EVT-2024-0001 and up, restarting every year
+    private final NumberSequence eventIds;
+    
+    // Events after today that still need attention. Unlike Event.isUpcoming(),
+    // which checks the date only, completed and cancelled events are left out
+    static final String UPCOMING_CONDITION =
+            "event_date > CURDATE() AND status != 'Completed' AND status != 'Cancelled'";
+    
+    // Keyset paging over all events
+    private final KeysetQuery<Event> eventPages = new KeysetQuery<>(
+            "SELECT * FROM events", "id",
+            KeysetQuery.sortColumns("", "id", "event_date", "title"),
+            "event_date", true, this::extractEventFromResultSet);
+    
+    /**
+     * Constructor using the shared application data source
+     */
+    public EventDao() {
+        this(DaoRegistry.getDefault());
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param dataSource The data source to obtain connections from
+     */
+    public EventDao(DataSource dataSource) {
+        this(new DaoRegistry(dataSource));
+    }
+    
+    /**
+     * Constructor used by the registry
+     * 
+     * @param daos Registry supplying related DAOs
+     */
+    EventDao(DaoRegistry daos) {
+        this.dataSource = daos.getDataSource();
+        this.daos = daos;
+        this.eventIds = new NumberSequence(dataSource, "events", "event_id", "EVT-", 4,
+                true, NumberSequence.DEFAULT_BLOCK_SIZE);
+    }
     
     /**
      * Creates a new event in the database
@@ -31,16 +74,12 @@ public class EventDao {
      * @return Number of rows affected
      */
     public int createEvent(Event event) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "INSERT INTO events (event_id, title, description, event_type, event_date, " +
-                        "start_time, end_time, location, status, case_id, reminder_set, reminder_days) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
+        // Prepare statement
+        String sql = "INSERT INTO events (event_id, title, description, event_type, event_date, " +
+                    "start_time, end_time, location, status, case_id, reminder_set, reminder_days) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pst.setString(1, event.getEventId());
             pst.setString(2, event.getTitle());
             pst.setString(3, event.getDescription());
@@ -71,15 +110,13 @@ public class EventDao {
             
             // Get generated ID
             if (rowsAffected > 0) {
-                ResultSet rs = pst.getGeneratedKeys();
-                if (rs.next()) {
-                    event.setId(rs.getInt(1));
+                try (ResultSet rs = pst.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        event.setId(rs.getInt(1));
+                    }
                 }
-                rs.close();
             }
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -95,16 +132,12 @@ public class EventDao {
      * @return Number of rows affected
      */
     public int updateEvent(Event event) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "UPDATE events SET event_id = ?, title = ?, description = ?, event_type = ?, " +
-                        "event_date = ?, start_time = ?, end_time = ?, location = ?, status = ?, " +
-                        "case_id = ?, reminder_set = ?, reminder_days = ? WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
+        // Prepare statement
+        String sql = "UPDATE events SET event_id = ?, title = ?, description = ?, event_type = ?, " +
+                    "event_date = ?, start_time = ?, end_time = ?, location = ?, status = ?, " +
+                    "case_id = ?, reminder_set = ?, reminder_days = ? WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, event.getEventId());
             pst.setString(2, event.getTitle());
             pst.setString(3, event.getDescription());
@@ -134,8 +167,6 @@ public class EventDao {
             // Execute statement
             int rowsAffected = pst.executeUpdate();
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -152,22 +183,16 @@ public class EventDao {
      * @return Number of rows affected
      */
     public int updateEventStatus(int eventId, String status) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "UPDATE events SET status = ? WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
+        // Prepare statement
+        String sql = "UPDATE events SET status = ? WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, status);
             pst.setInt(2, eventId);
             
             // Execute statement
             int rowsAffected = pst.executeUpdate();
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -183,22 +208,20 @@ public class EventDao {
      * @return The event if found, null otherwise
      */
     public Event findEventById(int id) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM events WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM events WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, id);
             
-            ResultSet rs = pst.executeQuery();
-            Event event = null;
-            
-            if (rs.next()) {
-                event = extractEventFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                Event event = null;
+                
+                if (rs.next()) {
+                    event = extractEventFromResultSet(rs);
+                }
+                
+                return event;
             }
-            
-            con.close();
-            return event;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -212,22 +235,20 @@ public class EventDao {
      * @return The event if found, null otherwise
      */
     public Event findEventByEventId(String eventId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM events WHERE event_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM events WHERE event_id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, eventId);
             
-            ResultSet rs = pst.executeQuery();
-            Event event = null;
-            
-            if (rs.next()) {
-                event = extractEventFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                Event event = null;
+                
+                if (rs.next()) {
+                    event = extractEventFromResultSet(rs);
+                }
+                
+                return event;
             }
-            
-            con.close();
-            return event;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -241,21 +262,9 @@ public class EventDao {
      * @return List of events for the case
      */
     public List<Event> findEventsByCase(int caseId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM events WHERE case_id = ? ORDER BY event_date, start_time";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, caseId);
+        try (Connection con = dataSource.getConnection()) {
+            List<Event> eventList = findEventsByCase(con, caseId);
             
-            ResultSet rs = pst.executeQuery();
-            List<Event> eventList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Event event = extractEventFromResultSet(rs);
-                eventList.add(event);
-            }
-            
-            con.close();
             return eventList;
             
         } catch (Exception ex) {
@@ -264,6 +273,32 @@ public class EventDao {
         }
     }
     
+    /**
+     * Finds events by case ID using an existing connection
+     * 
+     * @param con Open database connection
+     * @param caseId The case ID to search for
+     * @return List of events for the case
+     * @throws Exception If an error occurs
+     */
+    List<Event> findEventsByCase(Connection con, int caseId) throws Exception {
+        String sql = "SELECT * FROM events WHERE case_id = ? ORDER BY event_date, start_time";
+        try (PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setInt(1, caseId);
+            
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Event> eventList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Event event = extractEventFromResultSet(rs);
+                    eventList.add(event);
+                }
+                
+                return eventList;
+            }
+        }
+    }
+    
     /**
      * Finds events by date
      * 
@@ -271,23 +306,21 @@ public class EventDao {
      * @return List of events on the date
      */
     public List<Event> findEventsByDate(LocalDate date) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM events WHERE event_date = ? ORDER BY start_time";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM events WHERE event_date = ? ORDER BY start_time";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setDate(1, Date.valueOf(date));
             
-            ResultSet rs = pst.executeQuery();
-            List<Event> eventList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Event event = extractEventFromResultSet(rs);
-                eventList.add(event);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Event> eventList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Event event = extractEventFromResultSet(rs);
+                    eventList.add(event);
+                }
+                
+                return eventList;
             }
-            
-            con.close();
-            return eventList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -302,24 +335,22 @@ public class EventDao {
      * @return List of events in the date range
      */
     public List<Event> findEventsByDateRange(LocalDate startDate, LocalDate endDate) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM events WHERE event_date BETWEEN ? AND ? ORDER BY event_date, start_time";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM events WHERE event_date BETWEEN ? AND ? ORDER BY event_date, start_time";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setDate(1, Date.valueOf(startDate));
             pst.setDate(2, Date.valueOf(endDate));
             
-            ResultSet rs = pst.executeQuery();
-            List<Event> eventList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Event event = extractEventFromResultSet(rs);
-                eventList.add(event);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Event> eventList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Event event = extractEventFromResultSet(rs);
+                    eventList.add(event);
+                }
+                
+                return eventList;
             }
-            
-            con.close();
-            return eventList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -333,23 +364,21 @@ public class EventDao {
      * @return List of events with the status
      */
     public List<Event> findEventsByStatus(String status) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM events WHERE status = ? ORDER BY event_date, start_time";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM events WHERE status = ? ORDER BY event_date, start_time";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, status);
             
-            ResultSet rs = pst.executeQuery();
-            List<Event> eventList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Event event = extractEventFromResultSet(rs);
-                eventList.add(event);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Event> eventList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Event event = extractEventFromResultSet(rs);
+                    eventList.add(event);
+                }
+                
+                return eventList;
             }
-            
-            con.close();
-            return eventList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -362,9 +391,7 @@ public class EventDao {
      * @return List of events with due reminders
      */
     public List<Event> findUpcomingEventsWithReminders() {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
+        try (Connection con = dataSource.getConnection()) {
             // Find events where reminder is set and the event date minus reminder days equals today
             String sql = "SELECT * FROM events " +
                         "WHERE reminder_set = TRUE " +
@@ -372,19 +399,18 @@ public class EventDao {
                         "AND status != 'Completed' AND status != 'Cancelled' " +
                         "ORDER BY event_date, start_time";
             
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Event> eventList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Event event = extractEventFromResultSet(rs);
-                eventList.add(event);
+            try (PreparedStatement pst = con.prepareStatement(sql)) {
+                try (ResultSet rs = pst.executeQuery()) {
+                    List<Event> eventList = new ArrayList<>();
+                    
+                    while (rs.next()) {
+                        Event event = extractEventFromResultSet(rs);
+                        eventList.add(event);
+                    }
+                    
+                    return eventList;
+                }
             }
-            
-            con.close();
-            return eventList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -397,28 +423,36 @@ public class EventDao {
      * @return List of all events
      */
     public List<Event> findAllEvents() {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM events ORDER BY event_date, start_time";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Event> eventList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Event event = extractEventFromResultSet(rs);
-                eventList.add(event);
+        String sql = "SELECT * FROM events ORDER BY event_date, start_time";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Event> eventList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Event event = extractEventFromResultSet(rs);
+                    eventList.add(event);
+                }
+                
+                return eventList;
             }
-            
-            con.close();
-            return eventList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
         }
     }
     
+    /**
+     * Gets one page of events. Without a sort key the page is ordered
+     * by event date.
+     * 
+     * @param request The page request; sortable by id, event_date or title
+     * @return The page of events
+     */
+    public Page<Event> findEventsPage(PageRequest request) {
+        return eventPages.fetch(dataSource, request);
+    }
+    
     /**
      * Extract event data from a ResultSet row
      * 
@@ -475,8 +509,7 @@ public class EventDao {
             }
             
             // Then get its case
-            CaseDao caseDao = new CaseDao();
-            Case legalCase = caseDao.findCaseById(event.getCaseId());
+            Case legalCase = daos.getCaseDao().findCaseById(event.getCaseId());
             event.setCase(legalCase);
             
             return event;
@@ -494,14 +527,12 @@ public class EventDao {
      * @return Number of rows affected
      */
     public int deleteEvent(int eventId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "DELETE FROM events WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "DELETE FROM events WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, eventId);
             
             int rowsAffected = pst.executeUpdate();
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -509,4 +540,20 @@ public class EventDao {
             return 0;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Generates the next event ID from the event ID sequence
+     * 
+     * @return Next available event ID
+     */
+    public String generateNextEventId() {
+        try {
+            return eventIds.next();
+            
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            // Default format if error occurs
+            return "EVT-" + System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dao;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Full-text indexes used by the search boxes. Each index covers a fixed
+ * column list; MySQL only uses a FULLTEXT index when MATCH names exactly
+ * its columns, so searches and the schema migration share these
+ * definitions.
+ */
+public enum FullTextIndex {
+    CASES("cases", "ft_cases_search", "case_number", "title", "description"),
+    CLIENTS("clients", "ft_clients_search", "name", "contact_person"),
+    DOCUMENTS("documents", "ft_documents_search", "title", "description"),
+    DOCUMENT_TEXTS("document_texts", "ft_document_texts_search", "content"),
+    ATTORNEYS("attorneys", "ft_attorneys_search", "first_name", "last_name");
+
+    private final String table;
+    private final String indexName;
+    private final List<String> columns;
+
+    FullTextIndex(String table, String indexName, String... columns) {
+        this.table = table;
+        this.indexName = indexName;
+        this.columns = Collections.unmodifiableList(Arrays.asList(columns));
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    /**
+     * Get the indexed columns, most significant first
+     *
+     * @return Unmodifiable list of column names
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Get the DDL creating this index on MySQL
+     *
+     * @return The ALTER TABLE statement
+     */
+    public String getCreateStatement() {
+        return "ALTER TABLE " + table + " ADD FULLTEXT INDEX " + indexName
+                + " (" + String.join(", ", columns) + ")";
+    }
+}
@@ -7,7 +7,6 @@ import model.TimeEntry;
 import model.Payment;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
@@ -17,27 +16,84 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import javax.sql.DataSource;
 
 /**
  * Data Access Object for Invoice operations.
  */
 public class InvoiceDao {
-    private String db_url = "jdbc:mysql://localhost:3306/legalcasemgmtdb";
-    private String db_username = "root";
-    private String db_passwd = "Ornella12345!";
+    private final DataSource dataSource;
     
-    // Other DAOs for related entities
-    private ClientDao clientDao;
-    private CaseDao caseDao;
-    private TimeEntryDao timeEntryDao;
+    // Registry supplying DAOs for related entities
+    private final DaoRegistry daos;
+    
+    // Invoice columns plus the client name and case number shown in the invoice list
+    private static final String INVOICE_LIST_SELECT =
+            "SELECT i.*, cl.name AS client_name, c.case_number AS case_number " +
+            "FROM invoices i " +
+            "LEFT JOIN clients cl ON cl.id = i.client_id " +
+            "LEFT JOIN cases c ON c.id = i.case_id";
+    
+    // Invoices past their due date that are still owed; binds the paid and cancelled statuses
+    static final String OVERDUE_CONDITION =
+            "due_date < CURDATE() AND status != ? AND status != ?";
+    
+    // Total of an invoice's payments, correlated with the invoice being updated
+    private static final String PAYMENTS_TOTAL =
+            "(SELECT COALESCE(SUM(p.amount), 0) FROM payments p WHERE p.invoice_id = invoices.id)";
+    
+    // Sets the paid amount and the matching status of one invoice, following
+    // Invoice.updateStatus(); binds draft, cancelled, paid, partially paid,
+    // overdue and issued statuses, then the invoice ID
+    private static final String RECALCULATE_PAID_SQL =
+            "UPDATE invoices SET amount_paid = " + PAYMENTS_TOTAL + ", status = CASE " +
+            "WHEN status = ? OR status = ? THEN status " +
+            "WHEN " + PAYMENTS_TOTAL + " >= amount THEN ? " +
+            "WHEN " + PAYMENTS_TOTAL + " > 0 THEN ? " +
+            "WHEN due_date < CURDATE() THEN ? " +
+            "ELSE ? END " +
+            "WHERE id = ?";
+    
+    // Invoice numbers INV000001 and up
+    private final NumberSequence invoiceNumbers;
+    
+    // Keyset paging over all invoices
+    private final KeysetQuery<Invoice> invoicePages = new KeysetQuery<>(
+            "SELECT * FROM invoices", "id",
+            KeysetQuery.sortColumns("", "id", "invoice_number", "issue_date", "due_date"),
+            "issue_date", false, this::extractInvoiceFromResultSet);
+    
+    // Keyset paging over the joined invoice list rows
+    private final KeysetQuery<Invoice> invoiceListPages = new KeysetQuery<>(
+            INVOICE_LIST_SELECT, "i.id",
+            KeysetQuery.sortColumns("i.", "id", "invoice_number", "issue_date", "due_date"),
+            "issue_date", false, this::extractInvoiceListRow);
     
     /**
-     * Constructor
+     * Constructor using the shared application data source
      */
     public InvoiceDao() {
-        this.clientDao = new ClientDao();
-        this.caseDao = new CaseDao();
-        this.timeEntryDao = new TimeEntryDao();
+        this(DaoRegistry.getDefault());
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param dataSource The data source to obtain connections from
+     */
+    public InvoiceDao(DataSource dataSource) {
+        this(new DaoRegistry(dataSource));
+    }
+    
+    /**
+     * Constructor used by the registry
+     * 
+     * @param daos Registry supplying related DAOs
+     */
+    InvoiceDao(DaoRegistry daos) {
+        this.dataSource = daos.getDataSource();
+        this.daos = daos;
+        this.invoiceNumbers = new NumberSequence(dataSource, "invoices", "invoice_number", "INV", 6);
     }
     
     /**
@@ -50,51 +106,46 @@ public class InvoiceDao {
         Connection con = null;
         try {
             // Create connection
-            con = DriverManager.getConnection(db_url, db_username, db_passwd);
+            con = dataSource.getConnection();
             con.setAutoCommit(false);  // Start transaction
             
             // Prepare statement
             String sql = "INSERT INTO invoices (invoice_number, client_id, case_id, issue_date, " +
                         "due_date, amount, amount_paid, status, notes) " +
                         "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
-            pst.setString(1, invoice.getInvoiceNumber());
-            pst.setInt(2, invoice.getClientId());
-            pst.setInt(3, invoice.getCaseId());
-            pst.setDate(4, Date.valueOf(invoice.getIssueDate()));
-            pst.setDate(5, Date.valueOf(invoice.getDueDate()));
-            pst.setBigDecimal(6, invoice.getAmount());
-            pst.setBigDecimal(7, invoice.getAmountPaid());
-            pst.setString(8, invoice.getStatus());
-            pst.setString(9, invoice.getNotes());
-            
-            // Execute statement
-            int rowsAffected = pst.executeUpdate();
-            
-            // Get generated ID
-            if (rowsAffected > 0) {
-                ResultSet rs = pst.getGeneratedKeys();
-                if (rs.next()) {
-                    invoice.setId(rs.getInt(1));
-                }
-                rs.close();
+            try (PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pst.setString(1, invoice.getInvoiceNumber());
+                pst.setInt(2, invoice.getClientId());
+                pst.setInt(3, invoice.getCaseId());
+                pst.setDate(4, Date.valueOf(invoice.getIssueDate()));
+                pst.setDate(5, Date.valueOf(invoice.getDueDate()));
+                pst.setBigDecimal(6, invoice.getAmount());
+                pst.setBigDecimal(7, invoice.getAmountPaid());
+                pst.setString(8, invoice.getStatus());
+                pst.setString(9, invoice.getNotes());
+                
+                // Execute statement
+                int rowsAffected = pst.executeUpdate();
                 
-                // Update time entries if they are associated with this invoice
-                if (invoice.getTimeEntries() != null && !invoice.getTimeEntries().isEmpty()) {
-                    for (TimeEntry timeEntry : invoice.getTimeEntries()) {
-                        timeEntryDao.markTimeEntryAsBilled(timeEntry.getId(), invoice.getId());
+                // Get generated ID
+                if (rowsAffected > 0) {
+                    try (ResultSet rs = pst.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            invoice.setId(rs.getInt(1));
+                        }
+                    }
+                    
+                    // Update time entries if they are associated with this invoice
+                    if (invoice.getTimeEntries() != null && !invoice.getTimeEntries().isEmpty()) {
+                        daos.getTimeEntryDao().markTimeEntriesAsBilled(con, timeEntryIds(invoice.getTimeEntries()),
+                                invoice.getId());
                     }
                 }
+                
+                // Commit transaction
+                con.commit();
+                return rowsAffected;
             }
-            
-            // Commit transaction
-            con.commit();
-            
-            // Close connection
-            con.close();
-            return rowsAffected;
-            
         } catch (Exception ex) {
             try {
                 // Rollback transaction on error
@@ -129,36 +180,32 @@ public class InvoiceDao {
         Connection con = null;
         try {
             // Create connection
-            con = DriverManager.getConnection(db_url, db_username, db_passwd);
+            con = dataSource.getConnection();
             con.setAutoCommit(false);  // Start transaction
             
             // Prepare statement
             String sql = "UPDATE invoices SET invoice_number = ?, client_id = ?, case_id = ?, " +
                         "issue_date = ?, due_date = ?, amount = ?, amount_paid = ?, status = ?, " +
                         "notes = ? WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            pst.setString(1, invoice.getInvoiceNumber());
-            pst.setInt(2, invoice.getClientId());
-            pst.setInt(3, invoice.getCaseId());
-            pst.setDate(4, Date.valueOf(invoice.getIssueDate()));
-            pst.setDate(5, Date.valueOf(invoice.getDueDate()));
-            pst.setBigDecimal(6, invoice.getAmount());
-            pst.setBigDecimal(7, invoice.getAmountPaid());
-            pst.setString(8, invoice.getStatus());
-            pst.setString(9, invoice.getNotes());
-            pst.setInt(10, invoice.getId());
-            
-            // Execute statement
-            int rowsAffected = pst.executeUpdate();
-            
-            // Commit transaction
-            con.commit();
-            
-            // Close connection
-            con.close();
-            return rowsAffected;
-            
+            try (PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setString(1, invoice.getInvoiceNumber());
+                pst.setInt(2, invoice.getClientId());
+                pst.setInt(3, invoice.getCaseId());
+                pst.setDate(4, Date.valueOf(invoice.getIssueDate()));
+                pst.setDate(5, Date.valueOf(invoice.getDueDate()));
+                pst.setBigDecimal(6, invoice.getAmount());
+                pst.setBigDecimal(7, invoice.getAmountPaid());
+                pst.setString(8, invoice.getStatus());
+                pst.setString(9, invoice.getNotes());
+                pst.setInt(10, invoice.getId());
+                
+                // Execute statement
+                int rowsAffected = pst.executeUpdate();
+                
+                // Commit transaction
+                con.commit();
+                return rowsAffected;
+            }
         } catch (Exception ex) {
             try {
                 // Rollback transaction on error
@@ -191,22 +238,16 @@ public class InvoiceDao {
      * @return Number of rows affected
      */
     public int updateInvoiceStatus(int invoiceId, String status) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "UPDATE invoices SET status = ? WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
+        // Prepare statement
+        String sql = "UPDATE invoices SET status = ? WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, status);
             pst.setInt(2, invoiceId);
             
             // Execute statement
             int rowsAffected = pst.executeUpdate();
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -222,22 +263,20 @@ public class InvoiceDao {
      * @return The invoice if found, null otherwise
      */
     public Invoice findInvoiceById(int id) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM invoices WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM invoices WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, id);
             
-            ResultSet rs = pst.executeQuery();
-            Invoice invoice = null;
-            
-            if (rs.next()) {
-                invoice = extractInvoiceFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                Invoice invoice = null;
+                
+                if (rs.next()) {
+                    invoice = extractInvoiceFromResultSet(rs);
+                }
+                
+                return invoice;
             }
-            
-            con.close();
-            return invoice;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -251,22 +290,20 @@ public class InvoiceDao {
      * @return The invoice if found, null otherwise
      */
     public Invoice findInvoiceByInvoiceNumber(String invoiceNumber) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM invoices WHERE invoice_number = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM invoices WHERE invoice_number = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, invoiceNumber);
             
-            ResultSet rs = pst.executeQuery();
-            Invoice invoice = null;
-            
-            if (rs.next()) {
-                invoice = extractInvoiceFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                Invoice invoice = null;
+                
+                if (rs.next()) {
+                    invoice = extractInvoiceFromResultSet(rs);
+                }
+                
+                return invoice;
             }
-            
-            con.close();
-            return invoice;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -280,23 +317,21 @@ public class InvoiceDao {
      * @return List of invoices for the client
      */
     public List<Invoice> findInvoicesByClient(int clientId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM invoices WHERE client_id = ? ORDER BY issue_date DESC";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM invoices WHERE client_id = ? ORDER BY issue_date DESC";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, clientId);
             
-            ResultSet rs = pst.executeQuery();
-            List<Invoice> invoiceList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Invoice invoice = extractInvoiceFromResultSet(rs);
-                invoiceList.add(invoice);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Invoice> invoiceList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Invoice invoice = extractInvoiceFromResultSet(rs);
+                    invoiceList.add(invoice);
+                }
+                
+                return invoiceList;
             }
-            
-            con.close();
-            return invoiceList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -310,23 +345,21 @@ public class InvoiceDao {
      * @return List of invoices for the case
      */
     public List<Invoice> findInvoicesByCase(int caseId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM invoices WHERE case_id = ? ORDER BY issue_date DESC";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM invoices WHERE case_id = ? ORDER BY issue_date DESC";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, caseId);
             
-            ResultSet rs = pst.executeQuery();
-            List<Invoice> invoiceList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Invoice invoice = extractInvoiceFromResultSet(rs);
-                invoiceList.add(invoice);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Invoice> invoiceList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Invoice invoice = extractInvoiceFromResultSet(rs);
+                    invoiceList.add(invoice);
+                }
+                
+                return invoiceList;
             }
-            
-            con.close();
-            return invoiceList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -340,23 +373,21 @@ public class InvoiceDao {
      * @return List of invoices with the status
      */
     public List<Invoice> findInvoicesByStatus(String status) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM invoices WHERE status = ? ORDER BY issue_date DESC";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM invoices WHERE status = ? ORDER BY issue_date DESC";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, status);
             
-            ResultSet rs = pst.executeQuery();
-            List<Invoice> invoiceList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Invoice invoice = extractInvoiceFromResultSet(rs);
-                invoiceList.add(invoice);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Invoice> invoiceList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Invoice invoice = extractInvoiceFromResultSet(rs);
+                    invoiceList.add(invoice);
+                }
+                
+                return invoiceList;
             }
-            
-            con.close();
-            return invoiceList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -371,24 +402,22 @@ public class InvoiceDao {
      * @return List of invoices in the date range
      */
     public List<Invoice> findInvoicesByDateRange(LocalDate startDate, LocalDate endDate) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM invoices WHERE issue_date BETWEEN ? AND ? ORDER BY issue_date";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM invoices WHERE issue_date BETWEEN ? AND ? ORDER BY issue_date";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setDate(1, Date.valueOf(startDate));
             pst.setDate(2, Date.valueOf(endDate));
             
-            ResultSet rs = pst.executeQuery();
-            List<Invoice> invoiceList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Invoice invoice = extractInvoiceFromResultSet(rs);
-                invoiceList.add(invoice);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Invoice> invoiceList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Invoice invoice = extractInvoiceFromResultSet(rs);
+                    invoiceList.add(invoice);
+                }
+                
+                return invoiceList;
             }
-            
-            con.close();
-            return invoiceList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -401,25 +430,22 @@ public class InvoiceDao {
      * @return List of overdue invoices
      */
     public List<Invoice> findOverdueInvoices() {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM invoices WHERE due_date < CURDATE() AND " +
-                        "status != ? AND status != ? ORDER BY due_date";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM invoices WHERE " + OVERDUE_CONDITION + " ORDER BY due_date";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, Invoice.STATUS_PAID);
             pst.setString(2, Invoice.STATUS_CANCELLED);
             
-            ResultSet rs = pst.executeQuery();
-            List<Invoice> invoiceList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Invoice invoice = extractInvoiceFromResultSet(rs);
-                invoiceList.add(invoice);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Invoice> invoiceList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Invoice invoice = extractInvoiceFromResultSet(rs);
+                    invoiceList.add(invoice);
+                }
+                
+                return invoiceList;
             }
-            
-            con.close();
-            return invoiceList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -432,28 +458,145 @@ public class InvoiceDao {
      * @return List of all invoices
      */
     public List<Invoice> findAllInvoices() {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM invoices ORDER BY issue_date DESC";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Invoice> invoiceList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Invoice invoice = extractInvoiceFromResultSet(rs);
-                invoiceList.add(invoice);
+        String sql = "SELECT * FROM invoices ORDER BY issue_date DESC";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Invoice> invoiceList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Invoice invoice = extractInvoiceFromResultSet(rs);
+                    invoiceList.add(invoice);
+                }
+                
+                return invoiceList;
             }
-            
-            con.close();
-            return invoiceList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
         }
     }
     
+    /**
+     * Gets one page of invoices. Without a sort key the page is ordered
+     * by issue date, newest first.
+     * 
+     * @param request The page request; sortable by id, invoice_number, issue_date or due_date
+     * @return The page of invoices
+     */
+    public Page<Invoice> findInvoicesPage(PageRequest request) {
+        return invoicePages.fetch(dataSource, request);
+    }
+    
+    /**
+     * Finds invoices for list display with the client name and case number
+     * joined in, so no per-row lookups are needed. The attached client and
+     * case only carry their ID and display fields. Null arguments are ignored.
+     * 
+     * @param status Status to filter by, or null for any status
+     * @param startDate Start of the issue date range, or null
+     * @param endDate End of the issue date range, or null
+     * @return List of invoices with summary client and case information
+     */
+    public List<Invoice> findInvoiceListRows(String status, LocalDate startDate, LocalDate endDate) {
+        try (Connection con = dataSource.getConnection()) {
+            List<Object> params = new ArrayList<>();
+            String sql = INVOICE_LIST_SELECT + " WHERE "
+                    + invoiceListCondition(status, startDate, endDate, params)
+                    + " ORDER BY i.issue_date DESC";
+            
+            try (PreparedStatement pst = con.prepareStatement(sql)) {
+                for (int i = 0; i < params.size(); i++) {
+                    pst.setObject(i + 1, params.get(i));
+                }
+                
+                try (ResultSet rs = pst.executeQuery()) {
+                    List<Invoice> invoiceList = new ArrayList<>();
+                    
+                    while (rs.next()) {
+                        invoiceList.add(extractInvoiceListRow(rs));
+                    }
+                    
+                    return invoiceList;
+                }
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * Gets one page of invoice list rows, joined like {@link #findInvoiceListRows}.
+     * Null filter arguments are ignored.
+     * 
+     * @param status Status to filter by, or null for any status
+     * @param startDate Start of the issue date range, or null
+     * @param endDate End of the issue date range, or null
+     * @param request The page request; sortable by id, invoice_number, issue_date or due_date
+     * @return The page of invoices with summary client and case information
+     */
+    public Page<Invoice> findInvoiceListRowsPage(String status, LocalDate startDate, LocalDate endDate,
+                                                 PageRequest request) {
+        List<Object> params = new ArrayList<>();
+        String condition = invoiceListCondition(status, startDate, endDate, params);
+        return invoiceListPages.fetch(dataSource, request, condition, params);
+    }
+    
+    /**
+     * Builds the WHERE condition shared by the invoice list queries
+     * 
+     * @param status Status to filter by, or null
+     * @param startDate Start of the issue date range, or null
+     * @param endDate End of the issue date range, or null
+     * @param params List receiving the parameter values in order
+     * @return The condition
+     */
+    private String invoiceListCondition(String status, LocalDate startDate, LocalDate endDate,
+                                        List<Object> params) {
+        StringBuilder condition = new StringBuilder("1 = 1");
+        if (status != null) {
+            condition.append(" AND i.status = ?");
+            params.add(status);
+        }
+        if (startDate != null && endDate != null) {
+            condition.append(" AND i.issue_date BETWEEN ? AND ?");
+            params.add(Date.valueOf(startDate));
+            params.add(Date.valueOf(endDate));
+        }
+        return condition.toString();
+    }
+    
+    /**
+     * Extract an invoice list row including the joined client name and case number
+     * 
+     * @param rs ResultSet positioned at the joined invoice row
+     * @return Invoice with summary client and case attached
+     * @throws Exception If an error occurs
+     */
+    private Invoice extractInvoiceListRow(ResultSet rs) throws Exception {
+        Invoice invoice = extractInvoiceFromResultSet(rs);
+        
+        String clientName = rs.getString("client_name");
+        if (clientName != null) {
+            Client client = new Client();
+            client.setId(invoice.getClientId());
+            client.setName(clientName);
+            invoice.setClient(client);
+        }
+        
+        String caseNumber = rs.getString("case_number");
+        if (caseNumber != null) {
+            Case legalCase = new Case();
+            legalCase.setId(invoice.getCaseId());
+            legalCase.setCaseNumber(caseNumber);
+            legalCase.setClientId(invoice.getClientId());
+            invoice.setCase(legalCase);
+        }
+        
+        return invoice;
+    }
+    
     /**
      * Extract invoice data from a ResultSet row
      * 
@@ -503,19 +646,19 @@ public class InvoiceDao {
             }
             
             // Load client
-            Client client = clientDao.findClientById(invoice.getClientId());
+            Client client = daos.getClientDao().findClientById(invoice.getClientId());
             invoice.setClient(client);
             
             // Load case
-            Case legalCase = caseDao.findCaseById(invoice.getCaseId());
+            Case legalCase = daos.getCaseDao().findCaseById(invoice.getCaseId());
             invoice.setCase(legalCase);
             
             // Load time entries
-            List<TimeEntry> timeEntries = timeEntryDao.findTimeEntriesByInvoice(invoiceId);
+            List<TimeEntry> timeEntries = daos.getTimeEntryDao().findTimeEntriesByInvoice(invoiceId);
             invoice.setTimeEntries(timeEntries);
-            PaymentDao dao = new PaymentDao();
+            
             // Load payments
-            List<Payment> payments = dao.findPaymentsByInvoice(invoiceId);
+            List<Payment> payments = daos.getPaymentDao().findPaymentsByInvoice(invoiceId);
             invoice.setPayments(payments);
             
             return invoice;
@@ -527,33 +670,15 @@ public class InvoiceDao {
     }
     
     /**
-     * Updates the paid amount for an invoice based on payments
+     * Updates the paid amount and status of an invoice from its payments
      * 
      * @param invoiceId The ID of the invoice
      * @return Number of rows affected
      */
     public int updateInvoicePaidAmount(int invoiceId) {
-        try {
-            // Get the invoice with its payments
-            Invoice invoice = getInvoiceWithDetails(invoiceId);
-            if (invoice == null) {
-                return 0;
-            }
-            
-            // Recalculate amount paid
-            invoice.recalculateAmountPaid();
+        try (Connection con = dataSource.getConnection()) {
+            int rowsAffected = updateInvoicePaidAmount(con, invoiceId);
             
-            // Update the invoice
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "UPDATE invoices SET amount_paid = ?, status = ? WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            pst.setBigDecimal(1, invoice.getAmountPaid());
-            pst.setString(2, invoice.getStatus());
-            pst.setInt(3, invoiceId);
-            
-            int rowsAffected = pst.executeUpdate();
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -562,6 +687,57 @@ public class InvoiceDao {
         }
     }
     
+    /**
+     * Updates the paid amount and status of an invoice from its payments
+     * with a single statement, as part of the caller's transaction
+     * 
+     * @param con Open database connection
+     * @param invoiceId The ID of the invoice
+     * @return Number of rows affected
+     * @throws Exception If an error occurs
+     */
+    int updateInvoicePaidAmount(Connection con, int invoiceId) throws Exception {
+        try (PreparedStatement pst = con.prepareStatement(RECALCULATE_PAID_SQL)) {
+            pst.setString(1, Invoice.STATUS_DRAFT);
+            pst.setString(2, Invoice.STATUS_CANCELLED);
+            pst.setString(3, Invoice.STATUS_PAID);
+            pst.setString(4, Invoice.STATUS_PARTIALLY_PAID);
+            pst.setString(5, Invoice.STATUS_OVERDUE);
+            pst.setString(6, Invoice.STATUS_ISSUED);
+            pst.setInt(7, invoiceId);
+            
+            int rowsAffected = pst.executeUpdate();
+            return rowsAffected;
+        }
+    }
+    
+    /**
+     * Locks invoice rows until the caller's transaction ends. Taken before
+     * writing payments, so concurrent payments for the same invoice are
+     * recorded one after the other and each paid amount includes them all.
+     * 
+     * @param con Open database connection with a transaction in progress
+     * @param invoiceIds IDs of the invoices to lock
+     * @throws Exception If an error occurs
+     */
+    void lockInvoices(Connection con, int... invoiceIds) throws Exception {
+        StringBuilder sql = new StringBuilder("SELECT id FROM invoices WHERE id IN (");
+        for (int i = 0; i < invoiceIds.length; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        // Lock in ID order so two transactions never wait on each other
+        sql.append(") ORDER BY id FOR UPDATE");
+        
+        try (PreparedStatement pst = con.prepareStatement(sql.toString())) {
+            for (int i = 0; i < invoiceIds.length; i++) {
+                pst.setInt(i + 1, invoiceIds[i]);
+            }
+            
+            // The rows are read only for their locks
+            pst.executeQuery().close();
+        }
+    }
+    
     /**
      * Creates a new invoice from unbilled time entries for a case
      * 
@@ -571,23 +747,63 @@ public class InvoiceDao {
      * @return The created invoice, or null if creation failed
      */
     public Invoice createInvoiceFromUnbilledTimeEntries(int caseId, String invoiceNumber, LocalDate dueDate) {
+        try {
+            return billUnbilledTimeEntries(caseId, invoiceNumber, dueDate, null);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Creates an invoice for a case's unbilled time entries dated up to a
+     * cutoff, numbered from the invoice number sequence. Used by billing
+     * runs, which need to tell a case with nothing to bill from a failure.
+     * 
+     * @param caseId The ID of the case
+     * @param cutoff Latest entry date to bill
+     * @param dueDate The due date for the invoice
+     * @return The created invoice, or null if the case has nothing to bill
+     * @throws Exception If the invoice could not be created; nothing is billed then
+     */
+    public Invoice billUnbilledTimeEntries(int caseId, LocalDate cutoff, LocalDate dueDate) throws Exception {
+        return billUnbilledTimeEntries(caseId, null, dueDate, cutoff);
+    }
+    
+    /**
+     * Creates an invoice for a case's unbilled time entries in one transaction
+     * 
+     * @param caseId The ID of the case
+     * @param invoiceNumber The invoice number, or null to take the next one
+     *                      from the sequence once there is something to bill
+     * @param dueDate The due date for the invoice
+     * @param cutoff Latest entry date to bill, or null for all entries
+     * @return The created invoice, or null if the case or its unbilled entries were not found
+     * @throws Exception If an error occurs
+     */
+    private Invoice billUnbilledTimeEntries(int caseId, String invoiceNumber, LocalDate dueDate,
+                                            LocalDate cutoff) throws Exception {
         Connection con = null;
         try {
-            // Get case information
-            Case legalCase = caseDao.findCaseById(caseId);
+            // Create connection
+            con = dataSource.getConnection();
+            con.setAutoCommit(false);  // Start transaction
+            
+            // Get case information; a failed lookup fails the billing of the case
+            Case legalCase = daos.getCaseDao().findCaseById(con, caseId);
             if (legalCase == null) {
                 return null;
             }
             
-            // Get unbilled time entries
-            List<TimeEntry> unbilledEntries = timeEntryDao.findUnbilledTimeEntriesByCase(caseId);
+            // Get unbilled time entries, locked until the invoice is saved
+            List<TimeEntry> unbilledEntries = daos.getTimeEntryDao().lockUnbilledTimeEntriesByCase(con, caseId, cutoff);
             if (unbilledEntries.isEmpty()) {
                 return null;
             }
             
             // Create invoice
             Invoice invoice = new Invoice();
-            invoice.setInvoiceNumber(invoiceNumber);
+            invoice.setInvoiceNumber(invoiceNumber != null ? invoiceNumber : invoiceNumbers.next());
             invoice.setClientId(legalCase.getClientId());
             invoice.setCaseId(caseId);
             invoice.setIssueDate(LocalDate.now());
@@ -605,45 +821,38 @@ public class InvoiceDao {
             invoice.setAmount(totalAmount);
             invoice.setAmountPaid(BigDecimal.ZERO);
             
-            // Create connection
-            con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            con.setAutoCommit(false);  // Start transaction
-            
             // Save invoice
             String sql = "INSERT INTO invoices (invoice_number, client_id, case_id, issue_date, " +
                         "due_date, amount, amount_paid, status, notes) " +
                         "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
-            pst.setString(1, invoice.getInvoiceNumber());
-            pst.setInt(2, invoice.getClientId());
-            pst.setInt(3, invoice.getCaseId());
-            pst.setDate(4, Date.valueOf(invoice.getIssueDate()));
-            pst.setDate(5, Date.valueOf(invoice.getDueDate()));
-            pst.setBigDecimal(6, invoice.getAmount());
-            pst.setBigDecimal(7, invoice.getAmountPaid());
-            pst.setString(8, invoice.getStatus());
-            pst.setString(9, invoice.getNotes());
-            
-            int rowsAffected = pst.executeUpdate();
-            
-            // Get generated ID
-            if (rowsAffected > 0) {
-                ResultSet rs = pst.getGeneratedKeys();
-                if (rs.next()) {
-                    invoice.setId(rs.getInt(1));
-                }
-                rs.close();
+            try (PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pst.setString(1, invoice.getInvoiceNumber());
+                pst.setInt(2, invoice.getClientId());
+                pst.setInt(3, invoice.getCaseId());
+                pst.setDate(4, Date.valueOf(invoice.getIssueDate()));
+                pst.setDate(5, Date.valueOf(invoice.getDueDate()));
+                pst.setBigDecimal(6, invoice.getAmount());
+                pst.setBigDecimal(7, invoice.getAmountPaid());
+                pst.setString(8, invoice.getStatus());
+                pst.setString(9, invoice.getNotes());
                 
-                // Mark time entries as billed
-                for (TimeEntry entry : unbilledEntries) {
-                    timeEntryDao.markTimeEntryAsBilled(entry.getId(), invoice.getId());
+                int rowsAffected = pst.executeUpdate();
+                
+                // Get generated ID
+                if (rowsAffected > 0) {
+                    try (ResultSet rs = pst.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            invoice.setId(rs.getInt(1));
+                        }
+                    }
+                    
+                    // Mark time entries as billed
+                    daos.getTimeEntryDao().markTimeEntriesAsBilled(con, timeEntryIds(unbilledEntries), invoice.getId());
                 }
             }
             
             // Commit transaction
             con.commit();
-            con.close();
             
             // Set time entries
             invoice.setTimeEntries(unbilledEntries);
@@ -660,8 +869,7 @@ public class InvoiceDao {
                 rollbackEx.printStackTrace();
             }
             
-            ex.printStackTrace();
-            return null;
+            throw ex;
         } finally {
             try {
                 if (con != null) {
@@ -674,6 +882,20 @@ public class InvoiceDao {
         }
     }
     
+    /**
+     * Collects the IDs of time entries
+     * 
+     * @param timeEntries The time entries
+     * @return Their IDs, in the same order
+     */
+    private static List<Integer> timeEntryIds(List<TimeEntry> timeEntries) {
+        List<Integer> ids = new ArrayList<>(timeEntries.size());
+        for (TimeEntry timeEntry : timeEntries) {
+            ids.add(timeEntry.getId());
+        }
+        return ids;
+    }
+    
     /**
      * Deletes an invoice from the database
      * 
@@ -695,29 +917,27 @@ public class InvoiceDao {
             }
             
             // Create connection
-            con = DriverManager.getConnection(db_url, db_username, db_passwd);
+            con = dataSource.getConnection();
             con.setAutoCommit(false);  // Start transaction
             
             // Update time entries to unbilled
             String sqlTimeEntries = "UPDATE time_entries SET billed = FALSE, invoice_id = NULL WHERE invoice_id = ?";
-            PreparedStatement pstTimeEntries = con.prepareStatement(sqlTimeEntries);
-            pstTimeEntries.setInt(1, invoiceId);
-            pstTimeEntries.executeUpdate();
+            try (PreparedStatement pstTimeEntries = con.prepareStatement(sqlTimeEntries)) {
+                pstTimeEntries.setInt(1, invoiceId);
+                pstTimeEntries.executeUpdate();
+            }
             
             // Then delete the invoice
             String sql = "DELETE FROM invoices WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, invoiceId);
-            
-            int rowsAffected = pst.executeUpdate();
-            
-            // Commit transaction
-            con.commit();
-            
-            // Close connection
-            con.close();
-            return rowsAffected;
-            
+            try (PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setInt(1, invoiceId);
+                
+                int rowsAffected = pst.executeUpdate();
+                
+                // Commit transaction
+                con.commit();
+                return rowsAffected;
+            }
         } catch (Exception ex) {
             try {
                 // Rollback transaction on error
@@ -743,29 +963,13 @@ public class InvoiceDao {
     }
     
     /**
-     * Generates the next invoice number based on the current highest number
+     * Generates the next invoice number from the invoice number sequence
      * 
      * @return Next available invoice number
      */
     public String generateNextInvoiceNumber() {
         try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT MAX(CAST(SUBSTRING(invoice_number, 4) AS UNSIGNED)) AS max_num " +
-                         "FROM invoices WHERE invoice_number LIKE 'INV%'";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            ResultSet rs = pst.executeQuery();
-            int maxNum = 0;
-            
-            if (rs.next()) {
-                maxNum = rs.getInt("max_num");
-            }
-            
-            con.close();
-            
-            // Format next invoice number
-            int nextNum = maxNum + 1;
-            return String.format("INV%06d", nextNum);
+            return invoiceNumbers.next();
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -0,0 +1,185 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+/**
+ * Runs keyset-paged queries for a DAO. Instead of OFFSET, each page
+ * continues from the sort value and ID of the previous page's last row,
+ * so every page costs the same no matter how deep the user scrolls.
+ * Sort keys are looked up in a fixed map of columns and never spliced in
+ * from the request, and the mapped columns must be NOT NULL.
+ *
+ * @param <T> The entity type
+ */
+final class KeysetQuery<T> {
+
+    private final String select;
+    private final String idColumn;
+    private final Map<String, String> sortColumns;
+    private final String defaultSortKey;
+    private final boolean defaultAscending;
+    private final RowMapper<T> mapper;
+
+    /**
+     * Constructor
+     *
+     * @param select SELECT ... FROM ... part of the query, without WHERE
+     * @param idColumn Qualified ID column used to break ties
+     * @param sortColumns Allowed sort keys mapped to their qualified columns
+     * @param defaultSortKey Sort key used when the request has none
+     * @param defaultAscending Direction used when the request has no sort key
+     * @param mapper Maps one row to an entity
+     */
+    KeysetQuery(String select, String idColumn, Map<String, String> sortColumns,
+                String defaultSortKey, boolean defaultAscending, RowMapper<T> mapper) {
+        this.select = select;
+        this.idColumn = idColumn;
+        this.sortColumns = sortColumns;
+        this.defaultSortKey = defaultSortKey;
+        this.defaultAscending = defaultAscending;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Builds the sort column map for keys that are plain column names
+     *
+     * @param alias Table alias including the trailing dot, or an empty string
+     * @param keys Sortable column names
+     * @return Unmodifiable map from sort key to qualified column
+     */
+    static Map<String, String> sortColumns(String alias, String... keys) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (String key : keys) {
+            columns.put(key, alias + key);
+        }
+        return Collections.unmodifiableMap(columns);
+    }
+
+    /**
+     * Fetches one page over the whole table
+     *
+     * @param dataSource Data source to borrow a connection from
+     * @param request The page request
+     * @return The page, or an empty page if the query fails
+     */
+    Page<T> fetch(DataSource dataSource, PageRequest request) {
+        return fetch(dataSource, request, null, Collections.emptyList());
+    }
+
+    /**
+     * Fetches one page of the rows matching a condition
+     *
+     * @param dataSource Data source to borrow a connection from
+     * @param request The page request
+     * @param condition Extra WHERE condition, or null
+     * @param params Parameters of the condition in order
+     * @return The page, or an empty page if the query fails
+     */
+    Page<T> fetch(DataSource dataSource, PageRequest request, String condition, List<Object> params) {
+        String sortKey = request.getSortKey() != null ? request.getSortKey() : defaultSortKey;
+        boolean ascending = request.getSortKey() != null ? request.isAscending() : defaultAscending;
+        String sortColumn = sortColumns.get(sortKey);
+        if (sortColumn == null) {
+            throw new IllegalArgumentException("Unsupported sort key: " + sortKey);
+        }
+        
+        StringBuilder sql = new StringBuilder(select).append(" WHERE 1 = 1");
+        List<Object> allParams = new ArrayList<>(params);
+        if (condition != null) {
+            sql.append(" AND (").append(condition).append(")");
+        }
+        
+        PageCursor cursor = request.getCursor();
+        if (cursor != null) {
+            String op = ascending ? ">" : "<";
+            sql.append(" AND (").append(sortColumn).append(" ").append(op).append(" ?")
+               .append(" OR (").append(sortColumn).append(" = ? AND ")
+               .append(idColumn).append(" ").append(op).append(" ?))");
+            allParams.add(cursor.getSortValue());
+            allParams.add(cursor.getSortValue());
+            allParams.add(cursor.getLastId());
+        }
+        
+        String direction = ascending ? " ASC" : " DESC";
+        sql.append(" ORDER BY ").append(sortColumn).append(direction)
+           .append(", ").append(idColumn).append(direction)
+           .append(" LIMIT ?");
+        // One extra row tells whether another page follows
+        allParams.add(request.getPageSize() + 1);
+        if (cursor == null && request.getOffset() > 0) {
+            sql.append(" OFFSET ?");
+            allParams.add(request.getOffset());
+        }
+        
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql.toString())) {
+            for (int i = 0; i < allParams.size(); i++) {
+                pst.setObject(i + 1, allParams.get(i));
+            }
+            
+            try (ResultSet rs = pst.executeQuery()) {
+                List<T> items = new ArrayList<>(request.getPageSize());
+                PageCursor next = null;
+                Object lastValue = null;
+                int lastId = 0;
+                
+                while (rs.next()) {
+                    if (items.size() == request.getPageSize()) {
+                        next = new PageCursor(lastValue, lastId);
+                        break;
+                    }
+                    items.add(mapper.map(rs));
+                    lastValue = rs.getObject(label(sortColumn));
+                    lastId = rs.getInt(label(idColumn));
+                }
+                
+                return new Page<>(items, next);
+            }
+            
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return Page.empty();
+        }
+    }
+
+    /**
+     * Counts the rows matching a condition
+     *
+     * @param dataSource Data source to borrow a connection from
+     * @param condition Extra WHERE condition, or null
+     * @param params Parameters of the condition in order
+     * @return The row count, or 0 if the query fails
+     */
+    int count(DataSource dataSource, String condition, List<Object> params) {
+        String sql = "SELECT COUNT(*) FROM (" + select
+                + (condition != null ? " WHERE " + condition : "") + ") counted";
+        
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                pst.setObject(i + 1, params.get(i));
+            }
+            
+            try (ResultSet rs = pst.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+            
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return 0;
+        }
+    }
+
+    private static String label(String column) {
+        int dot = column.lastIndexOf('.');
+        return dot < 0 ? column : column.substring(dot + 1);
+    }
+}
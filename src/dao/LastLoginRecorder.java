@@ -0,0 +1,134 @@
+package dao;
+
+import db.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+/**
+ * Records users' last login times off the sign-in path. Logins are
+ * collected in memory and written by one background thread as a single
+ * JDBC batch every {@link #FLUSH_INTERVAL} milliseconds, so a burst of
+ * sign-ins costs one connection and one round trip instead of one each.
+ * Repeated logins of a user within an interval are written once, with
+ * the latest time. There is one recorder per data source, shared by all
+ * DAOs writing to it. Pending times are written by {@link #close()}, which
+ * runs when the connection pool closes, or on JVM shutdown for other data
+ * sources; a time lost to a crash only leaves last_login at the previous
+ * login.
+ */
+final class LastLoginRecorder {
+
+    /** Delay between writes, in milliseconds */
+    static final long FLUSH_INTERVAL = 2000;
+
+    // Recorder of each data source, started on its first login
+    private static final Map<DataSource, LastLoginRecorder> recorders = new ConcurrentHashMap<>();
+
+    private final DataSource dataSource;
+
+    // Login time by user ID, waiting to be written
+    private final Map<Integer, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService writer;
+
+    /**
+     * Get the recorder of a data source, starting it if there is none
+     *
+     * @param dataSource The data source to write the login times to
+     * @return The shared recorder
+     */
+    static LastLoginRecorder forDataSource(DataSource dataSource) {
+        return recorders.computeIfAbsent(dataSource, LastLoginRecorder::new);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param dataSource The data source to write the login times to
+     */
+    private LastLoginRecorder(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "last-login-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        writer.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+
+        // The pool's own shutdown hook closes it; a separate hook for the
+        // recorder could run after the pool stopped handing out connections
+        if (dataSource instanceof ConnectionPool) {
+            ((ConnectionPool) dataSource).addCloseListener(this::close);
+        } else {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::close, "last-login-shutdown"));
+        }
+    }
+
+    /**
+     * Queue a login to be recorded
+     *
+     * @param userId The ID of the user who logged in
+     * @param loginTime The time of the login
+     */
+    void record(int userId, LocalDateTime loginTime) {
+        pending.merge(userId, loginTime, (queued, latest) -> latest.isAfter(queued) ? latest : queued);
+    }
+
+    /**
+     * Stop the background writer and write the pending login times. Logins
+     * recorded afterwards are not written.
+     */
+    void close() {
+        recorders.remove(dataSource, this);
+        writer.shutdown();
+        flush();
+    }
+
+    /**
+     * Write the pending login times. Times that fail to write are queued
+     * again for the next flush, unless a later login replaced them.
+     */
+    synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Integer, LocalDateTime>> batch = new ArrayList<>();
+        for (Integer userId : new ArrayList<>(pending.keySet())) {
+            LocalDateTime loginTime = pending.remove(userId);
+            if (loginTime != null) {
+                batch.add(new AbstractMap.SimpleImmutableEntry<>(userId, loginTime));
+            }
+        }
+
+        String sql = "UPDATE users SET last_login = ? WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            for (Map.Entry<Integer, LocalDateTime> login : batch) {
+                pst.setTimestamp(1, Timestamp.valueOf(login.getValue()));
+                pst.setInt(2, login.getKey());
+                pst.addBatch();
+            }
+            pst.executeBatch();
+
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            for (Map.Entry<Integer, LocalDateTime> login : batch) {
+                record(login.getKey(), login.getValue());
+            }
+        }
+    }
+}
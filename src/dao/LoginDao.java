@@ -1,9 +1,9 @@
 package dao;
 
+import db.Database;
 import model.User;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
@@ -14,56 +14,83 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.util.Base64;
+import javax.sql.DataSource;
 
 /**
  * Data Access Object for user login and authentication operations.
  */
 public class LoginDao {
-    private String db_url = "jdbc:mysql://localhost:3306/legalcasemgmtdb";
-    private String db_username = "root";
-    private String db_passwd = "Ornella12345!";
+    private final DataSource dataSource;
     
     /**
-     * Authenticates a user by username and password
+     * Constructor using the shared application data source
+     */
+    public LoginDao() {
+        this(Database.getDataSource());
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param dataSource The data source to obtain connections from
+     */
+    public LoginDao(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+    
+    /**
+     * Authenticates a user by username and password. The user's row is
+     * read with its credentials in one query, and the connection is back
+     * in the pool before the deliberately slow password check starts. The
+     * login time is recorded in the background, so the returned user still
+     * carries the previous login time. A stored hash weaker than the
+     * current scheme and cost is replaced while the password is known.
+     * An unknown user, or a wrong password for a cheaper hash, costs a full
+     * password check as well, so the time taken does not reveal which
+     * usernames exist.
      * 
      * @param username The username
      * @param password The password (plaintext)
      * @return User object if authentication successful, null otherwise
      */
     public User authenticateUser(String username, String password) {
+        String sql = "SELECT * FROM users WHERE username = ? AND active = TRUE";
         try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT id, password_hash, password_salt FROM users WHERE username = ? AND active = TRUE";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setString(1, username);
-            
-            ResultSet rs = pst.executeQuery();
-            
-            if (rs.next()) {
-                int userId = rs.getInt("id");
-                String storedHash = rs.getString("password_hash");
-                String salt = rs.getString("password_salt");
-                
-                // Compute hash of provided password
-                String computedHash = hashPassword(password, salt);
+            User user = null;
+            String storedHash = null;
+            String salt = null;
+            try (Connection con = dataSource.getConnection();
+                 PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setString(1, username);
                 
-                // Compare hashes
-                if (storedHash.equals(computedHash)) {
-                    // Update last login time
-                    updateLastLogin(userId);
-                    
-                    // Get the full user details and return
-                    User user = findUserById(userId);
-                    return user;
+                try (ResultSet rs = pst.executeQuery()) {
+                    if (rs.next()) {
+                        storedHash = rs.getString("password_hash");
+                        salt = rs.getString("password_salt");
+                        user = extractUserFromResultSet(rs);
+                    }
                 }
             }
             
-            con.close();
-            return null;  // Authentication failed
+            PasswordHashing hashing = PasswordHashing.getDefault();
+            if (user == null) {
+                hashing.verifyDummy(password);
+                return null;  // Unknown or inactive user
+            }
+            if (!hashing.verify(password, storedHash, salt)) {
+                // A cheaper hash fails faster than a current one would
+                if (hashing.needsUpgrade(storedHash)) {
+                    hashing.verifyDummy(password);
+                }
+                return null;  // Authentication failed
+            }
+            
+            if (hashing.needsUpgrade(storedHash)) {
+                upgradePasswordHash(user.getId(), storedHash, hashing.hash(password));
+            }
+            LastLoginRecorder.forDataSource(dataSource).record(user.getId(), LocalDateTime.now());
+            return user;
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -85,40 +112,37 @@ public class LoginDao {
                 return null;
             }
             
-            // Generate salt and hash password
-            String salt = generateSalt();
-            String passwordHash = hashPassword(password, salt);
-            
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "INSERT INTO users (username, password_hash, password_salt, email, full_name, " +
-                         "role, registration_date, last_login, active) " +
-                         "VALUES (?, ?, ?, ?, ?, ?, ?, NULL, ?)";
-            PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
-            pst.setString(1, user.getUsername());
-            pst.setString(2, passwordHash);
-            pst.setString(3, salt);
-            pst.setString(4, user.getEmail());
-            pst.setString(5, user.getFullName());
-            pst.setString(6, user.getRole());
-            pst.setDate(7, Date.valueOf(user.getRegistrationDate()));
-            pst.setBoolean(8, user.isActive());
-            
-            int rowsAffected = pst.executeUpdate();
-            
-            if (rowsAffected > 0) {
-                ResultSet rs = pst.getGeneratedKeys();
-                if (rs.next()) {
-                    user.setId(rs.getInt(1));
+            // Hash password; the salt is part of the hash
+            String passwordHash = PasswordHashing.getDefault().hash(password);
+            
+            try (Connection con = dataSource.getConnection()) {
+                String sql = "INSERT INTO users (username, password_hash, password_salt, email, full_name, " +
+                             "role, registration_date, last_login, active) " +
+                             "VALUES (?, ?, ?, ?, ?, ?, ?, NULL, ?)";
+                try (PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pst.setString(1, user.getUsername());
+                    pst.setString(2, passwordHash);
+                    pst.setString(3, "");
+                    pst.setString(4, user.getEmail());
+                    pst.setString(5, user.getFullName());
+                    pst.setString(6, user.getRole());
+                    pst.setDate(7, Date.valueOf(user.getRegistrationDate()));
+                    pst.setBoolean(8, user.isActive());
+                    
+                    int rowsAffected = pst.executeUpdate();
+                    
+                    if (rowsAffected > 0) {
+                        try (ResultSet rs = pst.getGeneratedKeys()) {
+                            if (rs.next()) {
+                                user.setId(rs.getInt(1));
+                            }
+                        }
+                        return user;
+                    }
                 }
-                rs.close();
-                con.close();
-                return user;
+                
+                return null;
             }
-            
-            con.close();
-            return null;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -132,22 +156,20 @@ public class LoginDao {
      * @return true if username exists, false otherwise
      */
     public boolean isUsernameExists(String username) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT COUNT(*) AS count FROM users WHERE username = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT COUNT(*) AS count FROM users WHERE username = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, username);
             
-            ResultSet rs = pst.executeQuery();
-            boolean exists = false;
-            
-            if (rs.next()) {
-                exists = rs.getInt("count") > 0;
+            try (ResultSet rs = pst.executeQuery()) {
+                boolean exists = false;
+                
+                if (rs.next()) {
+                    exists = rs.getInt("count") > 0;
+                }
+                
+                return exists;
             }
-            
-            con.close();
-            return exists;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return false;
@@ -155,25 +177,25 @@ public class LoginDao {
     }
     
     /**
-     * Updates the last login timestamp for a user
+     * Replace a user's password hash, unless it was changed since it was
+     * read, on a connection of its own
      * 
      * @param userId The ID of the user
-     * @return Number of rows affected
+     * @param oldHash The hash that was verified
+     * @param newHash The hash to store
      */
-    private int updateLastLogin(int userId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "UPDATE users SET last_login = NOW() WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, userId);
-            
-            int rowsAffected = pst.executeUpdate();
-            con.close();
-            return rowsAffected;
+    private void upgradePasswordHash(int userId, String oldHash, String newHash) {
+        String sql = "UPDATE users SET password_hash = ?, password_salt = '' WHERE id = ? AND password_hash = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setString(1, newHash);
+            pst.setInt(2, userId);
+            pst.setString(3, oldHash);
+            pst.executeUpdate();
             
         } catch (Exception ex) {
+            // The old hash still works; the upgrade is retried on the next login
             ex.printStackTrace();
-            return 0;
         }
     }
     
@@ -187,42 +209,42 @@ public class LoginDao {
      */
     public boolean changePassword(int userId, String currentPassword, String newPassword) {
         try {
-            // First verify the current password
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
+            // First read the current hash; hashing runs without a connection held
+            String storedHash;
+            String salt;
             String sql = "SELECT password_hash, password_salt FROM users WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, userId);
-            
-            ResultSet rs = pst.executeQuery();
-            
-            if (rs.next()) {
-                String storedHash = rs.getString("password_hash");
-                String salt = rs.getString("password_salt");
-                
-                // Compute hash of provided current password
-                String computedHash = hashPassword(currentPassword, salt);
+            try (Connection con = dataSource.getConnection();
+                 PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setInt(1, userId);
                 
-                // Compare hashes
-                if (storedHash.equals(computedHash)) {
-                    // Current password is correct, update to new password
-                    String newSalt = generateSalt();
-                    String newPasswordHash = hashPassword(newPassword, newSalt);
-                    
-                    sql = "UPDATE users SET password_hash = ?, password_salt = ? WHERE id = ?";
-                    PreparedStatement updatePst = con.prepareStatement(sql);
-                    updatePst.setString(1, newPasswordHash);
-                    updatePst.setString(2, newSalt);
-                    updatePst.setInt(3, userId);
-                    
-                    int rowsAffected = updatePst.executeUpdate();
-                    con.close();
-                    return rowsAffected > 0;
+                try (ResultSet rs = pst.executeQuery()) {
+                    if (!rs.next()) {
+                        return false;  // Unknown user
+                    }
+                    storedHash = rs.getString("password_hash");
+                    salt = rs.getString("password_salt");
                 }
             }
             
-            con.close();
-            return false;  // Current password is incorrect
+            // Compare provided current password with the stored hash
+            PasswordHashing hashing = PasswordHashing.getDefault();
+            if (!hashing.verify(currentPassword, storedHash, salt)) {
+                return false;  // Current password is incorrect
+            }
             
+            // Current password is correct, update to new password unless it
+            // was changed meanwhile
+            String newPasswordHash = hashing.hash(newPassword);
+            sql = "UPDATE users SET password_hash = ?, password_salt = '' WHERE id = ? AND password_hash = ?";
+            try (Connection con = dataSource.getConnection();
+                 PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setString(1, newPasswordHash);
+                pst.setInt(2, userId);
+                pst.setString(3, storedHash);
+                
+                int rowsAffected = pst.executeUpdate();
+                return rowsAffected > 0;
+            }
         } catch (Exception ex) {
             ex.printStackTrace();
             return false;
@@ -238,39 +260,34 @@ public class LoginDao {
     public String resetPassword(String email) {
         try {
             // First check if email exists
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
+            int userId;
             String sql = "SELECT id FROM users WHERE email = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setString(1, email);
-            
-            ResultSet rs = pst.executeQuery();
-            
-            if (rs.next()) {
-                int userId = rs.getInt("id");
-                
-                // Generate new random password
-                String newPassword = generateRandomPassword();
-                String newSalt = generateSalt();
-                String newPasswordHash = hashPassword(newPassword, newSalt);
-                
-                // Update user's password
-                sql = "UPDATE users SET password_hash = ?, password_salt = ? WHERE id = ?";
-                PreparedStatement updatePst = con.prepareStatement(sql);
-                updatePst.setString(1, newPasswordHash);
-                updatePst.setString(2, newSalt);
-                updatePst.setInt(3, userId);
+            try (Connection con = dataSource.getConnection();
+                 PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setString(1, email);
                 
-                int rowsAffected = updatePst.executeUpdate();
-                con.close();
-                
-                if (rowsAffected > 0) {
-                    return newPassword;
+                try (ResultSet rs = pst.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;  // Email not found
+                    }
+                    userId = rs.getInt("id");
                 }
             }
             
-            con.close();
-            return null;  // Email not found or update failed
+            // Generate new random password, hashed without a connection held
+            String newPassword = generateRandomPassword();
+            String newPasswordHash = PasswordHashing.getDefault().hash(newPassword);
             
+            // Update user's password
+            sql = "UPDATE users SET password_hash = ?, password_salt = '' WHERE id = ?";
+            try (Connection con = dataSource.getConnection();
+                 PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setString(1, newPasswordHash);
+                pst.setInt(2, userId);
+                
+                int rowsAffected = pst.executeUpdate();
+                return rowsAffected > 0 ? newPassword : null;
+            }
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -284,14 +301,12 @@ public class LoginDao {
      * @return true if deactivation successful, false otherwise
      */
     public boolean deactivateUser(int userId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "UPDATE users SET active = FALSE WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "UPDATE users SET active = FALSE WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, userId);
             
             int rowsAffected = pst.executeUpdate();
-            con.close();
             return rowsAffected > 0;
             
         } catch (Exception ex) {
@@ -307,14 +322,12 @@ public class LoginDao {
      * @return true if reactivation successful, false otherwise
      */
     public boolean reactivateUser(int userId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "UPDATE users SET active = TRUE WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "UPDATE users SET active = TRUE WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, userId);
             
             int rowsAffected = pst.executeUpdate();
-            con.close();
             return rowsAffected > 0;
             
         } catch (Exception ex) {
@@ -330,22 +343,20 @@ public class LoginDao {
      * @return User object if found, null otherwise
      */
     public User findUserById(int userId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM users WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM users WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, userId);
             
-            ResultSet rs = pst.executeQuery();
-            User user = null;
-            
-            if (rs.next()) {
-                user = extractUserFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                User user = null;
+                
+                if (rs.next()) {
+                    user = extractUserFromResultSet(rs);
+                }
+                
+                return user;
             }
-            
-            con.close();
-            return user;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -359,22 +370,20 @@ public class LoginDao {
      * @return User object if found, null otherwise
      */
     public User findUserByUsername(String username) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM users WHERE username = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM users WHERE username = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, username);
             
-            ResultSet rs = pst.executeQuery();
-            User user = null;
-            
-            if (rs.next()) {
-                user = extractUserFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                User user = null;
+                
+                if (rs.next()) {
+                    user = extractUserFromResultSet(rs);
+                }
+                
+                return user;
             }
-            
-            con.close();
-            return user;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -388,22 +397,20 @@ public class LoginDao {
      * @return User object if found, null otherwise
      */
     public User findUserByEmail(String email) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM users WHERE email = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM users WHERE email = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, email);
             
-            ResultSet rs = pst.executeQuery();
-            User user = null;
-            
-            if (rs.next()) {
-                user = extractUserFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                User user = null;
+                
+                if (rs.next()) {
+                    user = extractUserFromResultSet(rs);
+                }
+                
+                return user;
             }
-            
-            con.close();
-            return user;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -416,22 +423,19 @@ public class LoginDao {
      * @return List of active users
      */
     public List<User> findAllActiveUsers() {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM users WHERE active = TRUE ORDER BY username";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            ResultSet rs = pst.executeQuery();
-            List<User> userList = new ArrayList<>();
-            
-            while (rs.next()) {
-                User user = extractUserFromResultSet(rs);
-                userList.add(user);
+        String sql = "SELECT * FROM users WHERE active = TRUE ORDER BY username";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            try (ResultSet rs = pst.executeQuery()) {
+                List<User> userList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    User user = extractUserFromResultSet(rs);
+                    userList.add(user);
+                }
+                
+                return userList;
             }
-            
-            con.close();
-            return userList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -445,23 +449,21 @@ public class LoginDao {
      * @return List of users with the specified role
      */
     public List<User> findUsersByRole(String role) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM users WHERE role = ? AND active = TRUE ORDER BY full_name";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM users WHERE role = ? AND active = TRUE ORDER BY full_name";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, role);
             
-            ResultSet rs = pst.executeQuery();
-            List<User> userList = new ArrayList<>();
-            
-            while (rs.next()) {
-                User user = extractUserFromResultSet(rs);
-                userList.add(user);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<User> userList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    User user = extractUserFromResultSet(rs);
+                    userList.add(user);
+                }
+                
+                return userList;
             }
-            
-            con.close();
-            return userList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -475,11 +477,9 @@ public class LoginDao {
      * @return true if update successful, false otherwise
      */
     public boolean updateUser(User user) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "UPDATE users SET email = ?, full_name = ?, role = ?, active = ? WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
+        String sql = "UPDATE users SET email = ?, full_name = ?, role = ?, active = ? WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, user.getEmail());
             pst.setString(2, user.getFullName());
             pst.setString(3, user.getRole());
@@ -487,7 +487,6 @@ public class LoginDao {
             pst.setInt(5, user.getId());
             
             int rowsAffected = pst.executeUpdate();
-            con.close();
             return rowsAffected > 0;
             
         } catch (Exception ex) {
@@ -528,37 +527,6 @@ public class LoginDao {
         return user;
     }
     
-    /**
-     * Generates a random salt for password hashing
-     * 
-     * @return A random salt string
-     */
-    private String generateSalt() {
-        SecureRandom random = new SecureRandom();
-        byte[] salt = new byte[16];
-        random.nextBytes(salt);
-        return Base64.getEncoder().encodeToString(salt);
-    }
-    
-    /**
-     * Hashes a password with the given salt using SHA-256
-     * 
-     * @param password The password to hash
-     * @param salt The salt to use
-     * @return The hashed password
-     */
-    private String hashPassword(String password, String salt) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            md.update(salt.getBytes());
-            byte[] hashedPassword = md.digest(password.getBytes());
-            return Base64.getEncoder().encodeToString(hashedPassword);
-        } catch (NoSuchAlgorithmException e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
-    
     /**
      * Generates a random password for password reset
      * 
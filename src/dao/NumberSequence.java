@@ -0,0 +1,211 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import javax.sql.DataSource;
+
+/**
+ * Hands out business numbers such as INV000123 or CASE-2024-0042 from
+ * blocks reserved in the number_sequences table. Reserving a block is one
+ * short transaction on the sequence's row; the numbers of a block then
+ * come from memory, so concurrent callers, on this workstation or others,
+ * never scan the numbered table and never receive the same number.
+ * Numbers left in a block when the application exits are skipped.
+ */
+final class NumberSequence {
+
+    /** Numbers reserved at a time unless a sequence asks for another block size */
+    static final int DEFAULT_BLOCK_SIZE = 20;
+
+    // Created on first use, so existing databases need no migration step
+    private static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS number_sequences (" +
+            "name VARCHAR(64) NOT NULL PRIMARY KEY, " +
+            "next_value BIGINT NOT NULL)";
+
+    private final DataSource dataSource;
+    private final String table;
+    private final String column;
+    private final String basePrefix;
+    private final int digits;
+    private final boolean yearly;
+    private final int blockSize;
+
+    // Current row name and prefix, which change with the year for yearly
+    // sequences, the next number to hand out and the end of the reserved
+    // block; all guarded by this
+    private int year = -1;
+    private String name;
+    private String prefix;
+    private long next;
+    private long limit;
+    private boolean tableCreated;
+
+    /**
+     * Constructor for a sequence that never restarts, numbered like INV000123
+     *
+     * @param dataSource The data source to reserve blocks from
+     * @param table The numbered table, also the name of the sequence's row
+     * @param column The column holding the formatted numbers
+     * @param prefix Prefix of the formatted numbers, e.g. "INV"
+     * @param digits Minimum number of digits, zero padded
+     */
+    NumberSequence(DataSource dataSource, String table, String column, String prefix, int digits) {
+        this(dataSource, table, column, prefix, digits, false, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Full constructor
+     *
+     * @param dataSource The data source to reserve blocks from
+     * @param table The numbered table, also the name of the sequence's row
+     * @param column The column holding the formatted numbers
+     * @param prefix Prefix of the formatted numbers, e.g. "INV" or "CASE-"
+     * @param digits Minimum number of digits, zero padded
+     * @param yearly Whether the year follows the prefix, as in CASE-2024-0042,
+     *               with numbering restarting every year
+     * @param blockSize How many numbers to reserve at a time
+     */
+    NumberSequence(DataSource dataSource, String table, String column, String prefix, int digits,
+                   boolean yearly, int blockSize) {
+        this.dataSource = dataSource;
+        this.table = table;
+        this.column = column;
+        this.basePrefix = prefix;
+        this.digits = digits;
+        this.yearly = yearly;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Get the next number, reserving a new block when the current one is used up
+     *
+     * @return The formatted number, e.g. INV000123
+     * @throws SQLException If a new block could not be reserved
+     */
+    synchronized String next() throws SQLException {
+        int currentYear = yearly ? LocalDate.now().getYear() : 0;
+        if (currentYear != year) {
+            year = currentYear;
+            name = yearly ? table + "-" + year : table;
+            prefix = yearly ? basePrefix + year + "-" : basePrefix;
+            next = limit = 0;
+        }
+
+        if (next >= limit) {
+            next = reserve(blockSize);
+            limit = next + blockSize;
+        }
+        return format(next++);
+    }
+
+    /**
+     * Formats a number without going through java.util.Formatter, which
+     * parses the pattern and allocates a Formatter on every call
+     */
+    private String format(long number) {
+        String digitString = Long.toString(number);
+        StringBuilder sb = new StringBuilder(prefix.length() + Math.max(digits, digitString.length()));
+        sb.append(prefix);
+        for (int i = digitString.length(); i < digits; i++) {
+            sb.append('0');
+        }
+        return sb.append(digitString).toString();
+    }
+
+    /**
+     * Reserves a block of numbers in the sequence table
+     *
+     * @param count Size of the block
+     * @return The first number of the block
+     */
+    private long reserve(int count) throws SQLException {
+        createTable();
+
+        try {
+            return tryReserve(count);
+        } catch (SQLException ex) {
+            // Another workstation may have created the sequence's row at
+            // the same time; the second attempt finds and locks it
+            return tryReserve(count);
+        }
+    }
+
+    private long tryReserve(int count) throws SQLException {
+        try (Connection con = dataSource.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                long start = lockNextValue(con);
+                if (start < 0) {
+                    start = seed(con) + 1;
+                    try (PreparedStatement pst = con.prepareStatement(
+                            "INSERT INTO number_sequences (name, next_value) VALUES (?, ?)")) {
+                        pst.setString(1, name);
+                        pst.setLong(2, start + count);
+                        pst.executeUpdate();
+                    }
+                } else {
+                    try (PreparedStatement pst = con.prepareStatement(
+                            "UPDATE number_sequences SET next_value = ? WHERE name = ?")) {
+                        pst.setLong(1, start + count);
+                        pst.setString(2, name);
+                        pst.executeUpdate();
+                    }
+                }
+                con.commit();
+                return start;
+
+            } catch (SQLException ex) {
+                con.rollback();
+                throw ex;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Locks the sequence's row until the transaction ends
+     *
+     * @return The next free number, or -1 if the row does not exist yet
+     */
+    private long lockNextValue(Connection con) throws SQLException {
+        try (PreparedStatement pst = con.prepareStatement(
+                "SELECT next_value FROM number_sequences WHERE name = ? FOR UPDATE")) {
+            pst.setString(1, name);
+            try (ResultSet rs = pst.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : -1;
+            }
+        }
+    }
+
+    /**
+     * Reads the highest number already in use with the current prefix, so
+     * numbers handed out before the sequence existed are not repeated
+     */
+    private long seed(Connection con) throws SQLException {
+        String sql = "SELECT MAX(CAST(SUBSTRING(" + column + ", " + (prefix.length() + 1) +
+                     ") AS UNSIGNED)) FROM " + table + " WHERE " + column + " LIKE ?";
+        try (PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setString(1, prefix + "%");
+            try (ResultSet rs = pst.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private void createTable() throws SQLException {
+        if (!tableCreated) {
+            // Runs on its own connection: CREATE TABLE commits any open transaction on MySQL
+            try (Connection con = dataSource.getConnection();
+                 Statement st = con.createStatement()) {
+                st.executeUpdate(CREATE_TABLE_SQL);
+            }
+            tableCreated = true;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of rows returned by a keyset-paged query.
+ *
+ * @param <T> The entity type
+ */
+public final class Page<T> {
+    private final List<T> items;
+    private final PageCursor nextCursor;
+
+    Page(List<T> items, PageCursor nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Creates an empty last page
+     *
+     * @param <T> The entity type
+     * @return The empty page
+     */
+    public static <T> Page<T> empty() {
+        return new Page<>(Collections.<T>emptyList(), null);
+    }
+
+    /**
+     * Get the rows of this page
+     *
+     * @return Unmodifiable list of rows
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Get the cursor to pass to the request for the following page
+     *
+     * @return The cursor, or null if this is the last page
+     */
+    public PageCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether more rows follow this page
+     *
+     * @return true if another page can be fetched
+     */
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
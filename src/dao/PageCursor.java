@@ -0,0 +1,39 @@
+package dao;
+
+/**
+ * Position after the last row of a page: the value of the sort column and
+ * the ID of that row. The ID breaks ties between rows with equal sort
+ * values, so paging never skips or repeats a row.
+ */
+public final class PageCursor {
+    private final Object sortValue;
+    private final int lastId;
+
+    PageCursor(Object sortValue, int lastId) {
+        this.sortValue = sortValue;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Get the sort column value of the last row returned
+     *
+     * @return The sort value
+     */
+    public Object getSortValue() {
+        return sortValue;
+    }
+
+    /**
+     * Get the ID of the last row returned
+     *
+     * @return The row ID
+     */
+    public int getLastId() {
+        return lastId;
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor[" + sortValue + ", " + lastId + "]";
+    }
+}
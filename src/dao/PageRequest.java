@@ -0,0 +1,122 @@
+package dao;
+
+/**
+ * Describes one page of a keyset-paged query: how many rows to return,
+ * which column to sort by and where the previous page ended.
+ * Requests are immutable; the builder-style methods return copies.
+ */
+public final class PageRequest {
+
+    /** Page size used by the list panels */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /** Upper bound on the page size to keep a single fetch cheap */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final int pageSize;
+    private final String sortKey;
+    private final boolean ascending;
+    private final PageCursor cursor;
+    private final int offset;
+
+    private PageRequest(int pageSize, String sortKey, boolean ascending, PageCursor cursor, int offset) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        this.pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+        this.sortKey = sortKey;
+        this.ascending = ascending;
+        this.cursor = cursor;
+        this.offset = offset;
+    }
+
+    /**
+     * Creates a request for the first page using the DAO's default sort order
+     *
+     * @param pageSize Maximum number of rows to return
+     * @return The page request
+     */
+    public static PageRequest first(int pageSize) {
+        return new PageRequest(pageSize, null, true, null, 0);
+    }
+
+    /**
+     * Creates a copy of this request sorted by the given key. Each DAO
+     * documents the keys it accepts; unknown keys are rejected.
+     *
+     * @param sortKey Column to sort by
+     * @param ascending Whether to sort in ascending order
+     * @return The new page request, starting from the first page
+     */
+    public PageRequest sortedBy(String sortKey, boolean ascending) {
+        return new PageRequest(pageSize, sortKey, ascending, null, 0);
+    }
+
+    /**
+     * Creates a copy of this request continuing after the given cursor
+     *
+     * @param cursor Cursor of the previous page, or null for the first page
+     * @return The new page request
+     */
+    public PageRequest after(PageCursor cursor) {
+        return new PageRequest(pageSize, sortKey, ascending, cursor, 0);
+    }
+
+    /**
+     * Creates a copy of this request starting at a row position instead of
+     * a cursor. The database still walks the skipped rows, so this is only
+     * meant for jumping into the middle of a list; continue from the
+     * returned cursor afterwards.
+     *
+     * @param offset Number of rows to skip
+     * @return The new page request
+     */
+    public PageRequest atOffset(int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative: " + offset);
+        }
+        return new PageRequest(pageSize, sortKey, ascending, null, offset);
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Get the sort key
+     *
+     * @return The sort key, or null for the DAO's default order
+     */
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Get the cursor of the previous page
+     *
+     * @return The cursor, or null when requesting the first page
+     */
+    public PageCursor getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Get the number of rows to skip when there is no cursor
+     *
+     * @return The offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public String toString() {
+        return "PageRequest[size=" + pageSize + ", sort=" + sortKey
+                + (ascending ? " asc" : " desc") + ", after=" + cursor
+                + (offset > 0 ? ", offset=" + offset : "") + "]";
+    }
+}
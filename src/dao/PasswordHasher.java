@@ -0,0 +1,45 @@
+package dao;
+
+/**
+ * One password hashing scheme. Hashes are self-describing strings of the
+ * form {@code $<scheme>$<parameters>...}, so hashes of several schemes,
+ * or of one scheme at several costs, can be stored side by side and each
+ * verified with the parameters it was made with.
+ *
+ * @see PasswordHashing
+ */
+public interface PasswordHasher {
+
+    /**
+     * Get the scheme name, the first field of the hashes made by this hasher
+     *
+     * @return The scheme name, e.g. pbkdf2-sha256
+     */
+    String getScheme();
+
+    /**
+     * Hash a password with a new random salt at the current cost
+     *
+     * @param password The password (plaintext)
+     * @return The encoded hash
+     */
+    String hash(String password);
+
+    /**
+     * Check a password against a hash of this scheme
+     *
+     * @param password The password (plaintext)
+     * @param encodedHash A hash made by this scheme, at any cost
+     * @return true if the password matches
+     */
+    boolean verify(String password, String encodedHash);
+
+    /**
+     * Check whether a hash of this scheme is weaker than the current cost
+     * and should be replaced the next time its password is known
+     *
+     * @param encodedHash A hash made by this scheme
+     * @return true if the hash should be upgraded
+     */
+    boolean needsUpgrade(String encodedHash);
+}
@@ -0,0 +1,174 @@
+package dao;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hashes and verifies passwords across the schemes that may be stored.
+ * New passwords are hashed with the current hasher, PBKDF2 by default;
+ * stored hashes are verified by the hasher of the scheme they name.
+ * Hashes from before versioned hashes were introduced, one round of
+ * SHA-256 with the salt in the password_salt column, are still verified
+ * but always reported as needing an upgrade, so {@link LoginDao} replaces
+ * each on its user's next successful login. Versioned hashes are longer;
+ * run db.PasswordHashMigration to widen the password_hash column first.
+ * <p>
+ * The PBKDF2 iteration count is set with -Dauth.passwordIterations. If it
+ * is not set, it is calibrated on first use so one hash takes about
+ * -Dauth.passwordHashMillis milliseconds (default 250) on this machine.
+ * Hashing is slow by design; never call it on the Event Dispatch Thread.
+ */
+public final class PasswordHashing {
+
+    /** Time one hash should take when calibrating, in milliseconds */
+    public static final long DEFAULT_HASH_MILLIS = 250;
+
+    private static volatile PasswordHashing defaultHashing;
+
+    private final PasswordHasher current;
+    private final Map<String, PasswordHasher> hashers = new ConcurrentHashMap<>();
+
+    // Hash of a random password, made on first use; racing threads may each make one
+    private volatile String dummyHash;
+
+    /**
+     * Constructor
+     *
+     * @param current The hasher of new passwords; also verifies its own scheme
+     */
+    public PasswordHashing(PasswordHasher current) {
+        this.current = current;
+        register(current);
+    }
+
+    /**
+     * Get the shared instance, calibrating the iteration count if not configured
+     *
+     * @return The shared instance
+     */
+    public static PasswordHashing getDefault() {
+        PasswordHashing hashing = defaultHashing;
+        if (hashing == null) {
+            synchronized (PasswordHashing.class) {
+                hashing = defaultHashing;
+                if (hashing == null) {
+                    Integer iterations = Integer.getInteger("auth.passwordIterations");
+                    if (iterations == null) {
+                        iterations = Pbkdf2PasswordHasher.calibrate(
+                                Long.getLong("auth.passwordHashMillis", DEFAULT_HASH_MILLIS));
+                    }
+                    hashing = new PasswordHashing(new Pbkdf2PasswordHasher(iterations));
+                    defaultHashing = hashing;
+                }
+            }
+        }
+        return hashing;
+    }
+
+    /**
+     * Add a hasher to verify the hashes of its scheme, e.g. a scheme being
+     * migrated away from
+     *
+     * @param hasher The hasher
+     */
+    public void register(PasswordHasher hasher) {
+        hashers.put(hasher.getScheme(), hasher);
+    }
+
+    /**
+     * Get the hasher of new passwords
+     *
+     * @return The current hasher
+     */
+    public PasswordHasher getCurrent() {
+        return current;
+    }
+
+    /**
+     * Hash a password with the current hasher
+     *
+     * @param password The password (plaintext)
+     * @return The encoded hash
+     */
+    public String hash(String password) {
+        return current.hash(password);
+    }
+
+    /**
+     * Check a password against a stored hash of any known scheme
+     *
+     * @param password The password (plaintext)
+     * @param storedHash The stored hash
+     * @param legacySalt The password_salt column, used by unversioned hashes only
+     * @return true if the password matches
+     */
+    public boolean verify(String password, String storedHash, String legacySalt) {
+        if (storedHash == null || password == null) {
+            return false;
+        }
+        if (!storedHash.startsWith("$")) {
+            return legacySalt != null && MessageDigest.isEqual(
+                    storedHash.getBytes(StandardCharsets.UTF_8),
+                    legacyHash(password, legacySalt).getBytes(StandardCharsets.UTF_8));
+        }
+        PasswordHasher hasher = hashers.get(schemeOf(storedHash));
+        return hasher != null && hasher.verify(password, storedHash);
+    }
+
+    /**
+     * Check a password against a hash no password matches, taking as long
+     * as checking it against a current hash. Called when there is no stored
+     * hash to check, so a login for an unknown user takes as long as one
+     * with a wrong password and does not tell which usernames exist.
+     *
+     * @param password The password (plaintext)
+     */
+    public void verifyDummy(String password) {
+        String hash = dummyHash;
+        if (hash == null) {
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            hash = current.hash(Base64.getEncoder().encodeToString(random));
+            dummyHash = hash;
+        }
+        current.verify(password != null ? password : "", hash);
+    }
+
+    /**
+     * Check whether a stored hash should be replaced by a hash of the
+     * current scheme and cost
+     *
+     * @param storedHash The stored hash, already verified
+     * @return true if the hash should be upgraded
+     */
+    public boolean needsUpgrade(String storedHash) {
+        if (storedHash == null || !storedHash.startsWith("$")) {
+            return true;
+        }
+        return !current.getScheme().equals(schemeOf(storedHash)) || current.needsUpgrade(storedHash);
+    }
+
+    private static String schemeOf(String storedHash) {
+        int end = storedHash.indexOf('$', 1);
+        return end < 0 ? "" : storedHash.substring(1, end);
+    }
+
+    /**
+     * The unversioned scheme: SHA-256 of the salt followed by the password
+     */
+    private static String legacyHash(String password, String salt) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(salt.getBytes());
+            byte[] hashedPassword = md.digest(password.getBytes());
+            return Base64.getEncoder().encodeToString(hashedPassword);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
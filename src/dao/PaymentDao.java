@@ -5,7 +5,6 @@ import model.Invoice;
 import model.Client;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
@@ -15,25 +14,51 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import javax.sql.DataSource;
 
 /**
  * Data Access Object for Payment operations.
  */
 public class PaymentDao {
-    private String db_url = "jdbc:mysql://localhost:3306/legalcasemgmtdb";
-    private String db_username = "root";
-    private String db_passwd = "Ornella12345!";
+    private final DataSource dataSource;
     
-    // Other DAOs for related entities
-    private ClientDao clientDao;
-    private InvoiceDao invoiceDao;
+    // Registry supplying DAOs for related entities
+    private final DaoRegistry daos;
+    
+    // Payment IDs PMT000001 and up
+    private final NumberSequence paymentIds;
+    
+    // Keyset paging over all payments
+    private final KeysetQuery<Payment> paymentPages = new KeysetQuery<>(
+            "SELECT * FROM payments", "id",
+            KeysetQuery.sortColumns("", "id", "payment_date", "amount"),
+            "payment_date", false, this::extractPaymentFromResultSet);
     
     /**
-     * Constructor
+     * Constructor using the shared application data source
      */
     public PaymentDao() {
-        this.clientDao = new ClientDao();
-        this.invoiceDao = new InvoiceDao();
+        this(DaoRegistry.getDefault());
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param dataSource The data source to obtain connections from
+     */
+    public PaymentDao(DataSource dataSource) {
+        this(new DaoRegistry(dataSource));
+    }
+    
+    /**
+     * Constructor used by the registry
+     * 
+     * @param daos Registry supplying related DAOs
+     */
+    PaymentDao(DaoRegistry daos) {
+        this.dataSource = daos.getDataSource();
+        this.daos = daos;
+        this.paymentIds = new NumberSequence(dataSource, "payments", "payment_id", "PMT", 6);
     }
     
     /**
@@ -46,46 +71,45 @@ public class PaymentDao {
         Connection con = null;
         try {
             // Create connection
-            con = DriverManager.getConnection(db_url, db_username, db_passwd);
+            con = dataSource.getConnection();
             con.setAutoCommit(false);  // Start transaction
             
+            // Serialize with other payments for the same invoice
+            daos.getInvoiceDao().lockInvoices(con, payment.getInvoiceId());
+            
             // Prepare statement
             String sql = "INSERT INTO payments (payment_id, invoice_id, client_id, payment_date, " +
                         "amount, payment_method, reference, notes) " +
                         "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
-            pst.setString(1, payment.getPaymentId());
-            pst.setInt(2, payment.getInvoiceId());
-            pst.setInt(3, payment.getClientId());
-            pst.setDate(4, Date.valueOf(payment.getPaymentDate()));
-            pst.setBigDecimal(5, payment.getAmount());
-            pst.setString(6, payment.getPaymentMethod());
-            pst.setString(7, payment.getReference());
-            pst.setString(8, payment.getNotes());
-            
-            // Execute statement
-            int rowsAffected = pst.executeUpdate();
-            
-            // Get generated ID
-            if (rowsAffected > 0) {
-                ResultSet rs = pst.getGeneratedKeys();
-                if (rs.next()) {
-                    payment.setId(rs.getInt(1));
+            try (PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pst.setString(1, payment.getPaymentId());
+                pst.setInt(2, payment.getInvoiceId());
+                pst.setInt(3, payment.getClientId());
+                pst.setDate(4, Date.valueOf(payment.getPaymentDate()));
+                pst.setBigDecimal(5, payment.getAmount());
+                pst.setString(6, payment.getPaymentMethod());
+                pst.setString(7, payment.getReference());
+                pst.setString(8, payment.getNotes());
+                
+                // Execute statement
+                int rowsAffected = pst.executeUpdate();
+                
+                // Get generated ID
+                if (rowsAffected > 0) {
+                    try (ResultSet rs = pst.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            payment.setId(rs.getInt(1));
+                        }
+                    }
+                    
+                    // Update invoice paid amount
+                    daos.getInvoiceDao().updateInvoicePaidAmount(con, payment.getInvoiceId());
                 }
-                rs.close();
                 
-                // Update invoice paid amount
-                invoiceDao.updateInvoicePaidAmount(payment.getInvoiceId());
+                // Commit transaction
+                con.commit();
+                return rowsAffected;
             }
-            
-            // Commit transaction
-            con.commit();
-            
-            // Close connection
-            con.close();
-            return rowsAffected;
-            
         } catch (Exception ex) {
             try {
                 // Rollback transaction on error
@@ -120,40 +144,47 @@ public class PaymentDao {
         Connection con = null;
         try {
             // Create connection
-            con = DriverManager.getConnection(db_url, db_username, db_passwd);
+            con = dataSource.getConnection();
             con.setAutoCommit(false);  // Start transaction
             
+            // The payment may move to another invoice; both need recalculating
+            int previousInvoiceId = findInvoiceIdOfPayment(con, payment.getId());
+            if (previousInvoiceId != 0 && previousInvoiceId != payment.getInvoiceId()) {
+                daos.getInvoiceDao().lockInvoices(con, previousInvoiceId, payment.getInvoiceId());
+            } else {
+                daos.getInvoiceDao().lockInvoices(con, payment.getInvoiceId());
+            }
+            
             // Prepare statement
             String sql = "UPDATE payments SET payment_id = ?, invoice_id = ?, client_id = ?, " +
                         "payment_date = ?, amount = ?, payment_method = ?, reference = ?, " +
                         "notes = ? WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            pst.setString(1, payment.getPaymentId());
-            pst.setInt(2, payment.getInvoiceId());
-            pst.setInt(3, payment.getClientId());
-            pst.setDate(4, Date.valueOf(payment.getPaymentDate()));
-            pst.setBigDecimal(5, payment.getAmount());
-            pst.setString(6, payment.getPaymentMethod());
-            pst.setString(7, payment.getReference());
-            pst.setString(8, payment.getNotes());
-            pst.setInt(9, payment.getId());
-            
-            // Execute statement
-            int rowsAffected = pst.executeUpdate();
-            
-            if (rowsAffected > 0) {
-                // Update invoice paid amount
-                invoiceDao.updateInvoicePaidAmount(payment.getInvoiceId());
+            try (PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setString(1, payment.getPaymentId());
+                pst.setInt(2, payment.getInvoiceId());
+                pst.setInt(3, payment.getClientId());
+                pst.setDate(4, Date.valueOf(payment.getPaymentDate()));
+                pst.setBigDecimal(5, payment.getAmount());
+                pst.setString(6, payment.getPaymentMethod());
+                pst.setString(7, payment.getReference());
+                pst.setString(8, payment.getNotes());
+                pst.setInt(9, payment.getId());
+                
+                // Execute statement
+                int rowsAffected = pst.executeUpdate();
+                
+                if (rowsAffected > 0) {
+                    // Update invoice paid amount
+                    daos.getInvoiceDao().updateInvoicePaidAmount(con, payment.getInvoiceId());
+                    if (previousInvoiceId != 0 && previousInvoiceId != payment.getInvoiceId()) {
+                        daos.getInvoiceDao().updateInvoicePaidAmount(con, previousInvoiceId);
+                    }
+                }
+                
+                // Commit transaction
+                con.commit();
+                return rowsAffected;
             }
-            
-            // Commit transaction
-            con.commit();
-            
-            // Close connection
-            con.close();
-            return rowsAffected;
-            
         } catch (Exception ex) {
             try {
                 // Rollback transaction on error
@@ -185,22 +216,20 @@ public class PaymentDao {
      * @return The payment if found, null otherwise
      */
     public Payment findPaymentById(int id) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM payments WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM payments WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, id);
             
-            ResultSet rs = pst.executeQuery();
-            Payment payment = null;
-            
-            if (rs.next()) {
-                payment = extractPaymentFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                Payment payment = null;
+                
+                if (rs.next()) {
+                    payment = extractPaymentFromResultSet(rs);
+                }
+                
+                return payment;
             }
-            
-            con.close();
-            return payment;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -214,22 +243,20 @@ public class PaymentDao {
      * @return The payment if found, null otherwise
      */
     public Payment findPaymentByPaymentId(String paymentId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM payments WHERE payment_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM payments WHERE payment_id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, paymentId);
             
-            ResultSet rs = pst.executeQuery();
-            Payment payment = null;
-            
-            if (rs.next()) {
-                payment = extractPaymentFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                Payment payment = null;
+                
+                if (rs.next()) {
+                    payment = extractPaymentFromResultSet(rs);
+                }
+                
+                return payment;
             }
-            
-            con.close();
-            return payment;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -243,23 +270,21 @@ public class PaymentDao {
      * @return List of payments for the invoice
      */
     public List<Payment> findPaymentsByInvoice(int invoiceId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM payments WHERE invoice_id = ? ORDER BY payment_date DESC";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM payments WHERE invoice_id = ? ORDER BY payment_date DESC";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, invoiceId);
             
-            ResultSet rs = pst.executeQuery();
-            List<Payment> paymentList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Payment payment = extractPaymentFromResultSet(rs);
-                paymentList.add(payment);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Payment> paymentList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Payment payment = extractPaymentFromResultSet(rs);
+                    paymentList.add(payment);
+                }
+                
+                return paymentList;
             }
-            
-            con.close();
-            return paymentList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -273,23 +298,21 @@ public class PaymentDao {
      * @return List of payments for the client
      */
     public List<Payment> findPaymentsByClient(int clientId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM payments WHERE client_id = ? ORDER BY payment_date DESC";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM payments WHERE client_id = ? ORDER BY payment_date DESC";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, clientId);
             
-            ResultSet rs = pst.executeQuery();
-            List<Payment> paymentList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Payment payment = extractPaymentFromResultSet(rs);
-                paymentList.add(payment);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Payment> paymentList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Payment payment = extractPaymentFromResultSet(rs);
+                    paymentList.add(payment);
+                }
+                
+                return paymentList;
             }
-            
-            con.close();
-            return paymentList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -303,23 +326,21 @@ public class PaymentDao {
      * @return List of payments with the payment method
      */
     public List<Payment> findPaymentsByMethod(String paymentMethod) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM payments WHERE payment_method = ? ORDER BY payment_date DESC";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM payments WHERE payment_method = ? ORDER BY payment_date DESC";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, paymentMethod);
             
-            ResultSet rs = pst.executeQuery();
-            List<Payment> paymentList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Payment payment = extractPaymentFromResultSet(rs);
-                paymentList.add(payment);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Payment> paymentList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Payment payment = extractPaymentFromResultSet(rs);
+                    paymentList.add(payment);
+                }
+                
+                return paymentList;
             }
-            
-            con.close();
-            return paymentList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -334,24 +355,22 @@ public class PaymentDao {
      * @return List of payments in the date range
      */
     public List<Payment> findPaymentsByDateRange(LocalDate startDate, LocalDate endDate) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM payments WHERE payment_date BETWEEN ? AND ? ORDER BY payment_date";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM payments WHERE payment_date BETWEEN ? AND ? ORDER BY payment_date";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setDate(1, Date.valueOf(startDate));
             pst.setDate(2, Date.valueOf(endDate));
             
-            ResultSet rs = pst.executeQuery();
-            List<Payment> paymentList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Payment payment = extractPaymentFromResultSet(rs);
-                paymentList.add(payment);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Payment> paymentList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Payment payment = extractPaymentFromResultSet(rs);
+                    paymentList.add(payment);
+                }
+                
+                return paymentList;
             }
-            
-            con.close();
-            return paymentList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -364,28 +383,36 @@ public class PaymentDao {
      * @return List of all payments
      */
     public List<Payment> findAllPayments() {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM payments ORDER BY payment_date DESC";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            ResultSet rs = pst.executeQuery();
-            List<Payment> paymentList = new ArrayList<>();
-            
-            while (rs.next()) {
-                Payment payment = extractPaymentFromResultSet(rs);
-                paymentList.add(payment);
+        String sql = "SELECT * FROM payments ORDER BY payment_date DESC";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Payment> paymentList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    Payment payment = extractPaymentFromResultSet(rs);
+                    paymentList.add(payment);
+                }
+                
+                return paymentList;
             }
-            
-            con.close();
-            return paymentList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
         }
     }
     
+    /**
+     * Gets one page of payments. Without a sort key the page is ordered
+     * by payment date, newest first.
+     * 
+     * @param request The page request; sortable by id, payment_date or amount
+     * @return The page of payments
+     */
+    public Page<Payment> findPaymentsPage(PageRequest request) {
+        return paymentPages.fetch(dataSource, request);
+    }
+    
     /**
      * Extract payment data from a ResultSet row
      * 
@@ -430,11 +457,11 @@ public class PaymentDao {
             }
             
             // Load invoice
-            Invoice invoice = invoiceDao.findInvoiceById(payment.getInvoiceId());
+            Invoice invoice = daos.getInvoiceDao().findInvoiceById(payment.getInvoiceId());
             payment.setInvoice(invoice);
             
             // Load client
-            Client client = clientDao.findClientById(payment.getClientId());
+            Client client = daos.getClientDao().findClientById(payment.getClientId());
             payment.setClient(client);
             
             return payment;
@@ -452,25 +479,23 @@ public class PaymentDao {
      * @return Total amount paid by the client
      */
     public BigDecimal getTotalPaymentsByClient(int clientId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT SUM(amount) AS total_amount FROM payments WHERE client_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT SUM(amount) AS total_amount FROM payments WHERE client_id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, clientId);
             
-            ResultSet rs = pst.executeQuery();
-            BigDecimal totalAmount = BigDecimal.ZERO;
-            
-            if (rs.next()) {
-                BigDecimal amount = rs.getBigDecimal("total_amount");
-                if (amount != null) {
-                    totalAmount = amount;
+            try (ResultSet rs = pst.executeQuery()) {
+                BigDecimal totalAmount = BigDecimal.ZERO;
+                
+                if (rs.next()) {
+                    BigDecimal amount = rs.getBigDecimal("total_amount");
+                    if (amount != null) {
+                        totalAmount = amount;
+                    }
                 }
+                
+                return totalAmount;
             }
-            
-            con.close();
-            return totalAmount;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return BigDecimal.ZERO;
@@ -485,26 +510,24 @@ public class PaymentDao {
      * @return Total amount paid in the date range
      */
     public BigDecimal getTotalPaymentsByDateRange(LocalDate startDate, LocalDate endDate) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT SUM(amount) AS total_amount FROM payments WHERE payment_date BETWEEN ? AND ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT SUM(amount) AS total_amount FROM payments WHERE payment_date BETWEEN ? AND ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setDate(1, Date.valueOf(startDate));
             pst.setDate(2, Date.valueOf(endDate));
             
-            ResultSet rs = pst.executeQuery();
-            BigDecimal totalAmount = BigDecimal.ZERO;
-            
-            if (rs.next()) {
-                BigDecimal amount = rs.getBigDecimal("total_amount");
-                if (amount != null) {
-                    totalAmount = amount;
+            try (ResultSet rs = pst.executeQuery()) {
+                BigDecimal totalAmount = BigDecimal.ZERO;
+                
+                if (rs.next()) {
+                    BigDecimal amount = rs.getBigDecimal("total_amount");
+                    if (amount != null) {
+                        totalAmount = amount;
+                    }
                 }
+                
+                return totalAmount;
             }
-            
-            con.close();
-            return totalAmount;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return BigDecimal.ZERO;
@@ -520,37 +543,35 @@ public class PaymentDao {
     public int deletePayment(int paymentId) {
         Connection con = null;
         try {
-            // First get the payment to get the invoice ID
-            Payment payment = findPaymentById(paymentId);
-            if (payment == null) {
+            // Create connection
+            con = dataSource.getConnection();
+            con.setAutoCommit(false);  // Start transaction
+            
+            // First get the invoice the payment belongs to
+            int invoiceId = findInvoiceIdOfPayment(con, paymentId);
+            if (invoiceId == 0) {
                 return 0;
             }
             
-            int invoiceId = payment.getInvoiceId();
-            
-            // Create connection
-            con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            con.setAutoCommit(false);  // Start transaction
+            // Serialize with other payments for the same invoice
+            daos.getInvoiceDao().lockInvoices(con, invoiceId);
             
             // Delete the payment
             String sql = "DELETE FROM payments WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, paymentId);
-            
-            int rowsAffected = pst.executeUpdate();
-            
-            if (rowsAffected > 0) {
-                // Update invoice paid amount
-                invoiceDao.updateInvoicePaidAmount(invoiceId);
+            try (PreparedStatement pst = con.prepareStatement(sql)) {
+                pst.setInt(1, paymentId);
+                
+                int rowsAffected = pst.executeUpdate();
+                
+                if (rowsAffected > 0) {
+                    // Update invoice paid amount
+                    daos.getInvoiceDao().updateInvoicePaidAmount(con, invoiceId);
+                }
+                
+                // Commit transaction
+                con.commit();
+                return rowsAffected;
             }
-            
-            // Commit transaction
-            con.commit();
-            
-            // Close connection
-            con.close();
-            return rowsAffected;
-            
         } catch (Exception ex) {
             try {
                 // Rollback transaction on error
@@ -576,29 +597,34 @@ public class PaymentDao {
     }
     
     /**
-     * Generates the next payment ID based on the current highest number
+     * Finds the invoice a payment is recorded against
+     * 
+     * @param con Open database connection
+     * @param paymentId The ID of the payment
+     * @return The invoice ID, or 0 if the payment does not exist
+     * @throws Exception If an error occurs
+     */
+    private int findInvoiceIdOfPayment(Connection con, int paymentId) throws Exception {
+        String sql = "SELECT invoice_id FROM payments WHERE id = ?";
+        try (PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setInt(1, paymentId);
+            
+            try (ResultSet rs = pst.executeQuery()) {
+                int invoiceId = rs.next() ? rs.getInt("invoice_id") : 0;
+                
+                return invoiceId;
+            }
+        }
+    }
+    
+    /**
+     * Generates the next payment ID from the payment ID sequence
      * 
      * @return Next available payment ID
      */
     public String generateNextPaymentId() {
         try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT MAX(CAST(SUBSTRING(payment_id, 4) AS UNSIGNED)) AS max_num " +
-                         "FROM payments WHERE payment_id LIKE 'PMT%'";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            ResultSet rs = pst.executeQuery();
-            int maxNum = 0;
-            
-            if (rs.next()) {
-                maxNum = rs.getInt("max_num");
-            }
-            
-            con.close();
-            
-            // Format next payment ID
-            int nextNum = maxNum + 1;
-            return String.format("PMT%06d", nextNum);
+            return paymentIds.next();
             
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -0,0 +1,151 @@
+package dao;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * PBKDF2 with HMAC-SHA256. Hashes are encoded as
+ * {@code $pbkdf2-sha256$<iterations>$<salt>$<hash>}, salt and hash in
+ * Base64, so each hash keeps the iteration count it was made with.
+ * <p>
+ * The iteration count sets how long a hash takes, for logins and for
+ * an attacker alike. {@link #calibrate} measures this machine to find the
+ * count that takes a given time.
+ */
+public final class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    /** Scheme name of the hashes */
+    public static final String SCHEME = "pbkdf2-sha256";
+
+    /** Lowest iteration count used, whatever the calibration gives */
+    public static final int MIN_ITERATIONS = 100_000;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    // Hashes at least this fraction of the current count are kept, so
+    // calibrations differing slightly between workstations do not rehash
+    // a password on every login
+    private static final double UPGRADE_THRESHOLD = 0.75;
+
+    private final int iterations;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Constructor
+     *
+     * @param iterations The iteration count of new hashes
+     */
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be positive: " + iterations);
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * Find the iteration count that takes about the given time on this
+     * machine, after a warm-up so the measurement sees compiled code
+     *
+     * @param targetMillis Time one hash should take, in milliseconds
+     * @return The iteration count, at least {@link #MIN_ITERATIONS}
+     */
+    public static int calibrate(long targetMillis) {
+        byte[] salt = new byte[SALT_BYTES];
+        int sample = 20_000;
+
+        derive("calibration", salt, sample);
+        long start = System.nanoTime();
+        derive("calibration", salt, sample);
+        long elapsed = Math.max(1, System.nanoTime() - start);
+
+        double perMilli = sample * 1_000_000.0 / elapsed;
+        long iterations = Math.round(perMilli * targetMillis / 1000) * 1000;
+        return (int) Math.max(MIN_ITERATIONS, Math.min(Integer.MAX_VALUE, iterations));
+    }
+
+    /**
+     * Get the iteration count of new hashes
+     *
+     * @return The iteration count
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String getScheme() {
+        return SCHEME;
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder();
+        return "$" + SCHEME + "$" + iterations + "$" + base64.encodeToString(salt)
+                + "$" + base64.encodeToString(derive(password, salt, iterations));
+    }
+
+    @Override
+    public boolean verify(String password, String encodedHash) {
+        String[] fields = parse(encodedHash);
+        if (fields == null) {
+            return false;
+        }
+        try {
+            Base64.Decoder base64 = Base64.getDecoder();
+            byte[] salt = base64.decode(fields[3]);
+            byte[] expected = base64.decode(fields[4]);
+            byte[] actual = derive(password, salt, Integer.parseInt(fields[2]));
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsUpgrade(String encodedHash) {
+        String[] fields = parse(encodedHash);
+        if (fields == null) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(fields[2]) < iterations * UPGRADE_THRESHOLD;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Split a hash into its fields, the first being empty
+     *
+     * @return The five fields, or null if the hash is not of this scheme
+     */
+    private static String[] parse(String encodedHash) {
+        if (encodedHash == null) {
+            return null;
+        }
+        String[] fields = encodedHash.split("\\$");
+        if (fields.length != 5 || !fields[0].isEmpty() || !SCHEME.equals(fields[1])) {
+            return null;
+        }
+        return fields;
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
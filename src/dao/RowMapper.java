@@ -0,0 +1,12 @@
+package dao;
+
+import java.sql.ResultSet;
+
+/**
+ * Maps the current row of a result set to an entity
+ *
+ * @param <T> The entity type
+ */
+interface RowMapper<T> {
+    T map(ResultSet rs) throws Exception;
+}
@@ -0,0 +1,214 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import javax.sql.DataSource;
+
+/**
+ * Runs ranked text searches for a DAO. On MySQL the search uses the
+ * table's FULLTEXT index in boolean mode, so every word of the search text
+ * must match the start of an indexed word and results come back ordered
+ * by relevance. Databases without full-text support, such as the embedded
+ * H2 test database, and terms too short for the index fall back to a LIKE
+ * search with the same matching rules and a simple score: matches at the
+ * start of a word and in the more significant columns rank first.
+ *
+ * @param <T> The entity type
+ */
+final class TextSearchQuery<T> {
+
+    /** Maximum number of results returned by a search */
+    static final int MAX_RESULTS = 500;
+
+    // Further words are ignored to keep the statement small
+    private static final int MAX_TERMS = 8;
+
+    // InnoDB does not index shorter words (innodb_ft_min_token_size)
+    private static final int MIN_INDEXED_TERM_LENGTH = 3;
+
+    // ER_FT_MATCHING_KEY_NOT_FOUND: no FULLTEXT index for the MATCH column list
+    private static final int MYSQL_NO_FULLTEXT_INDEX = 1191;
+
+    private final FullTextIndex index;
+    private final String selectList;
+    private final RowMapper<T> mapper;
+
+    // Null until the first search has checked the database product
+    private volatile Boolean fullTextAvailable;
+
+    /**
+     * Constructor
+     *
+     * @param index The full-text index of the searched table
+     * @param mapper Maps one row to an entity
+     */
+    TextSearchQuery(FullTextIndex index, RowMapper<T> mapper) {
+        this(index, "t.*", mapper);
+    }
+
+    /**
+     * Constructor for searches that read only some columns, e.g. to leave
+     * out a large indexed text column
+     *
+     * @param index The full-text index of the searched table
+     * @param selectList The select list, with the table aliased as t
+     * @param mapper Maps one row to an entity
+     */
+    TextSearchQuery(FullTextIndex index, String selectList, RowMapper<T> mapper) {
+        this.index = index;
+        this.selectList = selectList;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Searches the indexed columns
+     *
+     * @param dataSource Data source to borrow a connection from
+     * @param text The search text; each word must match
+     * @return Matching entities, best match first, or an empty list if
+     *         the text has no words or the query fails
+     */
+    List<T> search(DataSource dataSource, String text) {
+        List<String> terms = terms(text);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        try (Connection con = dataSource.getConnection()) {
+            if (useFullText(con, terms)) {
+                try {
+                    return fullTextSearch(con, terms);
+                } catch (SQLException ex) {
+                    if (ex.getErrorCode() != MYSQL_NO_FULLTEXT_INDEX) {
+                        throw ex;
+                    }
+                    System.err.println("Full-text index " + index.getIndexName()
+                            + " is missing, using LIKE search; run db.SearchIndexMigration to create it");
+                    fullTextAvailable = false;
+                }
+            }
+            return likeSearch(con, terms);
+
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Splits search text into distinct lower-case words
+     *
+     * @param text The search text
+     * @return The words, at most {@link #MAX_TERMS}
+     */
+    static List<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text != null) {
+            for (String term : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!term.isEmpty() && terms.size() < MAX_TERMS) {
+                    terms.add(term);
+                }
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private boolean useFullText(Connection con, List<String> terms) throws SQLException {
+        Boolean available = fullTextAvailable;
+        if (available == null) {
+            String product = con.getMetaData().getDatabaseProductName();
+            available = "MySQL".equalsIgnoreCase(product) || "MariaDB".equalsIgnoreCase(product);
+            fullTextAvailable = available;
+        }
+
+        if (!available) {
+            return false;
+        }
+        for (String term : terms) {
+            if (term.length() < MIN_INDEXED_TERM_LENGTH) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<T> fullTextSearch(Connection con, List<String> terms) throws Exception {
+        String match = "MATCH(" + String.join(", ", index.getColumns()) + ") AGAINST (? IN BOOLEAN MODE)";
+        String sql = "SELECT " + selectList + ", " + match + " AS search_score FROM " + index.getTable() + " t"
+                + " WHERE " + match + " ORDER BY search_score DESC, t.id LIMIT ?";
+
+        // Every word is required and matches as a prefix
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            query.append(query.length() > 0 ? " +" : "+").append(term).append('*');
+        }
+
+        List<Object> params = new ArrayList<>();
+        params.add(query.toString());
+        params.add(query.toString());
+        params.add(MAX_RESULTS);
+        return run(con, sql, params);
+    }
+
+    private List<T> likeSearch(Connection con, List<String> terms) throws Exception {
+        StringBuilder score = new StringBuilder();
+        StringBuilder condition = new StringBuilder();
+        List<Object> scoreParams = new ArrayList<>();
+        List<Object> conditionParams = new ArrayList<>();
+        List<String> columns = index.getColumns();
+
+        for (String term : terms) {
+            condition.append(condition.length() > 0 ? " AND (" : "(");
+            for (int i = 0; i < columns.size(); i++) {
+                String column = "LOWER(t." + columns.get(i) + ")";
+                int weight = columns.size() - i;
+
+                // Word-start matches count double
+                score.append(score.length() > 0 ? " + " : "")
+                     .append("CASE WHEN ").append(column).append(" LIKE ? OR ")
+                     .append(column).append(" LIKE ? THEN ").append(weight * 2)
+                     .append(" WHEN ").append(column).append(" LIKE ? THEN ").append(weight)
+                     .append(" ELSE 0 END");
+                scoreParams.add(term + "%");
+                scoreParams.add("% " + term + "%");
+                scoreParams.add("%" + term + "%");
+
+                condition.append(i > 0 ? " OR " : "").append(column).append(" LIKE ?");
+                conditionParams.add("%" + term + "%");
+            }
+            condition.append(")");
+        }
+
+        String sql = "SELECT " + selectList + ", (" + score + ") AS search_score FROM " + index.getTable() + " t"
+                + " WHERE " + condition + " ORDER BY search_score DESC, t.id LIMIT ?";
+
+        List<Object> params = new ArrayList<>(scoreParams);
+        params.addAll(conditionParams);
+        params.add(MAX_RESULTS);
+        return run(con, sql, params);
+    }
+
+    private List<T> run(Connection con, String sql, List<Object> params) throws Exception {
+        try (PreparedStatement pst = con.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                pst.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet rs = pst.executeQuery()) {
+                List<T> results = new ArrayList<>();
+                while (rs.next()) {
+                    results.add(mapper.map(rs));
+                }
+                return results;
+            }
+        }
+    }
+}
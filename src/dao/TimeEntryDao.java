@@ -5,9 +5,9 @@ import model.Case;
 import model.Attorney;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Date;
 import java.time.LocalDate;
@@ -15,24 +15,56 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import javax.sql.DataSource;
 
 /**
  * Data Access Object for TimeEntry operations.
  */
 public class TimeEntryDao {
-    private String db_url = "jdbc:mysql://localhost:3306/legalcasemgmtdb";
-    private String db_username = "root";
-    private String db_passwd = "Ornella12345!";
+    private final DataSource dataSource;
     
-    // Other DAOs for related entities
-    public  CaseDao caseDao = new CaseDao();
-    private AttorneyDao attorneyDao;
+    // Registry supplying DAOs for related entities
+    private final DaoRegistry daos;
+    
+    // Time entry IDs TE-2024-00001 and up, restarting every year; entered
+    // in bulk, so reserved 100 at a time
+    private final NumberSequence entryIds;
+    
+    // Most time entry IDs bound into one billing statement
+    private static final int BILLING_CHUNK_SIZE = 500;
+    
+    // Keyset paging over all time entries
+    private final KeysetQuery<TimeEntry> timeEntryPages = new KeysetQuery<>(
+            "SELECT * FROM time_entries", "id",
+            KeysetQuery.sortColumns("", "id", "entry_date"),
+            "entry_date", false, this::extractTimeEntryFromResultSet);
     
     /**
-     * Constructor
+     * Constructor using the shared application data source
      */
     public TimeEntryDao() {
-        this.attorneyDao = new AttorneyDao();
+        this(DaoRegistry.getDefault());
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param dataSource The data source to obtain connections from
+     */
+    public TimeEntryDao(DataSource dataSource) {
+        this(new DaoRegistry(dataSource));
+    }
+    
+    /**
+     * Constructor used by the registry
+     * 
+     * @param daos Registry supplying related DAOs
+     */
+    TimeEntryDao(DaoRegistry daos) {
+        this.dataSource = daos.getDataSource();
+        this.daos = daos;
+        this.entryIds = new NumberSequence(dataSource, "time_entries", "entry_id", "TE-", 5,
+                true, 100);
     }
     
     /**
@@ -42,16 +74,12 @@ public class TimeEntryDao {
      * @return Number of rows affected
      */
     public int createTimeEntry(TimeEntry timeEntry) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "INSERT INTO time_entries (entry_id, case_id, attorney_id, entry_date, hours, " +
-                        "description, activity_code, hourly_rate, billed, invoice_id) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
+        // Prepare statement
+        String sql = "INSERT INTO time_entries (entry_id, case_id, attorney_id, entry_date, hours, " +
+                    "description, activity_code, hourly_rate, billed, invoice_id) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pst.setString(1, timeEntry.getEntryId());
             pst.setInt(2, timeEntry.getCaseId());
             pst.setInt(3, timeEntry.getAttorneyId());
@@ -80,15 +108,13 @@ public class TimeEntryDao {
             
             // Get generated ID
             if (rowsAffected > 0) {
-                ResultSet rs = pst.getGeneratedKeys();
-                if (rs.next()) {
-                    timeEntry.setId(rs.getInt(1));
+                try (ResultSet rs = pst.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        timeEntry.setId(rs.getInt(1));
+                    }
                 }
-                rs.close();
             }
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -104,16 +130,12 @@ public class TimeEntryDao {
      * @return Number of rows affected
      */
     public int updateTimeEntry(TimeEntry timeEntry) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "UPDATE time_entries SET entry_id = ?, case_id = ?, attorney_id = ?, " +
-                        "entry_date = ?, hours = ?, description = ?, activity_code = ?, " +
-                        "hourly_rate = ?, billed = ?, invoice_id = ? WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
+        // Prepare statement
+        String sql = "UPDATE time_entries SET entry_id = ?, case_id = ?, attorney_id = ?, " +
+                    "entry_date = ?, hours = ?, description = ?, activity_code = ?, " +
+                    "hourly_rate = ?, billed = ?, invoice_id = ? WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, timeEntry.getEntryId());
             pst.setInt(2, timeEntry.getCaseId());
             pst.setInt(3, timeEntry.getAttorneyId());
@@ -142,8 +164,6 @@ public class TimeEntryDao {
             // Execute statement
             int rowsAffected = pst.executeUpdate();
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -160,22 +180,16 @@ public class TimeEntryDao {
      * @return Number of rows affected
      */
     public int markTimeEntryAsBilled(int timeEntryId, int invoiceId) {
-        try {
-            // Create connection
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Prepare statement
-            String sql = "UPDATE time_entries SET billed = TRUE, invoice_id = ? WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
+        // Prepare statement
+        String sql = "UPDATE time_entries SET billed = TRUE, invoice_id = ? WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, invoiceId);
             pst.setInt(2, timeEntryId);
             
             // Execute statement
             int rowsAffected = pst.executeUpdate();
             
-            // Close connection
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -184,6 +198,93 @@ public class TimeEntryDao {
         }
     }
     
+    /**
+     * Marks time entries as billed in one transaction
+     * 
+     * @param timeEntryIds The IDs of the time entries
+     * @param invoiceId The ID of the invoice
+     * @return Number of rows affected
+     */
+    public int markTimeEntriesAsBilled(List<Integer> timeEntryIds, int invoiceId) {
+        Connection con = null;
+        try {
+            // Create connection
+            con = dataSource.getConnection();
+            con.setAutoCommit(false);  // Start transaction
+            
+            int rowsAffected = markTimeEntriesAsBilled(con, timeEntryIds, invoiceId);
+            
+            // Commit transaction
+            con.commit();
+            return rowsAffected;
+            
+        } catch (Exception ex) {
+            try {
+                // Rollback transaction on error
+                if (con != null && !con.getAutoCommit()) {
+                    con.rollback();
+                }
+            } catch (Exception rollbackEx) {
+                rollbackEx.printStackTrace();
+            }
+            
+            ex.printStackTrace();
+            return 0;
+        } finally {
+            try {
+                if (con != null) {
+                    con.setAutoCommit(true);
+                    con.close();
+                }
+            } catch (Exception closeEx) {
+                closeEx.printStackTrace();
+            }
+        }
+    }
+    
+    /**
+     * Marks time entries as billed using an existing connection, with one
+     * statement per 500 entries. Entries already billed are left alone; if
+     * any of the entries was already billed or no longer exists, an
+     * exception is thrown so the caller's transaction is rolled back
+     * instead of billing the other entries twice.
+     * 
+     * @param con Open database connection with a transaction in progress
+     * @param timeEntryIds The IDs of the time entries
+     * @param invoiceId The ID of the invoice
+     * @return Number of rows affected
+     * @throws Exception If an error occurs or not every entry was unbilled
+     */
+    int markTimeEntriesAsBilled(Connection con, List<Integer> timeEntryIds, int invoiceId) throws Exception {
+        int rowsAffected = 0;
+        
+        for (int from = 0; from < timeEntryIds.size(); from += BILLING_CHUNK_SIZE) {
+            List<Integer> chunk = timeEntryIds.subList(from, Math.min(from + BILLING_CHUNK_SIZE, timeEntryIds.size()));
+            
+            StringBuilder sql = new StringBuilder("UPDATE time_entries SET billed = TRUE, invoice_id = ? " +
+                                                  "WHERE billed = FALSE AND id IN (");
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+            
+            try (PreparedStatement pst = con.prepareStatement(sql.toString())) {
+                pst.setInt(1, invoiceId);
+                for (int i = 0; i < chunk.size(); i++) {
+                    pst.setInt(i + 2, chunk.get(i));
+                }
+                
+                rowsAffected += pst.executeUpdate();
+            }
+        }
+        
+        if (rowsAffected < timeEntryIds.size()) {
+            throw new SQLException((timeEntryIds.size() - rowsAffected) + " of " + timeEntryIds.size() +
+                    " time entries were already billed or no longer exist");
+        }
+        return rowsAffected;
+    }
+    
     /**
      * Finds a time entry by ID
      * 
@@ -191,22 +292,20 @@ public class TimeEntryDao {
      * @return The time entry if found, null otherwise
      */
     public TimeEntry findTimeEntryById(int id) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM time_entries WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM time_entries WHERE id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, id);
             
-            ResultSet rs = pst.executeQuery();
-            TimeEntry timeEntry = null;
-            
-            if (rs.next()) {
-                timeEntry = extractTimeEntryFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                TimeEntry timeEntry = null;
+                
+                if (rs.next()) {
+                    timeEntry = extractTimeEntryFromResultSet(rs);
+                }
+                
+                return timeEntry;
             }
-            
-            con.close();
-            return timeEntry;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -220,22 +319,20 @@ public class TimeEntryDao {
      * @return The time entry if found, null otherwise
      */
     public TimeEntry findTimeEntryByEntryId(String entryId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM time_entries WHERE entry_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM time_entries WHERE entry_id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, entryId);
             
-            ResultSet rs = pst.executeQuery();
-            TimeEntry timeEntry = null;
-            
-            if (rs.next()) {
-                timeEntry = extractTimeEntryFromResultSet(rs);
+            try (ResultSet rs = pst.executeQuery()) {
+                TimeEntry timeEntry = null;
+                
+                if (rs.next()) {
+                    timeEntry = extractTimeEntryFromResultSet(rs);
+                }
+                
+                return timeEntry;
             }
-            
-            con.close();
-            return timeEntry;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return null;
@@ -249,21 +346,9 @@ public class TimeEntryDao {
      * @return List of time entries for the case
      */
     public List<TimeEntry> findTimeEntriesByCase(int caseId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM time_entries WHERE case_id = ? ORDER BY entry_date DESC";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, caseId);
+        try (Connection con = dataSource.getConnection()) {
+            List<TimeEntry> timeEntryList = findTimeEntriesByCase(con, caseId);
             
-            ResultSet rs = pst.executeQuery();
-            List<TimeEntry> timeEntryList = new ArrayList<>();
-            
-            while (rs.next()) {
-                TimeEntry timeEntry = extractTimeEntryFromResultSet(rs);
-                timeEntryList.add(timeEntry);
-            }
-            
-            con.close();
             return timeEntryList;
             
         } catch (Exception ex) {
@@ -272,6 +357,46 @@ public class TimeEntryDao {
         }
     }
     
+    /**
+     * Finds time entries by case ID using an existing connection
+     * 
+     * @param con Open database connection
+     * @param caseId The case ID to search for
+     * @return List of time entries for the case
+     * @throws Exception If an error occurs
+     */
+    List<TimeEntry> findTimeEntriesByCase(Connection con, int caseId) throws Exception {
+        // Join the attorney name so callers can display it without a lookup per entry
+        String sql = "SELECT te.*, a.attorney_id AS attorney_code, a.first_name AS attorney_first_name, " +
+                     "a.last_name AS attorney_last_name FROM time_entries te " +
+                     "LEFT JOIN attorneys a ON a.id = te.attorney_id " +
+                     "WHERE te.case_id = ? ORDER BY te.entry_date DESC";
+        try (PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setInt(1, caseId);
+            
+            try (ResultSet rs = pst.executeQuery()) {
+                List<TimeEntry> timeEntryList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    TimeEntry timeEntry = extractTimeEntryFromResultSet(rs);
+                    
+                    if (rs.getString("attorney_first_name") != null) {
+                        Attorney attorney = new Attorney();
+                        attorney.setId(timeEntry.getAttorneyId());
+                        attorney.setAttorneyId(rs.getString("attorney_code"));
+                        attorney.setFirstName(rs.getString("attorney_first_name"));
+                        attorney.setLastName(rs.getString("attorney_last_name"));
+                        timeEntry.setAttorney(attorney);
+                    }
+                    
+                    timeEntryList.add(timeEntry);
+                }
+                
+                return timeEntryList;
+            }
+        }
+    }
+    
     /**
      * Finds time entries by attorney ID
      * 
@@ -279,23 +404,21 @@ public class TimeEntryDao {
      * @return List of time entries for the attorney
      */
     public List<TimeEntry> findTimeEntriesByAttorney(int attorneyId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM time_entries WHERE attorney_id = ? ORDER BY entry_date DESC";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM time_entries WHERE attorney_id = ? ORDER BY entry_date DESC";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, attorneyId);
             
-            ResultSet rs = pst.executeQuery();
-            List<TimeEntry> timeEntryList = new ArrayList<>();
-            
-            while (rs.next()) {
-                TimeEntry timeEntry = extractTimeEntryFromResultSet(rs);
-                timeEntryList.add(timeEntry);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<TimeEntry> timeEntryList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    TimeEntry timeEntry = extractTimeEntryFromResultSet(rs);
+                    timeEntryList.add(timeEntry);
+                }
+                
+                return timeEntryList;
             }
-            
-            con.close();
-            return timeEntryList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -310,24 +433,22 @@ public class TimeEntryDao {
      * @return List of time entries in the date range
      */
     public List<TimeEntry> findTimeEntriesByDateRange(LocalDate startDate, LocalDate endDate) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM time_entries WHERE entry_date BETWEEN ? AND ? ORDER BY entry_date";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM time_entries WHERE entry_date BETWEEN ? AND ? ORDER BY entry_date";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setDate(1, Date.valueOf(startDate));
             pst.setDate(2, Date.valueOf(endDate));
             
-            ResultSet rs = pst.executeQuery();
-            List<TimeEntry> timeEntryList = new ArrayList<>();
-            
-            while (rs.next()) {
-                TimeEntry timeEntry = extractTimeEntryFromResultSet(rs);
-                timeEntryList.add(timeEntry);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<TimeEntry> timeEntryList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    TimeEntry timeEntry = extractTimeEntryFromResultSet(rs);
+                    timeEntryList.add(timeEntry);
+                }
+                
+                return timeEntryList;
             }
-            
-            con.close();
-            return timeEntryList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -341,29 +462,88 @@ public class TimeEntryDao {
      * @return List of unbilled time entries for the case
      */
     public List<TimeEntry> findUnbilledTimeEntriesByCase(int caseId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM time_entries WHERE case_id = ? AND billed = FALSE ORDER BY entry_date";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM time_entries WHERE case_id = ? AND billed = FALSE ORDER BY entry_date";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, caseId);
             
-            ResultSet rs = pst.executeQuery();
-            List<TimeEntry> timeEntryList = new ArrayList<>();
-            
-            while (rs.next()) {
-                TimeEntry timeEntry = extractTimeEntryFromResultSet(rs);
-                timeEntryList.add(timeEntry);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<TimeEntry> timeEntryList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    TimeEntry timeEntry = extractTimeEntryFromResultSet(rs);
+                    timeEntryList.add(timeEntry);
+                }
+                
+                return timeEntryList;
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * Finds the cases that have unbilled time entries
+     * 
+     * @param cutoff Latest entry date to consider
+     * @return IDs of the cases, in ascending order
+     */
+    public List<Integer> findCaseIdsWithUnbilledTimeEntries(LocalDate cutoff) {
+        String sql = "SELECT DISTINCT case_id FROM time_entries " +
+                     "WHERE billed = FALSE AND entry_date <= ? ORDER BY case_id";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setDate(1, Date.valueOf(cutoff));
+            
+            try (ResultSet rs = pst.executeQuery()) {
+                List<Integer> caseIds = new ArrayList<>();
+                
+                while (rs.next()) {
+                    caseIds.add(rs.getInt("case_id"));
+                }
+                
+                return caseIds;
             }
-            
-            con.close();
-            return timeEntryList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
         }
     }
     
+    /**
+     * Finds unbilled time entries for a case using an existing connection,
+     * locking them until the transaction ends so no other invoice can
+     * bill them meanwhile
+     * 
+     * @param con Open database connection with a transaction in progress
+     * @param caseId The case ID to search for
+     * @param cutoff Latest entry date to include, or null for all entries
+     * @return List of unbilled time entries for the case
+     * @throws Exception If an error occurs
+     */
+    List<TimeEntry> lockUnbilledTimeEntriesByCase(Connection con, int caseId, LocalDate cutoff) throws Exception {
+        String sql = "SELECT * FROM time_entries WHERE case_id = ? AND billed = FALSE" +
+                     (cutoff != null ? " AND entry_date <= ?" : "") +
+                     " ORDER BY entry_date FOR UPDATE";
+        try (PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setInt(1, caseId);
+            if (cutoff != null) {
+                pst.setDate(2, Date.valueOf(cutoff));
+            }
+            
+            try (ResultSet rs = pst.executeQuery()) {
+                List<TimeEntry> timeEntryList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    timeEntryList.add(extractTimeEntryFromResultSet(rs));
+                }
+                
+                return timeEntryList;
+            }
+        }
+    }
+    
     /**
      * Finds time entries by invoice ID
      * 
@@ -371,23 +551,21 @@ public class TimeEntryDao {
      * @return List of time entries for the invoice
      */
     public List<TimeEntry> findTimeEntriesByInvoice(int invoiceId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM time_entries WHERE invoice_id = ? ORDER BY entry_date";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT * FROM time_entries WHERE invoice_id = ? ORDER BY entry_date";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, invoiceId);
             
-            ResultSet rs = pst.executeQuery();
-            List<TimeEntry> timeEntryList = new ArrayList<>();
-            
-            while (rs.next()) {
-                TimeEntry timeEntry = extractTimeEntryFromResultSet(rs);
-                timeEntryList.add(timeEntry);
+            try (ResultSet rs = pst.executeQuery()) {
+                List<TimeEntry> timeEntryList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    TimeEntry timeEntry = extractTimeEntryFromResultSet(rs);
+                    timeEntryList.add(timeEntry);
+                }
+                
+                return timeEntryList;
             }
-            
-            con.close();
-            return timeEntryList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
@@ -400,28 +578,45 @@ public class TimeEntryDao {
      * @return List of all time entries
      */
     public List<TimeEntry> findAllTimeEntries() {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT * FROM time_entries ORDER BY entry_date DESC";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
-            ResultSet rs = pst.executeQuery();
-            List<TimeEntry> timeEntryList = new ArrayList<>();
-            
-            while (rs.next()) {
-                TimeEntry timeEntry = extractTimeEntryFromResultSet(rs);
-                timeEntryList.add(timeEntry);
+        String sql = "SELECT * FROM time_entries ORDER BY entry_date DESC";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            try (ResultSet rs = pst.executeQuery()) {
+                List<TimeEntry> timeEntryList = new ArrayList<>();
+                
+                while (rs.next()) {
+                    TimeEntry timeEntry = extractTimeEntryFromResultSet(rs);
+                    timeEntryList.add(timeEntry);
+                }
+                
+                return timeEntryList;
             }
-            
-            con.close();
-            return timeEntryList;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return Collections.emptyList();
         }
     }
     
+    /**
+     * Gets one page of time entries. Without a sort key the page is ordered
+     * by entry date, newest first.
+     * 
+     * @param request The page request; sortable by id or entry_date
+     * @return The page of time entries
+     */
+    public Page<TimeEntry> findTimeEntriesPage(PageRequest request) {
+        return timeEntryPages.fetch(dataSource, request);
+    }
+    
+    /**
+     * Counts all time entries
+     * 
+     * @return The number of time entries
+     */
+    public int countTimeEntries() {
+        return timeEntryPages.count(dataSource, null, Collections.emptyList());
+    }
+    
     /**
      * Extract time entry data from a ResultSet row
      * 
@@ -472,11 +667,11 @@ public class TimeEntryDao {
             }
             
             // Load case information
-            Case legalCase = caseDao.findCaseById(timeEntry.getCaseId());
+            Case legalCase = daos.getCaseDao().findCaseById(timeEntry.getCaseId());
             timeEntry.setCase(legalCase);
             
             // Load attorney information
-            Attorney attorney = attorneyDao.findAttorneyById(timeEntry.getAttorneyId());
+            Attorney attorney = daos.getAttorneyDao().findAttorneyById(timeEntry.getAttorneyId());
             timeEntry.setAttorney(attorney);
             
             return timeEntry;
@@ -494,22 +689,20 @@ public class TimeEntryDao {
      * @return Total hours worked
      */
     public double getTotalHoursByCase(int caseId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT SUM(hours) AS total_hours FROM time_entries WHERE case_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT SUM(hours) AS total_hours FROM time_entries WHERE case_id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, caseId);
             
-            ResultSet rs = pst.executeQuery();
-            double totalHours = 0.0;
-            
-            if (rs.next()) {
-                totalHours = rs.getDouble("total_hours");
+            try (ResultSet rs = pst.executeQuery()) {
+                double totalHours = 0.0;
+                
+                if (rs.next()) {
+                    totalHours = rs.getDouble("total_hours");
+                }
+                
+                return totalHours;
             }
-            
-            con.close();
-            return totalHours;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return 0.0;
@@ -523,25 +716,23 @@ public class TimeEntryDao {
      * @return Total billable amount
      */
     public BigDecimal getTotalAmountByCase(int caseId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            String sql = "SELECT SUM(hours * hourly_rate) AS total_amount FROM time_entries WHERE case_id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
+        String sql = "SELECT SUM(hours * hourly_rate) AS total_amount FROM time_entries WHERE case_id = ?";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, caseId);
             
-            ResultSet rs = pst.executeQuery();
-            BigDecimal totalAmount = BigDecimal.ZERO;
-            
-            if (rs.next()) {
-                totalAmount = rs.getBigDecimal("total_amount");
-                if (totalAmount == null) {
-                    totalAmount = BigDecimal.ZERO;
+            try (ResultSet rs = pst.executeQuery()) {
+                BigDecimal totalAmount = BigDecimal.ZERO;
+                
+                if (rs.next()) {
+                    totalAmount = rs.getBigDecimal("total_amount");
+                    if (totalAmount == null) {
+                        totalAmount = BigDecimal.ZERO;
+                    }
                 }
+                
+                return totalAmount;
             }
-            
-            con.close();
-            return totalAmount;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return BigDecimal.ZERO;
@@ -555,36 +746,34 @@ public class TimeEntryDao {
      * @return Number of rows affected
      */
     public int deleteTimeEntry(int timeEntryId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
+        try (Connection con = dataSource.getConnection()) {
             // Check if time entry is billed
             String checkSql = "SELECT billed FROM time_entries WHERE id = ?";
-            PreparedStatement checkPst = con.prepareStatement(checkSql);
-            checkPst.setInt(1, timeEntryId);
-            
-            ResultSet rs = checkPst.executeQuery();
-            boolean isBilled = false;
-            
-            if (rs.next()) {
-                isBilled = rs.getBoolean("billed");
-            }
-            
-            if (isBilled) {
-                // Cannot delete billed time entry
-                con.close();
-                return 0;
+            try (PreparedStatement checkPst = con.prepareStatement(checkSql)) {
+                checkPst.setInt(1, timeEntryId);
+                
+                try (ResultSet rs = checkPst.executeQuery()) {
+                    boolean isBilled = false;
+                    
+                    if (rs.next()) {
+                        isBilled = rs.getBoolean("billed");
+                    }
+                    
+                    if (isBilled) {
+                        // Cannot delete billed time entry
+                        return 0;
+                    }
+                    
+                    // Delete the time entry
+                    String sql = "DELETE FROM time_entries WHERE id = ?";
+                    try (PreparedStatement pst = con.prepareStatement(sql)) {
+                        pst.setInt(1, timeEntryId);
+                        
+                        int rowsAffected = pst.executeUpdate();
+                        return rowsAffected;
+                    }
+                }
             }
-            
-            // Delete the time entry
-            String sql = "DELETE FROM time_entries WHERE id = ?";
-            PreparedStatement pst = con.prepareStatement(sql);
-            pst.setInt(1, timeEntryId);
-            
-            int rowsAffected = pst.executeUpdate();
-            con.close();
-            return rowsAffected;
-            
         } catch (Exception ex) {
             ex.printStackTrace();
             return 0;
@@ -599,19 +788,15 @@ public class TimeEntryDao {
      * @return Number of rows affected
      */
     public int markCaseTimeEntriesAsBilled(int caseId, int invoiceId) {
-        try {
-            Connection con = DriverManager.getConnection(db_url, db_username, db_passwd);
-            
-            // Update all unbilled time entries for the case
-            String sql = "UPDATE time_entries SET billed = TRUE, invoice_id = ? " +
-                        "WHERE case_id = ? AND billed = FALSE";
-            PreparedStatement pst = con.prepareStatement(sql);
-            
+        // Update all unbilled time entries for the case
+        String sql = "UPDATE time_entries SET billed = TRUE, invoice_id = ? " +
+                    "WHERE case_id = ? AND billed = FALSE";
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, invoiceId);
             pst.setInt(2, caseId);
             
             int rowsAffected = pst.executeUpdate();
-            con.close();
             return rowsAffected;
             
         } catch (Exception ex) {
@@ -619,4 +804,20 @@ public class TimeEntryDao {
             return 0;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Generates the next time entry ID from the time entry ID sequence
+     * 
+     * @return Next available time entry ID
+     */
+    public String generateNextEntryId() {
+        try {
+            return entryIds.next();
+            
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            // Default format if error occurs
+            return "TE-" + System.currentTimeMillis();
+        }
+    }
+}
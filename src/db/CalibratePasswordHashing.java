@@ -0,0 +1,39 @@
+package db;
+
+import dao.Pbkdf2PasswordHasher;
+
+/**
+ * Measures password hashing on this machine and prints the PBKDF2
+ * iteration count that meets a login latency target, to pin with
+ * -Dauth.passwordIterations so all workstations hash at the same cost.
+ * <p>
+ * Usage: CalibratePasswordHashing [target milliseconds, default 250]
+ */
+public class CalibratePasswordHashing {
+    private static final int RUNS = 10;
+
+    public static void main(String[] args) {
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 250;
+
+        int iterations = Pbkdf2PasswordHasher.calibrate(targetMillis);
+        Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(iterations);
+
+        // Check the calibration with whole hashes, as logins run them
+        String hash = hasher.hash("calibration");
+        long total = 0;
+        long worst = 0;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            hasher.verify("calibration", hash);
+            long elapsed = System.nanoTime() - start;
+            total += elapsed;
+            worst = Math.max(worst, elapsed);
+        }
+
+        System.out.printf("Target:     %d ms%n", targetMillis);
+        System.out.printf("Iterations: %d%n", iterations);
+        System.out.printf("Measured:   %.1f ms average, %.1f ms worst over %d hashes%n",
+                total / 1e6 / RUNS, worst / 1e6, RUNS);
+        System.out.printf("Configure:  -Dauth.passwordIterations=%d%n", iterations);
+    }
+}
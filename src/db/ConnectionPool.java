@@ -0,0 +1,592 @@
+package db;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Bounded JDBC connection pool.
+ *
+ * Physical connections are opened lazily up to the configured maximum and
+ * handed out as proxies; closing a proxy returns the underlying connection
+ * to the pool instead of closing it. A background housekeeper validates and
+ * evicts idle connections, keeps a minimum number warm and reports
+ * connections held longer than the leak detection threshold.
+ *
+ * Reclaiming connections held past the abandoned timeout is off by default,
+ * as a long report or billing transaction is indistinguishable from a leak
+ * by age alone. When enabled, a connection is only reclaimed while none of
+ * its statements is executing.
+ */
+public class ConnectionPool implements DataSource {
+    private final DatabaseConfig config;
+
+    // Idle connections, most recently used first
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    // Metrics
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsDestroyed = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong abandonedReclaimed = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    private PrintWriter logWriter;
+    private int loginTimeout;
+
+    /**
+     * Constructor
+     *
+     * @param config Connection and pool settings
+     */
+    public ConnectionPool(DatabaseConfig config) {
+        this.config = config;
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = Math.max(1000, config.getHousekeepingInterval());
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none is idle
+     * and the pool has not reached its maximum size
+     *
+     * @return A pooled connection; closing it returns it to the pool
+     * @throws SQLException If no connection becomes available within the
+     *         connection timeout or the database cannot be reached
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been closed");
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.getConnectionTimeout());
+        boolean waited = false;
+
+        while (true) {
+            PooledConnection pooled = idle.pollFirst();
+
+            if (pooled == null) {
+                pooled = tryCreate();
+            }
+
+            if (pooled == null) {
+                // Pool is exhausted, wait for a connection to be returned
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timeoutCount.incrementAndGet();
+                    throw new SQLException("Timed out after " + config.getConnectionTimeout() +
+                            "ms waiting for a database connection; " + getStatistics());
+                }
+
+                if (!waited) {
+                    waited = true;
+                    waitCount.incrementAndGet();
+                }
+
+                waitingThreads.incrementAndGet();
+                try {
+                    pooled = idle.pollFirst(remaining, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a database connection", ex);
+                } finally {
+                    waitingThreads.decrementAndGet();
+                }
+
+                if (pooled == null) {
+                    continue;
+                }
+            }
+
+            if (!isUsable(pooled)) {
+                destroy(pooled);
+                continue;
+            }
+
+            borrowCount.incrementAndGet();
+            totalWaitNanos.addAndGet(System.nanoTime() - start);
+            return lease(pooled);
+        }
+    }
+
+    /**
+     * Not supported; the pool always connects with its configured credentials
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Per-call credentials are not supported by the pool");
+    }
+
+    /**
+     * Get the current pool metrics
+     *
+     * @return Snapshot of the pool state and counters
+     */
+    public PoolStatistics getStatistics() {
+        int total = totalConnections.get();
+        int active = leases.size();
+        return new PoolStatistics(
+            total,
+            active,
+            idle.size(),
+            config.getMaxPoolSize(),
+            waitingThreads.get(),
+            connectionsCreated.get(),
+            connectionsDestroyed.get(),
+            borrowCount.get(),
+            waitCount.get(),
+            timeoutCount.get(),
+            validationFailures.get(),
+            leaksDetected.get(),
+            abandonedReclaimed.get(),
+            totalWaitNanos.get()
+        );
+    }
+
+    /**
+     * Get the configuration this pool was created with
+     *
+     * @return The pool configuration
+     */
+    public DatabaseConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Registers a task to run when the pool closes, while it still hands
+     * out connections, e.g. to write data buffered for the database.
+     * Tasks run in registration order on the thread closing the pool, so
+     * they finish before the JVM shutdown hook that closes the shared pool
+     * releases its connections.
+     *
+     * @param listener The task to run
+     */
+    public void addCloseListener(Runnable listener) {
+        closeListeners.add(listener);
+    }
+
+    /**
+     * Removes a task registered with {@link #addCloseListener(Runnable)}
+     *
+     * @param listener The task to remove
+     */
+    public void removeCloseListener(Runnable listener) {
+        closeListeners.remove(listener);
+    }
+
+    /**
+     * Runs the close listeners, then closes all idle connections and stops
+     * the housekeeper. Connections still in use are closed as they are
+     * returned.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        for (Runnable listener : closeListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+            }
+        }
+        closeListeners.clear();
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * Checks whether the pool has been closed
+     *
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Opens a new physical connection if the pool has room for one
+     *
+     * @return The new connection, or null if the pool is full
+     * @throws SQLException If the connection cannot be opened
+     */
+    private PooledConnection tryCreate() throws SQLException {
+        while (true) {
+            int current = totalConnections.get();
+            if (current >= config.getMaxPoolSize()) {
+                return null;
+            }
+            if (totalConnections.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+
+        try {
+            Connection physical = DriverManager.getConnection(
+                    config.getUrl(), config.getUsername(), config.getPassword());
+            connectionsCreated.incrementAndGet();
+            return new PooledConnection(physical);
+        } catch (SQLException | RuntimeException ex) {
+            totalConnections.decrementAndGet();
+            throw ex;
+        }
+    }
+
+    /**
+     * Checks that an idle connection is still alive before handing it out.
+     * Connections used within the validation interval are trusted as-is.
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+
+        if (config.getMaxLifetime() > 0 && now - pooled.createdAt > config.getMaxLifetime()) {
+            return false;
+        }
+
+        if (now - pooled.lastUsedAt < config.getValidationInterval()) {
+            return true;
+        }
+
+        try {
+            if (pooled.physical.isValid(config.getValidationTimeoutSeconds())) {
+                return true;
+            }
+        } catch (SQLException | AbstractMethodError ex) {
+            // Treat drivers that cannot validate as failed connections
+        }
+
+        validationFailures.incrementAndGet();
+        return false;
+    }
+
+    private Connection lease(PooledConnection pooled) {
+        Lease lease = new Lease(pooled);
+        leases.add(lease);
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                lease);
+    }
+
+    /**
+     * Returns a leased connection to the pool, resetting any state the
+     * borrower may have changed
+     */
+    private void release(Lease lease) {
+        leases.remove(lease);
+        PooledConnection pooled = lease.pooled;
+
+        lease.closeStatements();
+
+        try {
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (pooled.physical.isReadOnly()) {
+                pooled.physical.setReadOnly(false);
+            }
+            pooled.physical.clearWarnings();
+        } catch (SQLException ex) {
+            destroy(pooled);
+            return;
+        }
+
+        if (closed) {
+            destroy(pooled);
+            return;
+        }
+
+        pooled.lastUsedAt = System.currentTimeMillis();
+        idle.offerFirst(pooled);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        connectionsDestroyed.incrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException ex) {
+            // Connection is being discarded anyway
+        }
+    }
+
+    /**
+     * Periodic maintenance: evict expired idle connections, report leaks,
+     * reclaim abandoned connections if enabled and top up the minimum idle count
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // Evict from the least recently used end while above the minimum
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledConnection pooled = it.next();
+                boolean expired = config.getMaxLifetime() > 0 && now - pooled.createdAt > config.getMaxLifetime();
+                boolean idleTooLong = config.getIdleTimeout() > 0 && now - pooled.lastUsedAt > config.getIdleTimeout()
+                        && totalConnections.get() > config.getMinIdle();
+                if ((expired || idleTooLong) && idle.remove(pooled)) {
+                    destroy(pooled);
+                }
+            }
+
+            for (Lease lease : leases) {
+                long held = now - lease.borrowedAt;
+
+                if (config.getAbandonedTimeout() > 0 && held > config.getAbandonedTimeout()
+                        && lease.executing.get() == 0) {
+                    if (lease.closed.compareAndSet(false, true)) {
+                        leases.remove(lease);
+                        abandonedReclaimed.incrementAndGet();
+                        System.err.println("Reclaiming database connection abandoned for " + held + "ms");
+                        lease.borrowTrace.printStackTrace();
+                        lease.closeStatements();
+                        destroy(lease.pooled);
+                    }
+                } else if (config.getLeakDetectionThreshold() > 0 && held > config.getLeakDetectionThreshold()
+                        && !lease.leakReported) {
+                    lease.leakReported = true;
+                    leaksDetected.incrementAndGet();
+                    System.err.println("Possible database connection leak: held for " + held + "ms");
+                    lease.borrowTrace.printStackTrace();
+                }
+            }
+
+            // Keep a few connections warm so the first query after idling is fast
+            while (!closed && idle.size() < config.getMinIdle()) {
+                PooledConnection pooled = tryCreate();
+                if (pooled == null) {
+                    break;
+                }
+                idle.offerLast(pooled);
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    // DataSource plumbing
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return Logger.getLogger("db");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("ConnectionPool does not wrap " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * A physical connection owned by the pool
+     */
+    private static class PooledConnection {
+        final Connection physical;
+        final long createdAt;
+        volatile long lastUsedAt;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.createdAt = System.currentTimeMillis();
+            this.lastUsedAt = createdAt;
+        }
+    }
+
+    /**
+     * One checkout of a pooled connection. Each borrow gets its own lease so
+     * a stale proxy can never touch a connection after it was returned.
+     */
+    private class Lease implements InvocationHandler {
+        final PooledConnection pooled;
+        final long borrowedAt = System.currentTimeMillis();
+        // Only needed to report leaks and abandoned connections
+        final Throwable borrowTrace = config.getLeakDetectionThreshold() > 0 || config.getAbandonedTimeout() > 0
+                ? new Throwable("Connection borrowed here") : null;
+        final AtomicBoolean closed = new AtomicBoolean();
+        // Statements not closed yet
+        final List<Statement> statements = new ArrayList<>();
+        final AtomicInteger executing = new AtomicInteger();
+        volatile boolean leakReported;
+
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            switch (name) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (closed.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            try {
+                Object result = method.invoke(pooled.physical, args);
+                if (result instanceof Statement) {
+                    // Track executions, and close statements left open on return
+                    Statement statement = (Statement) Proxy.newProxyInstance(
+                            ConnectionPool.class.getClassLoader(),
+                            new Class<?>[] {method.getReturnType()},
+                            new StatementHandler((Statement) result));
+                    synchronized (statements) {
+                        statements.add(statement);
+                    }
+                    return statement;
+                }
+                return result;
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+
+        void closeStatements() {
+            List<Statement> open;
+            synchronized (statements) {
+                open = new ArrayList<>(statements);
+                statements.clear();
+            }
+            for (Statement statement : open) {
+                try {
+                    statement.close();
+                } catch (SQLException ex) {
+                    // Ignore, the statement may already be closed
+                }
+            }
+        }
+
+        /**
+         * Counts the statement's executions in progress, so housekeeping
+         * never reclaims a connection in the middle of a query, and stops
+         * tracking the statement once it is closed
+         */
+        private class StatementHandler implements InvocationHandler {
+            private final Statement statement;
+
+            StatementHandler(Statement statement) {
+                this.statement = statement;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "close":
+                        synchronized (statements) {
+                            statements.remove(proxy);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+
+                boolean execution = method.getName().startsWith("execute");
+                if (execution) {
+                    executing.incrementAndGet();
+                }
+                try {
+                    return method.invoke(statement, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                } finally {
+                    if (execution) {
+                        executing.decrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+}
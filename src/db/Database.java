@@ -0,0 +1,74 @@
+package db;
+
+import javax.sql.DataSource;
+
+/**
+ * Holds the application-wide data source shared by all DAOs.
+ * The default pool is created on first use from {@link DatabaseConfig#load()}.
+ */
+public final class Database {
+    private static volatile DataSource dataSource;
+
+    private Database() {
+    }
+
+    /**
+     * Get the shared data source, creating the default pool if needed
+     *
+     * @return The shared data source
+     */
+    public static DataSource getDataSource() {
+        DataSource current = dataSource;
+        if (current == null) {
+            synchronized (Database.class) {
+                current = dataSource;
+                if (current == null) {
+                    final ConnectionPool pool = new ConnectionPool(DatabaseConfig.load());
+                    Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "connection-pool-shutdown"));
+                    dataSource = pool;
+                    current = pool;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Replaces the shared data source, e.g. to point the application at an
+     * embedded test database. A previously installed pool is closed.
+     *
+     * @param newDataSource The data source to use from now on
+     */
+    public static synchronized void setDataSource(DataSource newDataSource) {
+        DataSource previous = dataSource;
+        dataSource = newDataSource;
+        if (previous instanceof ConnectionPool && previous != newDataSource) {
+            ((ConnectionPool) previous).close();
+        }
+    }
+
+    /**
+     * Switches the shared data source to an in-memory embedded database
+     *
+     * @param name Name of the in-memory database
+     * @return The new pool
+     */
+    public static ConnectionPool useEmbedded(String name) {
+        ConnectionPool pool = new ConnectionPool(DatabaseConfig.embedded(name));
+        setDataSource(pool);
+        return pool;
+    }
+
+    /**
+     * Get metrics for the shared pool
+     *
+     * @return Pool statistics, or null if the shared data source is not a ConnectionPool
+     */
+    public static PoolStatistics getPoolStatistics() {
+        DataSource current = dataSource;
+        if (current instanceof ConnectionPool) {
+            return ((ConnectionPool) current).getStatistics();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,287 @@
+package db;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Connection and pool settings for the application database.
+ * Values are read from an optional db.properties file (working directory
+ * first, then the classpath) and can be overridden with system properties
+ * of the same name, e.g. -Ddb.url=jdbc:mysql://dbhost:3306/legalcasemgmtdb
+ */
+public class DatabaseConfig {
+    public static final String PROPERTIES_FILE = "db.properties";
+
+    private String url = "jdbc:mysql://localhost:3306/legalcasemgmtdb";
+    private String username = "root";
+    private String password = "Ornella12345!";
+
+    // Pool sizing
+    private int maxPoolSize = 10;
+    private int minIdle = 2;
+
+    // Timeouts (milliseconds unless stated otherwise)
+    private long connectionTimeout = 30000;
+    private long idleTimeout = 600000;
+    private long maxLifetime = 1800000;
+    private long validationInterval = 5000;
+    private int validationTimeoutSeconds = 5;
+    private long leakDetectionThreshold = 60000;
+    private long abandonedTimeout = 0; // Reclaiming disabled; leaks are only reported
+    private long housekeepingInterval = 30000;
+
+    /**
+     * Default constructor using the built-in MySQL settings
+     */
+    public DatabaseConfig() {
+    }
+
+    /**
+     * Constructor with connection settings
+     *
+     * @param url JDBC URL
+     * @param username Database user
+     * @param password Database password
+     */
+    public DatabaseConfig(String url, String username, String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Loads the configuration from db.properties and system properties
+     *
+     * @return The loaded configuration
+     */
+    public static DatabaseConfig load() {
+        Properties props = new Properties();
+
+        File file = new File(PROPERTIES_FILE);
+        if (file.isFile()) {
+            try (InputStream in = new FileInputStream(file)) {
+                props.load(in);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        } else {
+            try (InputStream in = DatabaseConfig.class.getResourceAsStream("/" + PROPERTIES_FILE)) {
+                if (in != null) {
+                    props.load(in);
+                }
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+
+        // System properties take precedence over the file
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("db.") || name.startsWith("pool.")) {
+                props.setProperty(name, System.getProperty(name));
+            }
+        }
+
+        return fromProperties(props);
+    }
+
+    /**
+     * Builds a configuration from a set of properties, keeping defaults
+     * for anything not specified
+     *
+     * @param props The properties to read
+     * @return The configuration
+     */
+    public static DatabaseConfig fromProperties(Properties props) {
+        DatabaseConfig config = new DatabaseConfig();
+
+        config.setUrl(props.getProperty("db.url", config.getUrl()));
+        config.setUsername(props.getProperty("db.username", config.getUsername()));
+        config.setPassword(props.getProperty("db.password", config.getPassword()));
+
+        config.setMaxPoolSize(intProperty(props, "pool.maxSize", config.getMaxPoolSize()));
+        config.setMinIdle(intProperty(props, "pool.minIdle", config.getMinIdle()));
+        config.setConnectionTimeout(longProperty(props, "pool.connectionTimeout", config.getConnectionTimeout()));
+        config.setIdleTimeout(longProperty(props, "pool.idleTimeout", config.getIdleTimeout()));
+        config.setMaxLifetime(longProperty(props, "pool.maxLifetime", config.getMaxLifetime()));
+        config.setValidationInterval(longProperty(props, "pool.validationInterval", config.getValidationInterval()));
+        config.setValidationTimeoutSeconds(intProperty(props, "pool.validationTimeoutSeconds",
+                config.getValidationTimeoutSeconds()));
+        config.setLeakDetectionThreshold(longProperty(props, "pool.leakDetectionThreshold",
+                config.getLeakDetectionThreshold()));
+        config.setAbandonedTimeout(longProperty(props, "pool.abandonedTimeout", config.getAbandonedTimeout()));
+        config.setHousekeepingInterval(longProperty(props, "pool.housekeepingInterval",
+                config.getHousekeepingInterval()));
+
+        return config;
+    }
+
+    /**
+     * Creates a configuration for an in-memory H2 database running in MySQL
+     * compatibility mode. Intended for local testing; the H2 driver must be
+     * on the classpath.
+     *
+     * @param name Name of the in-memory database
+     * @return The configuration
+     */
+    public static DatabaseConfig embedded(String name) {
+        DatabaseConfig config = new DatabaseConfig(
+            "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "sa",
+            ""
+        );
+        config.setMaxPoolSize(4);
+        config.setMinIdle(1);
+        return config;
+    }
+
+    /**
+     * Checks whether this configuration points at an embedded database
+     *
+     * @return true for H2, Derby or HSQLDB URLs
+     */
+    public boolean isEmbedded() {
+        return url != null && (url.startsWith("jdbc:h2:") || url.startsWith("jdbc:derby:")
+                || url.startsWith("jdbc:hsqldb:"));
+    }
+
+    private static int intProperty(Properties props, String name, int defaultValue) {
+        String value = props.getProperty(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            System.err.println("Invalid value for " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    private static long longProperty(Properties props, String name, long defaultValue) {
+        String value = props.getProperty(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            System.err.println("Invalid value for " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    // Getters and Setters
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = Math.max(1, maxPoolSize);
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        this.minIdle = Math.max(0, minIdle);
+    }
+
+    public long getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(long connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    public void setMaxLifetime(long maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    public long getValidationInterval() {
+        return validationInterval;
+    }
+
+    public void setValidationInterval(long validationInterval) {
+        this.validationInterval = validationInterval;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public long getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public long getAbandonedTimeout() {
+        return abandonedTimeout;
+    }
+
+    public void setAbandonedTimeout(long abandonedTimeout) {
+        this.abandonedTimeout = abandonedTimeout;
+    }
+
+    public long getHousekeepingInterval() {
+        return housekeepingInterval;
+    }
+
+    public void setHousekeepingInterval(long housekeepingInterval) {
+        this.housekeepingInterval = housekeepingInterval;
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseConfig{url=" + url + ", username=" + username +
+               ", maxPoolSize=" + maxPoolSize + ", minIdle=" + minIdle + "}";
+    }
+}
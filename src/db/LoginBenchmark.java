@@ -0,0 +1,99 @@
+package db;
+
+import dao.LoginDao;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Signs a user in from many threads at once against the configured
+ * database and prints the login latency percentiles, to check how the
+ * pool size and password hashing cost hold up when a shift starts and
+ * everyone logs in together.
+ * <p>
+ * Usage: LoginBenchmark username password [threads, default 8] [logins per thread, default 10]
+ */
+public class LoginBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: LoginBenchmark username password [threads] [logins per thread]");
+            System.exit(2);
+        }
+        String username = args[0];
+        String password = args[1];
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int loginsPerThread = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        LoginDao dao = new LoginDao();
+
+        // Calibrates the hashing, opens the pool and upgrades an old hash,
+        // so none of it is measured
+        if (dao.authenticateUser(username, password) == null) {
+            System.err.println("Login failed for " + username);
+            System.exit(1);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Callable<long[]> client = () -> {
+                long[] elapsed = new long[loginsPerThread];
+                start.await();
+                for (int i = 0; i < loginsPerThread; i++) {
+                    long begin = System.nanoTime();
+                    boolean success = dao.authenticateUser(username, password) != null;
+                    // Failures are recorded as negative times
+                    elapsed[i] = success ? System.nanoTime() - begin : -1;
+                }
+                return elapsed;
+            };
+            results.add(executor.submit(client));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        long[] latencies = new long[threads * loginsPerThread];
+        int count = 0;
+        int failures = 0;
+        for (Future<long[]> result : results) {
+            for (long elapsed : result.get()) {
+                if (elapsed < 0) {
+                    failures++;
+                } else {
+                    latencies[count++] = elapsed;
+                }
+            }
+        }
+        long wall = System.nanoTime() - begin;
+        executor.shutdown();
+
+        latencies = Arrays.copyOf(latencies, count);
+        Arrays.sort(latencies);
+
+        System.out.printf("Logins:     %d on %d threads, %d failed%n", count + failures, threads, failures);
+        if (count > 0) {
+            System.out.printf("Latency:    p50 %.1f ms, p95 %.1f ms, max %.1f ms%n",
+                    percentile(latencies, 50), percentile(latencies, 95), latencies[count - 1] / 1e6);
+        }
+        System.out.printf("Throughput: %.1f logins/s%n", (count + failures) / (wall / 1e9));
+        PoolStatistics statistics = Database.getPoolStatistics();
+        if (statistics != null) {
+            System.out.println("Pool:       " + statistics);
+        }
+    }
+
+    /**
+     * Nearest-rank percentile of sorted latencies, in milliseconds
+     */
+    private static double percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,77 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+
+/**
+ * Widens users.password_hash so it holds the versioned hashes written by
+ * dao.PasswordHashing, which name their scheme, cost and salt and are
+ * longer than the unversioned SHA-256 hashes the column was sized for.
+ * A column that is already wide enough is left alone, so the migration
+ * can be run repeatedly. Databases other than MySQL/MariaDB are skipped.
+ * Run it once after deploying, before the first login upgrades a hash:
+ * <pre>java -cp ... db.PasswordHashMigration</pre>
+ */
+public final class PasswordHashMigration {
+
+    /** Width of the password_hash column */
+    public static final int HASH_COLUMN_LENGTH = 255;
+
+    private PasswordHashMigration() {
+    }
+
+    public static void main(String[] args) {
+        try {
+            if (migrate(Database.getDataSource())) {
+                System.out.println("Widened users.password_hash to VARCHAR(" + HASH_COLUMN_LENGTH + ")");
+            } else {
+                System.out.println("users.password_hash is already wide enough");
+            }
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Widens the password_hash column if it is narrower than {@link #HASH_COLUMN_LENGTH}
+     *
+     * @param dataSource The database to migrate
+     * @return true if the column was altered
+     * @throws SQLException If the database cannot be inspected or altered
+     */
+    public static boolean migrate(DataSource dataSource) throws SQLException {
+        try (Connection con = dataSource.getConnection()) {
+            String product = con.getMetaData().getDatabaseProductName();
+            if (!"MySQL".equalsIgnoreCase(product) && !"MariaDB".equalsIgnoreCase(product)) {
+                System.out.println("Column migrations are not supported on " + product + ", skipping");
+                return false;
+            }
+
+            String sql = "SELECT CHARACTER_MAXIMUM_LENGTH, IS_NULLABLE FROM information_schema.COLUMNS " +
+                         "WHERE table_schema = DATABASE() AND table_name = 'users' AND column_name = 'password_hash'";
+            boolean nullable;
+            try (PreparedStatement pst = con.prepareStatement(sql);
+                 ResultSet rs = pst.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Column users.password_hash not found");
+                }
+                if (rs.getLong("CHARACTER_MAXIMUM_LENGTH") >= HASH_COLUMN_LENGTH) {
+                    return false;
+                }
+                nullable = "YES".equalsIgnoreCase(rs.getString("IS_NULLABLE"));
+            }
+
+            // Keep the column's nullability; MODIFY replaces the whole definition
+            try (Statement st = con.createStatement()) {
+                st.executeUpdate("ALTER TABLE users MODIFY password_hash VARCHAR(" + HASH_COLUMN_LENGTH + ")" +
+                                 (nullable ? " NULL" : " NOT NULL"));
+            }
+            return true;
+        }
+    }
+}
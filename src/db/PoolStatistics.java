@@ -0,0 +1,133 @@
+package db;
+
+/**
+ * Point-in-time snapshot of connection pool metrics.
+ */
+public class PoolStatistics {
+    private final int totalConnections;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int maxPoolSize;
+    private final int waitingThreads;
+    private final long connectionsCreated;
+    private final long connectionsDestroyed;
+    private final long borrowCount;
+    private final long waitCount;
+    private final long timeoutCount;
+    private final long validationFailures;
+    private final long leaksDetected;
+    private final long abandonedReclaimed;
+    private final long totalWaitNanos;
+
+    /**
+     * Full constructor
+     */
+    public PoolStatistics(int totalConnections, int activeConnections, int idleConnections,
+                          int maxPoolSize, int waitingThreads, long connectionsCreated,
+                          long connectionsDestroyed, long borrowCount, long waitCount,
+                          long timeoutCount, long validationFailures, long leaksDetected,
+                          long abandonedReclaimed, long totalWaitNanos) {
+        this.totalConnections = totalConnections;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.maxPoolSize = maxPoolSize;
+        this.waitingThreads = waitingThreads;
+        this.connectionsCreated = connectionsCreated;
+        this.connectionsDestroyed = connectionsDestroyed;
+        this.borrowCount = borrowCount;
+        this.waitCount = waitCount;
+        this.timeoutCount = timeoutCount;
+        this.validationFailures = validationFailures;
+        this.leaksDetected = leaksDetected;
+        this.abandonedReclaimed = abandonedReclaimed;
+        this.totalWaitNanos = totalWaitNanos;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated;
+    }
+
+    public long getConnectionsDestroyed() {
+        return connectionsDestroyed;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getWaitCount() {
+        return waitCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public long getValidationFailures() {
+        return validationFailures;
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected;
+    }
+
+    public long getAbandonedReclaimed() {
+        return abandonedReclaimed;
+    }
+
+    /**
+     * Get the average time callers spent waiting for a connection
+     *
+     * @return Average wait in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        if (borrowCount == 0) {
+            return 0.0;
+        }
+        return (totalWaitNanos / 1000000.0) / borrowCount;
+    }
+
+    /**
+     * Get the fraction of borrows served without opening a new connection
+     *
+     * @return Reuse ratio between 0 and 1
+     */
+    public double getReuseRatio() {
+        if (borrowCount == 0) {
+            return 0.0;
+        }
+        return Math.max(0.0, 1.0 - ((double) connectionsCreated / borrowCount));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Pool[total=%d, active=%d, idle=%d, max=%d, waiting=%d, created=%d, destroyed=%d, " +
+            "borrows=%d, waits=%d, timeouts=%d, validationFailures=%d, leaks=%d, reclaimed=%d, " +
+            "avgWait=%.2fms, reuse=%.1f%%]",
+            totalConnections, activeConnections, idleConnections, maxPoolSize, waitingThreads,
+            connectionsCreated, connectionsDestroyed, borrowCount, waitCount, timeoutCount,
+            validationFailures, leaksDetected, abandonedReclaimed, getAverageWaitMillis(),
+            getReuseRatio() * 100.0);
+    }
+}
@@ -0,0 +1,86 @@
+package db;
+
+import dao.DocumentTextDao;
+import dao.FullTextIndex;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+
+/**
+ * Creates the FULLTEXT indexes used by the search boxes. Indexes that
+ * already exist are left alone, so the migration can be run repeatedly.
+ * Databases other than MySQL/MariaDB are skipped; searches there use the
+ * LIKE fallback. Building an index on a large table takes a while, so run
+ * this once after deploying rather than at every start:
+ * <pre>java -cp ... db.SearchIndexMigration</pre>
+ * Restart running clients afterwards so their searches use the new indexes.
+ */
+public final class SearchIndexMigration {
+
+    private SearchIndexMigration() {
+    }
+
+    public static void main(String[] args) {
+        try {
+            int created = migrate(Database.getDataSource());
+            System.out.println("Created " + created + " full-text index(es)");
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Creates any missing full-text index
+     *
+     * @param dataSource The database to migrate
+     * @return Number of indexes created
+     * @throws SQLException If the database cannot be inspected or altered
+     */
+    public static int migrate(DataSource dataSource) throws SQLException {
+        int created = 0;
+
+        try (Connection con = dataSource.getConnection()) {
+            String product = con.getMetaData().getDatabaseProductName();
+            if (!"MySQL".equalsIgnoreCase(product) && !"MariaDB".equalsIgnoreCase(product)) {
+                System.out.println("Full-text indexes are not supported on " + product + ", skipping");
+                return 0;
+            }
+
+            // The extracted document texts live in a table of their own
+            try (Statement st = con.createStatement()) {
+                st.executeUpdate(DocumentTextDao.CREATE_TABLE_SQL);
+            }
+
+            for (FullTextIndex index : FullTextIndex.values()) {
+                if (indexExists(con, index)) {
+                    continue;
+                }
+                System.out.println("Creating " + index.getIndexName() + " on " + index.getTable());
+                try (Statement st = con.createStatement()) {
+                    st.executeUpdate(index.getCreateStatement());
+                }
+                created++;
+            }
+        }
+
+        return created;
+    }
+
+    private static boolean indexExists(Connection con, FullTextIndex index) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM information_schema.STATISTICS " +
+                     "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?";
+        try (PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setString(1, index.getTable());
+            pst.setString(2, index.getIndexName());
+
+            try (ResultSet rs = pst.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a billing run over all cases with unbilled time entries.
+ */
+public class BillingRunResult {
+    private final LocalDate cutoff;
+    private final LocalDate dueDate;
+    private final int casesFound;
+    private final int invoicesCreated;
+    private final int casesSkipped;
+    private final int entriesBilled;
+    private final BigDecimal amountBilled;
+    private final List<Integer> failedCaseIds;
+    private final boolean cancelled;
+    private final long elapsedMillis;
+
+    /**
+     * Full constructor
+     *
+     * @param cutoff Latest time entry date billed
+     * @param dueDate Due date of the created invoices
+     * @param casesFound Number of cases that had unbilled time entries
+     * @param invoicesCreated Number of invoices created
+     * @param casesSkipped Number of cases found to have nothing left to bill
+     * @param entriesBilled Number of time entries billed
+     * @param amountBilled Total amount of the created invoices
+     * @param failedCaseIds IDs of the cases whose invoice could not be created
+     * @param cancelled Whether the run was cancelled before all cases were processed
+     * @param elapsedMillis Duration of the run in milliseconds
+     */
+    public BillingRunResult(LocalDate cutoff, LocalDate dueDate, int casesFound, int invoicesCreated,
+                            int casesSkipped, int entriesBilled, BigDecimal amountBilled,
+                            List<Integer> failedCaseIds, boolean cancelled, long elapsedMillis) {
+        this.cutoff = cutoff;
+        this.dueDate = dueDate;
+        this.casesFound = casesFound;
+        this.invoicesCreated = invoicesCreated;
+        this.casesSkipped = casesSkipped;
+        this.entriesBilled = entriesBilled;
+        this.amountBilled = amountBilled != null ? amountBilled : BigDecimal.ZERO;
+        this.failedCaseIds = Collections.unmodifiableList(new ArrayList<>(failedCaseIds));
+        this.cancelled = cancelled;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public LocalDate getCutoff() {
+        return cutoff;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public int getCasesFound() {
+        return casesFound;
+    }
+
+    public int getInvoicesCreated() {
+        return invoicesCreated;
+    }
+
+    public int getCasesSkipped() {
+        return casesSkipped;
+    }
+
+    public int getEntriesBilled() {
+        return entriesBilled;
+    }
+
+    public BigDecimal getAmountBilled() {
+        return amountBilled;
+    }
+
+    public List<Integer> getFailedCaseIds() {
+        return failedCaseIds;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Get the number of cases the run did not get to because it was cancelled
+     *
+     * @return Number of cases not processed
+     */
+    public int getCasesRemaining() {
+        return casesFound - invoicesCreated - casesSkipped - failedCaseIds.size();
+    }
+
+    /**
+     * Check whether every case found was billed
+     *
+     * @return true if no case failed or was left unprocessed
+     */
+    public boolean isComplete() {
+        return failedCaseIds.isEmpty() && getCasesRemaining() == 0;
+    }
+
+    /**
+     * Get the run's throughput
+     *
+     * @return Invoices created per second
+     */
+    public double getInvoicesPerSecond() {
+        if (elapsedMillis == 0) {
+            return 0.0;
+        }
+        return invoicesCreated * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "BillingRunResult{" +
+                "cutoff=" + cutoff +
+                ", casesFound=" + casesFound +
+                ", invoicesCreated=" + invoicesCreated +
+                ", casesSkipped=" + casesSkipped +
+                ", failed=" + failedCaseIds.size() +
+                ", remaining=" + getCasesRemaining() +
+                ", entriesBilled=" + entriesBilled +
+                ", amountBilled=" + amountBilled +
+                ", elapsedMillis=" + elapsedMillis +
+                String.format(", invoicesPerSecond=%.1f", getInvoicesPerSecond()) +
+                '}';
+    }
+}
@@ -0,0 +1,83 @@
+package model;
+
+/**
+ * Storage figures for the stored document files of one file type.
+ */
+public class CompressionStatistics {
+    private final String fileType;
+    private final int files;
+    private final int compressedFiles;
+    private final long originalBytes;
+    private final long storedBytes;
+
+    /**
+     * Full constructor
+     *
+     * @param fileType File name extension, e.g. "pdf"
+     * @param files Number of stored files of the type
+     * @param compressedFiles Number of them stored compressed
+     * @param originalBytes Total size of their content
+     * @param storedBytes Total size they take on disk
+     */
+    public CompressionStatistics(String fileType, int files, int compressedFiles,
+                                 long originalBytes, long storedBytes) {
+        this.fileType = fileType;
+        this.files = files;
+        this.compressedFiles = compressedFiles;
+        this.originalBytes = originalBytes;
+        this.storedBytes = storedBytes;
+    }
+
+    public String getFileType() {
+        return fileType;
+    }
+
+    public int getFiles() {
+        return files;
+    }
+
+    public int getCompressedFiles() {
+        return compressedFiles;
+    }
+
+    public long getOriginalBytes() {
+        return originalBytes;
+    }
+
+    public long getStoredBytes() {
+        return storedBytes;
+    }
+
+    /**
+     * Get the disk space saved by compression
+     *
+     * @return Saved bytes
+     */
+    public long getSavedBytes() {
+        return originalBytes - storedBytes;
+    }
+
+    /**
+     * Get the stored size as a fraction of the original size
+     *
+     * @return Compression ratio between 0 and 1, or 1 for empty files
+     */
+    public double getCompressionRatio() {
+        if (originalBytes == 0) {
+            return 1.0;
+        }
+        return (double) storedBytes / originalBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionStatistics{" +
+                "fileType=" + fileType +
+                ", files=" + files +
+                ", compressedFiles=" + compressedFiles +
+                ", originalBytes=" + originalBytes +
+                ", storedBytes=" + storedBytes +
+                String.format(", ratio=%.2f", getCompressionRatio()) +
+                '}';
+    }
+}
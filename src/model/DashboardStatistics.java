@@ -0,0 +1,72 @@
+package model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of the figures shown on the dashboard cards.
+ */
+public class DashboardStatistics {
+    private final int activeCases;
+    private final int totalClients;
+    private final int upcomingEvents;
+    private final int overdueInvoices;
+    private final BigDecimal overdueBalance;
+    private final LocalDateTime loadedAt;
+
+    /**
+     * Full constructor
+     *
+     * @param activeCases Number of open cases
+     * @param totalClients Number of clients
+     * @param upcomingEvents Number of future events that are not completed or cancelled
+     * @param overdueInvoices Number of overdue invoices
+     * @param overdueBalance Amount still owed on overdue invoices
+     * @param loadedAt When the figures were read from the database
+     */
+    public DashboardStatistics(int activeCases, int totalClients, int upcomingEvents,
+                               int overdueInvoices, BigDecimal overdueBalance, LocalDateTime loadedAt) {
+        this.activeCases = activeCases;
+        this.totalClients = totalClients;
+        this.upcomingEvents = upcomingEvents;
+        this.overdueInvoices = overdueInvoices;
+        this.overdueBalance = overdueBalance != null ? overdueBalance : BigDecimal.ZERO;
+        this.loadedAt = loadedAt;
+    }
+
+    public int getActiveCases() {
+        return activeCases;
+    }
+
+    public int getTotalClients() {
+        return totalClients;
+    }
+
+    public int getUpcomingEvents() {
+        return upcomingEvents;
+    }
+
+    public int getOverdueInvoices() {
+        return overdueInvoices;
+    }
+
+    public BigDecimal getOverdueBalance() {
+        return overdueBalance;
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "DashboardStatistics{" +
+                "activeCases=" + activeCases +
+                ", totalClients=" + totalClients +
+                ", upcomingEvents=" + upcomingEvents +
+                ", overdueInvoices=" + overdueInvoices +
+                ", overdueBalance=" + overdueBalance +
+                ", loadedAt=" + loadedAt +
+                '}';
+    }
+}
@@ -0,0 +1,96 @@
+package model;
+
+/**
+ * One hit of the global search: a record of any searchable type together
+ * with the text shown for it in the search results.
+ */
+public class SearchResult {
+
+    /**
+     * Record types covered by the global search
+     */
+    public enum Type {
+        CASE("Case"),
+        CLIENT("Client"),
+        ATTORNEY("Attorney"),
+        DOCUMENT("Document"),
+        EVENT("Event"),
+        INVOICE("Invoice");
+
+        private final String displayName;
+
+        Type(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final Type type;
+    private final int id;
+    private final String title;
+    private final String subtitle;
+    private final Object entity;
+
+    /**
+     * Full constructor
+     *
+     * @param type Type of the record
+     * @param id Database ID of the record
+     * @param title Main text shown for the result
+     * @param subtitle Secondary text shown for the result
+     * @param entity The record itself, e.g. a {@link Case}
+     */
+    public SearchResult(Type type, int id, String title, String subtitle, Object entity) {
+        this.type = type;
+        this.id = id;
+        this.title = title != null ? title : "";
+        this.subtitle = subtitle != null ? subtitle : "";
+        this.entity = entity;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getSubtitle() {
+        return subtitle;
+    }
+
+    public Object getEntity() {
+        return entity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchResult)) {
+            return false;
+        }
+        SearchResult other = (SearchResult) o;
+        return type == other.type && id == other.id;
+    }
+
+    @Override
+    public int hashCode() {
+        // Hashed on every search, so avoid boxing; distinct for every type and ID
+        return 31 * id + type.ordinal();
+    }
+
+    @Override
+    public String toString() {
+        return type.getDisplayName() + ": " + title;
+    }
+}
@@ -7,6 +7,7 @@ import java.awt.event.*;
 import java.util.Arrays;
 import controller.LoginController;
 import model.User;
+import view.util.AsyncLoader;
 
 /**
  * Login screen for the Legal Case Management System.
@@ -18,6 +19,7 @@ public class LoginView extends JFrame {
     private JButton exitButton;
     private JLabel statusLabel;
     private LoginController loginController;
+    private AsyncLoader loginLoader;
     
     // Custom colors for the application
     private static final Color PRIMARY_COLOR = new Color(42, 58, 86);     // Dark blue
@@ -31,6 +33,7 @@ public class LoginView extends JFrame {
      */
     public LoginView() {
         loginController = new LoginController();
+        loginLoader = new AsyncLoader(this);
         initializeUI();
     }
     
@@ -230,25 +233,31 @@ public class LoginView extends JFrame {
     }
     
     /**
-     * Perform login authentication
+     * Perform login authentication in the background, as password hashing
+     * deliberately takes a noticeable time
      */
     private void performLogin() {
+        if (loginLoader.isLoading()) {
+            return;
+        }
+        
         String username = usernameField.getText();
         char[] passwordChars = passwordField.getPassword();
         String password = new String(passwordChars);
         
+        // Clear the password array for security
+        Arrays.fill(passwordChars, '0');
+        
         if (username.isEmpty() || password.isEmpty()) {
             statusLabel.setText("Please enter both username and password");
             return;
         }
         
-        try {
-            User user = loginController.authenticateUser(username, password);
-            
+        loginButton.setEnabled(false);
+        statusLabel.setText(" ");
+        loginLoader.load(() -> loginController.authenticateUser(username, password), user -> {
+            loginButton.setEnabled(true);
             if (user != null) {
-                // Clear the password array for security
-                Arrays.fill(passwordChars, '0');
-                
                 // Open main application
                 openMainApplication(user);
                 
@@ -258,9 +267,10 @@ public class LoginView extends JFrame {
                 statusLabel.setText("Invalid username or password");
                 passwordField.setText("");
             }
-        } catch (Exception ex) {
+        }, ex -> {
+            loginButton.setEnabled(true);
             statusLabel.setText("Login error: " + ex.getMessage());
-        }
+        });
     }
     
     /**
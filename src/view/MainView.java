@@ -4,15 +4,27 @@ import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.text.NumberFormat;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
 import java.time.LocalDate;
 
 import model.User;
 import controller.UserController;
+import controller.AttorneyController;
 import controller.CaseController;
 import controller.ClientController;
+import controller.DashboardController;
+import controller.DocumentController;
+import controller.EventController;
+import controller.InvoiceController;
+import controller.SearchController;
+import model.SearchResult;
+import view.util.AsyncLoader;
 import view.util.UIConstants;
 import view.util.IconManager;
 import view.util.SwingUtils;
+import view.components.LazyCardPanel;
 import view.clients.ClientsPanel;
 import view.cases.CasesPanel;
 import view.attorneys.AttorneysPanel;
@@ -20,6 +32,13 @@ import view.documents.DocumentsPanel;
 import view.calendar.CalendarPanel;
 import view.invoices.InvoicesPanel;
 import view.admin.AdminPanel;
+import view.attorneys.AttorneyDetailsDialog;
+import view.calendar.EventDetailsDialog;
+import view.cases.CaseDetailsDialog;
+import view.clients.ClientDetailsDialog;
+import view.documents.DocumentDetailsDialog;
+import view.invoices.InvoiceDetailsDialog;
+import view.search.GlobalSearchDialog;
 
 /**
  * Main application window for the Legal Case Management System.
@@ -28,18 +47,14 @@ import view.admin.AdminPanel;
 public class MainView extends JFrame {
     private User currentUser;
     private UserController userController;
-    private CaseController caseController;
-    private ClientController clientController;
+    private DashboardController dashboardController;
+    private SearchController searchController;
     
-    // Content panels
+    // Minutes a section may go unvisited before its panel is evicted, 0 to keep all
+    private static final long DEFAULT_PANEL_EVICTION_MINUTES = 30;
+    
+    // Content panels; sections other than the dashboard are built on first visit
     private JPanel dashboardPanel;
-    private ClientsPanel clientsPanel;
-    private CasesPanel casesPanel;
-    private AttorneysPanel attorneysPanel;
-    private DocumentsPanel documentsPanel;
-    private CalendarPanel calendarPanel;
-    private InvoicesPanel invoicesPanel;
-    private AdminPanel adminPanel;
     
     // Navigation buttons
     private JButton dashboardButton;
@@ -52,13 +67,19 @@ public class MainView extends JFrame {
     private JButton adminButton;
     private JButton logoutButton;
     
-    // Card layout for switching between panels
-    private CardLayout cardLayout;
-    private JPanel contentPanel;
+    // Card container switching between the sections
+    private LazyCardPanel contentPanel;
     
     // Status components
     private JLabel statusLabel;
     private JLabel dateTimeLabel;
+    private JProgressBar loadingBar;
+    
+    // Shows the loading bar while any panel is loading in the background
+    private final AsyncLoader.ActivityListener loadingListener =
+        activeLoads -> loadingBar.setVisible(activeLoads > 0);
+    private AsyncLoader dashboardLoader;
+    private AsyncLoader searchResultLoader;
     
     /**
      * Constructor
@@ -68,8 +89,13 @@ public class MainView extends JFrame {
     public MainView(User user) {
         this.currentUser = user;
         this.userController = new UserController();
-        this.caseController = new CaseController();
-        this.clientController = new ClientController();
+        this.dashboardController = new DashboardController();
+        this.searchController = new SearchController();
+        this.dashboardLoader = new AsyncLoader(this);
+        this.searchResultLoader = new AsyncLoader(this);
+        
+        // Build the global search index while the user looks at the dashboard
+        searchController.warmUp();
         
         initializeUI();
         loadDashboardData();
@@ -106,30 +132,12 @@ public class MainView extends JFrame {
         JPanel sidebarPanel = createSidebarPanel();
         mainPanel.add(sidebarPanel, BorderLayout.WEST);
         
-        // Create content panel with card layout
-        cardLayout = new CardLayout();
-        contentPanel = new JPanel(cardLayout);
-        contentPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 0));
-        
-        // Create all content panels
+        // Create content panel with a card for each section
+        contentPanel = new LazyCardPanel();
         createContentPanels();
         
-        // Add content panels to card layout
-        contentPanel.add(dashboardPanel, "dashboard");
-        contentPanel.add(clientsPanel, "clients");
-        contentPanel.add(casesPanel, "cases");
-        contentPanel.add(attorneysPanel, "attorneys");
-        contentPanel.add(documentsPanel, "documents");
-        contentPanel.add(calendarPanel, "calendar");
-        contentPanel.add(invoicesPanel, "invoices");
-        
-        // Only add admin panel if user is admin
-        if (currentUser.isAdmin()) {
-            contentPanel.add(adminPanel, "admin");
-        }
-        
         // Show dashboard panel by default
-        cardLayout.show(contentPanel, "dashboard");
+        contentPanel.show("dashboard");
         highlightSelectedButton(dashboardButton);
         
         mainPanel.add(contentPanel, BorderLayout.CENTER);
@@ -141,6 +149,13 @@ public class MainView extends JFrame {
         // Add main panel to frame
         add(mainPanel);
         
+        // Ctrl+K opens the global search from anywhere in the window
+        getRootPane().registerKeyboardAction(
+            e -> showGlobalSearch(),
+            KeyStroke.getKeyStroke(KeyEvent.VK_K, InputEvent.CTRL_DOWN_MASK),
+            JComponent.WHEN_IN_FOCUSED_WINDOW
+        );
+        
         // Add window listener to handle close event
         addWindowListener(new WindowAdapter() {
             @Override
@@ -200,11 +215,18 @@ public class MainView extends JFrame {
         userRoleLabel.setFont(UIConstants.SMALL_FONT);
         userRoleLabel.setForeground(Color.WHITE);
         
+        JButton searchButton = new JButton("Search (Ctrl+K)");
+        searchButton.setFont(UIConstants.SMALL_FONT);
+        searchButton.setFocusPainted(false);
+        searchButton.addActionListener(e -> showGlobalSearch());
+        
         JButton profileButton = new JButton("Profile");
         profileButton.setFont(UIConstants.SMALL_FONT);
         profileButton.setFocusPainted(false);
         profileButton.addActionListener(e -> showUserProfile());
         
+        userPanel.add(searchButton);
+        userPanel.add(Box.createHorizontalStrut(10));
         userPanel.add(userIconLabel);
         userPanel.add(userNameLabel);
         userPanel.add(userRoleLabel);
@@ -268,50 +290,50 @@ public class MainView extends JFrame {
         
         // Add action listeners
         dashboardButton.addActionListener(e -> {
-            cardLayout.show(contentPanel, "dashboard");
+            contentPanel.show("dashboard");
             highlightSelectedButton(dashboardButton);
             updateStatus("Dashboard loaded");
             loadDashboardData();
         });
         
         casesButton.addActionListener(e -> {
-            cardLayout.show(contentPanel, "cases");
+            contentPanel.show("cases");
             highlightSelectedButton(casesButton);
             updateStatus("Cases management loaded");
         });
         
         clientsButton.addActionListener(e -> {
-            cardLayout.show(contentPanel, "clients");
+            contentPanel.show("clients");
             highlightSelectedButton(clientsButton);
             updateStatus("Clients management loaded");
         });
         
         attorneysButton.addActionListener(e -> {
-            cardLayout.show(contentPanel, "attorneys");
+            contentPanel.show("attorneys");
             highlightSelectedButton(attorneysButton);
             updateStatus("Attorneys management loaded");
         });
         
         documentsButton.addActionListener(e -> {
-            cardLayout.show(contentPanel, "documents");
+            contentPanel.show("documents");
             highlightSelectedButton(documentsButton);
             updateStatus("Documents management loaded");
         });
         
         calendarButton.addActionListener(e -> {
-            cardLayout.show(contentPanel, "calendar");
+            contentPanel.show("calendar");
             highlightSelectedButton(calendarButton);
             updateStatus("Calendar & Events loaded");
         });
         
         invoicesButton.addActionListener(e -> {
-            cardLayout.show(contentPanel, "invoices");
+            contentPanel.show("invoices");
             highlightSelectedButton(invoicesButton);
             updateStatus("Invoices & Payments loaded");
         });
         
         adminButton.addActionListener(e -> {
-            cardLayout.show(contentPanel, "admin");
+            contentPanel.show("admin");
             highlightSelectedButton(adminButton);
             updateStatus("System Administration loaded");
         });
@@ -393,34 +415,38 @@ public class MainView extends JFrame {
     }
     
     /**
-     * Create content panels for different sections of the application
+     * Create content panels for different sections of the application.
+     * Only the dashboard is built up front; every other panel loads its
+     * data as soon as it is built, so each is built when its section is
+     * first chosen, or earlier while the user is idle unless preloading
+     * is turned off with -Dui.preloadPanels=false. Panels of sections not
+     * visited for -Dui.panelEvictionMinutes (default 30, 0 to keep all)
+     * are released.
      */
     private void createContentPanels() {
         // Dashboard panel
         dashboardPanel = createDashboardPanel();
+        contentPanel.addCard("dashboard", dashboardPanel);
         
-        // Clients panel
-        clientsPanel = new ClientsPanel();
-        
-        // Cases panel
-        casesPanel = new CasesPanel();
-        
-        // Attorneys panel
-        attorneysPanel = new AttorneysPanel();
-        
-        // Documents panel
-        documentsPanel = new DocumentsPanel();
-        
-        // Calendar panel
-        calendarPanel = new CalendarPanel();
+        contentPanel.addLazyCard("clients", ClientsPanel::new);
+        contentPanel.addLazyCard("cases", CasesPanel::new);
+        contentPanel.addLazyCard("attorneys", AttorneysPanel::new);
+        contentPanel.addLazyCard("documents", DocumentsPanel::new);
+        contentPanel.addLazyCard("calendar", CalendarPanel::new);
+        contentPanel.addLazyCard("invoices", InvoicesPanel::new);
         
-        // Invoices panel
-        invoicesPanel = new InvoicesPanel();
-        
-        // Admin panel
+        // Only add admin panel if user is admin
         if (currentUser.isAdmin()) {
-            adminPanel = new AdminPanel();
+            contentPanel.addLazyCard("admin", AdminPanel::new);
         }
+        
+        // Most used sections first
+        if (Boolean.parseBoolean(System.getProperty("ui.preloadPanels", "true"))) {
+            contentPanel.preloadWhenIdle("cases", "clients", "documents", "calendar", "invoices", "attorneys");
+        }
+        
+        long evictionMinutes = Long.getLong("ui.panelEvictionMinutes", DEFAULT_PANEL_EVICTION_MINUTES);
+        contentPanel.setEvictionDelay(evictionMinutes * 60 * 1000);
     }
     
     /**
@@ -652,11 +678,23 @@ public class MainView extends JFrame {
         statusLabel.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 0));
         statusBar.add(statusLabel, BorderLayout.WEST);
         
+        // Progress of background loads
+        loadingBar = new JProgressBar();
+        loadingBar.setIndeterminate(true);
+        loadingBar.setPreferredSize(new Dimension(100, 10));
+        loadingBar.setVisible(false);
+        AsyncLoader.addActivityListener(loadingListener);
+        
         // Current date/time
         dateTimeLabel = new JLabel(LocalDate.now().toString());
         dateTimeLabel.setFont(UIConstants.SMALL_FONT);
         dateTimeLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 10));
-        statusBar.add(dateTimeLabel, BorderLayout.EAST);
+        
+        JPanel eastPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        eastPanel.setOpaque(false);
+        eastPanel.add(loadingBar);
+        eastPanel.add(dateTimeLabel);
+        statusBar.add(eastPanel, BorderLayout.EAST);
         
         return statusBar;
     }
@@ -676,78 +714,121 @@ public class MainView extends JFrame {
      * Load dashboard data from controllers
      */
     private void loadDashboardData() {
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-            private int activeCases = 0;
-            private int totalClients = 0;
-            private int upcomingEvents = 0;
-            private int overdueInvoices = 0;
+        updateStatus("Loading dashboard data...");
+        
+        dashboardLoader.load(dashboardController::getStatistics, statistics -> {
+            if (statistics == null) {
+                updateStatus("Error loading dashboard data");
+                return;
+            }
             
-            @Override
-            protected Void doInBackground() throws Exception {
-                updateStatus("Loading dashboard data...");
-                
-                try {
-                    // Get data from controllers
-                    activeCases = caseController.findCasesByStatus("Open").size();
-                    totalClients = clientController.getAllClients().size();
-                    
-                    // These would be populated from actual controllers in a complete implementation
-                    upcomingEvents = 12; // Placeholder
-                    overdueInvoices = 5; // Placeholder
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-                
-                return null;
+            // Update dashboard cards
+            setDashboardCardValue("activeCasesCard", statistics.getActiveCases());
+            setDashboardCardValue("clientsCard", statistics.getTotalClients());
+            setDashboardCardValue("upcomingEventsCard", statistics.getUpcomingEvents());
+            setDashboardCardValue("overdueInvoicesCard", statistics.getOverdueInvoices());
+            
+            JPanel overdueCard = (JPanel) SwingUtils.findComponentByName(dashboardPanel, "overdueInvoicesCard");
+            if (overdueCard != null) {
+                overdueCard.setToolTipText("Outstanding: "
+                    + NumberFormat.getCurrencyInstance().format(statistics.getOverdueBalance()));
             }
             
-            @Override
-            protected void done() {
-                try {
-                    // Update dashboard cards
-                    JPanel activeCasesCard = (JPanel) SwingUtils.findComponentByName(dashboardPanel, "activeCasesCard");
-                    JPanel clientsCard = (JPanel) SwingUtils.findComponentByName(dashboardPanel, "clientsCard");
-                    JPanel upcomingEventsCard = (JPanel) SwingUtils.findComponentByName(dashboardPanel, "upcomingEventsCard");
-                    JPanel overdueInvoicesCard = (JPanel) SwingUtils.findComponentByName(dashboardPanel, "overdueInvoicesCard");
-                    
-                    // Update card values using utility method
-                    if (activeCasesCard != null) {
-                        JLabel valueLabel = (JLabel) SwingUtils.findComponentByName(activeCasesCard, "value");
-                        if (valueLabel != null) {
-                            valueLabel.setText(Integer.toString(activeCases));
-                        }
-                    }
-                    
-                    if (clientsCard != null) {
-                        JLabel valueLabel = (JLabel) SwingUtils.findComponentByName(clientsCard, "value");
-                        if (valueLabel != null) {
-                            valueLabel.setText(Integer.toString(totalClients));
-                        }
-                    }
-                    
-                    if (upcomingEventsCard != null) {
-                        JLabel valueLabel = (JLabel) SwingUtils.findComponentByName(upcomingEventsCard, "value");
-                        if (valueLabel != null) {
-                            valueLabel.setText(Integer.toString(upcomingEvents));
-                        }
-                    }
-                    
-                    if (overdueInvoicesCard != null) {
-                        JLabel valueLabel = (JLabel) SwingUtils.findComponentByName(overdueInvoicesCard, "value");
-                        if (valueLabel != null) {
-                            valueLabel.setText(Integer.toString(overdueInvoices));
-                        }
-                    }
-                    
-                    updateStatus("Dashboard data loaded successfully");
-                } catch (Exception e) {
-                    updateStatus("Error loading dashboard data");
-                    e.printStackTrace();
-                }
+            updateStatus("Dashboard data loaded successfully");
+        }, e -> {
+            updateStatus("Error loading dashboard data");
+            e.printStackTrace();
+        });
+    }
+    
+    /**
+     * Set the value shown on a dashboard card
+     * 
+     * @param cardName Name of the card component
+     * @param value The value to show
+     */
+    private void setDashboardCardValue(String cardName, int value) {
+        JPanel card = (JPanel) SwingUtils.findComponentByName(dashboardPanel, cardName);
+        if (card != null) {
+            JLabel valueLabel = (JLabel) SwingUtils.findComponentByName(card, "value");
+            if (valueLabel != null) {
+                valueLabel.setText(Integer.toString(value));
             }
-        };
-        
-        worker.execute();
+        }
+    }
+    
+    @Override
+    public void dispose() {
+        AsyncLoader.removeActivityListener(loadingListener);
+        contentPanel.dispose();
+        super.dispose();
+    }
+    
+    /**
+     * Show the global search dialog
+     */
+    private void showGlobalSearch() {
+        GlobalSearchDialog dialog = new GlobalSearchDialog(this, this::openSearchResult);
+        dialog.setVisible(true);
+    }
+    
+    /**
+     * Switch to the section of a search result and show its details
+     * 
+     * @param result The chosen search result
+     */
+    private void openSearchResult(SearchResult result) {
+        int id = result.getId();
+        switch (result.getType()) {
+            case CASE:
+                casesButton.doClick();
+                showSearchResultDetails(() -> new CaseController().getCaseWithDetails(id),
+                    legalCase -> new CaseDetailsDialog(this, legalCase));
+                break;
+            case CLIENT:
+                clientsButton.doClick();
+                showSearchResultDetails(() -> new ClientController().getClientById(id),
+                    client -> new ClientDetailsDialog(this, client));
+                break;
+            case ATTORNEY:
+                attorneysButton.doClick();
+                showSearchResultDetails(() -> new AttorneyController().getAttorneyById(id),
+                    attorney -> new AttorneyDetailsDialog(this, attorney));
+                break;
+            case DOCUMENT:
+                documentsButton.doClick();
+                showSearchResultDetails(() -> new DocumentController().getDocumentById(id),
+                    document -> new DocumentDetailsDialog(this, document));
+                break;
+            case EVENT:
+                calendarButton.doClick();
+                showSearchResultDetails(() -> new EventController().getEventById(id),
+                    event -> new EventDetailsDialog(this, event, new EventController(), new CaseController()));
+                break;
+            case INVOICE:
+                invoicesButton.doClick();
+                showSearchResultDetails(() -> new InvoiceController().getInvoiceById(id),
+                    invoice -> new InvoiceDetailsDialog(this, invoice));
+                break;
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * Load the current version of a record in the background and show it
+     * 
+     * @param query Loads the record
+     * @param dialogFactory Creates the details dialog for the record
+     */
+    private <T> void showSearchResultDetails(Callable<T> query, Function<T, JDialog> dialogFactory) {
+        searchResultLoader.load(query, record -> {
+            if (record == null) {
+                SwingUtils.showInfoMessage(this, "This record no longer exists.", "Not Found");
+                return;
+            }
+            dialogFactory.apply(record).setVisible(true);
+        });
     }
     
     /**
@@ -771,7 +852,7 @@ public class MainView extends JFrame {
      */
     private void createNewCase() {
         // Redirect to cases panel
-        cardLayout.show(contentPanel, "cases");
+        contentPanel.show("cases");
         highlightSelectedButton(casesButton);
         updateStatus("Cases management loaded");
         
@@ -791,12 +872,12 @@ public class MainView extends JFrame {
      */
     private void createNewClient() {
         // Redirect to clients panel
-        cardLayout.show(contentPanel, "clients");
+        contentPanel.show("clients");
         highlightSelectedButton(clientsButton);
         updateStatus("Clients management loaded");
         
         // Trigger the add client functionality on the clients panel
-        clientsPanel.addNewClient();
+        ((ClientsPanel) contentPanel.getCard("clients")).addNewClient();
     }
     
     /**
@@ -804,7 +885,7 @@ public class MainView extends JFrame {
      */
     private void createNewDocument() {
         // Redirect to documents panel
-        cardLayout.show(contentPanel, "documents");
+        contentPanel.show("documents");
         highlightSelectedButton(documentsButton);
         updateStatus("Documents management loaded");
         
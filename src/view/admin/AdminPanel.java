@@ -7,9 +7,13 @@ import java.awt.*;
 import java.awt.event.*;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.Callable;
 
+import model.CompressionStatistics;
 import model.User;
+import controller.DocumentController;
 import controller.UserController;
+import view.util.AsyncLoader;
 import view.util.UIConstants;
 import view.util.SwingUtils;
 import view.components.CustomTable;
@@ -20,6 +24,10 @@ import view.components.CustomTable;
  */
 public class AdminPanel extends JPanel {
     private UserController userController;
+    private DocumentController documentController;
+    private AsyncLoader dataLoader;
+    private AsyncLoader storageLoader;
+    private AsyncLoader passwordLoader;
     
     // User management components
     private CustomTable usersTable;
@@ -35,6 +43,10 @@ public class AdminPanel extends JPanel {
      */
     public AdminPanel() {
         this.userController = new UserController();
+        this.documentController = new DocumentController();
+        this.dataLoader = new AsyncLoader(this);
+        this.storageLoader = new AsyncLoader(this);
+        this.passwordLoader = new AsyncLoader(this);
         
         initializeUI();
         loadUsers();
@@ -382,9 +394,15 @@ public class AdminPanel extends JPanel {
         checkIntegrityButton.setFont(UIConstants.NORMAL_FONT);
         checkIntegrityButton.addActionListener(e -> checkDatabaseIntegrity());
         
+        JButton storageButton = new JButton("Document Storage");
+        storageButton.setFont(UIConstants.NORMAL_FONT);
+        storageButton.addActionListener(e -> showDocumentStorage());
+        
         maintenanceButtonsPanel.add(optimizeButton);
         maintenanceButtonsPanel.add(Box.createHorizontalStrut(10));
         maintenanceButtonsPanel.add(checkIntegrityButton);
+        maintenanceButtonsPanel.add(Box.createHorizontalStrut(10));
+        maintenanceButtonsPanel.add(storageButton);
         maintenancePanel.add(maintenanceButtonsPanel, BorderLayout.CENTER);
         
         // Add panels to operations panel
@@ -436,22 +454,20 @@ public class AdminPanel extends JPanel {
      * Load users from database and populate table
      */
     private void loadUsers() {
-        try {
-            // Clear existing data
-            usersTable.clearTable();
-            
-            // Get filter selection
-            String selectedRole = (String) roleFilterCombo.getSelectedItem();
-            
-            // Get users from controller
-            List<User> users;
-            if ("All Roles".equals(selectedRole)) {
-                users = userController.getAllActiveUsers();
-            } else {
-                users = userController.getUsersByRole(selectedRole);
-            }
-            
+        // Get filter selection
+        String selectedRole = (String) roleFilterCombo.getSelectedItem();
+        
+        // Get users from controller
+        Callable<List<User>> query;
+        if ("All Roles".equals(selectedRole)) {
+            query = userController::getAllActiveUsers;
+        } else {
+            query = () -> userController.getUsersByRole(selectedRole);
+        }
+        
+        dataLoader.load(query, users -> {
             // Populate table
+            usersTable.clearTable();
             for (User user : users) {
                 Object[] row = {
                     user.getUsername(),
@@ -466,15 +482,14 @@ public class AdminPanel extends JPanel {
             
             // Update button states
             updateButtonStates();
-            
-        } catch (Exception e) {
+        }, e -> {
             SwingUtils.showErrorMessage(
                 this,
                 "Error loading users: " + e.getMessage(),
                 "Database Error"
             );
             e.printStackTrace();
-        }
+        });
     }
     
     /**
@@ -608,8 +623,8 @@ public class AdminPanel extends JPanel {
         );
         
         if (confirmed) {
-            try {
-                String newPassword = userController.resetPassword(email);
+            // Hashing the new password is slow by design
+            passwordLoader.load(() -> userController.resetPassword(email), newPassword -> {
                 if (newPassword != null) {
                     SwingUtils.showInfoMessage(
                         this,
@@ -625,14 +640,14 @@ public class AdminPanel extends JPanel {
                         "Error"
                     );
                 }
-            } catch (Exception e) {
+            }, e -> {
                 SwingUtils.showErrorMessage(
                     this,
                     "Error resetting password: " + e.getMessage(),
                     "Database Error"
                 );
                 e.printStackTrace();
-            }
+            });
         }
     }
     
@@ -855,4 +870,68 @@ public class AdminPanel extends JPanel {
             "Integrity Check"
         );
     }
-}
\ No newline at end of file
+    
+    /**
+     * Show how much disk space stored documents take and how well each
+     * file type compresses
+     */
+    private void showDocumentStorage() {
+        storageLoader.load(documentController::getCompressionStatistics, statistics -> {
+            String[] columnNames = {"File Type", "Files", "Compressed", "Original Size", "Stored Size", "Ratio"};
+            DefaultTableModel model = new DefaultTableModel(columnNames, 0) {
+                @Override
+                public boolean isCellEditable(int row, int column) {
+                    return false;
+                }
+            };
+            
+            long originalBytes = 0;
+            long storedBytes = 0;
+            for (CompressionStatistics type : statistics) {
+                model.addRow(new Object[]{
+                    type.getFileType(),
+                    type.getFiles(),
+                    type.getCompressedFiles(),
+                    formatMegabytes(type.getOriginalBytes()),
+                    formatMegabytes(type.getStoredBytes()),
+                    String.format("%.0f%%", type.getCompressionRatio() * 100.0)
+                });
+                originalBytes += type.getOriginalBytes();
+                storedBytes += type.getStoredBytes();
+            }
+            
+            JTable table = new JTable(model);
+            table.setFont(UIConstants.NORMAL_FONT);
+            table.setRowHeight(25);
+            table.getTableHeader().setFont(UIConstants.LABEL_FONT);
+            
+            JScrollPane scrollPane = new JScrollPane(table);
+            scrollPane.setPreferredSize(new Dimension(560, 250));
+            
+            JPanel content = new JPanel(new BorderLayout(0, 10));
+            content.add(scrollPane, BorderLayout.CENTER);
+            content.add(new JLabel("Total: " + formatMegabytes(originalBytes) + " stored in " +
+                    formatMegabytes(storedBytes) + ", " + formatMegabytes(originalBytes - storedBytes) +
+                    " saved by compression"), BorderLayout.SOUTH);
+            
+            JOptionPane.showMessageDialog(this, content, "Document Storage", JOptionPane.PLAIN_MESSAGE);
+        }, e -> {
+            SwingUtils.showErrorMessage(
+                this,
+                "Error reading document storage: " + e.getMessage(),
+                "Storage Error"
+            );
+            e.printStackTrace();
+        });
+    }
+    
+    /**
+     * Format a byte count in megabytes
+     * 
+     * @param bytes The byte count
+     * @return The formatted size
+     */
+    private static String formatMegabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -8,6 +8,7 @@ import java.time.LocalDate;
 
 import model.User;
 import controller.UserController;
+import view.util.AsyncLoader;
 import view.util.UIConstants;
 import view.util.SwingUtils;
 
@@ -28,6 +29,7 @@ public class UserEditorDialog extends JDialog {
     
     private User user;
     private UserController userController;
+    private AsyncLoader saveLoader;
     private boolean userSaved = false;
     private boolean isNewUser;
     
@@ -42,6 +44,7 @@ public class UserEditorDialog extends JDialog {
         
         this.user = user;
         this.userController = new UserController();
+        this.saveLoader = new AsyncLoader(this);
         this.isNewUser = (user == null);
         
         initializeUI();
@@ -339,51 +342,50 @@ public class UserEditorDialog extends JDialog {
     }
     
     /**
-     * Save the user
+     * Save the user in the background, as hashing a new user's password
+     * deliberately takes a noticeable time
      */
     private void saveUser() {
-        if (!validateForm()) {
+        if (saveLoader.isLoading() || !validateForm()) {
             return;
         }
         
-        try {
-            // Create or update user object
-            if (isNewUser) {
-                user = new User();
-                user.setRegistrationDate(LocalDate.now());
-            }
-            
-            user.setUsername(usernameField.getText().trim());
-            user.setFullName(fullNameField.getText().trim());
-            user.setEmail(emailField.getText().trim());
-            user.setRole((String) roleCombo.getSelectedItem());
-            user.setActive(activeCheckbox.isSelected());
-            
-            boolean success;
+        // Create or update user object
+        User saving = isNewUser ? new User() : user;
+        if (isNewUser) {
+            saving.setRegistrationDate(LocalDate.now());
+        }
+        
+        saving.setUsername(usernameField.getText().trim());
+        saving.setFullName(fullNameField.getText().trim());
+        saving.setEmail(emailField.getText().trim());
+        saving.setRole((String) roleCombo.getSelectedItem());
+        saving.setActive(activeCheckbox.isSelected());
+        
+        String password = isNewUser ? new String(passwordField.getPassword()) : null;
+        
+        saveButton.setEnabled(false);
+        saveLoader.load(() -> {
             if (isNewUser) {
-                // Create new user with password
-                String password = new String(passwordField.getPassword());
-                User createdUser = userController.createUser(user, password);
-                success = (createdUser != null);
-                if (success) {
-                    user = createdUser; // Get the user with ID
-                }
-            } else {
-                // Update existing user
-                success = userController.updateUser(user);
+                // Create new user with password; returns the user with ID
+                return userController.createUser(saving, password);
             }
-            
-            if (success) {
+            // Update existing user
+            return userController.updateUser(saving) ? saving : null;
+        }, saved -> {
+            saveButton.setEnabled(true);
+            if (saved != null) {
+                user = saved;
                 userSaved = true;
                 dispose();
             } else {
                 showError("Failed to save user. Please try again.");
             }
-            
-        } catch (Exception e) {
+        }, e -> {
+            saveButton.setEnabled(true);
             showError("Error saving user: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
     
     /**
@@ -6,12 +6,14 @@ import java.awt.*;
 import java.awt.event.*;
 import javax.swing.event.*;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import model.Attorney;
 import controller.AttorneyController;
 import view.components.CustomTable;
 import view.components.TableFilterPanel;
 import view.components.StatusIndicator;
+import view.util.AsyncLoader;
 import view.util.UIConstants;
 import view.util.SwingUtils;
 
@@ -22,6 +24,7 @@ public class AttorneysPanel extends JPanel {
     private AttorneyController attorneyController;
     private CustomTable attorneysTable;
     private AttorneyFilterPanel filterPanel;
+    private AsyncLoader dataLoader;
     
     private JButton addButton;
     private JButton editButton;
@@ -33,6 +36,7 @@ public class AttorneysPanel extends JPanel {
      */
     public AttorneysPanel() {
         this.attorneyController = new AttorneyController();
+        this.dataLoader = new AsyncLoader(this);
         
         initializeUI();
         loadAttorneys();
@@ -187,33 +191,32 @@ public class AttorneysPanel extends JPanel {
      * Load attorneys from the database
      */
     private void loadAttorneys() {
-        try {
-            // Clear existing data
-            attorneysTable.clearTable();
-            attorneysTable.clearFilters();
-            
-            // Get attorneys from controller
-            List<Attorney> attorneys;
-            
-            String filterType = filterPanel.getSelectedFilterType();
-            String searchText = filterPanel.getSearchText();
-            
-            if (searchText != null && !searchText.isEmpty()) {
-                if ("Name".equals(filterType)) {
-                    attorneys = attorneyController.findAttorneysByName(searchText);
-                } else if ("Specialization".equals(filterType)) {
-                    attorneys = attorneyController.findAttorneysBySpecialization(searchText);
-                } else {
-                    // Apply filter to the view instead of database for "All"
-                    attorneys = attorneyController.getAllAttorneys();
-                    attorneysTable.addFilter(1, searchText); // Name column
-                    attorneysTable.addFilter(2, searchText); // Specialization column
-                }
+        attorneysTable.clearFilters();
+        
+        // Get attorneys from controller
+        Callable<List<Attorney>> query;
+        
+        String filterType = filterPanel.getSelectedFilterType();
+        String searchText = filterPanel.getSearchText();
+        
+        if (searchText != null && !searchText.isEmpty()) {
+            if ("Name".equals(filterType)) {
+                query = () -> attorneyController.findAttorneysByName(searchText);
+            } else if ("Specialization".equals(filterType)) {
+                query = () -> attorneyController.findAttorneysBySpecialization(searchText);
             } else {
-                attorneys = attorneyController.getAllAttorneys();
+                // Apply filter to the view instead of database for "All"
+                query = attorneyController::getAllAttorneys;
+                attorneysTable.addFilter(1, searchText); // Name column
+                attorneysTable.addFilter(2, searchText); // Specialization column
             }
-            
+        } else {
+            query = attorneyController::getAllAttorneys;
+        }
+        
+        dataLoader.load(query, attorneys -> {
             // Populate table
+            attorneysTable.clearTable();
             for (Attorney attorney : attorneys) {
                 Object[] row = {
                     attorney.getAttorneyId(),
@@ -238,15 +241,14 @@ public class AttorneysPanel extends JPanel {
             
             // Update button states
             updateButtonStates();
-            
-        } catch (Exception e) {
+        }, e -> {
             SwingUtils.showErrorMessage(
                 this,
                 "Error loading attorneys: " + e.getMessage(),
                 "Database Error"
             );
             e.printStackTrace();
-        }
+        });
     }
     
     /**
@@ -0,0 +1,311 @@
+package view.calendar;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import model.Event;
+import view.util.UIConstants;
+
+/**
+ * Month grid of the calendar, painted as a single component. The six
+ * weeks of day cells are drawn straight from the events-by-date model,
+ * so changing month, selection or events only swaps references and
+ * repaints; no components are created or laid out. Each cell lists as
+ * many event titles as fit its height, ending with a "+N more" line when
+ * some do not fit. The days of the previous and next months that fill the
+ * first and last weeks are shown too, with grayed day numbers.
+ */
+class CalendarGrid extends JComponent {
+    private static final int COLUMNS = 7;
+    private static final int ROWS = 6;
+    private static final int PADDING = 4;
+
+    private static final Color SELECTED_COLOR = new Color(230, 240, 255); // Light blue
+    private static final Stroke TODAY_STROKE = new BasicStroke(2);
+
+    // Day numbers, so painting allocates no strings for them
+    private static final String[] DAY_NUMBERS = new String[32];
+    static {
+        for (int day = 1; day < DAY_NUMBERS.length; day++) {
+            DAY_NUMBERS[day] = Integer.toString(day);
+        }
+    }
+
+    private final Font dayFont = UIConstants.NORMAL_FONT;
+    private final Font todayFont = UIConstants.NORMAL_FONT.deriveFont(Font.BOLD);
+    private final Font eventFont = UIConstants.SMALL_FONT;
+
+    // Date of each cell, including the days of the neighbouring months;
+    // filled when the month changes, so painting allocates no dates
+    private final LocalDate[] cellDates = new LocalDate[COLUMNS * ROWS];
+
+    private YearMonth month;
+    private Map<LocalDate, List<Event>> eventsByDate = Collections.emptyMap();
+    private LocalDate selectedDate;
+    private int hoverCell = -1;
+    private Consumer<LocalDate> selectionListener;
+
+    /**
+     * Constructor
+     */
+    CalendarGrid() {
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setForeground(UIManager.getColor("Label.foreground"));
+        setPreferredSize(new Dimension(COLUMNS * 90, ROWS * 80));
+
+        MouseAdapter mouseHandler = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int cell = cellAt(e.getPoint());
+                if (cell >= 0 && cellDates[cell] != null && selectionListener != null) {
+                    selectionListener.accept(cellDates[cell]);
+                }
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoverCell(cellAt(e.getPoint()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoverCell(-1);
+            }
+        };
+        addMouseListener(mouseHandler);
+        addMouseMotionListener(mouseHandler);
+    }
+
+    /**
+     * Set the listener notified when a day is clicked
+     *
+     * @param listener Receives the clicked date
+     */
+    void setSelectionListener(Consumer<LocalDate> listener) {
+        this.selectionListener = listener;
+    }
+
+    /**
+     * Get the date of the first cell of a month's grid
+     *
+     * @param month The month
+     * @return The Sunday on or before the first of the month
+     */
+    static LocalDate firstShownDate(YearMonth month) {
+        LocalDate first = month.atDay(1);
+        return first.minusDays(first.getDayOfWeek().getValue() % 7); // Adjust for Sunday start
+    }
+
+    /**
+     * Get the date of the last cell of a month's grid
+     *
+     * @param month The month
+     * @return The date six weeks after the first cell, less a day
+     */
+    static LocalDate lastShownDate(YearMonth month) {
+        return firstShownDate(month).plusDays(COLUMNS * ROWS - 1);
+    }
+
+    /**
+     * Show a month
+     *
+     * @param month The month
+     * @param eventsByDate Events of the days shown by date, including those
+     *                     of the neighbouring months; read, never modified
+     * @param selectedDate The selected date, highlighted if shown
+     */
+    void setMonth(YearMonth month, Map<LocalDate, List<Event>> eventsByDate, LocalDate selectedDate) {
+        if (!month.equals(this.month)) {
+            this.month = month;
+            LocalDate date = firstShownDate(month);
+            for (int cell = 0; cell < cellDates.length; cell++) {
+                cellDates[cell] = date;
+                date = date.plusDays(1);
+            }
+        }
+        this.eventsByDate = eventsByDate;
+        this.selectedDate = selectedDate;
+        repaint();
+    }
+
+    /**
+     * Change the selected date
+     *
+     * @param selectedDate The selected date
+     */
+    void setSelectedDate(LocalDate selectedDate) {
+        repaintDate(this.selectedDate);
+        this.selectedDate = selectedDate;
+        repaintDate(selectedDate);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+            LocalDate today = LocalDate.now();
+            Rectangle clip = g2.getClipBounds();
+            for (int cell = 0; cell < cellDates.length; cell++) {
+                int x = cellX(cell % COLUMNS);
+                int y = cellY(cell / COLUMNS);
+                int width = cellX(cell % COLUMNS + 1) - x;
+                int height = cellY(cell / COLUMNS + 1) - y;
+                if (clip == null || clip.intersects(x, y, width, height)) {
+                    paintCell(g2, cell, x, y, width, height, today);
+                }
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    private void paintCell(Graphics2D g2, int cell, int x, int y, int width, int height, LocalDate today) {
+        LocalDate date = cellDates[cell];
+        boolean isToday = date != null && date.equals(today);
+        boolean isSelected = date != null && date.equals(selectedDate);
+        // The grid spans three months at most, so the month number tells them apart
+        boolean inMonth = date != null && date.getMonthValue() == month.getMonthValue();
+
+        // Background, highlighting the selected day and the day under the mouse
+        if (isSelected) {
+            g2.setColor(SELECTED_COLOR);
+            g2.fillRect(x, y, width, height);
+        } else if (date != null && cell == hoverCell && !isToday) {
+            g2.setColor(UIConstants.ACCENT_COLOR);
+            g2.fillRect(x, y, width, height);
+        }
+
+        // Border, highlighting today's date
+        if (isToday) {
+            Stroke stroke = g2.getStroke();
+            g2.setColor(UIConstants.SECONDARY_COLOR);
+            g2.setStroke(TODAY_STROKE);
+            g2.drawRect(x + 1, y + 1, width - 2, height - 2);
+            g2.setStroke(stroke);
+        } else {
+            g2.setColor(Color.LIGHT_GRAY);
+            g2.drawRect(x, y, width - 1, height - 1);
+        }
+
+        if (date == null) {
+            return;
+        }
+
+        // Day number
+        g2.setFont(isToday ? todayFont : dayFont);
+        if (isToday) {
+            g2.setColor(UIConstants.SECONDARY_COLOR);
+        } else {
+            g2.setColor(inMonth ? getForeground() : UIConstants.INACTIVE_COLOR);
+        }
+        FontMetrics dayMetrics = g2.getFontMetrics();
+        int top = y + PADDING + dayMetrics.getAscent();
+        g2.drawString(DAY_NUMBERS[date.getDayOfMonth()], x + PADDING, top);
+
+        List<Event> events = eventsByDate.get(date);
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+
+        // As many event titles as fit, keeping a line for the overflow count
+        g2.setFont(eventFont);
+        FontMetrics eventMetrics = g2.getFontMetrics();
+        int lineHeight = eventMetrics.getHeight() + 2;
+        int firstLine = top + dayMetrics.getDescent() + 2;
+        int lines = Math.max(0, (y + height - PADDING - firstLine) / lineHeight);
+        int shown = events.size() <= lines ? events.size() : Math.max(0, lines - 1);
+        int textWidth = width - 2 * PADDING;
+
+        int baseline = firstLine + eventMetrics.getAscent() + 1;
+        for (int i = 0; i < shown; i++) {
+            Event event = events.get(i);
+            g2.setColor(CalendarPanel.getEventTypeColor(event.getEventType()));
+            g2.drawString(fit(event.getTitle(), eventMetrics, textWidth), x + PADDING, baseline);
+            baseline += lineHeight;
+        }
+
+        if (shown < events.size() && lines > 0) {
+            g2.setColor(UIConstants.PRIMARY_COLOR);
+            g2.drawString(fit("+" + (events.size() - shown) + " more", eventMetrics, textWidth),
+                    x + PADDING, baseline);
+        }
+    }
+
+    /**
+     * Shorten text with an ellipsis to fit a width
+     */
+    private static String fit(String text, FontMetrics metrics, int width) {
+        if (text == null) {
+            return "";
+        }
+        if (metrics.stringWidth(text) <= width) {
+            return text;
+        }
+        int available = width - metrics.stringWidth("...");
+        int end = 0;
+        for (int used = 0; end < text.length(); end++) {
+            used += metrics.charWidth(text.charAt(end));
+            if (used > available) {
+                break;
+            }
+        }
+        return text.substring(0, end) + "...";
+    }
+
+    private void setHoverCell(int cell) {
+        if (cell != hoverCell) {
+            repaintCell(hoverCell);
+            hoverCell = cell;
+            repaintCell(hoverCell);
+        }
+    }
+
+    private void repaintDate(LocalDate date) {
+        if (date == null || cellDates[0] == null) {
+            return;
+        }
+        long cell = ChronoUnit.DAYS.between(cellDates[0], date);
+        if (cell < cellDates.length) {
+            repaintCell((int) cell);
+        }
+    }
+
+    private void repaintCell(int cell) {
+        if (cell >= 0) {
+            int x = cellX(cell % COLUMNS);
+            int y = cellY(cell / COLUMNS);
+            repaint(x, y, cellX(cell % COLUMNS + 1) - x, cellY(cell / COLUMNS + 1) - y);
+        }
+    }
+
+    private int cellAt(Point point) {
+        if (point.x < 0 || point.y < 0 || point.x >= getWidth() || point.y >= getHeight()) {
+            return -1;
+        }
+        int column = Math.min(COLUMNS - 1, point.x * COLUMNS / Math.max(1, getWidth()));
+        int row = Math.min(ROWS - 1, point.y * ROWS / Math.max(1, getHeight()));
+        return row * COLUMNS + column;
+    }
+
+    // Cell edges are spread over the whole size, so the cells fill it exactly
+    private int cellX(int column) {
+        return column * getWidth() / COLUMNS;
+    }
+
+    private int cellY(int row) {
+        return row * getHeight() / ROWS;
+    }
+}
@@ -0,0 +1,240 @@
+package view.calendar;
+
+import java.awt.Component;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import model.Event;
+import controller.EventController;
+import view.util.AsyncLoader;
+
+/**
+ * Events of recently shown months, grouped by date, for the calendar.
+ * <p>
+ * Showing a month starts a fetch only if the month is not cached or was
+ * fetched more than {@link #TTL_MILLIS} ago, so changes saved from other
+ * workstations still appear. Once the month is there, the months before
+ * and after it are fetched in the background, so flipping through the
+ * calendar is served from memory and the leading and trailing days of
+ * the month grid show their events. Events the calendar saves or deletes
+ * are applied to the cached months directly instead of refetching them.
+ * <p>
+ * Used on the Event Dispatch Thread only.
+ */
+final class CalendarMonthCache {
+
+    /** Number of months kept; the least recently shown are dropped */
+    static final int MAX_MONTHS = 12;
+
+    /** Time a month is shown without refetching it, in milliseconds */
+    static final long TTL_MILLIS = 5 * 60 * 1000;
+
+    private static final Comparator<Event> BY_START_TIME = Comparator.comparing(
+            Event::getStartTime, Comparator.nullsFirst(Comparator.<LocalTime>naturalOrder()));
+
+    private final EventController eventController;
+
+    // The shown month and its neighbours are fetched separately, so a
+    // prefetch never supersedes the month the user is waiting for
+    private final AsyncLoader monthLoader;
+    private final AsyncLoader prefetchLoader;
+
+    // Least recently used first
+    private final LinkedHashMap<YearMonth, Month> months = new LinkedHashMap<YearMonth, Month>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<YearMonth, Month> eldest) {
+            return size() > MAX_MONTHS;
+        }
+    };
+
+    // Incremented by every change applied to the cache, so fetches that
+    // overlap one are not cached without it
+    private long generation;
+
+    /**
+     * Constructor
+     *
+     * @param eventController Controller to fetch the events with
+     * @param owner Component showing the calendar; gets a wait cursor while a month loads
+     */
+    CalendarMonthCache(EventController eventController, Component owner) {
+        this.eventController = eventController;
+        this.monthLoader = new AsyncLoader(owner);
+        this.prefetchLoader = new AsyncLoader(null);
+    }
+
+    /**
+     * Get the cached events of the days from one date to another, however
+     * old, e.g. the days a month grid shows around its month
+     *
+     * @param from The first date
+     * @param to The last date
+     * @return Events by date; dates of months not cached have none. The
+     *         event lists are read-only
+     */
+    Map<LocalDate, List<Event>> get(LocalDate from, LocalDate to) {
+        Map<LocalDate, List<Event>> eventsByDate = new HashMap<>();
+        YearMonth last = YearMonth.from(to);
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(last); month = month.plusMonths(1)) {
+            Month cached = months.get(month);
+            if (cached == null) {
+                continue;
+            }
+            cached.eventsByDate.forEach((date, events) -> {
+                if (!date.isBefore(from) && !date.isAfter(to)) {
+                    eventsByDate.put(date, events);
+                }
+            });
+        }
+        return eventsByDate;
+    }
+
+    /**
+     * Fetch a month unless it is cached and fresh, then prefetch its
+     * neighbours. Only the latest month requested is delivered.
+     *
+     * @param month The month shown
+     * @param onLoaded Runs when the month was fetched, and again when its neighbours were
+     * @param onError Receives the error if the fetch failed
+     */
+    void load(YearMonth month, Runnable onLoaded, Consumer<Exception> onError) {
+        if (isFresh(month)) {
+            monthLoader.cancel();
+            prefetch(month, onLoaded);
+            return;
+        }
+
+        long started = generation;
+        monthLoader.load(() -> fetch(month), fetched -> {
+            if (started != generation) {
+                // An event changed while the month was fetched; the
+                // result may predate the change
+                load(month, onLoaded, onError);
+                return;
+            }
+            months.put(month, new Month(fetched));
+            onLoaded.run();
+            prefetch(month, onLoaded);
+        }, onError);
+    }
+
+    /**
+     * Apply a created or updated event to the cached months
+     *
+     * @param event The saved event
+     */
+    void put(Event event) {
+        removeEvent(event.getId());
+
+        LocalDate date = event.getEventDate();
+        Month cached = date == null ? null : months.get(YearMonth.from(date));
+        if (cached != null) {
+            List<Event> dayEvents = cached.eventsByDate.computeIfAbsent(date, k -> new ArrayList<>());
+            dayEvents.add(event);
+            dayEvents.sort(BY_START_TIME);
+        }
+        generation++;
+    }
+
+    /**
+     * Remove a deleted event from the cached months
+     *
+     * @param eventId The event's database ID
+     */
+    void remove(int eventId) {
+        removeEvent(eventId);
+        generation++;
+    }
+
+    /**
+     * Drop all cached months, so each is fetched again when shown
+     */
+    void clear() {
+        months.clear();
+        generation++;
+    }
+
+    private void removeEvent(int eventId) {
+        for (Month cached : months.values()) {
+            Iterator<List<Event>> days = cached.eventsByDate.values().iterator();
+            while (days.hasNext()) {
+                List<Event> dayEvents = days.next();
+                if (dayEvents.removeIf(e -> e.getId() == eventId) && dayEvents.isEmpty()) {
+                    days.remove();
+                }
+            }
+        }
+    }
+
+    private boolean isFresh(YearMonth month) {
+        Month cached = months.get(month);
+        return cached != null && System.currentTimeMillis() - cached.loadedAt < TTL_MILLIS;
+    }
+
+    /**
+     * Fetch the months before and after the shown one that are missing
+     * or stale, one query per month in a single background task
+     */
+    private void prefetch(YearMonth month, Runnable onLoaded) {
+        List<YearMonth> wanted = new ArrayList<>();
+        for (YearMonth neighbour : new YearMonth[] {month.minusMonths(1), month.plusMonths(1)}) {
+            if (!isFresh(neighbour)) {
+                wanted.add(neighbour);
+            }
+        }
+        if (wanted.isEmpty()) {
+            prefetchLoader.cancel();
+            return;
+        }
+
+        long started = generation;
+        prefetchLoader.load(() -> {
+            Map<YearMonth, Map<LocalDate, List<Event>>> fetched = new LinkedHashMap<>();
+            for (YearMonth neighbour : wanted) {
+                fetched.put(neighbour, fetch(neighbour));
+            }
+            return fetched;
+        }, fetched -> {
+            // Fetched again when shown if an event changed meanwhile
+            if (started == generation) {
+                fetched.forEach((neighbour, eventsByDate) -> months.put(neighbour, new Month(eventsByDate)));
+                onLoaded.run();
+            }
+        }, Exception::printStackTrace);
+    }
+
+    /**
+     * Fetch the events of a month and group them by date; runs in the background
+     */
+    private Map<LocalDate, List<Event>> fetch(YearMonth month) {
+        Map<LocalDate, List<Event>> eventsByDate = new HashMap<>();
+        for (Event event : eventController.findEventsByDateRange(month.atDay(1), month.atEndOfMonth())) {
+            LocalDate eventDate = event.getEventDate();
+            if (eventDate != null) {
+                eventsByDate.computeIfAbsent(eventDate, k -> new ArrayList<>()).add(event);
+            }
+        }
+        return eventsByDate;
+    }
+
+    /**
+     * A cached month
+     */
+    private static final class Month {
+        final Map<LocalDate, List<Event>> eventsByDate;
+        final long loadedAt = System.currentTimeMillis();
+
+        Month(Map<LocalDate, List<Event>> eventsByDate) {
+            this.eventsByDate = eventsByDate;
+        }
+    }
+}
@@ -10,8 +10,8 @@ import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.Collections;
 
 import model.Event;
 import model.Case;
@@ -25,12 +25,21 @@ import view.util.SwingUtils;
  * Panel for calendar and events management in the Legal Case Management System.
  */
 public class CalendarPanel extends JPanel {
+    // Event type colors
+    private static final Color COURT_COLOR = new Color(176, 42, 55);       // Red
+    private static final Color MEETING_COLOR = new Color(46, 204, 113);    // Green
+    private static final Color DEADLINE_COLOR = new Color(241, 196, 15);   // Yellow/Orange
+    private static final Color DEPOSITION_COLOR = new Color(155, 89, 182); // Purple
+    
     private EventController eventController;
     private CaseController caseController;
+    private CalendarMonthCache monthCache;
     private LocalDate currentDate;
     private LocalDate selectedDate;
-    private JPanel calendarGrid;
+    private CalendarGrid calendarGrid;
     private JLabel monthYearLabel;
+    
+    // Events of the days the grid shows by date, as cached by monthCache; read-only
     private Map<LocalDate, List<Event>> eventsByDate;
     
     // UI components for event display
@@ -45,9 +54,10 @@ public class CalendarPanel extends JPanel {
     public CalendarPanel() {
         this.eventController = new EventController();
         this.caseController = new CaseController();
+        this.monthCache = new CalendarMonthCache(eventController, this);
         this.currentDate = LocalDate.now();
         this.selectedDate = currentDate;
-        this.eventsByDate = new HashMap<>();
+        this.eventsByDate = Collections.emptyMap();
         
         initializeUI();
         loadEvents();
@@ -110,7 +120,7 @@ public class CalendarPanel extends JPanel {
         prevMonthButton.setFocusPainted(false);
         prevMonthButton.addActionListener(e -> {
             currentDate = currentDate.minusMonths(1);
-            updateCalendarView();
+            loadEvents();
         });
         
         monthYearLabel = new JLabel();
@@ -123,7 +133,7 @@ public class CalendarPanel extends JPanel {
         nextMonthButton.setFocusPainted(false);
         nextMonthButton.addActionListener(e -> {
             currentDate = currentDate.plusMonths(1);
-            updateCalendarView();
+            loadEvents();
         });
         
         JButton todayButton = new JButton("Today");
@@ -132,8 +142,7 @@ public class CalendarPanel extends JPanel {
         todayButton.addActionListener(e -> {
             currentDate = LocalDate.now();
             selectedDate = currentDate;
-            updateCalendarView();
-            loadEventsForSelectedDate();
+            loadEvents();
         });
         
         // Add "New Event" button
@@ -227,8 +236,12 @@ public class CalendarPanel extends JPanel {
         }
         
         // Create calendar grid
-        calendarGrid = new JPanel(new GridLayout(6, 7));
-        calendarGrid.setBackground(Color.WHITE);
+        calendarGrid = new CalendarGrid();
+        calendarGrid.setSelectionListener(date -> {
+            selectedDate = date;
+            calendarGrid.setSelectedDate(date);
+            loadEventsForSelectedDate();
+        });
         
         panel.add(weekDaysPanel, BorderLayout.NORTH);
         panel.add(calendarGrid, BorderLayout.CENTER);
@@ -309,177 +322,7 @@ public class CalendarPanel extends JPanel {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM yyyy");
         monthYearLabel.setText(currentDate.format(formatter));
         
-        // Clear existing calendar cells
-        calendarGrid.removeAll();
-        
-        // Get month information
-        YearMonth yearMonth = YearMonth.of(currentDate.getYear(), currentDate.getMonth());
-        int daysInMonth = yearMonth.lengthOfMonth();
-        int firstDayOfWeek = yearMonth.atDay(1).getDayOfWeek().getValue() % 7; // Adjust for Sunday start
-        
-        // Add empty cells for days before the first day of the month
-        for (int i = 0; i < firstDayOfWeek; i++) {
-            JPanel emptyCell = createEmptyCalendarCell();
-            calendarGrid.add(emptyCell);
-        }
-        
-        // Add cells for each day of the month
-        LocalDate today = LocalDate.now();
-        for (int day = 1; day <= daysInMonth; day++) {
-            LocalDate date = LocalDate.of(currentDate.getYear(), currentDate.getMonth(), day);
-            boolean isToday = date.equals(today);
-            boolean isSelected = date.equals(selectedDate);
-            
-            // Get events for this day
-            List<Event> dayEvents = eventsByDate.getOrDefault(date, new ArrayList<>());
-            
-            JPanel dayCell = createCalendarDayCell(date, isToday, isSelected, dayEvents);
-            calendarGrid.add(dayCell);
-        }
-        
-        // Add empty cells for remaining grid spaces
-        int remainingCells = 42 - daysInMonth - firstDayOfWeek; // 6 rows * 7 days = 42
-        for (int i = 0; i < remainingCells; i++) {
-            JPanel emptyCell = createEmptyCalendarCell();
-            calendarGrid.add(emptyCell);
-        }
-        
-        // Refresh the view
-        calendarGrid.revalidate();
-        calendarGrid.repaint();
-    }
-    
-    /**
-     * Create an empty calendar cell
-     * 
-     * @return Empty cell panel
-     */
-    private JPanel createEmptyCalendarCell() {
-        JPanel cell = new JPanel();
-        cell.setBackground(Color.WHITE);
-        cell.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
-        return cell;
-    }
-    
-    /**
-     * Create a calendar cell for a specific day
-     * 
-     * @param date The date for the cell
-     * @param isToday Whether this date is today
-     * @param isSelected Whether this date is selected
-     * @param events List of events on this date
-     * @return Calendar day cell panel
-     */
-    private JPanel createCalendarDayCell(LocalDate date, boolean isToday, boolean isSelected, List<Event> events) {
-        JPanel cell = new JPanel(new BorderLayout());
-        
-        // Set background colors
-        if (isSelected) {
-            cell.setBackground(new Color(230, 240, 255)); // Light blue for selected
-        } else {
-            cell.setBackground(Color.WHITE);
-        }
-        
-        // Add border, highlight today's date
-        if (isToday) {
-            cell.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(UIConstants.SECONDARY_COLOR, 2),
-                BorderFactory.createEmptyBorder(2, 4, 2, 4)
-            ));
-        } else {
-            cell.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(Color.LIGHT_GRAY),
-                BorderFactory.createEmptyBorder(4, 4, 4, 4)
-            ));
-        }
-        
-        // Day number label
-        JLabel dayLabel = new JLabel(Integer.toString(date.getDayOfMonth()));
-        dayLabel.setFont(UIConstants.NORMAL_FONT);
-        if (isToday) {
-            dayLabel.setForeground(UIConstants.SECONDARY_COLOR);
-            dayLabel.setFont(UIConstants.NORMAL_FONT.deriveFont(Font.BOLD));
-        }
-        
-        // Create a panel for the day number with padding
-        JPanel dayPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
-        dayPanel.setOpaque(false);
-        dayPanel.add(dayLabel);
-        
-        cell.add(dayPanel, BorderLayout.NORTH);
-        
-        // Add events if there are any
-        if (!events.isEmpty()) {
-            // Create events panel
-            JPanel eventsPanel = new JPanel();
-            eventsPanel.setLayout(new BoxLayout(eventsPanel, BoxLayout.Y_AXIS));
-            eventsPanel.setOpaque(false);
-            
-            // Show up to 3 events, with a "+X more" if there are more
-            int eventsToShow = Math.min(events.size(), 3);
-            for (int i = 0; i < eventsToShow; i++) {
-                Event event = events.get(i);
-                JLabel eventLabel = createEventLabel(event);
-                eventsPanel.add(eventLabel);
-            }
-            
-            // Add a "+X more" label if needed
-            if (events.size() > 3) {
-                JLabel moreLabel = new JLabel("+" + (events.size() - 3) + " more");
-                moreLabel.setFont(UIConstants.SMALL_FONT);
-                moreLabel.setForeground(UIConstants.PRIMARY_COLOR);
-                eventsPanel.add(moreLabel);
-            }
-            
-            cell.add(eventsPanel, BorderLayout.CENTER);
-        }
-        
-        // Make cell interactive
-        cell.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                selectedDate = date;
-                loadEventsForSelectedDate();
-                updateCalendarView(); // Refresh to show selection
-            }
-            
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                if (!isToday && !isSelected) {
-                    cell.setBackground(UIConstants.ACCENT_COLOR);
-                }
-            }
-            
-            @Override
-            public void mouseExited(MouseEvent e) {
-                if (!isToday && !isSelected) {
-                    cell.setBackground(Color.WHITE);
-                }
-            }
-        });
-        
-        return cell;
-    }
-    
-    /**
-     * Create a label for an event in the calendar cell
-     * 
-     * @param event The event
-     * @return Styled event label
-     */
-    private JLabel createEventLabel(Event event) {
-        JLabel label = new JLabel();
-        label.setText(truncateText(event.getTitle(), 15));
-        label.setFont(UIConstants.SMALL_FONT);
-        
-        // Set color based on event type
-        Color eventColor = getEventTypeColor(event.getEventType());
-        label.setForeground(eventColor);
-        
-        // Add a dot before the text
-        label.setBorder(BorderFactory.createEmptyBorder(1, 0, 1, 0));
-        
-        return label;
+        calendarGrid.setMonth(YearMonth.from(currentDate), eventsByDate, selectedDate);
     }
     
     /**
@@ -488,7 +331,7 @@ public class CalendarPanel extends JPanel {
      * @param eventType Type of event
      * @return Color for the event type
      */
-    private Color getEventTypeColor(String eventType) {
+    static Color getEventTypeColor(String eventType) {
         if (eventType == null) {
             return UIConstants.PRIMARY_COLOR;
         }
@@ -497,18 +340,18 @@ public class CalendarPanel extends JPanel {
             case "court appearance":
             case "hearing":
             case "trial":
-                return new Color(176, 42, 55); // Red
+                return COURT_COLOR;
                 
             case "meeting":
             case "conference call":
-                return new Color(46, 204, 113); // Green
+                return MEETING_COLOR;
                 
             case "deadline":
             case "filing":
-                return new Color(241, 196, 15); // Yellow/Orange
+                return DEADLINE_COLOR;
                 
             case "deposition":
-                return new Color(155, 89, 182); // Purple
+                return DEPOSITION_COLOR;
                 
             default:
                 return UIConstants.PRIMARY_COLOR; // Default blue
@@ -516,68 +359,36 @@ public class CalendarPanel extends JPanel {
     }
     
     /**
-     * Truncate text if it's too long
-     * 
-     * @param text Text to truncate
-     * @param maxLength Maximum length
-     * @return Truncated text
-     */
-    private String truncateText(String text, int maxLength) {
-        if (text == null) {
-            return "";
-        }
-        
-        if (text.length() <= maxLength) {
-            return text;
-        }
-        
-        return text.substring(0, maxLength - 3) + "...";
-    }
-    
-    /**
-     * Load events from the database
+     * Show the events of the current month. A cached month is shown at
+     * once; a missing or stale one is fetched in the background and shown
+     * when it arrives.
      */
     private void loadEvents() {
-        try {
-            // Clear existing events
-            eventsByDate.clear();
-            
-            // Get start and end date for the current month view
-            YearMonth yearMonth = YearMonth.of(currentDate.getYear(), currentDate.getMonth());
-            LocalDate startDate = yearMonth.atDay(1);
-            LocalDate endDate = yearMonth.atEndOfMonth();
-            
-            // Expand range to include days from previous/next month that appear in the view
-            int firstDayOfWeek = startDate.getDayOfWeek().getValue() % 7; // Adjust for Sunday start
-            startDate = startDate.minusDays(firstDayOfWeek);
-            
-            int lastDayOfWeek = endDate.getDayOfWeek().getValue() % 7;
-            endDate = endDate.plusDays(6 - lastDayOfWeek);
-            
-            // Get events for the date range
-            List<Event> events = eventController.findEventsByDateRange(startDate, endDate);
-            
-            // Organize events by date
-            for (Event event : events) {
-                LocalDate eventDate = event.getEventDate();
-                if (eventDate != null) {
-                    List<Event> dateEvents = eventsByDate.computeIfAbsent(eventDate, k -> new ArrayList<>());
-                    dateEvents.add(event);
-                }
-            }
-            
-            // Update calendar and event list
-            updateCalendarView();
-            loadEventsForSelectedDate();
-            
-        } catch (Exception e) {
+        YearMonth yearMonth = YearMonth.from(currentDate);
+        showCachedEvents(yearMonth);
+        
+        monthCache.load(yearMonth, () -> showCachedEvents(yearMonth), e -> {
             SwingUtils.showErrorMessage(
                 this,
                 "Error loading events: " + e.getMessage(),
                 "Database Error"
             );
             e.printStackTrace();
-        }
+        });
+    }
+    
+    /**
+     * Show the cached events of the days the grid shows for a month,
+     * including the days of the months before and after it
+     * 
+     * @param yearMonth The month shown
+     */
+    private void showCachedEvents(YearMonth yearMonth) {
+        eventsByDate = monthCache.get(CalendarGrid.firstShownDate(yearMonth), CalendarGrid.lastShownDate(yearMonth));
+        
+        // Update calendar and event list
+        updateCalendarView();
+        loadEventsForSelectedDate();
     }
     
     /**
@@ -615,8 +426,9 @@ public class CalendarPanel extends JPanel {
         
         dialog.setVisible(true);
         
-        // Refresh the calendar if an event was created
+        // Add the created event to the calendar
         if (dialog.isEventSaved()) {
+            monthCache.put(dialog.getEvent());
             loadEvents();
         }
     }
@@ -645,8 +457,9 @@ public class CalendarPanel extends JPanel {
         
         dialog.setVisible(true);
         
-        // Refresh the calendar if the event was modified
+        // Update the calendar if the event was modified
         if (dialog.isEventModified()) {
+            monthCache.put(dialog.getEvent());
             loadEvents();
         }
     }
@@ -676,8 +489,9 @@ public class CalendarPanel extends JPanel {
         
         dialog.setVisible(true);
         
-        // Refresh the calendar if the event was edited
+        // Update the calendar if the event was edited
         if (dialog.isEventSaved()) {
+            monthCache.put(dialog.getEvent());
             loadEvents();
         }
     }
@@ -715,7 +529,8 @@ public class CalendarPanel extends JPanel {
                         "Success"
                     );
                     
-                    // Refresh events
+                    // Remove the event from the calendar
+                    monthCache.remove(selectedEvent.getId());
                     loadEvents();
                 } else {
                     SwingUtils.showErrorMessage(
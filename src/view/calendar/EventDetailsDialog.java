@@ -412,4 +412,13 @@ public class EventDetailsDialog extends JDialog {
     public boolean isEventModified() {
         return eventModified;
     }
+    
+    /**
+     * Get the event as last loaded
+     * 
+     * @return The event, reloaded after it was edited
+     */
+    public Event getEvent() {
+        return event;
+    }
 }
\ No newline at end of file
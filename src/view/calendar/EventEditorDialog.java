@@ -14,6 +14,7 @@ import model.Event;
 import model.Case;
 import controller.EventController;
 import controller.CaseController;
+import view.util.AsyncLoader;
 import view.util.UIConstants;
 import view.components.DateChooser;
 import view.util.SwingUtils;
@@ -26,6 +27,7 @@ public class EventEditorDialog extends JDialog {
     private LocalDate initialDate;
     private EventController eventController;
     private CaseController caseController;
+    private AsyncLoader dataLoader;
     private boolean eventSaved = false;
     
     // Form fields
@@ -43,7 +45,7 @@ public class EventEditorDialog extends JDialog {
     private JSpinner reminderDaysSpinner;
     
     // Case ID mapping for the combo box
-    private int[] caseIds;
+    private int[] caseIds = new int[0];
     
     /**
      * Constructor for creating a new event
@@ -62,6 +64,7 @@ public class EventEditorDialog extends JDialog {
         this.initialDate = initialDate;
         this.eventController = eventController;
         this.caseController = caseController;
+        this.dataLoader = new AsyncLoader(this);
         
         initializeUI();
         loadData();
@@ -325,9 +328,6 @@ public class EventEditorDialog extends JDialog {
                 statusCombo.setSelectedItem(event.getStatus());
             }
             
-            // Set case
-            selectCase(event.getCaseId());
-            
             // Set reminder options
             reminderCheckBox.setSelected(event.isReminderSet());
             reminderDaysSpinner.setValue(event.getReminderDays());
@@ -350,10 +350,8 @@ public class EventEditorDialog extends JDialog {
      * Load cases for the combo box
      */
     private void loadCases() {
-        try {
-            // Get all cases
-            List<Case> cases = caseController.getAllCases();
-            
+        // Get all cases in the background
+        dataLoader.load(caseController::getAllCases, cases -> {
             // Create arrays for the combo box
             String[] caseNames = new String[cases.size()];
             caseIds = new int[cases.size()];
@@ -368,14 +366,18 @@ public class EventEditorDialog extends JDialog {
             // Set model for the combo box
             caseCombo.setModel(new DefaultComboBoxModel<>(caseNames));
             
-        } catch (Exception e) {
+            // Set case of the event being edited
+            if (event != null) {
+                selectCase(event.getCaseId());
+            }
+        }, e -> {
             SwingUtils.showErrorMessage(
                 this,
                 "Error loading cases: " + e.getMessage(),
                 "Database Error"
             );
             e.printStackTrace();
-        }
+        });
     }
     
     /**
@@ -520,10 +522,8 @@ public class EventEditorDialog extends JDialog {
         try {
             // Create or update event
             if (event == null) {
+                // The controller assigns the event ID when creating it
                 event = new Event();
-                
-                // Generate a unique event ID
-                event.setEventId("EVT" + System.currentTimeMillis());
             }
             
             // Set event data from form
@@ -591,4 +591,13 @@ public class EventEditorDialog extends JDialog {
     public boolean isEventSaved() {
         return eventSaved;
     }
+    
+    /**
+     * Get the event as saved
+     * 
+     * @return The saved event, with its ID once created; null if none was edited or created
+     */
+    public Event getEvent() {
+        return event;
+    }
 }
\ No newline at end of file
@@ -4,7 +4,6 @@ import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,6 +13,7 @@ import model.Attorney;
 import controller.CaseController;
 import controller.ClientController;
 import controller.AttorneyController;
+import view.util.AsyncLoader;
 import view.util.UIConstants;
 import view.components.DateChooser;
 import view.util.SwingUtils;
@@ -44,6 +44,7 @@ public class CaseEditorDialog extends JDialog {
     private CaseController caseController;
     private ClientController clientController;
     private AttorneyController attorneyController;
+    private AsyncLoader dataLoader;
     private boolean caseSaved = false;
     
     /**
@@ -59,9 +60,11 @@ public class CaseEditorDialog extends JDialog {
         this.caseController = new CaseController();
         this.clientController = new ClientController();
         this.attorneyController = new AttorneyController();
+        this.dataLoader = new AsyncLoader(this);
         
         initializeUI();
         loadCaseData();
+        loadSelectionLists();
     }
     
     /**
@@ -250,9 +253,6 @@ public class CaseEditorDialog extends JDialog {
         clientCombo = new JComboBox<>();
         clientCombo.setFont(UIConstants.NORMAL_FONT);
         
-        // Load clients from database
-        loadClients();
-        
         panel.add(clientCombo, fieldConstraints);
         
         // Attorneys
@@ -263,9 +263,6 @@ public class CaseEditorDialog extends JDialog {
         attorneyList.setFont(UIConstants.NORMAL_FONT);
         attorneyList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         
-        // Load attorneys from database
-        loadAttorneys();
-        
         JScrollPane attorneyScrollPane = new JScrollPane(attorneyList);
         attorneyScrollPane.setPreferredSize(new Dimension(300, 150));
         
@@ -335,81 +332,97 @@ public class CaseEditorDialog extends JDialog {
     }
     
     /**
-     * Load clients from the database into the client combo box
+     * Clients and attorneys offered for selection, loaded together
      */
-    private void loadClients() {
-        try {
-            // Get all clients
-            List<Client> clients = clientController.getAllClients();
-            
-            // Add to combo box
-            for (Client client : clients) {
-                clientCombo.addItem(client);
-            }
-            
-            // Set renderer to display client names
-            clientCombo.setRenderer(new DefaultListCellRenderer() {
-                @Override
-                public Component getListCellRendererComponent(JList<?> list, Object value, 
-                        int index, boolean isSelected, boolean cellHasFocus) {
-                    super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
-                    
-                    if (value instanceof Client) {
-                        Client client = (Client) value;
-                        setText(client.getDisplayName());
-                    }
-                    
-                    return this;
-                }
-            });
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            SwingUtils.showErrorMessage(
-                this,
-                "Error loading clients: " + e.getMessage(),
-                "Database Error"
-            );
+    private static class SelectionLists {
+        private final List<Client> clients;
+        private final List<Attorney> attorneys;
+        
+        private SelectionLists(List<Client> clients, List<Attorney> attorneys) {
+            this.clients = clients;
+            this.attorneys = attorneys;
         }
     }
     
     /**
-     * Load attorneys from the database into the attorney list
+     * Load clients and attorneys in the background, then select the ones
+     * of the case being edited. Saving is disabled until they arrive.
      */
-    private void loadAttorneys() {
-        try {
-            // Get all attorneys
-            List<Attorney> attorneys = attorneyController.getAllAttorneys();
-            
-            // Add to list model
-            for (Attorney attorney : attorneys) {
-                attorneyListModel.addElement(attorney);
-            }
-            
-            // Set renderer to display attorney names
-            attorneyList.setCellRenderer(new DefaultListCellRenderer() {
-                @Override
-                public Component getListCellRendererComponent(JList<?> list, Object value, 
-                        int index, boolean isSelected, boolean cellHasFocus) {
-                    super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
-                    
-                    if (value instanceof Attorney) {
-                        Attorney attorney = (Attorney) value;
-                        setText(attorney.getDisplayName());
-                    }
-                    
-                    return this;
-                }
+    private void loadSelectionLists() {
+        saveButton.setEnabled(false);
+        
+        dataLoader.load(
+            () -> new SelectionLists(clientController.getAllClients(), attorneyController.getAllAttorneys()),
+            lists -> {
+                populateClients(lists.clients);
+                populateAttorneys(lists.attorneys);
+                selectCaseClientAndAttorneys();
+                saveButton.setEnabled(true);
+            },
+            e -> {
+                e.printStackTrace();
+                SwingUtils.showErrorMessage(
+                    this,
+                    "Error loading clients and attorneys: " + e.getMessage(),
+                    "Database Error"
+                );
             });
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            SwingUtils.showErrorMessage(
-                this,
-                "Error loading attorneys: " + e.getMessage(),
-                "Database Error"
-            );
+    }
+    
+    /**
+     * Fill the client combo box
+     * 
+     * @param clients The clients to offer
+     */
+    private void populateClients(List<Client> clients) {
+        // Add to combo box
+        for (Client client : clients) {
+            clientCombo.addItem(client);
         }
+        
+        // Set renderer to display client names
+        clientCombo.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, 
+                    int index, boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                
+                if (value instanceof Client) {
+                    Client client = (Client) value;
+                    setText(client.getDisplayName());
+                }
+                
+                return this;
+            }
+        });
+    }
+    
+    /**
+     * Fill the attorney list
+     * 
+     * @param attorneys The attorneys to offer
+     */
+    private void populateAttorneys(List<Attorney> attorneys) {
+        // Add to list model
+        for (Attorney attorney : attorneys) {
+            attorneyListModel.addElement(attorney);
+        }
+        
+        // Set renderer to display attorney names
+        attorneyList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, 
+                    int index, boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                
+                if (value instanceof Attorney) {
+                    Attorney attorney = (Attorney) value;
+                    setText(attorney.getDisplayName());
+                }
+                
+                return this;
+            }
+        });
     }
     
     /**
@@ -457,43 +470,44 @@ public class CaseEditorDialog extends JDialog {
                 opposingCounselField.setText(legalCase.getOpposingCounsel());
             }
             
-            // Select client
-            if (legalCase.getClient() != null) {
-                selectClientInComboBox(legalCase.getClient());
-            } else if (legalCase.getClientId() > 0) {
-                // Try to load client by ID
-                try {
-                    Client client = clientController.getClientById(legalCase.getClientId());
-                    if (client != null) {
-                        selectClientInComboBox(client);
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }
-            
-            // Select attorneys
-            if (legalCase.getAttorneys() != null && !legalCase.getAttorneys().isEmpty()) {
-                selectAttorneysInList(legalCase.getAttorneys());
-            }
-            
             // Disable case number field when editing
             caseNumberField.setEditable(false);
         } else {
-            // Generate a new case number for new cases
-            caseNumberField.setText(generateCaseNumber());
+            // New cases are numbered when saved
+            SwingUtils.showAssignedOnSave(caseNumberField);
+        }
+    }
+    
+    /**
+     * Select the client and attorneys of the case being edited once the
+     * selection lists have loaded
+     */
+    private void selectCaseClientAndAttorneys() {
+        if (legalCase == null) {
+            return;
+        }
+        
+        // Select client
+        int clientId = legalCase.getClient() != null ? legalCase.getClient().getId() : legalCase.getClientId();
+        if (clientId > 0) {
+            selectClientInComboBox(clientId);
+        }
+        
+        // Select attorneys
+        if (legalCase.getAttorneys() != null && !legalCase.getAttorneys().isEmpty()) {
+            selectAttorneysInList(legalCase.getAttorneys());
         }
     }
     
     /**
      * Select a client in the combo box
      * 
-     * @param client The client to select
+     * @param clientId The ID of the client to select
      */
-    private void selectClientInComboBox(Client client) {
+    private void selectClientInComboBox(int clientId) {
         for (int i = 0; i < clientCombo.getItemCount(); i++) {
             Client item = clientCombo.getItemAt(i);
-            if (item.getId() == client.getId()) {
+            if (item.getId() == clientId) {
                 clientCombo.setSelectedIndex(i);
                 break;
             }
@@ -528,19 +542,6 @@ public class CaseEditorDialog extends JDialog {
         attorneyList.setSelectedIndices(indices);
     }
     
-    /**
-     * Generate a new case number
-     * 
-     * @return A new case number
-     */
-    private String generateCaseNumber() {
-        // Format: CASE-YYYY-XXXX where XXXX is a random number
-        String year = Integer.toString(LocalDate.now().getYear());
-        int randomNum = 1000 + (int)(Math.random() * 9000); // Random 4-digit number
-        
-        return "CASE-" + year + "-" + randomNum;
-    }
-    
     /**
      * Validate form data
      * 
@@ -597,7 +598,10 @@ public class CaseEditorDialog extends JDialog {
                 legalCase = new Case();
             }
             
-            legalCase.setCaseNumber(caseNumberField.getText().trim());
+            if (legalCase.getId() != 0) {
+                // New cases keep no number, so the controller assigns one
+                legalCase.setCaseNumber(caseNumberField.getText().trim());
+            }
             legalCase.setTitle(titleField.getText().trim());
             legalCase.setCaseType((String) caseTypeCombo.getSelectedItem());
             legalCase.setStatus((String) statusCombo.getSelectedItem());
@@ -6,13 +6,19 @@ import java.awt.*;
 import java.awt.event.*;
 import javax.swing.event.*;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.time.LocalDate;
 
 import model.Case;
 import controller.CaseController;
+import controller.SearchController;
+import dao.CaseFetchPlan;
+import dao.PageRequest;
 import view.components.CustomTable;
+import view.components.PagedTableLoader;
 import view.components.TableFilterPanel;
 import view.components.StatusIndicator;
+import view.util.AsyncLoader;
 import view.util.UIConstants;
 import view.util.SwingUtils;
 
@@ -21,8 +27,12 @@ import view.util.SwingUtils;
  */
 public class CasesPanel extends JPanel {
     private CaseController caseController;
+    private SearchController searchController;
     private CustomTable casesTable;
     private CaseFilterPanel filterPanel;
+    private PagedTableLoader<Case> casesLoader;
+    private AsyncLoader caseLoader;
+    private AsyncLoader deleteLoader;
     
     private JButton addButton;
     private JButton editButton;
@@ -34,8 +44,13 @@ public class CasesPanel extends JPanel {
      */
     public CasesPanel() {
         this.caseController = new CaseController();
+        this.searchController = new SearchController();
+        this.caseLoader = new AsyncLoader(this);
+        this.deleteLoader = new AsyncLoader(this);
         
         initializeUI();
+        this.casesLoader = new PagedTableLoader<>(casesTable, new AsyncLoader(this),
+                PageRequest.DEFAULT_PAGE_SIZE, caseController::getCasesPage, this::toTableRow);
         loadCases();
     }
     
@@ -203,87 +218,80 @@ public class CasesPanel extends JPanel {
      * Load cases from the database
      */
     private void loadCases() {
-        try {
-            // Clear existing data
-            casesTable.clearTable();
-            casesTable.clearFilters();
-            
-            // Get cases from controller
-            List<Case> cases;
-            
-            String filterType = filterPanel.getSelectedFilterType();
-            String searchText = filterPanel.getSearchText();
-            
-            if (searchText != null && !searchText.isEmpty()) {
-                switch (filterType) {
-                    case "Title":
-                        cases = caseController.findCasesByText(searchText);
-                        break;
-                    case "Status":
-                        cases = caseController.findCasesByStatus(searchText);
-                        break;
-                    case "Type":
-                        cases = caseController.findCasesByType(searchText);
-                        break;
-                    case "Client":
-                        // This would ideally search by client name, but for now we'll use text search
-                        cases = caseController.findCasesByText(searchText);
-                        break;
-                    default:
-                        // Apply filter to the view instead of database for "All"
-                        cases = caseController.getAllCases();
-                        // Add filters to multiple columns
-                        casesTable.addFilter(0, searchText); // Case Number
-                        casesTable.addFilter(1, searchText); // Title
-                        casesTable.addFilter(2, searchText); // Type
-                        casesTable.addFilter(4, searchText); // Client
-                        break;
-                }
-            } else {
-                cases = caseController.getAllCases();
+        casesTable.clearFilters();
+        
+        // Search results are loaded in full; otherwise cases are paged in as the user scrolls
+        Callable<List<Case>> search = null;
+        
+        String filterType = filterPanel.getSelectedFilterType();
+        String searchText = filterPanel.getSearchText();
+        
+        if (searchText != null && !searchText.isEmpty()) {
+            switch (filterType) {
+                case "Title":
+                    search = () -> caseController.findCasesByText(searchText);
+                    break;
+                case "Status":
+                    search = () -> caseController.findCasesByStatus(searchText);
+                    break;
+                case "Type":
+                    search = () -> caseController.findCasesByType(searchText);
+                    break;
+                case "Client":
+                    // This would ideally search by client name, but for now we'll use text search
+                    search = () -> caseController.findCasesByText(searchText);
+                    break;
+                default:
+                    // Instant search in memory once the index is built, database search until then
+                    search = searchController.isReady()
+                            ? () -> searchController.findCases(searchText)
+                            : () -> caseController.findCasesByText(searchText);
+                    break;
             }
-            
-            // Populate table
-            for (Case legalCase : cases) {
-                // Get client name (would be populated from client object in a full implementation)
-                String clientName = legalCase.getClient() != null ? 
-                                   legalCase.getClient().getName() : 
-                                   "Client #" + legalCase.getClientId();
+        }
+        
+        // Populate table in the background
+        if (search != null) {
+            casesLoader.loadAll(search, loaded -> updateButtonStates());
+        } else {
+            casesLoader.reload(loaded -> {
+                // Display a message if no cases found
+                if (loaded == 0 && (searchText == null || searchText.isEmpty())) {
+                    SwingUtils.showInfoMessage(
+                        this,
+                        "No cases found. Add a new case to get started.",
+                        "No Cases"
+                    );
+                }
                 
-                Object[] row = {
-                    legalCase.getCaseNumber(),
-                    legalCase.getTitle(),
-                    legalCase.getCaseType(),
-                    legalCase.getStatus(),
-                    clientName,
-                    legalCase.getFileDate() != null ? legalCase.getFileDate().toString() : "",
-                    legalCase.getCourt() != null ? legalCase.getCourt() : ""
-                };
-                casesTable.addRow(row);
-            }
-            
-            // Display a message if no cases found
-            if (cases.isEmpty() && (searchText == null || searchText.isEmpty())) {
-                SwingUtils.showInfoMessage(
-                    this,
-                    "No cases found. Add a new case to get started.",
-                    "No Cases"
-                );
-            }
-            
-            // Update button states
-            updateButtonStates();
-            
-        } catch (Exception e) {
-            SwingUtils.showErrorMessage(
-                this,
-                "Error loading cases: " + e.getMessage(),
-                "Database Error"
-            );
-            e.printStackTrace();
+                updateButtonStates();
+            });
         }
     }
     
+    /**
+     * Convert a case to a table row
+     * 
+     * @param legalCase The case
+     * @return The row data
+     */
+    private Object[] toTableRow(Case legalCase) {
+        // Get client name (would be populated from client object in a full implementation)
+        String clientName = legalCase.getClient() != null ? 
+                           legalCase.getClient().getName() : 
+                           "Client #" + legalCase.getClientId();
+        
+        return new Object[] {
+            legalCase.getCaseNumber(),
+            legalCase.getTitle(),
+            legalCase.getCaseType(),
+            legalCase.getStatus(),
+            clientName,
+            legalCase.getFileDate() != null ? legalCase.getFileDate().toString() : "",
+            legalCase.getCourt() != null ? legalCase.getCourt() : ""
+        };
+    }
+    
     /**
      * Update the enabled state of buttons based on table selection
      */
@@ -306,14 +314,12 @@ public class CasesPanel extends JPanel {
         // Get case number from selected row
         String caseNumber = casesTable.getValueAt(selectedRow, 0).toString();
         
-        try {
-            // Get the case
+        // Load the case with all details in the background
+        caseLoader.load(() -> {
             Case legalCase = caseController.getCaseByCaseNumber(caseNumber);
-            
-            if (legalCase != null) {
-                // Load case with all details
-                Case caseWithDetails = caseController.getCaseWithDetails(legalCase.getId());
-                
+            return legalCase != null ? caseController.getCaseWithDetails(legalCase.getId()) : null;
+        }, caseWithDetails -> {
+            if (caseWithDetails != null) {
                 // Open case details dialog
                 CaseDetailsDialog dialog = new CaseDetailsDialog(
                     SwingUtilities.getWindowAncestor(this), caseWithDetails);
@@ -322,15 +328,14 @@ public class CasesPanel extends JPanel {
                 // Refresh the cases list after the dialog is closed
                 loadCases();
             }
-            
-        } catch (Exception e) {
+        }, e -> {
             SwingUtils.showErrorMessage(
                 this,
                 "Error viewing case details: " + e.getMessage(),
                 "Database Error"
             );
             e.printStackTrace();
-        }
+        });
     }
     
     /**
@@ -371,14 +376,13 @@ public class CasesPanel extends JPanel {
         // Get case number from selected row
         String caseNumber = casesTable.getValueAt(selectedRow, 0).toString();
         
-        try {
-            // Get the case
+        // Load case with the client and attorneys the editor needs in the background
+        caseLoader.load(() -> {
             Case legalCase = caseController.getCaseByCaseNumber(caseNumber);
-            
-            if (legalCase != null) {
-                // Load case with all details
-                Case caseWithDetails = caseController.getCaseWithDetails(legalCase.getId());
-                
+            return legalCase != null ? caseController.getCase(legalCase.getId(),
+                CaseFetchPlan.of(CaseFetchPlan.Association.CLIENT, CaseFetchPlan.Association.ATTORNEYS)) : null;
+        }, caseWithDetails -> {
+            if (caseWithDetails != null) {
                 // Open case editor dialog
                 CaseEditorDialog dialog = new CaseEditorDialog(
                     SwingUtilities.getWindowAncestor(this), caseWithDetails);
@@ -389,15 +393,14 @@ public class CasesPanel extends JPanel {
                     loadCases();
                 }
             }
-            
-        } catch (Exception e) {
+        }, e -> {
             SwingUtils.showErrorMessage(
                 this,
                 "Error editing case: " + e.getMessage(),
                 "Database Error"
             );
             e.printStackTrace();
-        }
+        });
     }
     
     /**
@@ -422,40 +425,39 @@ public class CasesPanel extends JPanel {
         );
         
         if (confirmed) {
-            try {
-                // Get the case
+            // Delete the case in the background; null if it no longer exists
+            deleteLoader.load(() -> {
                 Case legalCase = caseController.getCaseByCaseNumber(caseNumber);
+                return legalCase != null ? caseController.deleteCase(legalCase.getId()) : null;
+            }, success -> {
+                if (success == null) {
+                    return;
+                }
                 
-                if (legalCase != null) {
-                    // Delete the case
-                    boolean success = caseController.deleteCase(legalCase.getId());
+                if (success) {
+                    SwingUtils.showInfoMessage(
+                        this,
+                        "Case deleted successfully.",
+                        "Success"
+                    );
                     
-                    if (success) {
-                        SwingUtils.showInfoMessage(
-                            this,
-                            "Case deleted successfully.",
-                            "Success"
-                        );
-                        
-                        // Refresh the cases list
-                        loadCases();
-                    } else {
-                        SwingUtils.showErrorMessage(
-                            this,
-                            "Failed to delete case. It may have related records that must be deleted first.",
-                            "Deletion Error"
-                        );
-                    }
+                    // Refresh the cases list
+                    loadCases();
+                } else {
+                    SwingUtils.showErrorMessage(
+                        this,
+                        "Failed to delete case. It may have related records that must be deleted first.",
+                        "Deletion Error"
+                    );
                 }
-                
-            } catch (Exception e) {
+            }, e -> {
                 SwingUtils.showErrorMessage(
                     this,
                     "Error deleting case: " + e.getMessage(),
                     "Database Error"
                 );
                 e.printStackTrace();
-            }
+            });
         }
     }
     
@@ -475,6 +477,9 @@ public class CasesPanel extends JPanel {
                     loadCases();
                 }
             );
+            
+            // "All" searches the in-memory index, which is cheap enough for every keystroke
+            setInstantSearch(type -> "All".equals(type) && searchController.isReady());
         }
     }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ import java.time.format.DateTimeParseException;
 import model.Client;
 import controller.ClientController;
 import view.util.UIConstants;
+import view.util.SwingUtils;
 import view.components.DateChooser;
 
 /**
@@ -246,24 +247,11 @@ public class ClientEditorDialog extends JDialog {
             // Disable client ID field when editing
             clientIdField.setEditable(false);
         } else {
-            // Generate a new client ID for new clients
-            clientIdField.setText(generateClientId());
+            // New clients get their ID when saved
+            SwingUtils.showAssignedOnSave(clientIdField);
         }
     }
     
-    /**
-     * Generate a new client ID
-     * 
-     * @return A new client ID
-     */
-    private String generateClientId() {
-        // Format: CLI-YYYY-XXXX where XXXX is a random number
-        String year = Integer.toString(LocalDate.now().getYear());
-        int randomNum = 1000 + (int)(Math.random() * 9000); // Random 4-digit number
-        
-        return "CLI-" + year + "-" + randomNum;
-    }
-    
     /**
      * Validate form data
      * 
@@ -330,7 +318,10 @@ public class ClientEditorDialog extends JDialog {
                 client = new Client();
             }
             
-            client.setClientId(clientIdField.getText().trim());
+            if (client.getId() != 0) {
+                // New clients keep no ID, so the controller assigns one
+                client.setClientId(clientIdField.getText().trim());
+            }
             client.setName(nameField.getText().trim());
             client.setEmail(emailField.getText().trim());
             client.setPhone(phoneField.getText().trim());
@@ -6,12 +6,17 @@ import java.awt.*;
 import java.awt.event.*;
 import javax.swing.event.*;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import model.Client;
 import controller.ClientController;
+import controller.SearchController;
+import dao.PageRequest;
 import view.components.CustomTable;
+import view.components.PagedTableLoader;
 import view.components.TableFilterPanel;
 import view.components.StatusIndicator;
+import view.util.AsyncLoader;
 import view.util.UIConstants;
 import view.util.SwingUtils;
 
@@ -20,8 +25,10 @@ import view.util.SwingUtils;
  */
 public class ClientsPanel extends JPanel {
     private ClientController clientController;
+    private SearchController searchController;
     private CustomTable clientsTable;
     private ClientFilterPanel filterPanel;
+    private PagedTableLoader<Client> clientsLoader;
     
     private JButton addButton;
     private JButton editButton;
@@ -33,8 +40,11 @@ public class ClientsPanel extends JPanel {
      */
     public ClientsPanel() {
         this.clientController = new ClientController();
+        this.searchController = new SearchController();
         
         initializeUI();
+        this.clientsLoader = new PagedTableLoader<>(clientsTable, new AsyncLoader(this),
+                PageRequest.DEFAULT_PAGE_SIZE, clientController::getClientsPage, this::toTableRow);
         loadClients();
     }
     
@@ -187,68 +197,64 @@ public class ClientsPanel extends JPanel {
      * Load clients from the database
      */
     private void loadClients() {
-        try {
-            // Clear existing data
-            clientsTable.clearTable();
-            clientsTable.clearFilters();
-            
-            // Get clients from controller
-            List<Client> clients;
-            
-            String filterType = filterPanel.getSelectedFilterType();
-            String searchText = filterPanel.getSearchText();
-            
-            if (searchText != null && !searchText.isEmpty()) {
-                if ("Name".equals(filterType)) {
-                    clients = clientController.findClientsByName(searchText);
-                } else if ("Type".equals(filterType)) {
-                    clients = clientController.findClientsByType(searchText);
-                } else {
-                    // Apply filter to the view instead of database for "All"
-                    clients = clientController.getAllClients();
-                    clientsTable.addFilter(2, searchText); // Client Type column
-                    clientsTable.addFilter(1, searchText); // Name column
-                }
+        clientsTable.clearFilters();
+        
+        // Search results are loaded in full; otherwise clients are paged in as the user scrolls
+        Callable<List<Client>> search = null;
+        
+        String filterType = filterPanel.getSelectedFilterType();
+        String searchText = filterPanel.getSearchText();
+        
+        if (searchText != null && !searchText.isEmpty()) {
+            if ("Name".equals(filterType)) {
+                search = () -> clientController.findClientsByName(searchText);
+            } else if ("Type".equals(filterType)) {
+                search = () -> clientController.findClientsByType(searchText);
             } else {
-                clients = clientController.getAllClients();
+                // Instant search in memory once the index is built, database search until then
+                search = searchController.isReady()
+                        ? () -> searchController.findClients(searchText)
+                        : () -> clientController.findClientsByName(searchText);
             }
-            
-            // Populate table
-            for (Client client : clients) {
-                Object[] row = {
-                    client.getClientId(),
-                    client.getName(),
-                    client.getClientType(),
-                    client.getContactPerson() != null ? client.getContactPerson() : "",
-                    client.getEmail(),
-                    client.getPhone() != null ? client.getPhone() : "",
-                    client.getRegistrationDate() != null ? client.getRegistrationDate().toString() : ""
-                };
-                clientsTable.addRow(row);
-            }
-            
-            // Display a message if no clients found
-            if (clients.isEmpty() && (searchText == null || searchText.isEmpty())) {
-                SwingUtils.showInfoMessage(
-                    this,
-                    "No clients found. Add a new client to get started.",
-                    "No Clients"
-                );
-            }
-            
-            // Update button states
-            updateButtonStates();
-            
-        } catch (Exception e) {
-            SwingUtils.showErrorMessage(
-                this,
-                "Error loading clients: " + e.getMessage(),
-                "Database Error"
-            );
-            e.printStackTrace();
+        }
+        
+        // Populate table in the background
+        if (search != null) {
+            clientsLoader.loadAll(search, loaded -> updateButtonStates());
+        } else {
+            clientsLoader.reload(loaded -> {
+                // Display a message if no clients found
+                if (loaded == 0 && (searchText == null || searchText.isEmpty())) {
+                    SwingUtils.showInfoMessage(
+                        this,
+                        "No clients found. Add a new client to get started.",
+                        "No Clients"
+                    );
+                }
+                
+                updateButtonStates();
+            });
         }
     }
     
+    /**
+     * Convert a client to a table row
+     * 
+     * @param client The client
+     * @return The row data
+     */
+    private Object[] toTableRow(Client client) {
+        return new Object[] {
+            client.getClientId(),
+            client.getName(),
+            client.getClientType(),
+            client.getContactPerson() != null ? client.getContactPerson() : "",
+            client.getEmail(),
+            client.getPhone() != null ? client.getPhone() : "",
+            client.getRegistrationDate() != null ? client.getRegistrationDate().toString() : ""
+        };
+    }
+    
     /**
      * Update the enabled state of buttons based on table selection
      */
@@ -430,6 +436,9 @@ public class ClientsPanel extends JPanel {
                     loadClients();
                 }
             );
+            
+            // "All" searches the in-memory index, which is cheap enough for every keystroke
+            setInstantSearch(type -> "All".equals(type) && searchController.isReady());
         }
         
         /**
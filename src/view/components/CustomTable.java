@@ -19,6 +19,17 @@ public class CustomTable extends JPanel {
     private DefaultTableModel tableModel;
     private TableRowSorter<TableModel> rowSorter;
     private List<RowFilter<Object, Object>> filters;
+    private JScrollPane scrollPane;
+    
+    // Set when rows come from a row provider instead of the table model
+    private LazyTableModel lazyModel;
+    
+    // Notified when the user scrolls close to the last row
+    private Runnable scrollEndListener;
+    private boolean scrollEndPending;
+    
+    // How many rows before the end the scroll end listener fires
+    private static final int SCROLL_END_ROWS = 10;
     
     /**
      * Constructor with column names
@@ -39,6 +50,32 @@ public class CustomTable extends JPanel {
         initializeUI();
     }
     
+    /**
+     * Constructor for a lazy table. Rows are fetched from the provider in
+     * blocks as they scroll into view and only recently viewed blocks stay
+     * in memory. Lazy tables cannot be sorted, filtered or edited, and rows
+     * cannot be added directly: the methods doing so leave a lazy table
+     * unchanged, and {@link #clearTable()} reloads it from the provider.
+     * 
+     * @param columnNames Array of column names
+     * @param provider Source of the rows
+     */
+    public CustomTable(String[] columnNames, TableRowProvider provider) {
+        filters = new ArrayList<>();
+        
+        // Keep an empty default model so getTableModel() stays usable
+        tableModel = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        lazyModel = new LazyTableModel(columnNames, provider);
+        
+        initializeUI();
+        lazyModel.refresh();
+    }
+    
     /**
      * Initialize UI components
      */
@@ -46,11 +83,12 @@ public class CustomTable extends JPanel {
         setLayout(new BorderLayout());
         
         // Create table
-        table = new JTable(tableModel);
+        table = new JTable(isLazy() ? lazyModel : tableModel);
         table.setFont(UIConstants.NORMAL_FONT);
         table.setRowHeight(UIConstants.TABLE_ROW_HEIGHT);
         table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        table.setAutoCreateRowSorter(true);
+        // A sorter would read every row, which defeats lazy loading
+        table.setAutoCreateRowSorter(!isLazy());
         
         // Customize appearance
         table.setShowGrid(true);
@@ -80,32 +118,114 @@ public class CustomTable extends JPanel {
         });
         
         // Add row sorter for filtering
-        rowSorter = new TableRowSorter<>(tableModel);
-        table.setRowSorter(rowSorter);
+        if (!isLazy()) {
+            rowSorter = new TableRowSorter<>(tableModel);
+            table.setRowSorter(rowSorter);
+        }
         
         // Add table to scroll pane
-        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane = new JScrollPane(table);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        scrollPane.getVerticalScrollBar().getModel().addChangeListener(e -> checkScrollEnd());
         
         add(scrollPane, BorderLayout.CENTER);
     }
     
     /**
-     * Add a row of data to the table
+     * Add a row of data to the table. A lazy table takes its rows from
+     * the provider only and ignores the row.
      * 
      * @param rowData Array of row data
+     * @return true if the row was added
      */
-    public void addRow(Object[] rowData) {
+    public boolean addRow(Object[] rowData) {
+        if (isLazy()) {
+            return false;
+        }
         tableModel.addRow(rowData);
+        return true;
     }
     
     /**
-     * Clear all rows from the table
+     * Clear all rows from the table. A lazy table drops its cached rows
+     * and reloads them from the provider instead.
      */
     public void clearTable() {
+        if (isLazy()) {
+            lazyModel.refresh();
+            return;
+        }
         tableModel.setRowCount(0);
     }
     
+    /**
+     * Check whether rows come from a row provider
+     * 
+     * @return true for a lazy table
+     */
+    public boolean isLazy() {
+        return lazyModel != null;
+    }
+    
+    /**
+     * Reload the row count and drop cached rows of a lazy table
+     */
+    public void refresh() {
+        if (isLazy()) {
+            lazyModel.refresh();
+        }
+    }
+    
+    /**
+     * Get the lazy table model
+     * 
+     * @return The lazy model, or null if the table is not lazy
+     */
+    public LazyTableModel getLazyModel() {
+        return lazyModel;
+    }
+    
+    /**
+     * Set the listener notified when the user scrolls near the last row,
+     * or when all rows fit in the view. Used to fetch further pages.
+     * 
+     * @param listener The listener, or null to remove it
+     */
+    public void setScrollEndListener(Runnable listener) {
+        this.scrollEndListener = listener;
+    }
+    
+    /**
+     * Notify the scroll end listener if the view is showing the last rows.
+     * The check runs later on the event dispatch thread, after pending
+     * layout has updated the scroll bar, and the listener may add rows
+     * without re-entering the scroll bar's change notification.
+     */
+    public void checkScrollEnd() {
+        if (scrollEndListener == null || scrollEndPending) {
+            return;
+        }
+        
+        scrollEndPending = true;
+        SwingUtilities.invokeLater(() -> {
+            scrollEndPending = false;
+            if (scrollEndListener != null && isScrolledToEnd()) {
+                scrollEndListener.run();
+            }
+        });
+    }
+    
+    /**
+     * Check whether the last rows of the table are in view
+     * 
+     * @return true if fewer than a few rows remain below the view
+     */
+    private boolean isScrolledToEnd() {
+        BoundedRangeModel model = scrollPane.getVerticalScrollBar().getModel();
+        int remaining = model.getMaximum() - (model.getValue() + model.getExtent());
+        return remaining <= table.getRowHeight() * SCROLL_END_ROWS;
+    }
+    
     /**
      * Get the selected row index
      * 
@@ -129,7 +249,7 @@ public class CustomTable extends JPanel {
      * @return The cell data
      */
     public Object getValueAt(int row, int column) {
-        return tableModel.getValueAt(row, column);
+        return table.getModel().getValueAt(row, column);
     }
     
     /**
@@ -151,28 +271,33 @@ public class CustomTable extends JPanel {
     }
     
     /**
-     * Add a text filter to the specified column
+     * Add a text filter to the specified column. A lazy table cannot
+     * filter, since that would read every row, and ignores the filter.
      * 
      * @param column The column index to filter
      * @param searchText The text to search for
+     * @return true if the filter was applied
      */
-    public void addFilter(int column, String searchText) {
-        if (searchText != null && !searchText.isEmpty()) {
-            RowFilter<Object, Object> filter = RowFilter.regexFilter(
-                "(?i)" + searchText, column);
-            filters.add(filter);
-            applyFilters();
+    public boolean addFilter(int column, String searchText) {
+        if (searchText == null || searchText.isEmpty()) {
+            return true;
         }
+        return addFilter(RowFilter.regexFilter("(?i)" + searchText, column));
     }
     
     /**
-     * Add a custom filter using a predicate
+     * Add a custom filter using a predicate. A lazy table ignores it.
      * 
      * @param filter The row filter to add
+     * @return true if the filter was applied
      */
-    public void addFilter(RowFilter<Object, Object> filter) {
+    public boolean addFilter(RowFilter<Object, Object> filter) {
+        if (isLazy()) {
+            return false;
+        }
         filters.add(filter);
         applyFilters();
+        return true;
     }
     
     /**
@@ -180,7 +305,9 @@ public class CustomTable extends JPanel {
      */
     public void clearFilters() {
         filters.clear();
-        rowSorter.setRowFilter(null);
+        if (rowSorter != null) {
+            rowSorter.setRowFilter(null);
+        }
     }
     
     /**
@@ -237,7 +364,7 @@ public class CustomTable extends JPanel {
      * @return The row count
      */
     public int getRowCount() {
-        return tableModel.getRowCount();
+        return table.getModel().getRowCount();
     }
     
     /**
@@ -260,11 +387,16 @@ public class CustomTable extends JPanel {
     }
     
     /**
-     * Set whether cells are editable
+     * Set whether cells are editable. Cells of a lazy table stay read-only,
+     * since edits would be lost when their block is dropped from memory.
      * 
      * @param editable Whether cells should be editable
+     * @return true if the setting was applied
      */
-    public void setCellsEditable(boolean editable) {
+    public boolean setCellsEditable(boolean editable) {
+        if (isLazy()) {
+            return !editable;
+        }
         tableModel = new DefaultTableModel(tableModel.getDataVector(), getColumnNames()) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -274,6 +406,7 @@ public class CustomTable extends JPanel {
         table.setModel(tableModel);
         rowSorter = new TableRowSorter<>(tableModel);
         table.setRowSorter(rowSorter);
+        return true;
     }
     
     /**
@@ -0,0 +1,225 @@
+package view.components;
+
+import javax.swing.*;
+import java.awt.*;
+import java.lang.ref.SoftReference;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import view.util.AsyncLoader;
+
+/**
+ * Card container that builds its cards on demand. A lazy card is created
+ * by its factory the first time it is shown, so a window with many
+ * sections opens as fast as its first section alone, and each section's
+ * data is loaded once the user actually goes there.
+ * <p>
+ * Two optional policies work in the background on the Event Dispatch
+ * Thread, checked every couple of seconds:
+ * <ul>
+ * <li>Idle preloading builds queued cards one at a time, once the user has
+ * not switched cards for a few seconds and no background load is
+ * running, so later visits are instant without slowing the first screen.</li>
+ * <li>Eviction detaches lazy cards that have not been shown for a while.
+ * An evicted card is only softly referenced: shown again before the
+ * garbage collector needs the memory, it comes back as it was; otherwise
+ * it is built anew, with fresh data.</li>
+ * </ul>
+ * Call {@link #dispose} when the window closes.
+ */
+public class LazyCardPanel extends JPanel {
+    // Time without switching cards before preloading starts, in milliseconds
+    private static final int IDLE_DELAY = 5000;
+
+    // Interval between checks for idle time and cards to evict, in milliseconds
+    private static final int CHECK_INTERVAL = 2000;
+
+    private final CardLayout cardLayout = new CardLayout();
+    private final Map<String, Card> cards = new LinkedHashMap<>();
+    private final Deque<String> preloadQueue = new ArrayDeque<>();
+    private final Timer idleTimer;
+
+    private final AsyncLoader.ActivityListener activityListener = loads -> activeLoads = loads;
+    private int activeLoads;
+
+    private String currentCard;
+    private long lastSwitchMillis = System.currentTimeMillis();
+    private long evictionDelayMillis;
+
+    /**
+     * Constructor
+     */
+    public LazyCardPanel() {
+        setLayout(cardLayout);
+        setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 0));
+
+        idleTimer = new Timer(CHECK_INTERVAL, e -> checkIdle());
+        AsyncLoader.addActivityListener(activityListener);
+    }
+
+    /**
+     * Add a card that is built already and never evicted
+     *
+     * @param name The card name
+     * @param component The card
+     */
+    public void addCard(String name, JComponent component) {
+        Card card = new Card(null);
+        cards.put(name, card);
+        attach(name, card, component);
+        if (currentCard == null) {
+            currentCard = name;
+        }
+    }
+
+    /**
+     * Add a card that is built the first time it is needed
+     *
+     * @param name The card name
+     * @param factory Builds the card on the Event Dispatch Thread
+     */
+    public void addLazyCard(String name, Supplier<? extends JComponent> factory) {
+        cards.put(name, new Card(factory));
+    }
+
+    /**
+     * Show a card, building it first if needed
+     *
+     * @param name The card name
+     * @return The card shown
+     */
+    public JComponent show(String name) {
+        JComponent component = getCard(name);
+        cardLayout.show(this, name);
+        currentCard = name;
+        lastSwitchMillis = System.currentTimeMillis();
+        cards.get(name).lastShownMillis = lastSwitchMillis;
+        return component;
+    }
+
+    /**
+     * Get a card without showing it, building it first if needed
+     *
+     * @param name The card name
+     * @return The card
+     * @throws IllegalArgumentException If no card has the name
+     */
+    public JComponent getCard(String name) {
+        Card card = cards.get(name);
+        if (card == null) {
+            throw new IllegalArgumentException("No card named " + name);
+        }
+        if (card.component == null) {
+            JComponent evicted = card.evicted != null ? card.evicted.get() : null;
+            attach(name, card, evicted != null ? evicted : card.factory.get());
+        }
+        return card.component;
+    }
+
+    /**
+     * Check whether a card has been built and is attached
+     *
+     * @param name The card name
+     * @return true if the card is ready to show
+     */
+    public boolean isBuilt(String name) {
+        Card card = cards.get(name);
+        return card != null && card.component != null;
+    }
+
+    /**
+     * Queue cards to build while the user is idle, in the given order
+     *
+     * @param names The card names
+     */
+    public void preloadWhenIdle(String... names) {
+        for (String name : names) {
+            if (cards.containsKey(name)) {
+                preloadQueue.add(name);
+            }
+        }
+        updateTimer();
+    }
+
+    /**
+     * Set how long a lazy card may go unshown before it is evicted
+     *
+     * @param millis The delay in milliseconds, or 0 to never evict
+     */
+    public void setEvictionDelay(long millis) {
+        evictionDelayMillis = millis;
+        updateTimer();
+    }
+
+    /**
+     * Stop the background checks
+     */
+    public void dispose() {
+        idleTimer.stop();
+        preloadQueue.clear();
+        AsyncLoader.removeActivityListener(activityListener);
+    }
+
+    private void attach(String name, Card card, JComponent component) {
+        card.component = component;
+        card.evicted = null;
+        card.lastShownMillis = System.currentTimeMillis();
+        add(component, name);
+    }
+
+    private void checkIdle() {
+        long now = System.currentTimeMillis();
+
+        // One card per check, so the loads of each finish before the next starts
+        if (activeLoads == 0 && now - lastSwitchMillis >= IDLE_DELAY) {
+            while (!preloadQueue.isEmpty()) {
+                String name = preloadQueue.poll();
+                if (!isBuilt(name)) {
+                    getCard(name);
+                    break;
+                }
+            }
+        }
+
+        if (evictionDelayMillis > 0) {
+            for (Map.Entry<String, Card> entry : cards.entrySet()) {
+                Card card = entry.getValue();
+                if (card.factory != null && card.component != null && !entry.getKey().equals(currentCard)
+                        && now - card.lastShownMillis >= evictionDelayMillis) {
+                    remove(card.component);
+                    card.evicted = new SoftReference<>(card.component);
+                    card.component = null;
+                }
+            }
+        }
+
+        updateTimer();
+    }
+
+    private void updateTimer() {
+        if (preloadQueue.isEmpty() && evictionDelayMillis <= 0) {
+            idleTimer.stop();
+        } else if (!idleTimer.isRunning()) {
+            idleTimer.start();
+        }
+    }
+
+    /**
+     * A card and how to build it
+     */
+    private static final class Card {
+        // Null for cards added built, which are never evicted
+        final Supplier<? extends JComponent> factory;
+
+        JComponent component;
+        SoftReference<JComponent> evicted;
+        long lastShownMillis;
+
+        Card(Supplier<? extends JComponent> factory) {
+            this.factory = factory;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package view.components;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table model that fetches rows in fixed-size blocks from a
+ * {@link TableRowProvider} as they are painted, and keeps only the most
+ * recently used blocks in memory. Blocks load on a background thread;
+ * cells of a block that is still loading are shown empty and repainted
+ * once it arrives. All cache state is confined to the event dispatch thread.
+ */
+public class LazyTableModel extends AbstractTableModel {
+    
+    /** Default number of rows fetched per block */
+    public static final int DEFAULT_BLOCK_SIZE = 200;
+    
+    /** Default number of blocks kept in memory */
+    public static final int DEFAULT_CACHED_BLOCKS = 20;
+    
+    private final String[] columnNames;
+    private final TableRowProvider provider;
+    private final int blockSize;
+    private final int maxCachedBlocks;
+    
+    private final Map<Integer, List<Object[]>> blocks;
+    private final Set<Integer> pendingBlocks = new HashSet<>();
+    private final ThreadPoolExecutor loader;
+    
+    private int rowCount;
+    private int generation;
+    
+    // Written on the EDT, read by the loader to skip blocks scrolled past
+    private volatile int lastRequestedBlock;
+    
+    /**
+     * Constructor using the default block size and cache size
+     * 
+     * @param columnNames Column names
+     * @param provider Source of the rows
+     */
+    public LazyTableModel(String[] columnNames, TableRowProvider provider) {
+        this(columnNames, provider, DEFAULT_BLOCK_SIZE, DEFAULT_CACHED_BLOCKS);
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param columnNames Column names
+     * @param provider Source of the rows
+     * @param blockSize Number of rows fetched per block
+     * @param maxCachedBlocks Number of blocks kept in memory
+     */
+    public LazyTableModel(String[] columnNames, TableRowProvider provider,
+                          int blockSize, int maxCachedBlocks) {
+        this.columnNames = columnNames.clone();
+        this.provider = provider;
+        this.blockSize = blockSize;
+        this.maxCachedBlocks = maxCachedBlocks;
+        
+        this.blocks = new LinkedHashMap<Integer, List<Object[]>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Object[]>> eldest) {
+                return size() > LazyTableModel.this.maxCachedBlocks;
+            }
+        };
+        
+        // One loader thread that exits when idle, so the model needs no disposal
+        this.loader = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "lazy-table-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.loader.allowCoreThreadTimeOut(true);
+    }
+    
+    /**
+     * Drop all cached rows and reload the row count from the provider.
+     * Must be called on the event dispatch thread.
+     */
+    public void refresh() {
+        final int refreshGeneration = ++generation;
+        blocks.clear();
+        pendingBlocks.clear();
+        
+        loader.execute(() -> {
+            int count;
+            try {
+                count = provider.getRowCount();
+            } catch (Exception e) {
+                e.printStackTrace();
+                count = 0;
+            }
+            
+            final int newCount = count;
+            SwingUtilities.invokeLater(() -> {
+                if (refreshGeneration == generation) {
+                    rowCount = newCount;
+                    fireTableDataChanged();
+                }
+            });
+        });
+    }
+    
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+    
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+    
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+    
+    @Override
+    public Object getValueAt(int row, int column) {
+        int block = row / blockSize;
+        List<Object[]> rows = blocks.get(block);
+        if (rows == null) {
+            requestBlock(block);
+            return null;
+        }
+        
+        int index = row % blockSize;
+        return index < rows.size() ? rows.get(index)[column] : null;
+    }
+    
+    /**
+     * Check whether a row is currently held in memory
+     * 
+     * @param row The row index
+     * @return true if the row's block is cached
+     */
+    public boolean isRowLoaded(int row) {
+        return blocks.containsKey(row / blockSize);
+    }
+    
+    /**
+     * Get the number of blocks currently held in memory
+     * 
+     * @return The cached block count
+     */
+    public int getCachedBlockCount() {
+        return blocks.size();
+    }
+    
+    /**
+     * Queue a block for loading unless it is already on its way
+     * 
+     * @param block The block index
+     */
+    private void requestBlock(final int block) {
+        lastRequestedBlock = block;
+        if (!pendingBlocks.add(block)) {
+            return;
+        }
+        
+        final int requestGeneration = generation;
+        loader.execute(() -> {
+            // Skip blocks the user has scrolled well past before their turn came
+            List<Object[]> rows = null;
+            if (Math.abs(block - lastRequestedBlock) < maxCachedBlocks) {
+                try {
+                    rows = provider.fetchRows(block * blockSize, blockSize);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    rows = Collections.emptyList();
+                }
+            }
+            
+            final List<Object[]> loaded = rows;
+            SwingUtilities.invokeLater(() -> blockLoaded(block, loaded, requestGeneration));
+        });
+    }
+    
+    /**
+     * Store a loaded block and repaint its rows
+     * 
+     * @param block The block index
+     * @param rows The rows, or null if the request was skipped
+     * @param requestGeneration Generation the block was requested in
+     */
+    private void blockLoaded(int block, List<Object[]> rows, int requestGeneration) {
+        if (requestGeneration != generation) {
+            return;
+        }
+        
+        pendingBlocks.remove(block);
+        if (rows == null) {
+            return;
+        }
+        
+        blocks.put(block, rows);
+        int firstRow = block * blockSize;
+        int lastRow = Math.min(firstRow + blockSize, rowCount) - 1;
+        if (firstRow <= lastRow) {
+            fireTableRowsUpdated(firstRow, lastRow);
+        }
+    }
+}
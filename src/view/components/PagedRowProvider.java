@@ -0,0 +1,78 @@
+package view.components;
+
+import dao.Page;
+import dao.PageCursor;
+import dao.PageRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+/**
+ * Row provider backed by a keyset-paged query. The cursor at the end of
+ * every fetched block is remembered, so reading the following block is a
+ * cheap keyset seek; only a jump to a block nothing has led up to yet
+ * falls back to an offset query.
+ *
+ * @param <T> The entity type
+ */
+public class PagedRowProvider<T> implements TableRowProvider {
+    private final IntSupplier counter;
+    private final Function<PageRequest, Page<T>> fetcher;
+    private final Function<T, Object[]> rowMapper;
+    private final PageRequest baseRequest;
+    
+    // Cursor positioned just before each known row index
+    private final Map<Integer, PageCursor> cursors = new ConcurrentHashMap<>();
+    
+    /**
+     * Constructor
+     * 
+     * @param counter Counts the rows
+     * @param fetcher Fetches the page described by a request
+     * @param rowMapper Converts an entity to a table row
+     * @param baseRequest Request carrying the sort order; its page size is ignored
+     */
+    public PagedRowProvider(IntSupplier counter, Function<PageRequest, Page<T>> fetcher,
+                            Function<T, Object[]> rowMapper, PageRequest baseRequest) {
+        this.counter = counter;
+        this.fetcher = fetcher;
+        this.rowMapper = rowMapper;
+        this.baseRequest = baseRequest;
+    }
+    
+    @Override
+    public int getRowCount() {
+        // Rows may have moved since the last count
+        cursors.clear();
+        return counter.getAsInt();
+    }
+    
+    @Override
+    public List<Object[]> fetchRows(int firstRow, int rowCount) {
+        PageRequest request = PageRequest.first(rowCount);
+        if (baseRequest.getSortKey() != null) {
+            request = request.sortedBy(baseRequest.getSortKey(), baseRequest.isAscending());
+        }
+        
+        PageCursor cursor = cursors.get(firstRow);
+        if (cursor != null) {
+            request = request.after(cursor);
+        } else if (firstRow > 0) {
+            request = request.atOffset(firstRow);
+        }
+        
+        Page<T> page = fetcher.apply(request);
+        if (page.hasMore()) {
+            cursors.put(firstRow + page.getItems().size(), page.getNextCursor());
+        }
+        
+        List<Object[]> rows = new ArrayList<>(page.getItems().size());
+        for (T item : page.getItems()) {
+            rows.add(rowMapper.apply(item));
+        }
+        return rows;
+    }
+}
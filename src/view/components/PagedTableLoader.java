@@ -0,0 +1,178 @@
+package view.components;
+
+import dao.Page;
+import dao.PageCursor;
+import dao.PageRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import view.util.AsyncLoader;
+import view.util.SwingUtils;
+
+/**
+ * Fills a {@link CustomTable} one page at a time. The first page is
+ * loaded by {@link #reload}; further pages are appended when the user
+ * scrolls near the end of the table, so a list is only read as far as
+ * it is scrolled. The pages read so far stay in the table; for lists too
+ * long for that, use a lazy {@link CustomTable} with a
+ * {@link PagedRowProvider}, which keeps a bounded window of rows.
+ * <p>
+ * Pages are fetched and converted to rows through the panel's
+ * {@link AsyncLoader}, so a newer request of the panel, such as a search,
+ * supersedes a page still on its way.
+ *
+ * @param <T> The entity type shown in the table
+ */
+public class PagedTableLoader<T> {
+    private final CustomTable table;
+    private final AsyncLoader loader;
+    private final int pageSize;
+    private final Function<PageRequest, Page<T>> fetcher;
+    private final Function<T, Object[]> rowMapper;
+    
+    private PageCursor cursor;
+    private boolean hasMore;
+    private boolean loading;
+    
+    /**
+     * Rows of a fetched page, converted in the background
+     */
+    private static class PageRows {
+        private final List<Object[]> rows;
+        private final PageCursor nextCursor;
+        
+        private PageRows(List<Object[]> rows, PageCursor nextCursor) {
+            this.rows = rows;
+            this.nextCursor = nextCursor;
+        }
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param table The table to fill
+     * @param loader Loader of the owning panel
+     * @param pageSize Number of rows fetched per page
+     * @param fetcher Fetches the page described by a request
+     * @param rowMapper Converts an entity to a table row; runs in the background
+     */
+    public PagedTableLoader(CustomTable table, AsyncLoader loader, int pageSize,
+                            Function<PageRequest, Page<T>> fetcher,
+                            Function<T, Object[]> rowMapper) {
+        this.table = table;
+        this.loader = loader;
+        this.pageSize = pageSize;
+        this.fetcher = fetcher;
+        this.rowMapper = rowMapper;
+        
+        table.setScrollEndListener(this::loadNextPage);
+    }
+    
+    /**
+     * Start again from the first page. When it arrives it replaces the
+     * rows of the table.
+     * 
+     * @param firstPageLoaded Receives the number of rows in the first page
+     */
+    public void reload(IntConsumer firstPageLoaded) {
+        cursor = null;
+        hasMore = false;
+        loading = true;
+        
+        final PageRequest request = PageRequest.first(pageSize);
+        loader.load(() -> fetchRows(request), page -> {
+            loading = false;
+            table.clearTable();
+            appendPage(page);
+            firstPageLoaded.accept(page.rows.size());
+        }, this::loadFailed);
+    }
+    
+    /**
+     * Stop paging and replace the rows of the table with a complete
+     * result, such as a search, once it has loaded
+     * 
+     * @param query Loads all rows to show
+     * @param loaded Receives the number of rows loaded
+     */
+    public void loadAll(Callable<List<T>> query, IntConsumer loaded) {
+        cursor = null;
+        hasMore = false;
+        loading = false;
+        
+        loader.load(() -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (T item : query.call()) {
+                rows.add(rowMapper.apply(item));
+            }
+            return rows;
+        }, rows -> {
+            table.clearTable();
+            for (Object[] row : rows) {
+                table.addRow(row);
+            }
+            loaded.accept(rows.size());
+        }, this::loadFailed);
+    }
+    
+    /**
+     * Fetch the next page in the background and append it to the table,
+     * unless a page is already on its way or the last page was reached
+     */
+    public void loadNextPage() {
+        if (!hasMore || loading) {
+            return;
+        }
+        
+        loading = true;
+        final PageRequest request = PageRequest.first(pageSize).after(cursor);
+        loader.load(() -> fetchRows(request), page -> {
+            loading = false;
+            appendPage(page);
+        }, this::loadFailed);
+    }
+    
+    /**
+     * Check whether more pages can be loaded
+     * 
+     * @return true if the last page has not been reached
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+    
+    private PageRows fetchRows(PageRequest request) {
+        Page<T> page = fetcher.apply(request);
+        List<Object[]> rows = new ArrayList<>(page.getItems().size());
+        for (T item : page.getItems()) {
+            rows.add(rowMapper.apply(item));
+        }
+        return new PageRows(rows, page.getNextCursor());
+    }
+    
+    private void appendPage(PageRows page) {
+        for (Object[] row : page.rows) {
+            table.addRow(row);
+        }
+        cursor = page.nextCursor;
+        hasMore = cursor != null;
+        
+        // Keep going until the view is filled or the rows run out
+        if (hasMore) {
+            table.checkScrollEnd();
+        }
+    }
+    
+    private void loadFailed(Exception e) {
+        loading = false;
+        hasMore = false;
+        e.printStackTrace();
+        SwingUtils.showErrorMessage(
+            table,
+            "Error loading data: " + e.getMessage(),
+            "Database Error"
+        );
+    }
+}
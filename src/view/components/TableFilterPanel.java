@@ -5,10 +5,16 @@ import javax.swing.border.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 import view.util.UIConstants;
 
 public class TableFilterPanel extends JPanel {
+    // Delay after the last keystroke before an instant search runs, in milliseconds
+    private static final int INSTANT_SEARCH_DELAY = 150;
+    
     private JTextField searchField;
     private JComboBox<String> filterTypeCombo;
     private JPanel additionalFiltersPanel;
@@ -19,6 +25,10 @@ public class TableFilterPanel extends JPanel {
     private Consumer<String> searchAction;
     private Runnable clearAction;
     
+    // Filter types that search while typing, or null to search on Enter only
+    private Predicate<String> instantSearchTypes;
+    private Timer instantSearchTimer;
+    
     /**
      * Constructor with minimal parameters
      * 
@@ -77,8 +87,27 @@ public class TableFilterPanel extends JPanel {
         searchField = new JTextField(20);
         searchField.setFont(UIConstants.NORMAL_FONT);
         searchField.addActionListener(e -> performSearch());
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTextChanged();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTextChanged();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTextChanged();
+            }
+        });
         mainFilterPanel.add(searchField);
         
+        instantSearchTimer = new Timer(INSTANT_SEARCH_DELAY, e -> performSearch());
+        instantSearchTimer.setRepeats(false);
+        
         // Search button
         searchButton = new JButton("Search");
         searchButton.setFont(UIConstants.NORMAL_FONT);
@@ -110,10 +139,20 @@ public class TableFilterPanel extends JPanel {
         // Subclasses can override to handle filter type changes
     }
     
+    /**
+     * Schedule an instant search if the selected filter type supports it
+     */
+    private void searchTextChanged() {
+        if (instantSearchTypes != null && instantSearchTypes.test(getSelectedFilterType())) {
+            instantSearchTimer.restart();
+        }
+    }
+    
     /**
      * Perform search with current filters
      */
     private void performSearch() {
+        instantSearchTimer.stop();
         if (searchAction != null) {
             searchAction.accept(searchField.getText());
         }
@@ -125,12 +164,24 @@ public class TableFilterPanel extends JPanel {
     private void clearFilters() {
         searchField.setText("");
         filterTypeCombo.setSelectedIndex(0);
+        instantSearchTimer.stop();
         
         if (clearAction != null) {
             clearAction.run();
         }
     }
     
+    /**
+     * Search while the user types, shortly after the last keystroke. Only
+     * worth enabling for searches that do not query the database.
+     * 
+     * @param instantSearchTypes Tells whether a filter type searches while
+     *                           typing; null searches on Enter only
+     */
+    public void setInstantSearch(Predicate<String> instantSearchTypes) {
+        this.instantSearchTypes = instantSearchTypes;
+    }
+    
     /**
      * Add a component to the additional filters panel
      * 
@@ -0,0 +1,26 @@
+package view.components;
+
+import java.util.List;
+
+/**
+ * Supplies rows to a lazy {@link CustomTable} on demand. Both methods are
+ * called on a background thread, never on the event dispatch thread.
+ */
+public interface TableRowProvider {
+    
+    /**
+     * Get the total number of rows
+     * 
+     * @return The row count
+     */
+    int getRowCount();
+    
+    /**
+     * Fetch a block of consecutive rows
+     * 
+     * @param firstRow Index of the first row to fetch
+     * @param rowCount Maximum number of rows to fetch
+     * @return The rows, fewer than requested at the end of the data
+     */
+    List<Object[]> fetchRows(int firstRow, int rowCount);
+}
@@ -23,6 +23,7 @@ public class DocumentDetailsDialog extends JDialog {
     private CaseController caseController;
     
     private JPanel documentInfoPanel;
+    private DocumentPreviewPanel previewPanel;
     private JButton closeButton;
     private JButton editButton;
     private JButton downloadButton;
@@ -48,10 +49,11 @@ public class DocumentDetailsDialog extends JDialog {
      * Initialize the user interface components
      */
     private void initializeUI() {
-        setSize(700, 500);
+        setSize(800, 600);
         setMinimumSize(new Dimension(600, 400));
         setLocationRelativeTo(getParent());
         setLayout(new BorderLayout());
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
         
         // Create title panel
         JPanel titlePanel = createTitlePanel();
@@ -63,7 +65,20 @@ public class DocumentDetailsDialog extends JDialog {
         
         // Create document info panel
         documentInfoPanel = createDocumentInfoPanel();
-        contentPanel.add(documentInfoPanel, BorderLayout.CENTER);
+        
+        // The preview opens the file only once its tab is first shown
+        previewPanel = new DocumentPreviewPanel(document, documentController);
+        
+        JTabbedPane tabbedPane = new JTabbedPane();
+        tabbedPane.setFont(UIConstants.NORMAL_FONT);
+        tabbedPane.addTab("Document Information", documentInfoPanel);
+        tabbedPane.addTab("Preview", previewPanel);
+        tabbedPane.addChangeListener(e -> {
+            if (tabbedPane.getSelectedComponent() == previewPanel) {
+                previewPanel.open();
+            }
+        });
+        contentPanel.add(tabbedPane, BorderLayout.CENTER);
         
         add(contentPanel, BorderLayout.CENTER);
         
@@ -72,6 +87,15 @@ public class DocumentDetailsDialog extends JDialog {
         add(buttonPanel, BorderLayout.SOUTH);
     }
     
+    /**
+     * Release the previewed file along with the dialog
+     */
+    @Override
+    public void dispose() {
+        previewPanel.close();
+        super.dispose();
+    }
+    
     /**
      * Create the title panel
      * 
@@ -410,30 +434,26 @@ public class DocumentDetailsDialog extends JDialog {
             if (result == JFileChooser.APPROVE_OPTION) {
                 File outputFile = fileChooser.getSelectedFile();
                 
-                // Get document content and save to file
-                byte[] content = documentController.getDocumentContent(document.getId());
-                if (content != null) {
-                    try {
-                        java.nio.file.Files.write(outputFile.toPath(), content);
-                        JOptionPane.showMessageDialog(
-                            this,
-                            "Document downloaded successfully.",
-                            "Success",
-                            JOptionPane.INFORMATION_MESSAGE
-                        );
-                    } catch (Exception e) {
-                        JOptionPane.showMessageDialog(
-                            this,
-                            "Error saving document: " + e.getMessage(),
-                            "Download Error",
-                            JOptionPane.ERROR_MESSAGE
-                        );
-                        e.printStackTrace();
-                    }
-                } else {
+                // Stream the document to the file in the background
+                DocumentTransferDialog transferDialog = new DocumentTransferDialog(
+                    this,
+                    "Downloading Document",
+                    outputFile.getName(),
+                    listener -> documentController.downloadDocument(document.getId(), outputFile, listener)
+                );
+                transferDialog.setVisible(true);
+                
+                if (transferDialog.isSucceeded()) {
+                    JOptionPane.showMessageDialog(
+                        this,
+                        "Document downloaded successfully.",
+                        "Success",
+                        JOptionPane.INFORMATION_MESSAGE
+                    );
+                } else if (!transferDialog.isCancelled()) {
                     JOptionPane.showMessageDialog(
                         this,
-                        "Could not read document content.",
+                        "Could not save document content.",
                         "Download Error",
                         JOptionPane.ERROR_MESSAGE
                     );
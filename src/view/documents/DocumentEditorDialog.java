@@ -14,7 +14,9 @@ import model.Document;
 import model.Case;
 import controller.DocumentController;
 import controller.CaseController;
+import view.util.AsyncLoader;
 import view.util.UIConstants;
+import view.util.SwingUtils;
 import view.components.DateChooser;
 
 /**
@@ -38,6 +40,7 @@ public class DocumentEditorDialog extends JDialog {
     private File uploadFile;
     private DocumentController documentController;
     private CaseController caseController;
+    private AsyncLoader dataLoader;
     private boolean documentSaved = false;
     
     /**
@@ -54,6 +57,7 @@ public class DocumentEditorDialog extends JDialog {
         this.uploadFile = uploadFile;
         this.documentController = new DocumentController();
         this.caseController = new CaseController();
+        this.dataLoader = new AsyncLoader(this);
         
         initializeUI();
         loadDocumentData();
@@ -248,14 +252,25 @@ public class DocumentEditorDialog extends JDialog {
      * Load cases for the combo box
      */
     private void loadCases() {
-        try {
-            List<Case> cases = caseController.getAllCases();
+        dataLoader.load(caseController::getAllCases, cases -> {
             caseCombo.removeAllItems();
             
             for (Case legalCase : cases) {
                 caseCombo.addItem(new CaseItem(legalCase));
             }
-        } catch (Exception e) {
+            
+            // Set case of the document being edited
+            if (document != null) {
+                int caseId = document.getCase() != null ? document.getCase().getId() : document.getCaseId();
+                for (int i = 0; i < caseCombo.getItemCount(); i++) {
+                    CaseItem item = caseCombo.getItemAt(i);
+                    if (item.getCase().getId() == caseId) {
+                        caseCombo.setSelectedIndex(i);
+                        break;
+                    }
+                }
+            }
+        }, e -> {
             e.printStackTrace();
             JOptionPane.showMessageDialog(
                 this,
@@ -263,7 +278,7 @@ public class DocumentEditorDialog extends JDialog {
                 "Database Error",
                 JOptionPane.ERROR_MESSAGE
             );
-        }
+        });
     }
     
     /**
@@ -283,26 +298,6 @@ public class DocumentEditorDialog extends JDialog {
                 }
             }
             
-            // Set case
-            if (document.getCase() == null && document.getCaseId() > 0) {
-                try {
-                    Case legalCase = caseController.getCaseById(document.getCaseId());
-                    document.setCase(legalCase);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }
-            
-            if (document.getCase() != null) {
-                for (int i = 0; i < caseCombo.getItemCount(); i++) {
-                    CaseItem item = caseCombo.getItemAt(i);
-                    if (item.getCase().getId() == document.getCase().getId()) {
-                        caseCombo.setSelectedIndex(i);
-                        break;
-                    }
-                }
-            }
-            
             descriptionArea.setText(document.getDescription());
             
             if (document.getDocumentDate() != null) {
@@ -323,27 +318,14 @@ public class DocumentEditorDialog extends JDialog {
             // Disable document ID field when editing
             documentIdField.setEditable(false);
         } else {
-            // Generate a new document ID for new documents
-            documentIdField.setText(generateDocumentId());
+            // New documents get their ID when saved
+            SwingUtils.showAssignedOnSave(documentIdField);
             
             // Set default status to Active
             statusCombo.setSelectedItem("Active");
         }
     }
     
-    /**
-     * Generate a new document ID
-     * 
-     * @return A new document ID
-     */
-    private String generateDocumentId() {
-        // Format: DOC-YYYY-XXXX where XXXX is a random number
-        String year = Integer.toString(LocalDate.now().getYear());
-        int randomNum = 1000 + (int)(Math.random() * 9000); // Random 4-digit number
-        
-        return "DOC-" + year + "-" + randomNum;
-    }
-    
     /**
      * Validate form data
      * 
@@ -400,7 +382,10 @@ public class DocumentEditorDialog extends JDialog {
                 document = new Document();
             }
             
-            document.setDocumentId(documentIdField.getText().trim());
+            if (document.getId() != 0) {
+                // New documents keep no ID, so the controller assigns one
+                document.setDocumentId(documentIdField.getText().trim());
+            }
             document.setTitle(titleField.getText().trim());
             document.setDocumentType((String) documentTypeCombo.getSelectedItem());
             document.setDescription(descriptionArea.getText().trim());
@@ -419,8 +404,21 @@ public class DocumentEditorDialog extends JDialog {
             
             boolean success;
             if (document.getId() == 0) {
-                // Create new document and upload file
-                success = documentController.createDocument(document, uploadFile);
+                // Create new document and upload file in the background
+                Document newDocument = document;
+                DocumentTransferDialog transferDialog = new DocumentTransferDialog(
+                    this,
+                    "Uploading Document",
+                    uploadFile.getName(),
+                    listener -> documentController.createDocument(newDocument, uploadFile, listener)
+                );
+                transferDialog.setVisible(true);
+                
+                if (transferDialog.isCancelled() && !transferDialog.isSucceeded()) {
+                    // Leave the dialog open so the user can try again
+                    return;
+                }
+                success = transferDialog.isSucceeded();
             } else {
                 // Update existing document
                 success = documentController.updateDocument(document);
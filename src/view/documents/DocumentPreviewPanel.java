@@ -0,0 +1,349 @@
+package view.documents;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import model.Document;
+import controller.DocumentController;
+import controller.DocumentPreview;
+import view.util.AsyncLoader;
+import view.util.UIConstants;
+
+/**
+ * Panel previewing a document's file. Text files are shown a page at a
+ * time and images only where scrolled into view, both read from the
+ * memory-mapped file in the background, so even large exhibits open at
+ * once and never sit on the heap in full. While an image region decodes,
+ * the cached thumbnail stands in for it.
+ * <p>
+ * The file is opened by {@link #open} and must be released with
+ * {@link #close} when the panel is no longer shown.
+ */
+class DocumentPreviewPanel extends JPanel {
+    private final Document document;
+    private final DocumentController documentController;
+
+    // Separate loaders, so flipping pages or scrolling supersedes only
+    // the previous page or region and never the opening of the file
+    private final AsyncLoader openLoader;
+    private final AsyncLoader pageLoader;
+    private final AsyncLoader regionLoader;
+
+    private DocumentPreview preview;
+    private boolean opened;
+    private boolean closed;
+
+    private JLabel messageLabel;
+    private JTextArea textArea;
+    private JLabel pageLabel;
+    private JButton previousButton;
+    private JButton nextButton;
+    private int page;
+
+    private ImageView imageView;
+    private JScrollPane imageScroll;
+    private JToggleButton actualSizeButton;
+
+    /**
+     * Constructor
+     *
+     * @param document The document to preview
+     * @param documentController Controller to open the file with
+     */
+    DocumentPreviewPanel(Document document, DocumentController documentController) {
+        super(new BorderLayout());
+        this.document = document;
+        this.documentController = documentController;
+        this.openLoader = new AsyncLoader(this);
+        this.pageLoader = new AsyncLoader(this);
+        this.regionLoader = new AsyncLoader(null);
+
+        setBackground(Color.WHITE);
+
+        messageLabel = new JLabel("Loading preview...", SwingConstants.CENTER);
+        messageLabel.setFont(UIConstants.NORMAL_FONT);
+        messageLabel.setForeground(Color.GRAY);
+        add(messageLabel, BorderLayout.CENTER);
+    }
+
+    /**
+     * Open the file in the background and show its first page, unless already opened
+     */
+    void open() {
+        if (opened) {
+            return;
+        }
+        opened = true;
+
+        openLoader.load(() -> documentController.openPreview(document), opening -> {
+            if (closed) {
+                // The dialog was closed while the file was opening
+                if (opening != null) {
+                    opening.close();
+                }
+                return;
+            }
+            showPreview(opening);
+        }, this::showError);
+    }
+
+    /**
+     * Release the file
+     */
+    void close() {
+        closed = true;
+        pageLoader.cancel();
+        regionLoader.cancel();
+        if (preview != null) {
+            preview.close();
+            preview = null;
+        }
+    }
+
+    private void showPreview(DocumentPreview opening) {
+        if (opening == null) {
+            messageLabel.setText("The document's file could not be found.");
+            return;
+        }
+
+        preview = opening;
+        switch (preview.getKind()) {
+            case TEXT:
+                showText();
+                break;
+            case IMAGE:
+                showImage();
+                break;
+            default:
+                messageLabel.setText("No preview is available for this file type. " +
+                        "Download the document to open it.");
+                break;
+        }
+    }
+
+    private void showError(Exception e) {
+        e.printStackTrace();
+        messageLabel.setText("Could not load the preview: " + e.getMessage());
+        removeAll();
+        add(messageLabel, BorderLayout.CENTER);
+        revalidate();
+        repaint();
+    }
+
+    // ---- Text ----
+
+    private void showText() {
+        textArea = new JTextArea();
+        textArea.setEditable(false);
+        textArea.setLineWrap(true);
+        textArea.setWrapStyleWord(true);
+        textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        textArea.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+
+        previousButton = new JButton("< Previous");
+        previousButton.setFont(UIConstants.SMALL_FONT);
+        previousButton.addActionListener(e -> showPage(page - 1));
+
+        nextButton = new JButton("Next >");
+        nextButton.setFont(UIConstants.SMALL_FONT);
+        nextButton.addActionListener(e -> showPage(page + 1));
+
+        pageLabel = new JLabel();
+        pageLabel.setFont(UIConstants.SMALL_FONT);
+
+        JPanel navigationPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
+        navigationPanel.setBackground(Color.WHITE);
+        navigationPanel.add(previousButton);
+        navigationPanel.add(pageLabel);
+        navigationPanel.add(nextButton);
+
+        removeAll();
+        add(new JScrollPane(textArea), BorderLayout.CENTER);
+        add(navigationPanel, BorderLayout.SOUTH);
+        revalidate();
+        repaint();
+
+        showPage(0);
+    }
+
+    private void showPage(int requested) {
+        int pageCount = preview.getPageCount();
+        if (requested < 0 || requested >= pageCount) {
+            return;
+        }
+        page = requested;
+        pageLabel.setText("Page " + (page + 1) + " of " + pageCount);
+        previousButton.setEnabled(page > 0);
+        nextButton.setEnabled(page < pageCount - 1);
+
+        DocumentPreview current = preview;
+        pageLoader.load(() -> current.readPage(requested), text -> {
+            if (current == preview) {
+                textArea.setText(text);
+                textArea.setCaretPosition(0);
+            }
+        }, this::showError);
+    }
+
+    // ---- Images ----
+
+    private void showImage() {
+        DocumentPreview current = preview;
+        openLoader.load(current::getImageSize, size -> {
+            if (current != preview) {
+                return;
+            }
+
+            imageView = new ImageView(size);
+            imageScroll = new JScrollPane(imageView);
+            imageScroll.getViewport().setBackground(Color.LIGHT_GRAY);
+            imageScroll.getVerticalScrollBar().setUnitIncrement(16);
+            imageScroll.getHorizontalScrollBar().setUnitIncrement(16);
+            imageScroll.getViewport().addChangeListener(e -> imageView.viewportChanged());
+
+            actualSizeButton = new JToggleButton("Actual Size");
+            actualSizeButton.setFont(UIConstants.SMALL_FONT);
+            actualSizeButton.addActionListener(e -> imageView.viewportChanged());
+
+            JLabel sizeLabel = new JLabel(size.width + " x " + size.height + " pixels");
+            sizeLabel.setFont(UIConstants.SMALL_FONT);
+
+            JPanel zoomPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
+            zoomPanel.setBackground(Color.WHITE);
+            zoomPanel.add(sizeLabel);
+            zoomPanel.add(actualSizeButton);
+
+            removeAll();
+            add(imageScroll, BorderLayout.CENTER);
+            add(zoomPanel, BorderLayout.SOUTH);
+            revalidate();
+            repaint();
+
+            // Cached after the first preview, so usually there before the first region
+            openLoader.load(() -> documentController.getThumbnail(document), thumbnail -> {
+                if (current == preview) {
+                    imageView.setThumbnail(thumbnail);
+                }
+            }, Exception::printStackTrace);
+        }, this::showError);
+    }
+
+    /**
+     * Shows an image at a whole-number reduction, fitting the width of the
+     * viewport unless shown at actual size. Only the region around the
+     * visible part is decoded; a new region is requested once scrolling
+     * leaves it.
+     */
+    private class ImageView extends JComponent {
+        private final Dimension imageSize;
+        private BufferedImage thumbnail;
+
+        private int subsampling = 1;
+
+        // The decoded region and the region being decoded, in view pixels
+        // at the subsampling they were requested with
+        private BufferedImage region;
+        private Rectangle regionBounds;
+        private int regionSubsampling;
+        private Rectangle requestedBounds;
+        private int requestedSubsampling;
+
+        ImageView(Dimension imageSize) {
+            this.imageSize = imageSize;
+        }
+
+        /**
+         * Set the thumbnail drawn, scaled up, where no region is decoded yet
+         *
+         * @param thumbnail The thumbnail, or null for none
+         */
+        void setThumbnail(BufferedImage thumbnail) {
+            this.thumbnail = thumbnail;
+            repaint();
+        }
+
+        /**
+         * Recompute the reduction after the viewport or zoom changed
+         */
+        void viewportChanged() {
+            int viewportWidth = Math.max(1, imageScroll.getViewport().getExtentSize().width);
+            int fitting = actualSizeButton.isSelected()
+                    ? 1 : Math.max(1, (imageSize.width + viewportWidth - 1) / viewportWidth);
+            if (fitting != subsampling) {
+                subsampling = fitting;
+                revalidate();
+            }
+            repaint();
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            return new Dimension((imageSize.width + subsampling - 1) / subsampling,
+                    (imageSize.height + subsampling - 1) / subsampling);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Dimension size = getPreferredSize();
+            Graphics2D g2 = (Graphics2D) g.create();
+            try {
+                g2.setColor(Color.WHITE);
+                g2.fillRect(0, 0, size.width, size.height);
+
+                if (thumbnail != null) {
+                    g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                            RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    g2.drawImage(thumbnail, 0, 0, size.width, size.height, null);
+                }
+                if (region != null && regionSubsampling == subsampling) {
+                    g2.drawImage(region, regionBounds.x, regionBounds.y, null);
+                }
+            } finally {
+                g2.dispose();
+            }
+
+            Rectangle visible = getVisibleRect().intersection(new Rectangle(size));
+            if (!visible.isEmpty() && !covers(regionBounds, regionSubsampling, visible)
+                    && !covers(requestedBounds, requestedSubsampling, visible)) {
+                requestRegion(visible, size);
+            }
+        }
+
+        private boolean covers(Rectangle bounds, int boundsSubsampling, Rectangle visible) {
+            return bounds != null && boundsSubsampling == subsampling && bounds.contains(visible);
+        }
+
+        /**
+         * Decode the visible part with half a screen of margin all round,
+         * so small scrolls are drawn from the region already decoded
+         */
+        private void requestRegion(Rectangle visible, Dimension size) {
+            Rectangle bounds = new Rectangle(visible);
+            bounds.grow(visible.width / 2, visible.height / 2);
+            bounds = bounds.intersection(new Rectangle(size));
+
+            int requestSubsampling = subsampling;
+            Rectangle source = new Rectangle(bounds.x * requestSubsampling, bounds.y * requestSubsampling,
+                    bounds.width * requestSubsampling, bounds.height * requestSubsampling);
+            requestedBounds = bounds;
+            requestedSubsampling = requestSubsampling;
+
+            DocumentPreview current = preview;
+            Rectangle decodedBounds = bounds;
+            regionLoader.load(() -> current.readImage(source, requestSubsampling), image -> {
+                if (current != preview) {
+                    return;
+                }
+                region = image;
+                regionBounds = decodedBounds;
+                regionSubsampling = requestSubsampling;
+                requestedBounds = null;
+                repaint();
+            }, e -> {
+                requestedBounds = null;
+                showError(e);
+            });
+        }
+    }
+}
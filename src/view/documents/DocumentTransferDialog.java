@@ -0,0 +1,173 @@
+package view.documents;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import controller.DocumentController;
+import view.util.UIConstants;
+
+/**
+ * Modal dialog that runs a document upload or download in the background,
+ * showing its progress and letting the user cancel it.
+ */
+class DocumentTransferDialog extends JDialog {
+
+    /**
+     * A file copy reporting to the given listener
+     */
+    interface Transfer {
+        boolean run(DocumentController.TransferListener listener);
+    }
+
+    private final Transfer transfer;
+
+    private JProgressBar progressBar;
+    private JButton cancelButton;
+
+    private volatile boolean cancelled = false;
+    private boolean succeeded = false;
+
+    /**
+     * Constructor
+     *
+     * @param parent The parent window
+     * @param title The dialog title, e.g. "Downloading Document"
+     * @param fileName Name of the file being copied
+     * @param transfer The copy to run once the dialog is shown
+     */
+    DocumentTransferDialog(Window parent, String title, String fileName, Transfer transfer) {
+        super(parent, title, ModalityType.APPLICATION_MODAL);
+        this.transfer = transfer;
+
+        initializeUI(fileName);
+    }
+
+    /**
+     * Initialize the user interface components
+     */
+    private void initializeUI(String fileName) {
+        setSize(420, 150);
+        setLocationRelativeTo(getParent());
+        setResizable(false);
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        panel.setBackground(Color.WHITE);
+
+        JLabel label = new JLabel(fileName);
+        label.setFont(UIConstants.NORMAL_FONT);
+
+        progressBar = new JProgressBar(0, 1000);
+        progressBar.setStringPainted(true);
+
+        cancelButton = new JButton("Cancel");
+        cancelButton.setFont(UIConstants.NORMAL_FONT);
+        cancelButton.addActionListener(e -> cancel());
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttonPanel.setOpaque(false);
+        buttonPanel.add(cancelButton);
+
+        panel.add(label, BorderLayout.NORTH);
+        panel.add(progressBar, BorderLayout.CENTER);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+        add(panel);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                // Started once shown, so finishing early cannot dispose the dialog before it opens
+                new TransferWorker().execute();
+            }
+
+            @Override
+            public void windowClosing(WindowEvent e) {
+                cancel();
+            }
+        });
+    }
+
+    /**
+     * Ask the transfer to stop after the chunk in progress
+     */
+    private void cancel() {
+        cancelled = true;
+        cancelButton.setEnabled(false);
+        progressBar.setString("Cancelling...");
+    }
+
+    /**
+     * Check whether the user cancelled the transfer
+     *
+     * @return true if cancelled
+     */
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Check whether the file was copied completely
+     *
+     * @return true if the transfer succeeded
+     */
+    boolean isSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * Runs the transfer off the Event Dispatch Thread and publishes its progress
+     */
+    private class TransferWorker extends SwingWorker<Boolean, long[]>
+            implements DocumentController.TransferListener {
+
+        @Override
+        protected Boolean doInBackground() {
+            return transfer.run(this);
+        }
+
+        @Override
+        public boolean bytesTransferred(long bytesDone, long bytesTotal) {
+            publish(new long[] {bytesDone, bytesTotal});
+            return !cancelled;
+        }
+
+        @Override
+        protected void process(List<long[]> chunks) {
+            if (cancelled) {
+                return;
+            }
+            long[] latest = chunks.get(chunks.size() - 1);
+            progressBar.setValue((int) (latest[0] * 1000 / Math.max(1, latest[1])));
+            progressBar.setString(formatSize(latest[0]) + " of " + formatSize(latest[1]));
+        }
+
+        @Override
+        protected void done() {
+            try {
+                succeeded = get();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+            }
+            dispose();
+        }
+    }
+
+    /**
+     * Format a byte count for display
+     *
+     * @param bytes The byte count
+     * @return The size in KB, MB or GB
+     */
+    private static String formatSize(long bytes) {
+        if (bytes < 1024L * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        } else if (bytes < 1024L * 1024 * 1024) {
+            return String.format("%.1f MB", bytes / (1024.0 * 1024));
+        }
+        return String.format("%.2f GB", bytes / (1024.0 * 1024 * 1024));
+    }
+}
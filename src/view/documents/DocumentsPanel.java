@@ -6,6 +6,7 @@ import java.awt.*;
 import java.awt.event.*;
 import javax.swing.event.*;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.io.File;
@@ -13,10 +14,14 @@ import java.io.File;
 import model.Document;
 import model.Case;
 import controller.DocumentController;
+import controller.SearchController;
 import controller.CaseController;
+import dao.PageRequest;
 import view.components.CustomTable;
+import view.components.PagedTableLoader;
 import view.components.TableFilterPanel;
 import view.components.StatusIndicator;
+import view.util.AsyncLoader;
 import view.util.UIConstants;
 import view.util.SwingUtils;
 
@@ -25,9 +30,11 @@ import view.util.SwingUtils;
  */
 public class DocumentsPanel extends JPanel {
     private DocumentController documentController;
+    private SearchController searchController;
     private CaseController caseController;
     private CustomTable documentsTable;
     private DocumentFilterPanel filterPanel;
+    private PagedTableLoader<Document> documentsLoader;
     
     private JButton addButton;
     private JButton editButton;
@@ -40,9 +47,12 @@ public class DocumentsPanel extends JPanel {
      */
     public DocumentsPanel() {
         this.documentController = new DocumentController();
+        this.searchController = new SearchController();
         this.caseController = new CaseController();
         
         initializeUI();
+        this.documentsLoader = new PagedTableLoader<>(documentsTable, new AsyncLoader(this),
+                PageRequest.DEFAULT_PAGE_SIZE, documentController::getDocumentsPage, this::toTableRow);
         loadDocuments();
     }
     
@@ -215,83 +225,87 @@ public class DocumentsPanel extends JPanel {
      * Load documents from the database
      */
     private void loadDocuments() {
-        try {
-            // Clear existing data
-            documentsTable.clearTable();
-            documentsTable.clearFilters();
-            
-            // Get documents from controller
-            List<Document> documents;
-            
-            String filterType = filterPanel.getSelectedFilterType();
-            String searchText = filterPanel.getSearchText();
-            
-            if (searchText != null && !searchText.isEmpty()) {
-                if ("Title".equals(filterType)) {
-                    documents = documentController.findDocumentsByText(searchText);
-                } else if ("Type".equals(filterType)) {
-                    documents = documentController.findDocumentsByType(searchText);
-                } else if ("Case".equals(filterType)) {
+        documentsTable.clearFilters();
+        
+        // Search results are loaded in full; otherwise documents are paged in as the user scrolls
+        Callable<List<Document>> search = null;
+        
+        String filterType = filterPanel.getSelectedFilterType();
+        String searchText = filterPanel.getSearchText();
+        
+        if (searchText != null && !searchText.isEmpty()) {
+            if ("Title".equals(filterType)) {
+                search = () -> documentController.findDocumentsByText(searchText);
+            } else if ("Content".equals(filterType)) {
+                // Searches the text extracted from the document files
+                search = () -> documentController.findDocumentsByContent(searchText);
+            } else if ("Type".equals(filterType)) {
+                search = () -> documentController.findDocumentsByType(searchText);
+            } else if ("Case".equals(filterType)) {
+                search = () -> {
                     // Get case by title or number
                     List<Case> cases = caseController.findCasesByText(searchText);
-                    documents = new java.util.ArrayList<>();
+                    List<Document> documents = new java.util.ArrayList<>();
                     for (Case legalCase : cases) {
                         documents.addAll(documentController.findDocumentsByCase(legalCase.getId()));
                     }
-                } else {
-                    // Apply filter to the view instead of database for "All"
-                    documents = documentController.getAllDocuments();
-                    documentsTable.addFilter(1, searchText); // Title column
-                    documentsTable.addFilter(2, searchText); // Type column
-                }
+                    return documents;
+                };
             } else {
-                documents = documentController.getAllDocuments();
+                // Instant search in memory once the index is built, database search until then
+                search = searchController.isReady()
+                        ? () -> searchController.findDocuments(searchText)
+                        : () -> documentController.findDocumentsByText(searchText);
             }
-            
-            // Load case information for documents
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-            for (Document document : documents) {
-                // Get case information if needed
-                if (document.getCase() == null && document.getCaseId() > 0) {
-                    Case legalCase = caseController.getCaseById(document.getCaseId());
-                    document.setCase(legalCase);
+        }
+        
+        // Populate table in the background
+        if (search != null) {
+            documentsLoader.loadAll(search, loaded -> updateButtonStates());
+        } else {
+            documentsLoader.reload(loaded -> {
+                // Display a message if no documents found
+                if (loaded == 0 && (searchText == null || searchText.isEmpty())) {
+                    SwingUtils.showInfoMessage(
+                        this,
+                        "No documents found. Upload a new document to get started.",
+                        "No Documents"
+                    );
                 }
                 
-                String caseInfo = document.getCase() != null ? 
-                        document.getCase().getCaseNumber() + " - " + document.getCase().getTitle() : "N/A";
-                
-                Object[] row = {
-                    document.getDocumentId(),
-                    document.getTitle(),
-                    document.getDocumentType(),
-                    caseInfo,
-                    document.getDateAdded().format(dateFormatter),
-                    document.getDocumentDate() != null ? document.getDocumentDate().format(dateFormatter) : "N/A",
-                    document.getStatus()
-                };
-                documentsTable.addRow(row);
-            }
-            
-            // Display a message if no documents found
-            if (documents.isEmpty() && (searchText == null || searchText.isEmpty())) {
-                SwingUtils.showInfoMessage(
-                    this,
-                    "No documents found. Upload a new document to get started.",
-                    "No Documents"
-                );
-            }
-            
-            // Update button states
-            updateButtonStates();
-            
-        } catch (Exception e) {
-            SwingUtils.showErrorMessage(
-                this,
-                "Error loading documents: " + e.getMessage(),
-                "Database Error"
-            );
-            e.printStackTrace();
+                updateButtonStates();
+            });
+        }
+    }
+    
+    /**
+     * Convert a document to a table row, loading its case if needed.
+     * Runs on a background thread.
+     * 
+     * @param document The document
+     * @return The row data
+     */
+    private Object[] toTableRow(Document document) {
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+        
+        // Get case information if needed
+        if (document.getCase() == null && document.getCaseId() > 0) {
+            Case legalCase = caseController.getCaseById(document.getCaseId());
+            document.setCase(legalCase);
         }
+        
+        String caseInfo = document.getCase() != null ? 
+                document.getCase().getCaseNumber() + " - " + document.getCase().getTitle() : "N/A";
+        
+        return new Object[] {
+            document.getDocumentId(),
+            document.getTitle(),
+            document.getDocumentType(),
+            caseInfo,
+            document.getDateAdded().format(dateFormatter),
+            document.getDocumentDate() != null ? document.getDocumentDate().format(dateFormatter) : "N/A",
+            document.getStatus()
+        };
     }
     
     /**
@@ -491,34 +505,31 @@ public class DocumentsPanel extends JPanel {
             if (document != null) {
                 // Show save file dialog
                 JFileChooser fileChooser = new JFileChooser();
-                fileChooser.setSelectedFile(new File(document.getFilePath()));
+                fileChooser.setSelectedFile(new File(new File(document.getFilePath()).getName()));
                 int result = fileChooser.showSaveDialog(this);
                 
                 if (result == JFileChooser.APPROVE_OPTION) {
                     File outputFile = fileChooser.getSelectedFile();
                     
-                    // Get document content and save to file
-                    byte[] content = documentController.getDocumentContent(document.getId());
-                    if (content != null) {
-                        try {
-                            java.nio.file.Files.write(outputFile.toPath(), content);
-                            SwingUtils.showInfoMessage(
-                                this,
-                                "Document downloaded successfully.",
-                                "Success"
-                            );
-                        } catch (Exception e) {
-                            SwingUtils.showErrorMessage(
-                                this,
-                                "Error saving document: " + e.getMessage(),
-                                "Download Error"
-                            );
-                            e.printStackTrace();
-                        }
-                    } else {
+                    // Stream the document to the file in the background
+                    DocumentTransferDialog transferDialog = new DocumentTransferDialog(
+                        SwingUtilities.getWindowAncestor(this),
+                        "Downloading Document",
+                        outputFile.getName(),
+                        listener -> documentController.downloadDocument(document.getId(), outputFile, listener)
+                    );
+                    transferDialog.setVisible(true);
+                    
+                    if (transferDialog.isSucceeded()) {
+                        SwingUtils.showInfoMessage(
+                            this,
+                            "Document downloaded successfully.",
+                            "Success"
+                        );
+                    } else if (!transferDialog.isCancelled()) {
                         SwingUtils.showErrorMessage(
                             this,
-                            "Could not read document content.",
+                            "Could not save document content.",
                             "Download Error"
                         );
                     }
@@ -544,7 +555,7 @@ public class DocumentsPanel extends JPanel {
          */
         public DocumentFilterPanel() {
             super(
-                new String[]{"All", "Title", "Type", "Case"},
+                new String[]{"All", "Title", "Content", "Type", "Case"},
                     
                 searchText -> loadDocuments(),
                 () -> {
@@ -552,6 +563,9 @@ public class DocumentsPanel extends JPanel {
                     loadDocuments();
                 }
             );
+            
+            // "All" searches the in-memory index, which is cheap enough for every keystroke
+            setInstantSearch(type -> "All".equals(type) && searchController.isReady());
         }
         
         /**
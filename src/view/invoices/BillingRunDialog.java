@@ -0,0 +1,347 @@
+package view.invoices;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import model.BillingRunResult;
+import controller.BillingRunController;
+import view.util.UIConstants;
+import view.components.DateChooser;
+import view.util.SwingUtils;
+
+/**
+ * Dialog for running month-end billing: invoices every case with unbilled
+ * time entries up to a cutoff date and reports the outcome.
+ */
+public class BillingRunDialog extends JDialog {
+    private BillingRunController billingRunController;
+
+    private DateChooser cutoffDateChooser;
+    private DateChooser dueDateChooser;
+    private JProgressBar progressBar;
+    private JLabel statusLabel;
+
+    private JButton closeButton;
+    private JButton cancelRunButton;
+    private JButton runButton;
+
+    private BillingRunWorker worker;
+    private BillingRunResult lastResult;
+    private boolean invoicesCreated = false;
+
+    /**
+     * Constructor
+     *
+     * @param parent The parent window
+     */
+    public BillingRunDialog(Window parent) {
+        super(parent, "Billing Run", ModalityType.APPLICATION_MODAL);
+
+        this.billingRunController = new BillingRunController();
+
+        initializeUI();
+    }
+
+    /**
+     * Initialize the user interface components
+     */
+    private void initializeUI() {
+        setSize(500, 380);
+        setMinimumSize(new Dimension(450, 350));
+        setLocationRelativeTo(getParent());
+        setLayout(new BorderLayout());
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                closeDialog();
+            }
+        });
+
+        // Create title panel
+        JPanel titlePanel = new JPanel(new BorderLayout());
+        titlePanel.setBackground(UIConstants.PRIMARY_COLOR);
+        titlePanel.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
+
+        JLabel titleLabel = new JLabel("Month-End Billing Run");
+        titleLabel.setFont(UIConstants.TITLE_FONT);
+        titleLabel.setForeground(Color.WHITE);
+        titlePanel.add(titleLabel, BorderLayout.WEST);
+
+        add(titlePanel, BorderLayout.NORTH);
+
+        // Create form panel
+        add(createFormPanel(), BorderLayout.CENTER);
+
+        // Create button panel
+        add(createButtonPanel(), BorderLayout.SOUTH);
+    }
+
+    /**
+     * Create the form panel with the run's dates and progress
+     *
+     * @return The form panel
+     */
+    private JPanel createFormPanel() {
+        JPanel formPanel = new JPanel(new GridBagLayout());
+        formPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 10, 20));
+        formPanel.setBackground(Color.WHITE);
+
+        GridBagConstraints labelConstraints = new GridBagConstraints();
+        labelConstraints.gridx = 0;
+        labelConstraints.gridy = GridBagConstraints.RELATIVE;
+        labelConstraints.anchor = GridBagConstraints.WEST;
+        labelConstraints.insets = new Insets(5, 5, 5, 10);
+
+        GridBagConstraints fieldConstraints = new GridBagConstraints();
+        fieldConstraints.gridx = 1;
+        fieldConstraints.gridy = GridBagConstraints.RELATIVE;
+        fieldConstraints.fill = GridBagConstraints.HORIZONTAL;
+        fieldConstraints.weightx = 1.0;
+        fieldConstraints.insets = new Insets(5, 0, 5, 5);
+
+        GridBagConstraints wideConstraints = new GridBagConstraints();
+        wideConstraints.gridx = 0;
+        wideConstraints.gridy = GridBagConstraints.RELATIVE;
+        wideConstraints.gridwidth = 2;
+        wideConstraints.fill = GridBagConstraints.HORIZONTAL;
+        wideConstraints.insets = new Insets(15, 5, 5, 5);
+
+        // Bill time entries up to the end of last month, due in 30 days
+        LocalDate today = LocalDate.now();
+
+        formPanel.add(createFieldLabel("Bill Time Up To:*"), labelConstraints);
+        cutoffDateChooser = new DateChooser(today.withDayOfMonth(1).minusDays(1));
+        formPanel.add(cutoffDateChooser, fieldConstraints);
+
+        formPanel.add(createFieldLabel("Invoice Due Date:*"), labelConstraints);
+        dueDateChooser = new DateChooser(today.plusDays(30));
+        formPanel.add(dueDateChooser, fieldConstraints);
+
+        progressBar = new JProgressBar();
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        formPanel.add(progressBar, wideConstraints);
+
+        statusLabel = new JLabel(" ");
+        statusLabel.setFont(UIConstants.NORMAL_FONT);
+        statusLabel.setVerticalAlignment(SwingConstants.TOP);
+
+        GridBagConstraints statusConstraints = (GridBagConstraints) wideConstraints.clone();
+        statusConstraints.weighty = 1.0;
+        statusConstraints.fill = GridBagConstraints.BOTH;
+        statusConstraints.insets = new Insets(5, 5, 5, 5);
+        formPanel.add(statusLabel, statusConstraints);
+
+        return formPanel;
+    }
+
+    /**
+     * Create a field label with consistent styling
+     *
+     * @param text The label text
+     * @return The styled label
+     */
+    private JLabel createFieldLabel(String text) {
+        JLabel label = new JLabel(text);
+        label.setFont(UIConstants.LABEL_FONT);
+        label.setForeground(UIConstants.PRIMARY_COLOR);
+        return label;
+    }
+
+    /**
+     * Create the button panel with action buttons
+     *
+     * @return The button panel
+     */
+    private JPanel createButtonPanel() {
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY),
+            BorderFactory.createEmptyBorder(15, 20, 15, 20)
+        ));
+        buttonPanel.setBackground(Color.WHITE);
+
+        closeButton = new JButton("Close");
+        closeButton.setFont(UIConstants.NORMAL_FONT);
+        closeButton.addActionListener(e -> closeDialog());
+
+        cancelRunButton = new JButton("Stop Run");
+        cancelRunButton.setFont(UIConstants.NORMAL_FONT);
+        cancelRunButton.setEnabled(false);
+        cancelRunButton.addActionListener(e -> {
+            cancelRunButton.setEnabled(false);
+            statusLabel.setText("Stopping after the invoices in progress...");
+            billingRunController.cancel();
+        });
+
+        runButton = new JButton("Start Run");
+        runButton.setFont(UIConstants.NORMAL_FONT);
+        runButton.setBackground(UIConstants.SECONDARY_COLOR);
+        runButton.setForeground(Color.WHITE);
+        runButton.addActionListener(e -> startRun());
+
+        buttonPanel.add(closeButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(cancelRunButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(runButton);
+
+        return buttonPanel;
+    }
+
+    /**
+     * Start a billing run, or resume the last one if it did not complete
+     */
+    private void startRun() {
+        LocalDate cutoff = cutoffDateChooser.getDate();
+        LocalDate dueDate = dueDateChooser.getDate();
+        if (cutoff == null || dueDate == null) {
+            SwingUtils.showErrorMessage(this, "Please enter valid dates.", "Validation Error");
+            return;
+        }
+
+        // Resuming keeps the last run's dates so its remaining cases are billed alike
+        BillingRunResult previous = lastResult != null && !lastResult.isComplete()
+                && lastResult.getCutoff().equals(cutoff) && lastResult.getDueDate().equals(dueDate)
+                ? lastResult : null;
+
+        if (previous == null && !SwingUtils.showConfirmDialog(
+                this,
+                "Create invoices for all unbilled time up to " + SwingUtils.formatLocalDate(cutoff) + "?",
+                "Confirm Billing Run")) {
+            return;
+        }
+
+        setRunning(true);
+        progressBar.setValue(0);
+        progressBar.setString("Finding cases to bill...");
+        statusLabel.setText(" ");
+
+        worker = new BillingRunWorker(previous, cutoff, dueDate);
+        worker.execute();
+    }
+
+    /**
+     * Show a finished run's outcome
+     *
+     * @param result The run's outcome
+     */
+    private void showResult(BillingRunResult result) {
+        lastResult = result;
+        if (result.getInvoicesCreated() > 0) {
+            invoicesCreated = true;
+        }
+
+        progressBar.setMaximum(Math.max(1, result.getCasesFound()));
+        progressBar.setValue(result.getCasesFound() - result.getCasesRemaining());
+        progressBar.setString(result.getCasesFound() == 0 ? "Nothing to bill" :
+                result.isComplete() ? "Complete" : result.isCancelled() ? "Stopped" : "Finished with errors");
+
+        StringBuilder status = new StringBuilder("<html>");
+        status.append(result.getInvoicesCreated()).append(" invoices created for ")
+              .append(result.getEntriesBilled()).append(" time entries, totalling ")
+              .append(SwingUtils.formatMoney(result.getAmountBilled().doubleValue())).append(".<br>");
+        status.append(String.format("%.1f seconds, %.1f invoices per second.",
+                result.getElapsedMillis() / 1000.0, result.getInvoicesPerSecond()));
+        if (!result.getFailedCaseIds().isEmpty()) {
+            status.append("<br>").append(result.getFailedCaseIds().size())
+                  .append(" cases failed and were left unbilled.");
+        }
+        if (result.getCasesRemaining() > 0) {
+            status.append("<br>").append(result.getCasesRemaining())
+                  .append(" cases were not reached before the run stopped.");
+        }
+        status.append("</html>");
+        statusLabel.setText(status.toString());
+
+        runButton.setText(result.isComplete() ? "Start Run" : "Resume Run");
+    }
+
+    /**
+     * Enable the controls that apply while a run is or is not in progress
+     *
+     * @param running Whether a run is in progress
+     */
+    private void setRunning(boolean running) {
+        runButton.setEnabled(!running);
+        closeButton.setEnabled(!running);
+        cancelRunButton.setEnabled(running);
+        cutoffDateChooser.setEnabled(!running);
+        dueDateChooser.setEnabled(!running);
+    }
+
+    /**
+     * Close the dialog unless a run is still in progress
+     */
+    private void closeDialog() {
+        if (worker != null && !worker.isDone()) {
+            return;
+        }
+        dispose();
+    }
+
+    /**
+     * Check if any invoices were created
+     *
+     * @return true if a run created invoices
+     */
+    public boolean isInvoicesCreated() {
+        return invoicesCreated;
+    }
+
+    /**
+     * Runs the billing off the Event Dispatch Thread and publishes its progress
+     */
+    private class BillingRunWorker extends SwingWorker<BillingRunResult, int[]>
+            implements BillingRunController.ProgressListener {
+        private final BillingRunResult previous;
+        private final LocalDate cutoff;
+        private final LocalDate dueDate;
+
+        BillingRunWorker(BillingRunResult previous, LocalDate cutoff, LocalDate dueDate) {
+            this.previous = previous;
+            this.cutoff = cutoff;
+            this.dueDate = dueDate;
+        }
+
+        @Override
+        protected BillingRunResult doInBackground() {
+            return previous != null
+                    ? billingRunController.resume(previous, this)
+                    : billingRunController.runBilling(cutoff, dueDate, this);
+        }
+
+        @Override
+        public void progressChanged(int casesDone, int casesTotal) {
+            publish(new int[] {casesDone, casesTotal});
+        }
+
+        @Override
+        protected void process(List<int[]> chunks) {
+            int[] latest = chunks.get(chunks.size() - 1);
+            progressBar.setMaximum(latest[1]);
+            progressBar.setValue(latest[0]);
+            progressBar.setString(latest[0] + " of " + latest[1] + " cases");
+        }
+
+        @Override
+        protected void done() {
+            setRunning(false);
+            try {
+                showResult(get());
+            } catch (InterruptedException | ExecutionException e) {
+                progressBar.setString("");
+                SwingUtils.showErrorMessage(
+                    BillingRunDialog.this,
+                    "Error running billing: " + e.getMessage(),
+                    "Database Error"
+                );
+                e.printStackTrace();
+            }
+        }
+    }
+}
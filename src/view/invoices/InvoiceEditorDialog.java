@@ -9,6 +9,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import model.Invoice;
 import model.Client;
@@ -19,6 +20,7 @@ import controller.ClientController;
 import controller.CaseController;
 import controller.TimeEntryController;
 import javax.swing.table.TableCellRenderer;
+import view.util.AsyncLoader;
 import view.util.UIConstants;
 import view.components.CustomTable;
 import view.components.DateChooser;
@@ -49,6 +51,14 @@ public class InvoiceEditorDialog extends JDialog {
     private JButton saveButton;
     private JButton cancelButton;
     
+    // Background loaders for the form data and each level of the client, case and time entry cascade
+    private AsyncLoader formLoader;
+    private AsyncLoader casesLoader;
+    private AsyncLoader timeEntriesLoader;
+    
+    // Case to select once the case list of the invoice's client has loaded
+    private int pendingCaseId;
+    
     private boolean invoiceSaved = false;
     
     /**
@@ -77,6 +87,10 @@ public class InvoiceEditorDialog extends JDialog {
         
         this.selectedTimeEntries = new ArrayList<>();
         
+        this.formLoader = new AsyncLoader(this);
+        this.casesLoader = new AsyncLoader(this);
+        this.timeEntriesLoader = new AsyncLoader(this);
+        
         initializeUI();
         loadData();
     }
@@ -403,70 +417,70 @@ public class InvoiceEditorDialog extends JDialog {
     }
     
     /**
-     * Load data for the form
+     * Load data for the form. The client list and, when editing, the full
+     * invoice are fetched in the background.
      */
     private void loadData() {
-        try {
-            // Load client list
-            loadClientCombo();
-            
-            // Generate invoice number for new invoices
-            if (invoice == null) {
-                generateInvoiceNumber();
-            } else {
-                // Load existing invoice data
-                loadInvoiceData();
-            }
-        } catch (Exception e) {
-            showError("Error loading data: " + e.getMessage());
-            e.printStackTrace();
+        // New invoices are numbered when saved
+        if (invoice == null) {
+            SwingUtils.showAssignedOnSave(invoiceNumberField);
         }
+        
+        final int invoiceId = invoice != null ? invoice.getId() : 0;
+        formLoader.load(() -> new FormData(
+                clientController.getAllClients(),
+                invoiceId > 0 ? invoiceController.getInvoiceWithDetails(invoiceId) : null),
+            data -> {
+                // Load client list
+                populateClientCombo(data.clients);
+                
+                // Load existing invoice data
+                if (invoice != null) {
+                    if (data.invoice != null) {
+                        this.invoice = data.invoice;
+                    }
+                    loadInvoiceData();
+                }
+            },
+            e -> {
+                showError("Error loading data: " + e.getMessage());
+                e.printStackTrace();
+            });
     }
     
     /**
-     * Load the client dropdown
+     * Clients and the invoice being edited, loaded together
      */
-    private void loadClientCombo() {
-        try {
-            // Clear existing items
-            clientCombo.removeAllItems();
-            
-            // Get all clients
-            List<Client> clients = clientController.getAllClients();
-            
-            // Add clients to combo box
-            for (Client client : clients) {
-                clientCombo.addItem(new ComboItem(client.getId(), client.getName()));
-            }
-            
-        } catch (Exception e) {
-            showError("Error loading clients: " + e.getMessage());
-            e.printStackTrace();
+    private static class FormData {
+        private final List<Client> clients;
+        private final Invoice invoice;
+        
+        private FormData(List<Client> clients, Invoice invoice) {
+            this.clients = clients;
+            this.invoice = invoice;
         }
     }
     
     /**
-     * Generate a new invoice number
+     * Fill the client dropdown
+     * 
+     * @param clients The clients to offer
      */
-    private void generateInvoiceNumber() {
-        try {
-            String invoiceNumber = invoiceController.generateNextInvoiceNumber();
-            invoiceNumberField.setText(invoiceNumber);
-        } catch (Exception e) {
-            e.printStackTrace();
-            invoiceNumberField.setText("INV" + System.currentTimeMillis());
+    private void populateClientCombo(List<Client> clients) {
+        // Clear existing items
+        clientCombo.removeAllItems();
+        
+        // Add clients to combo box
+        for (Client client : clients) {
+            clientCombo.addItem(new ComboItem(client.getId(), client.getName()));
         }
     }
     
     /**
-     * Load existing invoice data when editing
+     * Fill the form with the invoice being edited
      */
     private void loadInvoiceData() {
         try {
-            // Get invoice with full details
-            Invoice fullInvoice = invoiceController.getInvoiceWithDetails(invoice.getId());
-            this.invoice = fullInvoice;
-            
             // Populate form fields
             invoiceNumberField.setText(invoice.getInvoiceNumber());
             
@@ -479,15 +493,10 @@ public class InvoiceEditorDialog extends JDialog {
                 }
             }
             
-            // Load and select case
+            // Load cases; the invoice's case is selected when they arrive,
+            // which in turn loads its time entries
+            pendingCaseId = invoice.getCaseId();
             loadCaseCombo(invoice.getClientId());
-            for (int i = 0; i < caseCombo.getItemCount(); i++) {
-                ComboItem item = caseCombo.getItemAt(i);
-                if (item.getId() == invoice.getCaseId()) {
-                    caseCombo.setSelectedIndex(i);
-                    break;
-                }
-            }
             
             // Dates
             if (invoice.getIssueDate() != null) {
@@ -516,9 +525,6 @@ public class InvoiceEditorDialog extends JDialog {
                 this.selectedTimeEntries = new ArrayList<>(invoice.getTimeEntries());
             }
             
-            // Load time entries for case
-            loadTimeEntries(invoice.getCaseId());
-            
         } catch (Exception e) {
             showError("Error loading invoice data: " + e.getMessage());
             e.printStackTrace();
@@ -540,28 +546,36 @@ public class InvoiceEditorDialog extends JDialog {
     }
     
     /**
-     * Load the case dropdown for a client
+     * Load the case dropdown for a client in the background
      * 
      * @param clientId The client ID
      */
     private void loadCaseCombo(int clientId) {
-        try {
+        casesLoader.load(() -> caseController.findCasesByClient(clientId), cases -> {
             // Clear existing items
             caseCombo.removeAllItems();
             
-            // Get cases for the client
-            List<Case> cases = caseController.findCasesByClient(clientId);
-            
             // Add cases to combo box
             for (Case legalCase : cases) {
                 caseCombo.addItem(new ComboItem(legalCase.getId(), 
                     legalCase.getCaseNumber() + " - " + legalCase.getTitle()));
             }
             
-        } catch (Exception e) {
+            // Select the invoice's case when editing
+            if (pendingCaseId > 0) {
+                for (int i = 0; i < caseCombo.getItemCount(); i++) {
+                    ComboItem item = caseCombo.getItemAt(i);
+                    if (item.getId() == pendingCaseId) {
+                        caseCombo.setSelectedIndex(i);
+                        break;
+                    }
+                }
+                pendingCaseId = 0;
+            }
+        }, e -> {
             showError("Error loading cases: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
     
     /**
@@ -573,32 +587,33 @@ public class InvoiceEditorDialog extends JDialog {
             // Load time entries for the selected case
             loadTimeEntries(selectedCase.getId());
         } else {
-            // Clear time entries table
+            // Clear time entries table and drop entries still loading for the previous case
+            timeEntriesLoader.cancel();
             timeEntriesTable.clearTable();
         }
     }
     
     /**
-     * Load time entries for a case
+     * Load time entries for a case in the background
      * 
      * @param caseId The case ID
      */
     private void loadTimeEntries(int caseId) {
-        try {
+        // Get unbilled time entries for the case
+        Callable<List<TimeEntry>> query;
+        
+        // If editing an existing invoice, get all time entries for the case
+        if (invoice != null && invoice.getId() > 0) {
+            query = () -> timeEntryController.getCaseTimeEntries(caseId);
+        } else {
+            // Otherwise, only get unbilled entries
+            query = () -> timeEntryController.getUnbilledTimeEntries(caseId);
+        }
+        
+        timeEntriesLoader.load(query, timeEntries -> {
             // Clear existing items
             timeEntriesTable.clearTable();
             
-            // Get unbilled time entries for the case
-            List<TimeEntry> timeEntries;
-            
-            // If editing an existing invoice, get all time entries for the case
-            if (invoice != null && invoice.getId() > 0) {
-                timeEntries = timeEntryController.getCaseTimeEntries(caseId);
-            } else {
-                // Otherwise, only get unbilled entries
-                timeEntries = timeEntryController.getUnbilledTimeEntries(caseId);
-            }
-            
             // Add time entries to table
             DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
             
@@ -638,11 +653,10 @@ public class InvoiceEditorDialog extends JDialog {
             
             // Update totals
             updateTotals();
-            
-        } catch (Exception e) {
+        }, e -> {
             showError("Error loading time entries: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
     
     /**
@@ -852,7 +866,10 @@ public class InvoiceEditorDialog extends JDialog {
             // Create or update invoice object
             Invoice newInvoice = (invoice == null) ? new Invoice() : invoice;
             
-            newInvoice.setInvoiceNumber(invoiceNumberField.getText().trim());
+            if (invoice != null) {
+                // New invoices keep no number, so the controller assigns one
+                newInvoice.setInvoiceNumber(invoiceNumberField.getText().trim());
+            }
             
             // Get client ID
             ComboItem selectedClient = (ComboItem) clientCombo.getSelectedItem();
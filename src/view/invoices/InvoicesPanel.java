@@ -6,15 +6,16 @@ import java.awt.*;
 import java.awt.event.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
 
 import model.Invoice;
 import controller.InvoiceController;
-import java.util.Arrays;
+import dao.PageRequest;
 import view.util.UIConstants;
 import view.components.CustomTable;
+import view.components.PagedTableLoader;
 import view.components.TableFilterPanel;
 import view.components.StatusIndicator;
+import view.util.AsyncLoader;
 import view.util.SwingUtils;
 
 /**
@@ -24,6 +25,12 @@ public class InvoicesPanel extends JPanel {
     private InvoiceController invoiceController;
     private CustomTable invoicesTable;
     private InvoiceFilterPanel filterPanel;
+    private PagedTableLoader<Invoice> invoicesLoader;
+    
+    // Query filters of the listing being paged in
+    private volatile String listStatus;
+    private volatile LocalDate listStartDate;
+    private volatile LocalDate listEndDate;
     
     private JButton addButton;
     private JButton editButton;
@@ -38,6 +45,11 @@ public class InvoicesPanel extends JPanel {
         this.invoiceController = new InvoiceController();
         
         initializeUI();
+        this.invoicesLoader = new PagedTableLoader<>(invoicesTable, new AsyncLoader(this),
+                PageRequest.DEFAULT_PAGE_SIZE,
+                request -> invoiceController.getInvoiceListRowsPage(
+                        listStatus, listStartDate, listEndDate, request),
+                this::toTableRow);
         loadInvoices();
     }
     
@@ -184,6 +196,10 @@ public class InvoicesPanel extends JPanel {
         addButton.setForeground(Color.WHITE);
         addButton.addActionListener(e -> createNewInvoice());
         
+        JButton billingRunButton = new JButton("Billing Run");
+        billingRunButton.setFont(UIConstants.NORMAL_FONT);
+        billingRunButton.addActionListener(e -> runBilling());
+        
         // Add buttons to panel
         buttonPanel.add(refreshButton);
         buttonPanel.add(Box.createHorizontalStrut(10));
@@ -195,6 +211,8 @@ public class InvoicesPanel extends JPanel {
         buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(deleteButton);
         buttonPanel.add(Box.createHorizontalStrut(30));
+        buttonPanel.add(billingRunButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
         buttonPanel.add(addButton);
         
         // Initialize button states
@@ -210,84 +228,43 @@ public class InvoicesPanel extends JPanel {
      * Load invoices from the database
      */
     private void loadInvoices() {
-        try {
-            // Clear existing data
-            invoicesTable.clearTable();
-            invoicesTable.clearFilters();
-            
-            // Get invoices from controller
-            List<Invoice> invoices;
-            
-            String filterType = filterPanel.getSelectedFilterType();
-            String searchText = filterPanel.getSearchText();
-            String statusFilter = filterPanel.getSelectedStatus();
-            
-            if (statusFilter != null && !statusFilter.equals("All")) {
-                // Filter by status
-                invoices = invoiceController.findInvoicesByStatus(statusFilter);
-            } else if (searchText != null && !searchText.isEmpty()) {
-                // Apply specific text filter based on filter type
-                if ("Invoice #".equals(filterType)) {
-                    Invoice invoice = invoiceController.getInvoiceByInvoiceNumber(searchText);
-                    invoices = invoice != null ? Arrays.asList(invoice) : Arrays.asList();
-                } else if ("Client".equals(filterType)) {
-                    // This is simplified - in a real implementation, you'd lookup the client ID
-                    // and then find invoices by client
-                    invoices = invoiceController.getAllInvoices();
-                    invoicesTable.addFilter(1, searchText); // Filter client column
-                } else if ("Case #".equals(filterType)) {
-                    // This is simplified - in a real implementation, you'd lookup the case ID
-                    // and then find invoices by case
-                    invoices = invoiceController.getAllInvoices();
-                    invoicesTable.addFilter(2, searchText); // Filter case column
-                } else {
-                    // For "All" filter type, get all invoices and filter in the view
-                    invoices = invoiceController.getAllInvoices();
-                    // Add filters for multiple columns
-                    invoicesTable.addFilter(0, searchText); // Invoice number
-                    invoicesTable.addFilter(1, searchText); // Client
-                    invoicesTable.addFilter(2, searchText); // Case
-                }
+        invoicesTable.clearFilters();
+        
+        String filterType = filterPanel.getSelectedFilterType();
+        String searchText = filterPanel.getSearchText();
+        String statusFilter = filterPanel.getSelectedStatus();
+        LocalDate startDate = filterPanel.getStartDate();
+        LocalDate endDate = filterPanel.getEndDate();
+        
+        // Status and date range are applied in the query
+        String status = statusFilter != null && !statusFilter.equals("All") ? statusFilter : null;
+        boolean hasDateRange = startDate != null && endDate != null;
+        boolean hasSearchText = status == null && searchText != null && !searchText.isEmpty();
+        
+        listStatus = status;
+        listStartDate = hasDateRange ? startDate : null;
+        listEndDate = hasDateRange ? endDate : null;
+        
+        // Apply specific text filter based on filter type
+        if (hasSearchText) {
+            if ("Invoice #".equals(filterType)) {
+                invoicesTable.addFilter(0, searchText); // Filter invoice number column
+            } else if ("Client".equals(filterType)) {
+                invoicesTable.addFilter(1, searchText); // Filter client column
+            } else if ("Case #".equals(filterType)) {
+                invoicesTable.addFilter(2, searchText); // Filter case column
             } else {
-                // No specific filters, get all invoices
-                invoices = invoiceController.getAllInvoices();
-            }
-            
-            // Process date range filter if set
-            LocalDate startDate = filterPanel.getStartDate();
-            LocalDate endDate = filterPanel.getEndDate();
-            if (startDate != null && endDate != null) {
-                invoices = invoiceController.findInvoicesByDateRange(startDate, endDate);
+                // For "All" filter type, filter multiple columns in the view
+                invoicesTable.addFilter(0, searchText); // Invoice number
+                invoicesTable.addFilter(1, searchText); // Client
+                invoicesTable.addFilter(2, searchText); // Case
             }
-            
-            // Populate table
-            for (Invoice invoice : invoices) {
-                // Get the client and case information
-                String clientName = invoice.getClient() != null ? 
-                    invoice.getClient().getName() : "Client " + invoice.getClientId();
-                    
-                String caseNumber = invoice.getCase() != null ? 
-                    invoice.getCase().getCaseNumber() : "Case " + invoice.getCaseId();
-                
-                // Calculate balance
-                BigDecimal balance = invoice.getAmount().subtract(invoice.getAmountPaid());
-                
-                Object[] row = {
-                    invoice.getInvoiceNumber(),
-                    clientName,
-                    caseNumber,
-                    invoice.getIssueDate().toString(),
-                    invoice.getDueDate().toString(),
-                    SwingUtils.formatMoney(invoice.getAmount().doubleValue()),
-                    SwingUtils.formatMoney(invoice.getAmountPaid().doubleValue()),
-                    SwingUtils.formatMoney(balance.doubleValue()),
-                    invoice.getStatus()
-                };
-                invoicesTable.addRow(row);
-            }
-            
+        }
+        
+        // Load the first page in the background; further pages follow as the user scrolls
+        invoicesLoader.reload(loaded -> {
             // Display a message if no invoices found
-            if (invoices.isEmpty() && (searchText == null || searchText.isEmpty()) && 
+            if (loaded == 0 && (searchText == null || searchText.isEmpty()) && 
                 (statusFilter == null || statusFilter.equals("All"))) {
                 SwingUtils.showInfoMessage(
                     this,
@@ -296,17 +273,38 @@ public class InvoicesPanel extends JPanel {
                 );
             }
             
-            // Update button states
             updateButtonStates();
+        });
+    }
+    
+    /**
+     * Convert an invoice list row to a table row
+     * 
+     * @param invoice The invoice with summary client and case attached
+     * @return The row data
+     */
+    private Object[] toTableRow(Invoice invoice) {
+        // Get the client and case information
+        String clientName = invoice.getClient() != null ? 
+            invoice.getClient().getName() : "Client " + invoice.getClientId();
             
-        } catch (Exception e) {
-            SwingUtils.showErrorMessage(
-                this,
-                "Error loading invoices: " + e.getMessage(),
-                "Database Error"
-            );
-            e.printStackTrace();
-        }
+        String caseNumber = invoice.getCase() != null ? 
+            invoice.getCase().getCaseNumber() : "Case " + invoice.getCaseId();
+        
+        // Calculate balance
+        BigDecimal balance = invoice.getAmount().subtract(invoice.getAmountPaid());
+        
+        return new Object[] {
+            invoice.getInvoiceNumber(),
+            clientName,
+            caseNumber,
+            invoice.getIssueDate().toString(),
+            invoice.getDueDate().toString(),
+            SwingUtils.formatMoney(invoice.getAmount().doubleValue()),
+            SwingUtils.formatMoney(invoice.getAmountPaid().doubleValue()),
+            SwingUtils.formatMoney(balance.doubleValue()),
+            invoice.getStatus()
+        };
     }
     
     /**
@@ -424,6 +422,21 @@ public class InvoicesPanel extends JPanel {
         }
     }
     
+    /**
+     * Invoice all cases with unbilled time entries
+     */
+    private void runBilling() {
+        BillingRunDialog dialog = new BillingRunDialog(
+            SwingUtilities.getWindowAncestor(this)
+        );
+        dialog.setVisible(true);
+        
+        // Refresh the invoices list if the run created invoices
+        if (dialog.isInvoicesCreated()) {
+            loadInvoices();
+        }
+    }
+    
     /**
      * Edit the selected invoice
      */
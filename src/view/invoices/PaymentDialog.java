@@ -295,13 +295,8 @@ public class PaymentDialog extends JDialog {
      * Populate initial values in the form
      */
     private void populateInitialValues() {
-        // Generate payment ID
-        try {
-            String paymentId = "PMT" + System.currentTimeMillis();
-            paymentIdField.setText(paymentId);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        // The payment ID is assigned when the payment is recorded
+        SwingUtils.showAssignedOnSave(paymentIdField);
     }
     
     /**
@@ -383,7 +378,6 @@ public class PaymentDialog extends JDialog {
         try {
             // Create payment object
             Payment payment = new Payment();
-            payment.setPaymentId(paymentIdField.getText().trim());
             payment.setInvoiceId(invoice.getId());
             payment.setClientId(invoice.getClientId());
             payment.setPaymentDate(paymentDateChooser.getDate());
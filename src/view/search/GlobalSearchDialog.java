@@ -0,0 +1,248 @@
+package view.search;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.List;
+import java.util.function.Consumer;
+
+import controller.SearchController;
+import model.SearchResult;
+import view.util.UIConstants;
+
+/**
+ * Quick-open dialog searching all cases, clients, attorneys, documents,
+ * events and invoices as the user types. Searches run against the
+ * in-memory index on the Event Dispatch Thread, which is fast enough to
+ * update the results on every keystroke.
+ */
+public class GlobalSearchDialog extends JDialog {
+    // Maximum number of results listed
+    private static final int RESULT_LIMIT = 50;
+
+    // How often to check whether the index has finished building, in milliseconds
+    private static final int INDEX_POLL_INTERVAL = 250;
+
+    private final SearchController searchController;
+    private final Consumer<SearchResult> openAction;
+
+    private JTextField queryField;
+    private DefaultListModel<SearchResult> resultsModel;
+    private JList<SearchResult> resultsList;
+    private JLabel statusLabel;
+    private Timer indexPollTimer;
+
+    /**
+     * Constructor
+     *
+     * @param parent The parent window
+     * @param openAction Opens the chosen result after the dialog closes
+     */
+    public GlobalSearchDialog(Window parent, Consumer<SearchResult> openAction) {
+        super(parent, "Search", ModalityType.APPLICATION_MODAL);
+
+        this.searchController = new SearchController();
+        this.openAction = openAction;
+
+        initializeUI();
+
+        searchController.warmUp();
+        if (!searchController.isReady()) {
+            statusLabel.setText("Building search index...");
+            indexPollTimer = new Timer(INDEX_POLL_INTERVAL, e -> {
+                if (searchController.isReady()) {
+                    indexPollTimer.stop();
+                    updateResults();
+                }
+            });
+            indexPollTimer.start();
+        }
+    }
+
+    /**
+     * Initialize the user interface components
+     */
+    private void initializeUI() {
+        setSize(600, 420);
+        setLocationRelativeTo(getParent());
+        setLayout(new BorderLayout());
+
+        JPanel contentPanel = new JPanel(new BorderLayout(0, UIConstants.SMALL_PADDING));
+        contentPanel.setBorder(BorderFactory.createEmptyBorder(
+            UIConstants.STANDARD_PADDING, UIConstants.STANDARD_PADDING,
+            UIConstants.STANDARD_PADDING, UIConstants.STANDARD_PADDING));
+
+        // Query field
+        queryField = new JTextField();
+        queryField.setFont(UIConstants.HEADER_FONT);
+        queryField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                updateResults();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                updateResults();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                updateResults();
+            }
+        });
+        contentPanel.add(queryField, BorderLayout.NORTH);
+
+        // Results list
+        resultsModel = new DefaultListModel<>();
+        resultsList = new JList<>(resultsModel);
+        resultsList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        resultsList.setFocusable(false);
+        resultsList.setCellRenderer(new SearchResultRenderer());
+        resultsList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    openSelected();
+                }
+            }
+        });
+        contentPanel.add(new JScrollPane(resultsList), BorderLayout.CENTER);
+
+        // Status line
+        statusLabel = new JLabel("Search cases, clients, attorneys, documents, events and invoices");
+        statusLabel.setFont(UIConstants.SMALL_FONT);
+        statusLabel.setForeground(UIConstants.INACTIVE_COLOR);
+        contentPanel.add(statusLabel, BorderLayout.SOUTH);
+
+        add(contentPanel, BorderLayout.CENTER);
+
+        // Keyboard navigation while typing
+        InputMap inputMap = queryField.getInputMap(JComponent.WHEN_FOCUSED);
+        ActionMap actionMap = queryField.getActionMap();
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0), "nextResult");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0), "previousResult");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "openResult");
+        actionMap.put("nextResult", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                moveSelection(1);
+            }
+        });
+        actionMap.put("previousResult", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                moveSelection(-1);
+            }
+        });
+        actionMap.put("openResult", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                openSelected();
+            }
+        });
+
+        getRootPane().registerKeyboardAction(
+            e -> dispose(),
+            KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0),
+            JComponent.WHEN_IN_FOCUSED_WINDOW
+        );
+    }
+
+    /**
+     * Run the search for the current query
+     */
+    private void updateResults() {
+        String query = queryField.getText();
+        resultsModel.clear();
+
+        if (query.trim().isEmpty()) {
+            if (searchController.isReady()) {
+                statusLabel.setText("Search cases, clients, attorneys, documents, events and invoices");
+            }
+            return;
+        }
+
+        List<SearchResult> results = searchController.search(query, RESULT_LIMIT);
+        for (SearchResult result : results) {
+            resultsModel.addElement(result);
+        }
+        if (!results.isEmpty()) {
+            resultsList.setSelectedIndex(0);
+        }
+
+        if (!searchController.isReady()) {
+            statusLabel.setText("Building search index...");
+        } else if (results.isEmpty()) {
+            statusLabel.setText("No matches");
+        } else if (results.size() == RESULT_LIMIT) {
+            statusLabel.setText("First " + RESULT_LIMIT + " matches");
+        } else {
+            statusLabel.setText(results.size() + (results.size() == 1 ? " match" : " matches"));
+        }
+    }
+
+    /**
+     * Move the selected result up or down
+     *
+     * @param delta Number of rows to move
+     */
+    private void moveSelection(int delta) {
+        int size = resultsModel.getSize();
+        if (size == 0) {
+            return;
+        }
+
+        int index = Math.max(0, Math.min(size - 1, resultsList.getSelectedIndex() + delta));
+        resultsList.setSelectedIndex(index);
+        resultsList.ensureIndexIsVisible(index);
+    }
+
+    /**
+     * Close the dialog and open the selected result
+     */
+    private void openSelected() {
+        SearchResult selected = resultsList.getSelectedValue();
+        if (selected == null) {
+            return;
+        }
+
+        dispose();
+        openAction.accept(selected);
+    }
+
+    @Override
+    public void dispose() {
+        if (indexPollTimer != null) {
+            indexPollTimer.stop();
+        }
+        super.dispose();
+    }
+
+    /**
+     * Renders a result as its title with the record type and details below
+     */
+    private static class SearchResultRenderer extends DefaultListCellRenderer {
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+
+            if (value instanceof SearchResult) {
+                SearchResult result = (SearchResult) value;
+                String details = result.getType().getDisplayName()
+                        + (result.getSubtitle().isEmpty() ? "" : " - " + result.getSubtitle());
+                setText("<html><b>" + escape(result.getTitle()) + "</b><br>"
+                        + "<span style='font-size:smaller'>" + escape(details) + "</span></html>");
+            }
+            setBorder(BorderFactory.createEmptyBorder(4, 6, 4, 6));
+            return this;
+        }
+
+        private static String escape(String text) {
+            return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+        }
+    }
+}
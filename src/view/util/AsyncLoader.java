@@ -0,0 +1,206 @@
+package view.util;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs the data loads of a panel or dialog on a shared background pool so
+ * database round trips never block the Event Dispatch Thread.
+ * <p>
+ * Each loader handles one stream of requests, such as a panel's table.
+ * Only the newest request delivers a result. If a request arrives while
+ * another is running, the running one becomes stale and its result is
+ * dropped. The new request waits and replaces any request already waiting,
+ * so repeated Refresh clicks cost at most one extra round trip.
+ * <p>
+ * {@link #load} and the callbacks run on the Event Dispatch Thread; only
+ * the query itself runs in the background.
+ */
+public class AsyncLoader {
+
+    /** Number of background threads shared by all loaders */
+    private static final int QUERY_THREADS = 4;
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(QUERY_THREADS,
+            new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ui-query-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    private static final List<ActivityListener> activityListeners = new CopyOnWriteArrayList<>();
+    private static int activeLoads;
+
+    /**
+     * Notified on the Event Dispatch Thread when loads start or finish
+     */
+    public interface ActivityListener {
+
+        /**
+         * Called when the number of running loads changes
+         *
+         * @param activeLoads Number of loads currently running
+         */
+        void activityChanged(int activeLoads);
+    }
+
+    private final Component owner;
+
+    // Read by the worker to skip queries cancelled before they started
+    private volatile int generation;
+    private boolean running;
+    private Runnable waiting;
+
+    /**
+     * Constructor
+     *
+     * @param owner Component showing the data; gets a wait cursor while loading
+     */
+    public AsyncLoader(Component owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Add a listener for application-wide loading activity
+     *
+     * @param listener The listener
+     */
+    public static void addActivityListener(ActivityListener listener) {
+        activityListeners.add(listener);
+    }
+
+    /**
+     * Remove an activity listener
+     *
+     * @param listener The listener
+     */
+    public static void removeActivityListener(ActivityListener listener) {
+        activityListeners.remove(listener);
+    }
+
+    /**
+     * Run a query in the background and show errors in a message dialog
+     *
+     * @param query The query to run
+     * @param onSuccess Receives the result on the Event Dispatch Thread
+     */
+    public <T> void load(Callable<T> query, Consumer<T> onSuccess) {
+        load(query, onSuccess, this::showError);
+    }
+
+    /**
+     * Run a query in the background, superseding any earlier request of
+     * this loader
+     *
+     * @param query The query to run
+     * @param onSuccess Receives the result on the Event Dispatch Thread
+     * @param onError Receives a failure on the Event Dispatch Thread
+     */
+    public <T> void load(Callable<T> query, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        final int requestGeneration = ++generation;
+        Runnable start = () -> submit(requestGeneration, query, onSuccess, onError);
+
+        if (running) {
+            waiting = start;
+        } else {
+            start.run();
+        }
+    }
+
+    /**
+     * Drop the result of the running request and forget any waiting one
+     */
+    public void cancel() {
+        generation++;
+        waiting = null;
+    }
+
+    /**
+     * Check whether a request of this loader is running
+     *
+     * @return true while loading
+     */
+    public boolean isLoading() {
+        return running;
+    }
+
+    private <T> void submit(int requestGeneration, Callable<T> query,
+                            Consumer<T> onSuccess, Consumer<Exception> onError) {
+        running = true;
+        setBusy(true);
+
+        EXECUTOR.execute(() -> {
+            T result = null;
+            Exception error = null;
+
+            if (requestGeneration == generation) {
+                try {
+                    result = query.call();
+                } catch (Exception e) {
+                    error = e;
+                }
+            }
+
+            final T loaded = result;
+            final Exception failure = error;
+            SwingUtilities.invokeLater(() -> finished(requestGeneration, loaded, failure, onSuccess, onError));
+        });
+    }
+
+    private <T> void finished(int requestGeneration, T result, Exception error,
+                              Consumer<T> onSuccess, Consumer<Exception> onError) {
+        running = false;
+        setBusy(false);
+
+        if (requestGeneration == generation) {
+            if (error != null) {
+                onError.accept(error);
+            } else {
+                try {
+                    onSuccess.accept(result);
+                } catch (RuntimeException e) {
+                    onError.accept(e);
+                }
+            }
+        }
+
+        if (waiting != null) {
+            Runnable next = waiting;
+            waiting = null;
+            next.run();
+        }
+    }
+
+    private void setBusy(boolean busy) {
+        if (owner != null) {
+            owner.setCursor(busy ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+        }
+
+        activeLoads += busy ? 1 : -1;
+        for (ActivityListener listener : activityListeners) {
+            listener.activityChanged(activeLoads);
+        }
+    }
+
+    private void showError(Exception e) {
+        e.printStackTrace();
+        SwingUtils.showErrorMessage(
+            owner,
+            "Error loading data: " + e.getMessage(),
+            "Database Error"
+        );
+    }
+}
@@ -138,6 +138,19 @@ public class SwingUtils {
         return panel;
     }
     
+    /**
+     * Show in a number field that a new record is numbered when it is
+     * saved. Numbers come from a shared sequence, so taking one when the
+     * dialog opens would waste it whenever the dialog is cancelled.
+     * 
+     * @param field The record's number field
+     */
+    public static void showAssignedOnSave(JTextField field) {
+        field.setText("Assigned when saved");
+        field.setEditable(false);
+        field.setForeground(UIConstants.INACTIVE_COLOR);
+    }
+    
     /**
      * Format a date for display
      * 